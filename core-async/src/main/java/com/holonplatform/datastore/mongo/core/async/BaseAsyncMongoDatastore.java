@@ -15,6 +15,8 @@
  */
 package com.holonplatform.datastore.mongo.core.async;
 
+import java.util.concurrent.TimeUnit;
+
 import com.holonplatform.core.datastore.DatastoreCommodity;
 import com.holonplatform.core.datastore.DatastoreCommodityRegistrar;
 import com.holonplatform.core.datastore.DatastoreOperations;
@@ -53,6 +55,26 @@ public interface BaseAsyncMongoDatastore
 		 */
 		B client(MongoClient client);
 
+		/**
+		 * Enable the write coalescing of the single document insertions.
+		 * <p>
+		 * When enabled, the documents inserted using the <code>insert</code> operation outside of a transaction are
+		 * buffered for each target collection and written using a single unordered <code>insertMany</code> command,
+		 * as soon as the buffer reaches given maximum batch size or the given time window elapses. Each insert
+		 * operation is still completed individually, with its own operation result and inserted key.
+		 * </p>
+		 * <p>
+		 * The datastore implementations are {@link AutoCloseable}: closing the datastore writes any pending document
+		 * and stops the buffering scheduler.
+		 * </p>
+		 * @param maxBatchSize The maximum number of documents of each batch (must be greater than 0)
+		 * @param window The maximum time a document can be buffered (must be greater than 0)
+		 * @param unit The time window unit (not null)
+		 * @return this
+		 * @since 6.0.1
+		 */
+		B insertCoalescing(int maxBatchSize, long window, TimeUnit unit);
+
 		/**
 		 * Register a {@link AsyncMongoDatastoreCommodityFactory}.
 		 * @param <C> Commodity type
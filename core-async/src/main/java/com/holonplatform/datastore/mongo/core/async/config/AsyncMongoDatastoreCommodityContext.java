@@ -15,6 +15,8 @@
  */
 package com.holonplatform.datastore.mongo.core.async.config;
 
+import java.util.Optional;
+
 import com.holonplatform.core.datastore.DatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.config.MongoDatastoreCommodityContext;
 import com.mongodb.reactivestreams.client.ClientSession;
@@ -35,4 +37,11 @@ public interface AsyncMongoDatastoreCommodityContext
 	 */
 	MongoClient getClient();
 
+	/**
+	 * Get the {@link InsertCoalescer} to use for the single document insertions, if write coalescing is enabled.
+	 * @return Optional insert coalescer
+	 * @since 6.0.1
+	 */
+	Optional<InsertCoalescer> getInsertCoalescer();
+
 }
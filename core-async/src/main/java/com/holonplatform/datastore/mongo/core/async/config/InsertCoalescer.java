@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.async.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+
+import com.holonplatform.datastore.mongo.core.async.internal.DefaultInsertCoalescer;
+import com.mongodb.reactivestreams.client.MongoCollection;
+
+/**
+ * Coalesces single document insertions into batches, which are written using a single unordered
+ * <code>insertMany</code> command.
+ * <p>
+ * The documents are buffered for each target collection namespace, codec registry, write concern and document
+ * validation mode, until the buffer reaches the maximum batch size or the buffering time window elapses, whichever
+ * happens first.
+ * </p>
+ * <p>
+ * An insertion whose future is cancelled before its batch is written is discarded. Once the batch is written, the
+ * cancellation has no effect on the insertion.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface InsertCoalescer extends AutoCloseable {
+
+	/**
+	 * Get the maximum number of documents of each batch.
+	 * @return The maximum batch size
+	 */
+	int getMaxBatchSize();
+
+	/**
+	 * Get the maximum time a document can be buffered before the batch is written, in milliseconds.
+	 * @return The buffering time window in milliseconds
+	 */
+	long getWindow();
+
+	/**
+	 * Buffer given document for insertion into given collection.
+	 * <p>
+	 * If the document has no <code>_id</code> field, a new {@link org.bson.types.ObjectId} is assigned to it.
+	 * </p>
+	 * @param collection The collection into which to insert the document (not null)
+	 * @param document The document to insert (not null)
+	 * @param bypassDocumentValidation Whether to bypass the document validation
+	 * @return A future which is completed when the document has been inserted, or completed exceptionally with the
+	 *         document insertion error
+	 */
+	CompletableFuture<Void> insert(MongoCollection<Document> collection, Document document,
+			boolean bypassDocumentValidation);
+
+	/**
+	 * Close this coalescer, writing any pending document and releasing the buffering time windows scheduler.
+	 * <p>
+	 * Any further insertion is completed exceptionally with an {@link IllegalStateException}.
+	 * </p>
+	 */
+	@Override
+	void close();
+
+	/**
+	 * Create a new {@link InsertCoalescer}.
+	 * @param maxBatchSize The maximum number of documents of each batch (must be greater than 0)
+	 * @param window The maximum time a document can be buffered (must be greater than 0)
+	 * @param unit The time window unit (not null)
+	 * @return A new {@link InsertCoalescer}
+	 */
+	static InsertCoalescer create(int maxBatchSize, long window, TimeUnit unit) {
+		return new DefaultInsertCoalescer(maxBatchSize, window, unit);
+	}
+
+}
@@ -16,6 +16,7 @@
 package com.holonplatform.datastore.mongo.core.async.internal;
 
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.codecs.configuration.CodecRegistry;
@@ -28,6 +29,7 @@ import com.holonplatform.datastore.mongo.core.MongoDatabaseOperation;
 import com.holonplatform.datastore.mongo.core.async.BaseAsyncMongoDatastore;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityFactory;
+import com.holonplatform.datastore.mongo.core.async.config.InsertCoalescer;
 import com.holonplatform.datastore.mongo.core.internal.datastore.AbstractMongoDatastore;
 import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
 import com.holonplatform.datastore.mongo.core.tx.MongoTransaction;
@@ -38,6 +40,10 @@ import com.mongodb.reactivestreams.client.MongoDatabase;
 
 /**
  * Abstract asynchronous MongoDB Datastore implementation.
+ * <p>
+ * The datastore is {@link AutoCloseable}: closing it releases the resources bound to the datastore, such as the insert
+ * coalescing scheduler, but not the {@link MongoClient}, which is managed by the caller.
+ * </p>
  * 
  * @param <TX> Concrete transaction type
  *
@@ -45,7 +51,7 @@ import com.mongodb.reactivestreams.client.MongoDatabase;
  */
 public abstract class AbstractAsyncMongoDatastore<TX extends MongoTransaction<ClientSession>>
 		extends AbstractMongoDatastore<AsyncMongoDatastoreCommodityContext, ClientSession, TX, MongoDatabase>
-		implements AsyncMongoDatastoreCommodityContext {
+		implements AsyncMongoDatastoreCommodityContext, AutoCloseable {
 
 	private static final long serialVersionUID = -5535246252629690073L;
 
@@ -54,6 +60,11 @@ public abstract class AbstractAsyncMongoDatastore<TX extends MongoTransaction<Cl
 	 */
 	private MongoClient client;
 
+	/**
+	 * Insert coalescer
+	 */
+	private transient InsertCoalescer insertCoalescer;
+
 	public AbstractAsyncMongoDatastore(MongoTransactionFactory<ClientSession, TX> transactionFactory) {
 		super(AsyncMongoDatastoreCommodityFactory.class, transactionFactory);
 
@@ -91,7 +102,7 @@ public abstract class AbstractAsyncMongoDatastore<TX extends MongoTransaction<Cl
 	 */
 	@Override
 	public CodecRegistry getDatabaseCodecRegistry() {
-		return checkClient().getDatabase(checkDatabaseName()).getCodecRegistry();
+		return getConfiguredDatabase().getCodecRegistry();
 	}
 
 	/*
@@ -109,6 +120,7 @@ public abstract class AbstractAsyncMongoDatastore<TX extends MongoTransaction<Cl
 	 */
 	public void setClient(MongoClient client) {
 		this.client = client;
+		resetConfiguredDatabase();
 	}
 
 	/*
@@ -120,6 +132,38 @@ public abstract class AbstractAsyncMongoDatastore<TX extends MongoTransaction<Cl
 		return client;
 	}
 
+	/**
+	 * Set the {@link InsertCoalescer} to use for the single document insertions.
+	 * @param insertCoalescer the insert coalescer to set, <code>null</code> to disable write coalescing
+	 */
+	public void setInsertCoalescer(InsertCoalescer insertCoalescer) {
+		final InsertCoalescer previous = this.insertCoalescer;
+		this.insertCoalescer = insertCoalescer;
+		if (previous != null && previous != insertCoalescer) {
+			previous.close();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext#getInsertCoalescer()
+	 */
+	@Override
+	public Optional<InsertCoalescer> getInsertCoalescer() {
+		return Optional.ofNullable(insertCoalescer);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		if (insertCoalescer != null) {
+			insertCoalescer.close();
+		}
+	}
+
 	/**
 	 * Check the client is available and returns it.
 	 * <p>
@@ -146,6 +190,16 @@ public abstract class AbstractAsyncMongoDatastore<TX extends MongoTransaction<Cl
 				.orElse(database);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.datastore.AbstractMongoDatastore#configureDatabase()
+	 */
+	@Override
+	protected ConfiguredDatabase<MongoDatabase> configureDatabase() {
+		final MongoDatabase database = checkClient().getDatabase(checkDatabaseName());
+		return new ConfiguredDatabase<>(checkAdditionalCodecs(database), database.getCodecRegistry());
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see
@@ -157,7 +211,7 @@ public abstract class AbstractAsyncMongoDatastore<TX extends MongoTransaction<Cl
 		ObjectUtils.argumentNotNull(operation, "Operation must be not null");
 
 		// get and configure the database
-		final MongoDatabase database = checkAdditionalCodecs(checkClient().getDatabase(checkDatabaseName()));
+		final MongoDatabase database = getConfiguredDatabase().getDatabase();
 
 		try {
 			return operation.execute(database);
@@ -187,6 +241,17 @@ public abstract class AbstractAsyncMongoDatastore<TX extends MongoTransaction<Cl
 			return getActualBuilder();
 		}
 
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.datastore.mongo.core.async.BaseAsyncMongoDatastore.Builder#insertCoalescing(int, long,
+		 * java.util.concurrent.TimeUnit)
+		 */
+		@Override
+		public B insertCoalescing(int maxBatchSize, long window, TimeUnit unit) {
+			getDatastore().setInsertCoalescer(InsertCoalescer.create(maxBatchSize, window, unit));
+			return getActualBuilder();
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * @see
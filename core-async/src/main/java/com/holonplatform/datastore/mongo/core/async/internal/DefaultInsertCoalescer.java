@@ -0,0 +1,403 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.async.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.ObjectId;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.datastore.mongo.core.async.config.InsertCoalescer;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.MongoWriteException;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.reactivestreams.client.MongoCollection;
+
+/**
+ * Default {@link InsertCoalescer} implementation.
+ * <p>
+ * The buffering time windows are handled by a single daemon thread, which is created when a document is buffered and
+ * terminates when no document has been buffered for a while. Each buffer is discarded as soon as it is drained, so
+ * that no collection handle is retained while no insertion is pending.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class DefaultInsertCoalescer implements InsertCoalescer {
+
+	private final int maxBatchSize;
+	private final long window;
+
+	/**
+	 * Time after which the idle scheduler thread terminates, in addition to the time window
+	 */
+	private static final long SCHEDULER_KEEP_ALIVE = 60000L;
+
+	private final ConcurrentMap<BufferKey, Buffer> buffers = new ConcurrentHashMap<>();
+
+	private volatile ScheduledThreadPoolExecutor scheduler;
+
+	private volatile boolean closed = false;
+
+	/**
+	 * Constructor.
+	 * @param maxBatchSize The maximum number of documents of each batch (must be greater than 0)
+	 * @param window The maximum time a document can be buffered (must be greater than 0)
+	 * @param unit The time window unit (not null)
+	 */
+	public DefaultInsertCoalescer(int maxBatchSize, long window, TimeUnit unit) {
+		super();
+		ObjectUtils.argumentNotNull(unit, "Time unit must be not null");
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("The maximum batch size must be greater than 0");
+		}
+		if (window < 1) {
+			throw new IllegalArgumentException("The time window must be greater than 0");
+		}
+		this.maxBatchSize = maxBatchSize;
+		this.window = Math.max(1L, unit.toMillis(window));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.async.config.InsertCoalescer#getMaxBatchSize()
+	 */
+	@Override
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.async.config.InsertCoalescer#getWindow()
+	 */
+	@Override
+	public long getWindow() {
+		return window;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.async.config.InsertCoalescer#insert(com.mongodb.reactivestreams.
+	 * client.MongoCollection, org.bson.Document, boolean)
+	 */
+	@Override
+	public CompletableFuture<Void> insert(MongoCollection<Document> collection, Document document,
+			boolean bypassDocumentValidation) {
+		ObjectUtils.argumentNotNull(collection, "Collection must be not null");
+		ObjectUtils.argumentNotNull(document, "Document must be not null");
+		if (!document.containsKey(MongoDocumentContext.ID_FIELD_NAME)) {
+			document.put(MongoDocumentContext.ID_FIELD_NAME, new ObjectId());
+		}
+		final PendingInsert pending = new PendingInsert(document);
+		if (closed) {
+			pending.future.completeExceptionally(new IllegalStateException("The insert coalescer is closed"));
+			return pending.future;
+		}
+		final BufferKey key = new BufferKey(collection, bypassDocumentValidation);
+		List<PendingInsert> batch;
+		do {
+			batch = buffers.computeIfAbsent(key, k -> new Buffer(k)).add(pending);
+		} while (batch == null);
+		if (!batch.isEmpty()) {
+			write(key, batch);
+		}
+		return pending.future;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.async.config.InsertCoalescer#close()
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		buffers.values().forEach(buffer -> flush(buffer));
+		final ScheduledThreadPoolExecutor s;
+		synchronized (this) {
+			s = scheduler;
+			scheduler = null;
+		}
+		if (s != null) {
+			s.shutdown();
+		}
+	}
+
+	/**
+	 * Write the pending documents of given buffer, if any.
+	 * @param buffer The buffer to flush
+	 */
+	private void flush(Buffer buffer) {
+		final List<PendingInsert> batch = buffer.drain();
+		if (!batch.isEmpty()) {
+			write(buffer.key, batch);
+		}
+	}
+
+	/**
+	 * Write given batch using an unordered <code>insertMany</code>, completing each pending insertion future.
+	 * <p>
+	 * The pending insertions whose future was cancelled before the batch is written are discarded.
+	 * </p>
+	 * @param key The buffer key
+	 * @param pendings The pending insertions
+	 */
+	private static void write(BufferKey key, List<PendingInsert> pendings) {
+		final List<PendingInsert> batch = new ArrayList<>(pendings.size());
+		final List<Document> documents = new ArrayList<>(pendings.size());
+		for (PendingInsert pending : pendings) {
+			if (!pending.future.isCancelled()) {
+				batch.add(pending);
+				documents.add(pending.document);
+			}
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+		final InsertManyOptions options = new InsertManyOptions().ordered(false)
+				.bypassDocumentValidation(key.bypassDocumentValidation);
+		try {
+			key.collection.insertMany(documents, options).subscribe(new Subscriber<InsertManyResult>() {
+
+				@Override
+				public void onSubscribe(Subscription subscription) {
+					subscription.request(1);
+				}
+
+				@Override
+				public void onNext(InsertManyResult result) {
+					// noop
+				}
+
+				@Override
+				public void onError(Throwable error) {
+					completed(batch, error);
+				}
+
+				@Override
+				public void onComplete() {
+					completed(batch, null);
+				}
+
+			});
+		} catch (RuntimeException e) {
+			completed(batch, e);
+		}
+	}
+
+	/**
+	 * Complete the futures of given batch.
+	 * @param batch The pending insertions
+	 * @param error The batch error, <code>null</code> if none
+	 */
+	private static void completed(List<PendingInsert> batch, Throwable error) {
+		if (error == null) {
+			batch.forEach(pending -> pending.future.complete(null));
+		} else if (error instanceof MongoBulkWriteException) {
+			// fail only the documents with a write error
+			final MongoBulkWriteException bwe = (MongoBulkWriteException) error;
+			final Map<Integer, BulkWriteError> errors = new HashMap<>();
+			bwe.getWriteErrors().forEach(e -> errors.put(e.getIndex(), e));
+			for (int i = 0; i < batch.size(); i++) {
+				final BulkWriteError writeError = errors.get(i);
+				if (writeError != null) {
+					batch.get(i).future.completeExceptionally(
+							new MongoWriteException(writeError, bwe.getServerAddress(), bwe.getErrorLabels()));
+				} else if (bwe.getWriteConcernError() != null) {
+					batch.get(i).future.completeExceptionally(bwe);
+				} else {
+					batch.get(i).future.complete(null);
+				}
+			}
+		} else {
+			batch.forEach(pending -> pending.future.completeExceptionally(error));
+		}
+	}
+
+	/**
+	 * Get the scheduler to use to flush the buffers when the time window elapses, creating it if required.
+	 * @return The scheduler
+	 * @throws RejectedExecutionException If the coalescer is closed
+	 */
+	private ScheduledThreadPoolExecutor getScheduler() {
+		ScheduledThreadPoolExecutor s = scheduler;
+		if (s == null) {
+			synchronized (this) {
+				if (closed) {
+					throw new RejectedExecutionException("The insert coalescer is closed");
+				}
+				s = scheduler;
+				if (s == null) {
+					s = new ScheduledThreadPoolExecutor(1, runnable -> {
+						final Thread thread = new Thread(runnable, "mongo-insert-coalescer");
+						thread.setDaemon(true);
+						return thread;
+					});
+					// the keep alive time must exceed the time window, so that a scheduled flush is never left
+					// without a thread
+					s.setKeepAliveTime(window + SCHEDULER_KEEP_ALIVE, TimeUnit.MILLISECONDS);
+					s.allowCoreThreadTimeOut(true);
+					s.setRemoveOnCancelPolicy(true);
+					scheduler = s;
+				}
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * A document waiting to be inserted.
+	 */
+	private static final class PendingInsert {
+
+		final Document document;
+		final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		PendingInsert(Document document) {
+			super();
+			this.document = document;
+		}
+
+	}
+
+	/**
+	 * The pending documents of a target collection. A buffer is used for a single batch: once drained, it is removed
+	 * from the buffers map and does not accept any further insertion.
+	 */
+	private final class Buffer {
+
+		final BufferKey key;
+
+		private List<PendingInsert> pending = new ArrayList<>();
+		private ScheduledFuture<?> timer;
+		private boolean drained = false;
+
+		Buffer(BufferKey key) {
+			super();
+			this.key = key;
+		}
+
+		/**
+		 * Add a pending insertion.
+		 * @param insert The pending insertion
+		 * @return The batch to write if the buffer is full, an empty list if the insertion was buffered, or
+		 *         <code>null</code> if this buffer was already drained and a new one must be used
+		 */
+		synchronized List<PendingInsert> add(PendingInsert insert) {
+			if (drained) {
+				return null;
+			}
+			pending.add(insert);
+			if (pending.size() >= maxBatchSize) {
+				return drain();
+			}
+			if (timer == null) {
+				try {
+					timer = getScheduler().schedule(() -> flush(this), window, TimeUnit.MILLISECONDS);
+				} catch (RejectedExecutionException e) {
+					// closed: write immediately
+					return drain();
+				}
+			}
+			return Collections.emptyList();
+		}
+
+		/**
+		 * Remove all the pending insertions and discard this buffer.
+		 * @return The batch to write, an empty list if none
+		 */
+		synchronized List<PendingInsert> drain() {
+			if (drained) {
+				return Collections.emptyList();
+			}
+			drained = true;
+			buffers.remove(key, this);
+			if (timer != null) {
+				timer.cancel(false);
+				timer = null;
+			}
+			final List<PendingInsert> batch = pending;
+			pending = Collections.emptyList();
+			return batch;
+		}
+
+	}
+
+	/**
+	 * Buffer key, which identifies a collection namespace, codec registry, write concern and document validation mode.
+	 * The collection handle of the first buffered document is used to write the batch.
+	 */
+	private static final class BufferKey {
+
+		final MongoCollection<Document> collection;
+		final MongoNamespace namespace;
+		final CodecRegistry codecRegistry;
+		final WriteConcern writeConcern;
+		final boolean bypassDocumentValidation;
+
+		BufferKey(MongoCollection<Document> collection, boolean bypassDocumentValidation) {
+			super();
+			this.collection = collection;
+			this.namespace = collection.getNamespace();
+			this.codecRegistry = collection.getCodecRegistry();
+			this.writeConcern = collection.getWriteConcern();
+			this.bypassDocumentValidation = bypassDocumentValidation;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(namespace, System.identityHashCode(codecRegistry), writeConcern,
+					bypassDocumentValidation);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof BufferKey)) {
+				return false;
+			}
+			final BufferKey other = (BufferKey) obj;
+			return namespace.equals(other.namespace) && codecRegistry == other.codecRegistry
+					&& Objects.equals(writeConcern, other.writeConcern)
+					&& bypassDocumentValidation == other.bypassDocumentValidation;
+		}
+
+	}
+
+}
@@ -60,6 +60,16 @@ public interface AsyncOperationContext<C extends MongoContext<ClientSession>> {
 	 */
 	Optional<Bson> getFilter();
 
+	/**
+	 * Notify the context that a write operation on the operation collection was completed, either successfully or
+	 * not.
+	 * @see MongoContext#afterCollectionWrite(String)
+	 * @since 6.0.1
+	 */
+	default void afterCollectionWrite() {
+		getContext().afterCollectionWrite(getCollection().getNamespace().getCollectionName());
+	}
+
 	/**
 	 * Trace given JSON expression.
 	 * <p>
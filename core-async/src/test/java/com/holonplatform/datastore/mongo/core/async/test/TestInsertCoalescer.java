@@ -0,0 +1,270 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.async.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import com.holonplatform.datastore.mongo.core.async.config.InsertCoalescer;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoNamespace;
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.WriteConcernError;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.reactivestreams.client.MongoCollection;
+
+public class TestInsertCoalescer {
+
+	private static final MongoNamespace NAMESPACE = new MongoNamespace("test", "test");
+
+	@Test
+	public void testSizeFlush() {
+		final CollectionStub stub = new CollectionStub(MongoClientSettings.getDefaultCodecRegistry());
+		final InsertCoalescer coalescer = InsertCoalescer.create(3, 1, TimeUnit.HOURS);
+		try {
+			final CompletableFuture<Void> f1 = coalescer.insert(stub.collection, new Document("n", 1), false);
+			final CompletableFuture<Void> f2 = coalescer.insert(stub.collection, new Document("n", 2), false);
+			assertTrue(stub.batches.isEmpty());
+			assertFalse(f1.isDone());
+
+			final CompletableFuture<Void> f3 = coalescer.insert(stub.collection, new Document("n", 3), false);
+			assertEquals(1, stub.batches.size());
+			assertEquals(3, stub.batches.get(0).size());
+			assertTrue(stub.batches.get(0).get(0).containsKey("_id"));
+			assertTrue(f1.isDone() && f2.isDone() && f3.isDone());
+			assertFalse(f1.isCompletedExceptionally());
+
+			// a new buffer is used after the flush
+			coalescer.insert(stub.collection, new Document("n", 4), false);
+			assertEquals(1, stub.batches.size());
+		} finally {
+			coalescer.close();
+		}
+		assertEquals(2, stub.batches.size());
+	}
+
+	@Test
+	public void testWindowFlush() throws InterruptedException, ExecutionException {
+		final CollectionStub stub = new CollectionStub(MongoClientSettings.getDefaultCodecRegistry());
+		final InsertCoalescer coalescer = InsertCoalescer.create(100, 50, TimeUnit.MILLISECONDS);
+		try {
+			final CompletableFuture<Void> f1 = coalescer.insert(stub.collection, new Document("n", 1), false);
+			final CompletableFuture<Void> f2 = coalescer.insert(stub.collection, new Document("n", 2), false);
+			CompletableFuture.allOf(f1, f2).get();
+			assertEquals(1, stub.batches.size());
+			assertEquals(2, stub.batches.get(0).size());
+
+			// next window
+			coalescer.insert(stub.collection, new Document("n", 3), false).get();
+			assertEquals(2, stub.batches.size());
+		} finally {
+			coalescer.close();
+		}
+	}
+
+	@Test
+	public void testBufferKey() {
+		final CollectionStub stub1 = new CollectionStub(MongoClientSettings.getDefaultCodecRegistry());
+		final CollectionStub stub2 = new CollectionStub(
+				CodecRegistries.fromRegistries(MongoClientSettings.getDefaultCodecRegistry()));
+		final InsertCoalescer coalescer = InsertCoalescer.create(2, 1, TimeUnit.HOURS);
+		try {
+			coalescer.insert(stub1.collection, new Document("n", 1), false);
+			coalescer.insert(stub2.collection, new Document("n", 2), false);
+			coalescer.insert(stub1.collection, new Document("n", 3), true);
+			assertTrue(stub1.batches.isEmpty());
+			assertTrue(stub2.batches.isEmpty());
+
+			coalescer.insert(stub1.collection, new Document("n", 4), false);
+			assertEquals(1, stub1.batches.size());
+			assertEquals(Arrays.asList(1, 4), Arrays.asList(stub1.batches.get(0).get(0).get("n"),
+					stub1.batches.get(0).get(1).get("n")));
+			assertTrue(stub2.batches.isEmpty());
+		} finally {
+			coalescer.close();
+		}
+		assertEquals(1, stub2.batches.size());
+		assertEquals(2, stub1.batches.size());
+	}
+
+	@Test
+	public void testWriteErrors() {
+		final BulkWriteError writeError = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1);
+		final MongoBulkWriteException bwe = new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+				Collections.singletonList(writeError), null, new ServerAddress(), Collections.emptySet());
+
+		final CollectionStub stub = new CollectionStub(MongoClientSettings.getDefaultCodecRegistry(), b -> bwe);
+		final InsertCoalescer coalescer = InsertCoalescer.create(3, 1, TimeUnit.HOURS);
+		try {
+			final CompletableFuture<Void> f1 = coalescer.insert(stub.collection, new Document("n", 1), false);
+			final CompletableFuture<Void> f2 = coalescer.insert(stub.collection, new Document("n", 2), false);
+			final CompletableFuture<Void> f3 = coalescer.insert(stub.collection, new Document("n", 3), false);
+			assertFalse(f1.isCompletedExceptionally());
+			assertFalse(f3.isCompletedExceptionally());
+			final ExecutionException e = assertThrows(ExecutionException.class, () -> f2.get());
+			assertTrue(e.getCause() instanceof MongoWriteException);
+			assertEquals(11000, ((MongoWriteException) e.getCause()).getCode());
+		} finally {
+			coalescer.close();
+		}
+	}
+
+	@Test
+	public void testWriteConcernError() {
+		final MongoBulkWriteException bwe = new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+				Collections.emptyList(), new WriteConcernError(64, "WriteConcernFailed", "failed", new BsonDocument()),
+				new ServerAddress(), Collections.emptySet());
+		final CollectionStub stub = new CollectionStub(MongoClientSettings.getDefaultCodecRegistry(), b -> bwe);
+		final InsertCoalescer coalescer = InsertCoalescer.create(2, 1, TimeUnit.HOURS);
+		try {
+			final CompletableFuture<Void> f1 = coalescer.insert(stub.collection, new Document("n", 1), false);
+			final CompletableFuture<Void> f2 = coalescer.insert(stub.collection, new Document("n", 2), false);
+			assertSame(bwe, assertThrows(ExecutionException.class, () -> f1.get()).getCause());
+			assertSame(bwe, assertThrows(ExecutionException.class, () -> f2.get()).getCause());
+		} finally {
+			coalescer.close();
+		}
+	}
+
+	@Test
+	public void testError() {
+		final IllegalStateException error = new IllegalStateException("test");
+		final CollectionStub stub = new CollectionStub(MongoClientSettings.getDefaultCodecRegistry(), b -> error);
+		final InsertCoalescer coalescer = InsertCoalescer.create(2, 1, TimeUnit.HOURS);
+		try {
+			final CompletableFuture<Void> f1 = coalescer.insert(stub.collection, new Document("n", 1), false);
+			final CompletableFuture<Void> f2 = coalescer.insert(stub.collection, new Document("n", 2), false);
+			assertSame(error, assertThrows(ExecutionException.class, () -> f1.get()).getCause());
+			assertSame(error, assertThrows(ExecutionException.class, () -> f2.get()).getCause());
+		} finally {
+			coalescer.close();
+		}
+	}
+
+	@Test
+	public void testCancelAndClose() {
+		final CollectionStub stub = new CollectionStub(MongoClientSettings.getDefaultCodecRegistry());
+		final InsertCoalescer coalescer = InsertCoalescer.create(10, 1, TimeUnit.HOURS);
+
+		final CompletableFuture<Void> f1 = coalescer.insert(stub.collection, new Document("n", 1), false);
+		final CompletableFuture<Void> f2 = coalescer.insert(stub.collection, new Document("n", 2), false);
+		f1.cancel(false);
+
+		// pending documents are written when closed
+		coalescer.close();
+		assertEquals(1, stub.batches.size());
+		assertEquals(1, stub.batches.get(0).size());
+		assertEquals(2, stub.batches.get(0).get(0).get("n"));
+		assertTrue(f2.isDone());
+		assertFalse(f2.isCompletedExceptionally());
+
+		final CompletableFuture<Void> f3 = coalescer.insert(stub.collection, new Document("n", 3), false);
+		assertTrue(assertThrows(ExecutionException.class, () -> f3.get()).getCause() instanceof IllegalStateException);
+		assertEquals(1, stub.batches.size());
+	}
+
+	/**
+	 * A {@link MongoCollection} stub which records the <code>insertMany</code> batches.
+	 */
+	private static final class CollectionStub {
+
+		final List<List<Document>> batches = new CopyOnWriteArrayList<>();
+		final MongoCollection<Document> collection;
+
+		CollectionStub(CodecRegistry codecRegistry) {
+			this(codecRegistry, batch -> null);
+		}
+
+		@SuppressWarnings("unchecked")
+		CollectionStub(CodecRegistry codecRegistry, Function<List<Document>, Throwable> outcome) {
+			super();
+			this.collection = (MongoCollection<Document>) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { MongoCollection.class }, (proxy, method, args) -> {
+						switch (method.getName()) {
+						case "getNamespace":
+							return NAMESPACE;
+						case "getCodecRegistry":
+							return codecRegistry;
+						case "getWriteConcern":
+							return WriteConcern.ACKNOWLEDGED;
+						case "insertMany":
+							final List<Document> batch = (List<Document>) args[0];
+							return insertMany(batch, outcome.apply(batch));
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						case "equals":
+							return proxy == args[0];
+						default:
+							throw new UnsupportedOperationException(method.getName());
+						}
+					});
+		}
+
+		private Publisher<InsertManyResult> insertMany(List<Document> batch, Throwable error) {
+			return subscriber -> subscriber.onSubscribe(new Subscription() {
+
+				private boolean done = false;
+
+				@Override
+				public void request(long n) {
+					if (!done) {
+						done = true;
+						batches.add(batch);
+						if (error != null) {
+							subscriber.onError(error);
+						} else {
+							subscriber.onComplete();
+						}
+					}
+				}
+
+				@Override
+				public void cancel() {
+					done = true;
+				}
+
+			});
+		}
+
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.query.QuerySort;
+import com.holonplatform.datastore.mongo.core.internal.DefaultContinuationToken;
+
+/**
+ * A keyset pagination continuation token, which holds the sort values and the document id of the last row of a query
+ * results page.
+ * <p>
+ * When a continuation token is provided to a query using the {@link ReadOperationConfiguration#QUERY_CONTINUATION}
+ * parameter, the query sort values are translated into an equivalent range filter, so that the next results page is
+ * obtained without skipping the previous rows and each page costs the same. The document id is used as a tie-breaker,
+ * so the query results are always sorted by the document id after the query sort paths.
+ * </p>
+ * <p>
+ * Only path based query sorts are supported and the same sort must be used for each page. The query offset cannot be
+ * used along with a continuation token: use {@link #first()} to obtain the first results page.
+ * </p>
+ * <p>
+ * The query results do not carry the continuation token of the next page, since the query operations return plain
+ * results streams and lists: the token must be obtained from each results page using {@link #next(List, QuerySort)}
+ * (or {@link #of(PropertyBox, QuerySort)} with the last row of the page), providing the same sort used by the query.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface ContinuationToken extends Serializable {
+
+	/**
+	 * Get the sort values of the last row, using the sort path names as keys, in the same order of the query sort.
+	 * @return The sort values, empty for the first page token
+	 */
+	Map<String, Object> getValues();
+
+	/**
+	 * Get the document id of the last row.
+	 * @return Optional document id
+	 */
+	Optional<Object> getDocumentId();
+
+	/**
+	 * Get whether this token represents the first results page.
+	 * @return <code>true</code> if this is the first page token
+	 */
+	default boolean isFirst() {
+		return getValues().isEmpty() && !getDocumentId().isPresent();
+	}
+
+	/**
+	 * Encode this token as an URL safe String, which can be decoded using {@link #decode(String)}.
+	 * @return The encoded token
+	 * @throws IllegalStateException If a token value cannot be encoded
+	 */
+	String encode();
+
+	/**
+	 * Get the continuation token which represents the first results page.
+	 * @return The first page token
+	 */
+	static ContinuationToken first() {
+		return DefaultContinuationToken.FIRST;
+	}
+
+	/**
+	 * Create a continuation token using the given last row of a results page.
+	 * @param lastRow The last row of the page (not null)
+	 * @param sort The query sort, <code>null</code> to sort only by document id
+	 * @return A new continuation token
+	 * @throws IllegalArgumentException If the query sort is not path based or the last row does not contain a sort
+	 *         path
+	 */
+	static ContinuationToken of(PropertyBox lastRow, QuerySort sort) {
+		return DefaultContinuationToken.of(lastRow, sort);
+	}
+
+	/**
+	 * Create the continuation token to obtain the results page which follows given page.
+	 * @param page The results page (not null)
+	 * @param sort The query sort, <code>null</code> to sort only by document id
+	 * @return The continuation token, empty if the page is empty
+	 */
+	static Optional<ContinuationToken> next(List<PropertyBox> page, QuerySort sort) {
+		return page.isEmpty() ? Optional.empty() : Optional.of(of(page.get(page.size() - 1), sort));
+	}
+
+	/**
+	 * Decode a continuation token encoded using {@link #encode()}.
+	 * @param token The encoded token (not null)
+	 * @return The decoded continuation token
+	 * @throws IllegalArgumentException If given token is not valid
+	 */
+	static ContinuationToken decode(String token) {
+		return DefaultContinuationToken.decode(token);
+	}
+
+}
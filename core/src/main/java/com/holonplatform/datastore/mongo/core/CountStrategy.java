@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Optional;
+
+import com.holonplatform.datastore.mongo.core.internal.DefaultCountStrategy;
+
+/**
+ * The strategy to use to perform a query <em>count</em> operation, which can be provided to a query using the
+ * {@link ReadOperationConfiguration#QUERY_COUNT_STRATEGY} parameter.
+ * <p>
+ * By default, the documents which match the query filter are always counted using the <code>countDocuments</code>
+ * collection operation, which is exact but requires an aggregation which reads all the matching documents, or all the
+ * collection documents when no filter is provided.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface CountStrategy extends Serializable {
+
+	/**
+	 * Count strategy modes.
+	 */
+	public enum Mode {
+
+		/**
+		 * Count all the matching documents.
+		 */
+		EXACT,
+
+		/**
+		 * Use the collection metadata to count all the collection documents when the query has no filter.
+		 */
+		ESTIMATED,
+
+		/**
+		 * Count the matching documents up to a limit.
+		 */
+		CAPPED,
+
+		/**
+		 * Count all the matching documents, reusing a previous count of the same query if not older than a time to
+		 * live.
+		 */
+		CACHED;
+
+	}
+
+	/**
+	 * Get the count strategy mode.
+	 * @return The count strategy mode
+	 */
+	Mode getMode();
+
+	/**
+	 * Get the maximum number of documents to count, for the {@link Mode#CAPPED} mode.
+	 * @return Optional count limit
+	 */
+	Optional<Integer> getLimit();
+
+	/**
+	 * Get the maximum age of a reusable count, for the {@link Mode#CACHED} mode.
+	 * @return Optional count time to live
+	 */
+	Optional<Duration> getTimeToLive();
+
+	/**
+	 * Get the default count strategy, which counts all the matching documents.
+	 * @return The exact count strategy
+	 */
+	static CountStrategy exact() {
+		return DefaultCountStrategy.EXACT;
+	}
+
+	/**
+	 * Get a count strategy which uses the <code>estimatedDocumentCount</code> collection operation when the query has no
+	 * filter, i.e. the count is obtained from the collection metadata without reading the documents. The estimated
+	 * count may not be accurate, for example after an unclean shutdown or with orphaned documents in a sharded cluster.
+	 * <p>
+	 * When the query has a filter or it is executed within a client session, the documents are counted as with the
+	 * {@link #exact()} strategy.
+	 * </p>
+	 * @return The estimated count strategy
+	 */
+	static CountStrategy estimated() {
+		return DefaultCountStrategy.ESTIMATED;
+	}
+
+	/**
+	 * Get a count strategy which counts the matching documents up to given limit, i.e. the count operation stops after
+	 * the first <code>limit</code> documents and the returned count is never greater than the limit. This is useful,
+	 * for example, to display "more than <em>limit</em>" results.
+	 * @param limit The maximum number of documents to count (must be greater than 0)
+	 * @return The capped count strategy
+	 */
+	static CountStrategy capped(int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException("Count limit must be greater than 0");
+		}
+		return new DefaultCountStrategy(Mode.CAPPED, limit, null);
+	}
+
+	/**
+	 * Get a count strategy which reuses the count of the same collection and query filter, if it was obtained by the
+	 * same Datastore no more than given time to live ago. Any write operation issued by the Datastore on the collection
+	 * discards the collection counts.
+	 * <p>
+	 * When the query is executed within a client session, the documents are always counted as with the
+	 * {@link #exact()} strategy.
+	 * </p>
+	 * @param ttl The maximum age of a reusable count (not null, must be positive)
+	 * @return The cached count strategy
+	 */
+	static CountStrategy cached(Duration ttl) {
+		if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+			throw new IllegalArgumentException("Count time to live must be positive");
+		}
+		return new DefaultCountStrategy(Mode.CACHED, null, ttl);
+	}
+
+}
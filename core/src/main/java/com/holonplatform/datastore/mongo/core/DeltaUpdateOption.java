@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core;
+
+import java.util.Optional;
+
+import com.holonplatform.core.datastore.DatastoreOperations.WriteOption;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.internal.DefaultDeltaUpdateOption;
+
+/**
+ * A Datastore {@link WriteOption} to perform a delta update with the <code>Update</code> and <code>Save</code>
+ * operations: only the document paths whose value changed with respect to an original {@link PropertyBox} value are
+ * updated, using the <code>$set</code> and <code>$unset</code> operators.
+ * <p>
+ * The original value can be explicitly provided using {@link #of(PropertyBox)}, or it can be the snapshot recorded
+ * when the value was decoded by a query or refresh operation, using {@link #snapshot()}. Snapshot tracking must be
+ * enabled at Datastore configuration time: see {@link MongoDatastoreBuilder#snapshotTracking(boolean)}. A snapshot is
+ * only used with the same Datastore and collection from which the value was read or to which it was last written, and
+ * no snapshot is recorded for the values read or written within a transaction. When no original value is available,
+ * the whole value is written as usual.
+ * </p>
+ * <p>
+ * An <code>Update</code> operation is skipped when no path changed. A <code>Save</code> operation is always executed,
+ * writing the unchanged paths using the <code>$setOnInsert</code> operator, so that the whole document is created if
+ * it does not exist.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface DeltaUpdateOption extends WriteOption {
+
+	/**
+	 * Get the original value against which to compute the delta update.
+	 * @return Optional original value, if empty the value snapshot is used, if available
+	 */
+	Optional<PropertyBox> getOriginal();
+
+	/**
+	 * Create a {@link DeltaUpdateOption} which uses given original value to compute the delta update.
+	 * @param original The original value (not null)
+	 * @return A new {@link DeltaUpdateOption}
+	 */
+	static DeltaUpdateOption of(PropertyBox original) {
+		return new DefaultDeltaUpdateOption(original);
+	}
+
+	/**
+	 * Get a {@link DeltaUpdateOption} which uses the snapshot recorded when the value was decoded to compute the
+	 * delta update.
+	 * @return The snapshot {@link DeltaUpdateOption}
+	 */
+	static DeltaUpdateOption snapshot() {
+		return DefaultDeltaUpdateOption.SNAPSHOT;
+	}
+
+}
@@ -19,6 +19,8 @@ import org.bson.codecs.Codec;
 import org.bson.codecs.configuration.CodecProvider;
 
 import com.holonplatform.core.datastore.DatastoreOperations;
+import com.holonplatform.datastore.mongo.core.cache.EntityCache;
+import com.holonplatform.datastore.mongo.core.cache.QueryResultCache;
 import com.holonplatform.datastore.mongo.core.document.EnumCodecStrategy;
 import com.holonplatform.datastore.mongo.core.tx.MongoTransaction;
 import com.holonplatform.datastore.mongo.core.tx.MongoTransactionFactory;
@@ -98,6 +100,43 @@ public interface MongoDatastoreBuilder<D extends DatastoreOperations, S extends
 	 */
 	B enumCodecStrategy(EnumCodecStrategy enumCodecStrategy);
 
+	/**
+	 * Set whether to track the snapshots of the {@link com.holonplatform.core.property.PropertyBox} values decoded from
+	 * the query and refresh operation results, to be used to perform delta updates using the
+	 * {@link DeltaUpdateOption#snapshot()} write option.
+	 * <p>
+	 * Snapshot tracking requires to encode each decoded value a second time, so it is disabled by default.
+	 * </p>
+	 * @param snapshotTracking <code>true</code> to enable snapshot tracking
+	 * @return this
+	 * @since 6.0.1
+	 */
+	B snapshotTracking(boolean snapshotTracking);
+
+	/**
+	 * Set the {@link QueryResultCache} to use to cache the query results of the collections for which the cache is
+	 * enabled. The query result cache is disabled by default.
+	 * <p>
+	 * The same cache instance can be used to read the cache statistics.
+	 * </p>
+	 * @param queryResultCache The query result cache to set (not null)
+	 * @return this
+	 * @see QueryResultCache#builder()
+	 * @since 6.0.1
+	 */
+	B queryResultCache(QueryResultCache queryResultCache);
+
+	/**
+	 * Set the {@link EntityCache} to use to cache the entities read by document id, for example using a
+	 * <code>Refresh</code> operation, of the collections for which the cache is enabled. The entity cache is disabled
+	 * by default.
+	 * @param entityCache The entity cache to set (not null)
+	 * @return this
+	 * @see EntityCache#builder()
+	 * @since 6.0.1
+	 */
+	B entityCache(EntityCache entityCache);
+
 	/**
 	 * Set the {@link MongoTransactionFactory} to use to provide {@link MongoTransaction} implementations.
 	 * @param transactionFactory The transaction factory to set (not null)
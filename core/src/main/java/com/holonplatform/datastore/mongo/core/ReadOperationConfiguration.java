@@ -119,4 +119,37 @@ public interface ReadOperationConfiguration {
 	public static final ConfigProperty<Boolean> QUERY_SHOW_RECORD_ID = ConfigProperty
 			.create(ReadOperationConfiguration.class.getName() + ".queryShowRecordId", Boolean.class);
 
+	/**
+	 * Query operation keyset pagination {@link ContinuationToken}. The query results are sorted by document id after
+	 * the query sort and only the rows which follow the row represented by the token are returned.
+	 * @since 6.0.1
+	 */
+	public static final ConfigProperty<ContinuationToken> QUERY_CONTINUATION = ConfigProperty
+			.create(ReadOperationConfiguration.class.getName() + ".queryContinuation", ContinuationToken.class);
+
+	/**
+	 * Whether only the first query result is needed. When <code>true</code>, the query results limit and batch size are
+	 * set to <code>1</code>, so that the server cursor is exhausted, and closed, along with the first returned result.
+	 * @since 6.0.1
+	 */
+	public static final ConfigProperty<Boolean> QUERY_FIRST_RESULT = ConfigProperty
+			.create(ReadOperationConfiguration.class.getName() + ".queryFirstResult", Boolean.class);
+
+	/**
+	 * The maximum number of query results to decode concurrently. When greater than <code>1</code>, the query results
+	 * are read ahead and decoded concurrently by a shared decoding executor, preserving the results order. Applies to
+	 * <em>find</em> and <em>aggregate</em> queries. With the synchronous Datastore, it is ignored for queries executed
+	 * within a transaction and the query results stream should be closed when it is not fully consumed.
+	 * @since 6.0.1
+	 */
+	public static final ConfigProperty<Integer> QUERY_DECODING_PARALLELISM = ConfigProperty
+			.create(ReadOperationConfiguration.class.getName() + ".queryDecodingParallelism", Integer.class);
+
+	/**
+	 * The {@link CountStrategy} to use for query count operations. Defaults to {@link CountStrategy#exact()}.
+	 * @since 6.0.1
+	 */
+	public static final ConfigProperty<CountStrategy> QUERY_COUNT_STRATEGY = ConfigProperty
+			.create(ReadOperationConfiguration.class.getName() + ".queryCountStrategy", CountStrategy.class);
+
 }
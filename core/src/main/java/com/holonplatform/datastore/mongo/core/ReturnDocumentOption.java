@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.holonplatform.core.datastore.DatastoreOperations.WriteOption;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.internal.DefaultReturnDocumentOption;
+import com.mongodb.client.model.ReturnDocument;
+
+/**
+ * A Datastore {@link WriteOption} to perform the <code>Update</code>, <code>Save</code> and <code>BulkUpdate</code>
+ * operations using a single <code>findOneAndUpdate</code> command, obtaining the updated document either as it was
+ * before or after the update in the same round trip.
+ * <p>
+ * For the <code>Update</code> and <code>Save</code> operations, when {@link ReturnDocument#AFTER} is used, the
+ * operation {@link PropertyBox} value is updated with the values of the returned document, for example to obtain
+ * server side computed values. When {@link ReturnDocument#BEFORE} is used, the returned document is only provided to
+ * the optional receiver. A <code>Save</code> operation reports an <code>INSERT</code> operation type only when
+ * {@link ReturnDocument#BEFORE} is used and no document existed before the update.
+ * </p>
+ * <p>
+ * For the <code>BulkUpdate</code> operation, only the first document which matches the operation filter is updated
+ * and a {@link PropertySet} must be provided to decode the returned document.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface ReturnDocumentOption extends WriteOption {
+
+	/**
+	 * Get which version of the document to return.
+	 * @return The {@link ReturnDocument} mode
+	 */
+	ReturnDocument getReturnDocument();
+
+	/**
+	 * Get the {@link PropertySet} to use to decode the returned document.
+	 * @return Optional property set, if not present the property set of the operation value is used
+	 */
+	Optional<PropertySet<?>> getPropertySet();
+
+	/**
+	 * Get the receiver of the decoded returned document, if any.
+	 * <p>
+	 * The receiver is not invoked when no document is returned.
+	 * </p>
+	 * @return Optional returned document receiver
+	 */
+	Optional<Consumer<PropertyBox>> getReceiver();
+
+	/**
+	 * Get a {@link ReturnDocumentOption} which updates the operation value with the document as it is after the
+	 * update.
+	 * @return The {@link ReturnDocumentOption}
+	 */
+	static ReturnDocumentOption after() {
+		return DefaultReturnDocumentOption.AFTER;
+	}
+
+	/**
+	 * Create a {@link ReturnDocumentOption} which returns the document as it is after the update.
+	 * @param receiver The returned document receiver (not null)
+	 * @return A new {@link ReturnDocumentOption}
+	 */
+	static ReturnDocumentOption after(Consumer<PropertyBox> receiver) {
+		return new DefaultReturnDocumentOption(ReturnDocument.AFTER, null, receiver);
+	}
+
+	/**
+	 * Create a {@link ReturnDocumentOption} which returns the document as it is after the update, decoding it using
+	 * given property set.
+	 * @param propertySet The property set to use to decode the returned document (not null)
+	 * @param receiver The returned document receiver (not null)
+	 * @return A new {@link ReturnDocumentOption}
+	 */
+	static ReturnDocumentOption after(PropertySet<?> propertySet, Consumer<PropertyBox> receiver) {
+		return new DefaultReturnDocumentOption(ReturnDocument.AFTER, propertySet, receiver);
+	}
+
+	/**
+	 * Create a {@link ReturnDocumentOption} which returns the document as it was before the update.
+	 * @param receiver The returned document receiver (not null)
+	 * @return A new {@link ReturnDocumentOption}
+	 */
+	static ReturnDocumentOption before(Consumer<PropertyBox> receiver) {
+		return new DefaultReturnDocumentOption(ReturnDocument.BEFORE, null, receiver);
+	}
+
+	/**
+	 * Create a {@link ReturnDocumentOption} which returns the document as it was before the update, decoding it using
+	 * given property set.
+	 * @param propertySet The property set to use to decode the returned document (not null)
+	 * @param receiver The returned document receiver (not null)
+	 * @return A new {@link ReturnDocumentOption}
+	 */
+	static ReturnDocumentOption before(PropertySet<?> propertySet, Consumer<PropertyBox> receiver) {
+		return new DefaultReturnDocumentOption(ReturnDocument.BEFORE, propertySet, receiver);
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache.CacheStatistics;
+import com.holonplatform.datastore.mongo.core.internal.cache.DefaultEntityCache;
+
+/**
+ * A read-through cache of the entities read by document id, for example using a <code>Refresh</code> operation,
+ * enabled on a per collection basis.
+ * <p>
+ * The cache entries are keyed by collection name and document id, and hold a copy of the decoded {@link PropertyBox}.
+ * A cached value is returned only if its property set includes all the requested properties, and a new copy of the
+ * cached value is returned each time, so the cached values are never shared with the callers.
+ * </p>
+ * <p>
+ * Each collection cache is bounded by a maximum number of entries, evicting the least recently used entries, and the
+ * entries expire after a configurable time to live. All the entries of a collection are invalidated when the Datastore
+ * which owns the cache issues a write operation on that collection, and again when the write operation is completed
+ * (or, within a transaction, when the transaction ends), and the entities which were being read at that time are not
+ * cached. Writes performed by other clients are not detected: in that case, the time to live is the upper bound of the
+ * staleness of the cached values.
+ * </p>
+ * <p>
+ * The entities read within a client session (for example in a transaction) are never read from or stored in the
+ * cache.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface EntityCache {
+
+	/**
+	 * Default maximum number of entries of a collection cache
+	 */
+	static final int DEFAULT_MAX_SIZE = 1024;
+
+	/**
+	 * Default cache entries time to live
+	 */
+	static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+	/**
+	 * Get the names of the collections for which the cache is enabled.
+	 * @return The cached collection names
+	 */
+	Set<String> getCollectionNames();
+
+	/**
+	 * Get whether the cache is enabled for given collection.
+	 * @param collectionName The collection name (not null)
+	 * @return <code>true</code> if the cache is enabled for given collection
+	 */
+	boolean isEnabled(String collectionName);
+
+	/**
+	 * Get a copy of the cached entity bound to given collection and document id, if available, not expired and if its
+	 * property set includes all the properties of given property set.
+	 * @param collectionName The collection name (not null)
+	 * @param id The document id (not null)
+	 * @param propertySet The property set of the entity to obtain (not null)
+	 * @return Optional copy of the cached entity, using given property set
+	 */
+	Optional<PropertyBox> get(String collectionName, ObjectId id, PropertySet<?> propertySet);
+
+	/**
+	 * Get the current version of given collection cache, which is incremented each time the collection cache is
+	 * invalidated. The version must be obtained before reading an entity, and used to {@link #put} it.
+	 * @param collectionName The collection name (not null)
+	 * @return The collection cache version
+	 */
+	long getVersion(String collectionName);
+
+	/**
+	 * Cache a copy of an entity. The entity is discarded if the collection cache was invalidated since the given version
+	 * was obtained, i.e. if it may not reflect a write operation performed in the meantime.
+	 * @param collectionName The collection name (not null)
+	 * @param id The document id (not null)
+	 * @param version The collection cache version obtained before reading the entity
+	 * @param value The entity (not null)
+	 * @return <code>true</code> if the entity was cached
+	 */
+	boolean put(String collectionName, ObjectId id, long version, PropertyBox value);
+
+	/**
+	 * Invalidate all the entries of given collection cache.
+	 * @param collectionName The collection name (not null)
+	 */
+	void invalidate(String collectionName);
+
+	/**
+	 * Invalidate all the cache entries.
+	 */
+	void clear();
+
+	/**
+	 * Get the overall cache statistics.
+	 * @return The cache statistics
+	 */
+	CacheStatistics getStatistics();
+
+	/**
+	 * Get the cache statistics of given collection.
+	 * @param collectionName The collection name (not null)
+	 * @return Optional collection cache statistics, empty if the cache is not enabled for given collection
+	 */
+	Optional<CacheStatistics> getStatistics(String collectionName);
+
+	/**
+	 * Get a builder to create an {@link EntityCache}.
+	 * @return A new {@link EntityCache} builder
+	 */
+	static Builder builder() {
+		return new DefaultEntityCache.DefaultBuilder();
+	}
+
+	/**
+	 * {@link EntityCache} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Enable the cache for given collection, using the {@link EntityCache#DEFAULT_MAX_SIZE} and the
+		 * {@link EntityCache#DEFAULT_TTL}.
+		 * @param collectionName The collection name (not null)
+		 * @return this
+		 */
+		default Builder collection(String collectionName) {
+			return collection(collectionName, DEFAULT_MAX_SIZE, DEFAULT_TTL);
+		}
+
+		/**
+		 * Enable the cache for given collection.
+		 * @param collectionName The collection name (not null)
+		 * @param maxSize The maximum number of cache entries (must be greater than 0)
+		 * @param ttl The cache entries time to live (not null, must be positive)
+		 * @return this
+		 */
+		Builder collection(String collectionName, int maxSize, Duration ttl);
+
+		/**
+		 * Build the {@link EntityCache}.
+		 * @return A new {@link EntityCache}
+		 */
+		EntityCache build();
+
+	}
+
+}
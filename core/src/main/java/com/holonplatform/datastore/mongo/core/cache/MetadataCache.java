@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.cache;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.holonplatform.datastore.mongo.core.internal.cache.DefaultMetadataCache;
+
+/**
+ * A thread-safe and bounded cache for metadata which is computed from a key object, for example the document metadata
+ * bound to a {@link com.holonplatform.core.property.PropertySet}.
+ * <p>
+ * The cache keys are compared by identity and are weakly referenced, so that an entry never prevents its key from
+ * being garbage collected. Cache lookups are lock-free. The cache values are computed using the cache loader function
+ * at first request and <code>null</code> values are allowed. When the cache maximum size is exceeded, some entries
+ * are evicted, in no particular order.
+ * </p>
+ * 
+ * @param <K> Key type
+ * @param <V> Value type
+ *
+ * @since 6.0.1
+ */
+public interface MetadataCache<K, V> {
+
+	/**
+	 * Default cache maximum size
+	 */
+	static final int DEFAULT_MAX_SIZE = 1024;
+
+	/**
+	 * Get the cache name.
+	 * @return The cache name
+	 */
+	String getName();
+
+	/**
+	 * Get the value bound to given key, computing it using the cache loader function if not available.
+	 * @param key The key (not null)
+	 * @return The value bound to given key, may be <code>null</code> if the loader function returned
+	 *         <code>null</code>
+	 */
+	V get(K key);
+
+	/**
+	 * Get the value bound to given key, only if available in cache.
+	 * @param key The key (not null)
+	 * @return Optional value bound to given key, empty if not available in cache or if the value is <code>null</code>
+	 */
+	Optional<V> getIfPresent(K key);
+
+	/**
+	 * Compute and cache the values bound to given keys, if not already available.
+	 * @param keys The keys
+	 */
+	default void prewarm(Iterable<? extends K> keys) {
+		if (keys != null) {
+			for (K key : keys) {
+				if (key != null) {
+					get(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove the value bound to given key, if available.
+	 * @param key The key (not null)
+	 */
+	void invalidate(K key);
+
+	/**
+	 * Remove all the cache entries.
+	 */
+	void clear();
+
+	/**
+	 * Get the number of cache entries.
+	 * @return The cache size
+	 */
+	int size();
+
+	/**
+	 * Get the cache maximum size.
+	 * @return The cache maximum size
+	 */
+	int getMaxSize();
+
+	/**
+	 * Get the cache statistics.
+	 * @return The cache statistics
+	 */
+	CacheStatistics getStatistics();
+
+	/**
+	 * Create a new {@link MetadataCache} using the {@link #DEFAULT_MAX_SIZE}.
+	 * @param <K> Key type
+	 * @param <V> Value type
+	 * @param name The cache name (not null)
+	 * @param loader The function to use to compute the value bound to a key (not null)
+	 * @return A new {@link MetadataCache}
+	 */
+	static <K, V> MetadataCache<K, V> create(String name, Function<? super K, ? extends V> loader) {
+		return create(name, DEFAULT_MAX_SIZE, loader);
+	}
+
+	/**
+	 * Create a new {@link MetadataCache}.
+	 * @param <K> Key type
+	 * @param <V> Value type
+	 * @param name The cache name (not null)
+	 * @param maxSize The cache maximum size (must be greater than 0)
+	 * @param loader The function to use to compute the value bound to a key (not null)
+	 * @return A new {@link MetadataCache}
+	 */
+	static <K, V> MetadataCache<K, V> create(String name, int maxSize, Function<? super K, ? extends V> loader) {
+		return new DefaultMetadataCache<>(name, maxSize, loader);
+	}
+
+	/**
+	 * Cache statistics.
+	 */
+	public interface CacheStatistics {
+
+		/**
+		 * Get the number of lookups which returned a cached value.
+		 * @return The hit count
+		 */
+		long getHitCount();
+
+		/**
+		 * Get the number of lookups which required the value computation.
+		 * @return The miss count
+		 */
+		long getMissCount();
+
+		/**
+		 * Get the number of entries evicted because the cache maximum size was exceeded.
+		 * @return The eviction count
+		 */
+		long getEvictionCount();
+
+		/**
+		 * Get the ratio of lookups which returned a cached value.
+		 * @return The hit ratio, <code>1.0</code> if no lookup was performed
+		 */
+		default double getHitRatio() {
+			final long hits = getHitCount();
+			final long total = hits + getMissCount();
+			return (total == 0) ? 1.0d : ((double) hits) / total;
+		}
+
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.internal.cache.DefaultMetadataCacheRegistry;
+
+/**
+ * Registry of the {@link MetadataCache}s used by the MongoDB Datastore.
+ * <p>
+ * The default registry (see {@link #getDefault()}) always includes the built-in metadata caches, such as the document
+ * identifier properties and the property set serialization trees caches. Additional caches can be registered using
+ * {@link #register(Class, MetadataCache)}.
+ * </p>
+ * <p>
+ * The registry can be used to pre-warm the metadata caches at startup, using {@link #prewarm(PropertySet...)} or {@link #prewarmAll(Iterable)}.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface MetadataCacheRegistry {
+
+	/**
+	 * Name of the built-in cache of the property set document identifier properties
+	 */
+	static final String DOCUMENT_IDS = "documentIds";
+
+	/**
+	 * Name of the built-in cache of the property set serialization trees
+	 */
+	static final String SERIALIZATION_TREES = "serializationTrees";
+
+	/**
+	 * Name of the built-in cache of the property set document codecs
+	 */
+	static final String DOCUMENT_CODECS = "documentCodecs";
+
+	/**
+	 * Name of the built-in cache of the bean property set document mappers
+	 */
+	static final String BEAN_MAPPERS = "beanMappers";
+
+	/**
+	 * Name of the built-in cache of the property sets used to build query results {@link PropertyBox}es
+	 */
+	static final String PROJECTION_PROPERTY_SETS = "projectionPropertySets";
+
+	/**
+	 * Register a {@link MetadataCache}.
+	 * @param <K> Cache key type
+	 * @param keyType The cache key type, used to select the cache when pre-warming entries (not null)
+	 * @param cache The cache to register (not null)
+	 * @throws IllegalArgumentException If a cache with the same name is already registered
+	 */
+	<K> void register(Class<K> keyType, MetadataCache<K, ?> cache);
+
+	/**
+	 * Get the registered caches.
+	 * @return The registered caches
+	 */
+	List<MetadataCache<?, ?>> getCaches();
+
+	/**
+	 * Get the registered cache with given name.
+	 * @param name The cache name
+	 * @return Optional cache with given name
+	 */
+	Optional<MetadataCache<?, ?>> getCache(String name);
+
+	/**
+	 * Pre-warm the registered caches, computing the values bound to given keys. For each key, only the caches whose key
+	 * type is compatible with the key are involved. {@link PropertyBox} keys are ignored, since the metadata bound to
+	 * {@link PropertyBox} instances is never cached.
+	 * @param keys The keys
+	 */
+	void prewarmAll(Iterable<?> keys);
+
+	/**
+	 * Pre-warm the registered caches using given {@link PropertySet}s.
+	 * @param propertySets The property sets
+	 * @see #prewarmAll(Iterable)
+	 */
+	default void prewarm(PropertySet<?>... propertySets) {
+		if (propertySets != null) {
+			prewarmAll(Arrays.asList(propertySets));
+		}
+	}
+
+	/**
+	 * Remove all the entries of the registered caches.
+	 */
+	void clear();
+
+	/**
+	 * Get the default {@link MetadataCacheRegistry}, which includes the built-in metadata caches.
+	 * @return The default {@link MetadataCacheRegistry}
+	 */
+	static MetadataCacheRegistry getDefault() {
+		return DefaultMetadataCacheRegistry.INSTANCE;
+	}
+
+}
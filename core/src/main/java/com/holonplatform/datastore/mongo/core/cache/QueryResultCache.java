@@ -0,0 +1,189 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.RawBsonDocument;
+
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache.CacheStatistics;
+import com.holonplatform.datastore.mongo.core.internal.cache.DefaultQueryResultCache;
+
+/**
+ * A second-level cache of query results, enabled on a per collection basis.
+ * <p>
+ * The cache entries are keyed by collection name and by the serialized query (filter, sort, projection, skip, limit and
+ * the other query modifiers, or the aggregation pipeline), and hold the raw result documents, which are decoded again
+ * each time the cached results are read. So the cached results are never shared among query executions.
+ * </p>
+ * <p>
+ * Each collection cache is bounded by a maximum number of entries, evicting the least recently used entries, and the
+ * entries expire after a configurable time to live. The results of a query are cached only if they do not exceed the
+ * maximum number of documents of a cache entry: the results of larger queries are streamed as usual and never cached.
+ * All the entries of a collection are invalidated when the Datastore
+ * which owns the cache issues a write operation on that collection, and again when the write operation is completed
+ * (or, within a transaction, when the transaction ends), and the results of the queries which were running at that
+ * time are not cached. Writes performed by other clients are not detected: in that case, the time to live is the upper
+ * bound of the staleness of the cached results.
+ * </p>
+ * <p>
+ * The results of queries executed within a client session (for example in a transaction) are never read from or stored
+ * in the cache.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface QueryResultCache {
+
+	/**
+	 * Default maximum number of entries of a collection cache
+	 */
+	static final int DEFAULT_MAX_SIZE = 256;
+
+	/**
+	 * Default cache entries time to live
+	 */
+	static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+
+	/**
+	 * Default maximum number of result documents of a cache entry
+	 */
+	static final int DEFAULT_MAX_ENTRY_DOCUMENTS = 1000;
+
+	/**
+	 * Get the names of the collections for which the cache is enabled.
+	 * @return The cached collection names
+	 */
+	Set<String> getCollectionNames();
+
+	/**
+	 * Get whether the cache is enabled for given collection.
+	 * @param collectionName The collection name (not null)
+	 * @return <code>true</code> if the cache is enabled for given collection
+	 */
+	boolean isEnabled(String collectionName);
+
+	/**
+	 * Get the maximum number of result documents of a cache entry. The results of a query which exceed this limit are
+	 * not cached.
+	 * @return The maximum number of result documents of a cache entry
+	 */
+	int getMaxEntryDocuments();
+
+	/**
+	 * Get the cached results bound to given collection and query key, if available and not expired.
+	 * @param collectionName The collection name (not null)
+	 * @param key The query key (not null)
+	 * @return Optional cached result documents
+	 */
+	Optional<List<RawBsonDocument>> get(String collectionName, String key);
+
+	/**
+	 * Get the current version of given collection cache, which is incremented each time the collection cache is
+	 * invalidated. The version must be obtained before executing a query, and used to {@link #put} its results.
+	 * @param collectionName The collection name (not null)
+	 * @return The collection cache version
+	 */
+	long getVersion(String collectionName);
+
+	/**
+	 * Cache the results of a query. The results are discarded if the collection cache was invalidated since the given
+	 * version was obtained, i.e. if they may not reflect a write operation performed in the meantime, or if they exceed
+	 * the {@link #getMaxEntryDocuments()} limit.
+	 * @param collectionName The collection name (not null)
+	 * @param key The query key (not null)
+	 * @param version The collection cache version obtained before executing the query
+	 * @param results The result documents (not null)
+	 * @return <code>true</code> if the results were cached
+	 */
+	boolean put(String collectionName, String key, long version, List<RawBsonDocument> results);
+
+	/**
+	 * Invalidate all the entries of given collection cache.
+	 * @param collectionName The collection name (not null)
+	 */
+	void invalidate(String collectionName);
+
+	/**
+	 * Invalidate all the cache entries.
+	 */
+	void clear();
+
+	/**
+	 * Get the overall cache statistics.
+	 * @return The cache statistics
+	 */
+	CacheStatistics getStatistics();
+
+	/**
+	 * Get the cache statistics of given collection.
+	 * @param collectionName The collection name (not null)
+	 * @return Optional collection cache statistics, empty if the cache is not enabled for given collection
+	 */
+	Optional<CacheStatistics> getStatistics(String collectionName);
+
+	/**
+	 * Get a builder to create a {@link QueryResultCache}.
+	 * @return A new {@link QueryResultCache} builder
+	 */
+	static Builder builder() {
+		return new DefaultQueryResultCache.DefaultBuilder();
+	}
+
+	/**
+	 * {@link QueryResultCache} builder.
+	 */
+	public interface Builder {
+
+		/**
+		 * Enable the cache for given collection, using the {@link QueryResultCache#DEFAULT_MAX_SIZE} and the
+		 * {@link QueryResultCache#DEFAULT_TTL}.
+		 * @param collectionName The collection name (not null)
+		 * @return this
+		 */
+		default Builder collection(String collectionName) {
+			return collection(collectionName, DEFAULT_MAX_SIZE, DEFAULT_TTL);
+		}
+
+		/**
+		 * Enable the cache for given collection.
+		 * @param collectionName The collection name (not null)
+		 * @param maxSize The maximum number of cache entries (must be greater than 0)
+		 * @param ttl The cache entries time to live (not null, must be positive)
+		 * @return this
+		 */
+		Builder collection(String collectionName, int maxSize, Duration ttl);
+
+		/**
+		 * Set the maximum number of result documents of a cache entry. Defaults to
+		 * {@link QueryResultCache#DEFAULT_MAX_ENTRY_DOCUMENTS}.
+		 * @param maxEntryDocuments The maximum number of result documents of a cache entry (must be greater than 0)
+		 * @return this
+		 */
+		Builder maxEntryDocuments(int maxEntryDocuments);
+
+		/**
+		 * Build the {@link QueryResultCache}.
+		 * @return A new {@link QueryResultCache}
+		 */
+		QueryResultCache build();
+
+	}
+
+}
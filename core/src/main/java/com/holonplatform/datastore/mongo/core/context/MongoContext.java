@@ -24,8 +24,12 @@ import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
 
 import com.holonplatform.core.ExpressionResolver.ExpressionResolverProvider;
+import com.holonplatform.datastore.mongo.core.CountStrategy;
+import com.holonplatform.datastore.mongo.core.cache.EntityCache;
+import com.holonplatform.datastore.mongo.core.cache.QueryResultCache;
 import com.holonplatform.datastore.mongo.core.document.DocumentIdResolver;
 import com.holonplatform.datastore.mongo.core.document.EnumCodecStrategy;
+import com.holonplatform.datastore.mongo.core.internal.cache.QueryCountCache;
 import com.holonplatform.datastore.mongo.core.internal.document.DocumentSerializer;
 import com.mongodb.ReadConcern;
 import com.mongodb.ReadPreference;
@@ -83,6 +87,77 @@ public interface MongoContext<S extends ClientSession> extends ExpressionResolve
 	 */
 	Optional<WriteConcern> getDefaultWriteConcern();
 
+	/**
+	 * Get whether the decoded {@link com.holonplatform.core.property.PropertyBox} values snapshot tracking is enabled.
+	 * <p>
+	 * When enabled, a snapshot of each {@link com.holonplatform.core.property.PropertyBox} decoded from a document is
+	 * recorded, so that it can be used to perform delta updates: see
+	 * {@link com.holonplatform.datastore.mongo.core.DeltaUpdateOption}.
+	 * </p>
+	 * @return <code>true</code> if snapshot tracking is enabled, <code>false</code> by default
+	 * @since 6.0.1
+	 */
+	default boolean isSnapshotTrackingEnabled() {
+		return false;
+	}
+
+	/**
+	 * Get the {@link QueryResultCache}, if enabled.
+	 * @return Optional query result cache
+	 * @since 6.0.1
+	 */
+	default Optional<QueryResultCache> getQueryResultCache() {
+		return Optional.empty();
+	}
+
+	/**
+	 * Get the {@link EntityCache}, if enabled.
+	 * @return Optional entity cache
+	 * @since 6.0.1
+	 */
+	default Optional<EntityCache> getEntityCache() {
+		return Optional.empty();
+	}
+
+	/**
+	 * Get the {@link QueryCountCache} to use with the {@link CountStrategy#cached(java.time.Duration)} count strategy,
+	 * if available.
+	 * @return Optional query count cache
+	 * @since 6.0.1
+	 */
+	default Optional<QueryCountCache> getQueryCountCache() {
+		return Optional.empty();
+	}
+
+	/**
+	 * Notify that a write operation is about to be performed on given collection, invalidating any cached data which
+	 * refers to the collection.
+	 * <p>
+	 * A read which starts before the write operation is completed may still cache the collection data as it was
+	 * before the write, so {@link #afterCollectionWrite(String)} must be invoked when the write operation is completed.
+	 * </p>
+	 * @param collectionName The collection name (not null)
+	 * @since 6.0.1
+	 */
+	default void beforeCollectionWrite(String collectionName) {
+		getQueryResultCache().ifPresent(cache -> cache.invalidate(collectionName));
+		getEntityCache().ifPresent(cache -> cache.invalidate(collectionName));
+		getQueryCountCache().ifPresent(cache -> cache.invalidate(collectionName));
+	}
+
+	/**
+	 * Notify that a write operation on given collection was completed, either successfully or not, invalidating again
+	 * the cached data which refers to the collection, including the data read and cached while the write operation was
+	 * in progress.
+	 * @param collectionName The collection name (not null)
+	 * @since 6.0.1
+	 */
+	default void afterCollectionWrite(String collectionName) {
+		getQueryResultCache().ifPresent(cache -> cache.invalidate(collectionName));
+		getEntityCache().ifPresent(cache -> cache.invalidate(collectionName));
+		getQueryCountCache().ifPresent(cache -> cache.invalidate(collectionName));
+	}
+
 	/**
 	 * Serialize given document to JSON using the database codec registry.
 	 * @param document The document to serialize
@@ -75,7 +75,7 @@ public interface DocumentConverter<R> {
 	 */
 	@SuppressWarnings("rawtypes")
 	static <P extends Property> DocumentConverter<PropertyBox> propertyBox(Iterable<P> properties) {
-		return new PropertyBoxDocumentConverter(PropertySet.of(properties));
+		return new PropertyBoxDocumentConverter(PropertyBoxDocumentConverter.propertySet(properties));
 	}
 
 	/**
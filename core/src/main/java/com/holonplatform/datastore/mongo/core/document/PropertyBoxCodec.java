@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.document;
+
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.internal.document.DefaultPropertyBoxCodec;
+
+/**
+ * A {@link PropertyBox} {@link Codec}, bound to a {@link MongoDocumentContext} and so to a {@link PropertySet}.
+ * <p>
+ * The codec reads the BSON documents straight into {@link PropertyBox} instances, without materializing an
+ * intermediate {@link org.bson.Document}. It can be registered into a {@link CodecRegistry} to perform typed read
+ * operations, for example using {@link #getCodecRegistry()}.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface PropertyBoxCodec extends Codec<PropertyBox> {
+
+	/**
+	 * Get the document context to which this codec is bound.
+	 * @return The document context
+	 */
+	MongoDocumentContext<?> getDocumentContext();
+
+	/**
+	 * Get the {@link CodecRegistry} used by this codec to decode the document field values.
+	 * @return The codec registry
+	 */
+	CodecRegistry getFieldValuesCodecRegistry();
+
+	/**
+	 * Get a {@link CodecRegistry} which includes this codec and the codecs of the registry used to decode the document
+	 * field values.
+	 * @return A codec registry which includes this codec
+	 */
+	default CodecRegistry getCodecRegistry() {
+		return CodecRegistries.fromRegistries(CodecRegistries.fromCodecs(this), getFieldValuesCodecRegistry());
+	}
+
+	/**
+	 * Create a new {@link PropertyBoxCodec}.
+	 * @param context The document context to use, which provides the {@link PropertySet} of the decoded
+	 *        {@link PropertyBox} instances (not null)
+	 * @param codecRegistry The codec registry to use to decode the document field values (not null)
+	 * @return A new {@link PropertyBoxCodec}
+	 */
+	static PropertyBoxCodec create(MongoDocumentContext<?> context, CodecRegistry codecRegistry) {
+		return new DefaultPropertyBoxCodec(context, codecRegistry);
+	}
+
+}
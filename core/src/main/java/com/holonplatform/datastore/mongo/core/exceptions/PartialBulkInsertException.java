@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.exceptions;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.holonplatform.core.exceptions.DataAccessException;
+
+/**
+ * A {@link DataAccessException} used to notify that a bulk insert operation, executed as more independent commands,
+ * failed for some of them.
+ * <p>
+ * The number of the documents which were actually inserted is available through {@link #getInsertedCount()}, while
+ * each failure is available through {@link #getErrors()}. The first error is the exception cause, the next ones are
+ * added as suppressed exceptions.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class PartialBulkInsertException extends DataAccessException {
+
+	private static final long serialVersionUID = 3021470781543319082L;
+
+	private final long insertedCount;
+
+	private final List<Throwable> errors;
+
+	/**
+	 * Constructor.
+	 * @param message The error message
+	 * @param insertedCount The number of documents which were inserted
+	 * @param errors The errors (not empty)
+	 */
+	public PartialBulkInsertException(String message, long insertedCount, List<Throwable> errors) {
+		super(message, errors.get(0));
+		this.insertedCount = insertedCount;
+		this.errors = Collections.unmodifiableList(errors);
+		for (int i = 1; i < errors.size(); i++) {
+			addSuppressed(errors.get(i));
+		}
+	}
+
+	/**
+	 * Get the number of documents which were inserted before or regardless of the errors.
+	 * @return The inserted document count
+	 */
+	public long getInsertedCount() {
+		return insertedCount;
+	}
+
+	/**
+	 * Get the errors occurred during the operation execution, for example a
+	 * <code>com.mongodb.MongoBulkWriteException</code> which provides the write errors of a single command.
+	 * @return The operation errors
+	 */
+	public List<Throwable> getErrors() {
+		return errors;
+	}
+
+}
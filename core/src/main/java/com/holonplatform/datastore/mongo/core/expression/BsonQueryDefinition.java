@@ -21,6 +21,7 @@ import java.util.concurrent.TimeUnit;
 import org.bson.conversions.Bson;
 
 import com.holonplatform.core.Expression;
+import com.holonplatform.datastore.mongo.core.CountStrategy;
 import com.holonplatform.datastore.mongo.core.internal.expression.DefaultBsonQueryDefinition;
 import com.mongodb.CursorType;
 import com.mongodb.client.model.Collation;
@@ -153,6 +154,20 @@ public interface BsonQueryDefinition extends Expression {
 	 */
 	boolean isShowRecordId();
 
+	/**
+	 * Get the number of threads to use to decode the query results.
+	 * @return Optional results decoding parallelism
+	 * @since 6.0.1
+	 */
+	Optional<Integer> getDecodingParallelism();
+
+	/**
+	 * Get the strategy to use to count the query results.
+	 * @return Optional count strategy
+	 * @since 6.0.1
+	 */
+	Optional<CountStrategy> getCountStrategy();
+
 	/**
 	 * Get a {@link BsonQueryDefinition} builder.
 	 * @return A new {@link BsonQueryDefinition} builder
@@ -302,6 +317,22 @@ public interface BsonQueryDefinition extends Expression {
 		 */
 		Builder showRecordId(boolean showRecordId);
 
+		/**
+		 * Set the number of threads to use to decode the query results.
+		 * @param decodingParallelism the results decoding parallelism to set
+		 * @return this
+		 * @since 6.0.1
+		 */
+		Builder decodingParallelism(int decodingParallelism);
+
+		/**
+		 * Set the strategy to use to count the query results.
+		 * @param countStrategy the count strategy to set
+		 * @return this
+		 * @since 6.0.1
+		 */
+		Builder countStrategy(CountStrategy countStrategy);
+
 		/**
 		 * Build the query definition.
 		 * @return the query definition instance
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import com.holonplatform.core.Path;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.query.QuerySort;
+import com.holonplatform.core.query.QuerySort.PathQuerySort;
+import com.holonplatform.datastore.mongo.core.ContinuationToken;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.internal.support.KeysetPagination;
+import com.mongodb.MongoClientSettings;
+
+
+/**
+ * Default {@link ContinuationToken} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultContinuationToken implements ContinuationToken {
+
+	private static final long serialVersionUID = 2563198054366153704L;
+
+	/**
+	 * First page token
+	 */
+	public static final ContinuationToken FIRST = new DefaultContinuationToken(Collections.emptyMap(), null);
+
+	private static final String VALUES = "v";
+	private static final String DOCUMENT_ID = "i";
+
+	private static final CodecRegistry CODEC_REGISTRY = MongoClientSettings.getDefaultCodecRegistry();
+
+	private final Map<String, Object> values;
+	private final Object documentId;
+
+	public DefaultContinuationToken(Map<String, Object> values, Object documentId) {
+		super();
+		ObjectUtils.argumentNotNull(values, "Values must be not null");
+		this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+		this.documentId = documentId;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.ContinuationToken#getValues()
+	 */
+	@Override
+	public Map<String, Object> getValues() {
+		return values;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.ContinuationToken#getDocumentId()
+	 */
+	@Override
+	public Optional<Object> getDocumentId() {
+		return Optional.ofNullable(documentId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.ContinuationToken#encode()
+	 */
+	@Override
+	public String encode() {
+		final Document document = new Document(VALUES, new Document(values));
+		if (documentId != null) {
+			document.append(DOCUMENT_ID, documentId);
+		}
+		try {
+			final ByteBuffer buffer = new RawBsonDocument(document, new DocumentCodec(CODEC_REGISTRY)).getByteBuffer()
+					.asNIO();
+			final byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		} catch (RuntimeException e) {
+			throw new IllegalStateException("Failed to encode the continuation token", e);
+		}
+	}
+
+	/**
+	 * Decode a continuation token.
+	 * @param token The encoded token (not null)
+	 * @return The decoded token
+	 * @throws IllegalArgumentException If given token is not valid
+	 */
+	public static ContinuationToken decode(String token) {
+		ObjectUtils.argumentNotNull(token, "Token must be not null");
+		final Document document;
+		try {
+			document = new RawBsonDocument(Base64.getUrlDecoder().decode(token))
+					.decode(new DocumentCodec(CODEC_REGISTRY));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid continuation token [" + token + "]", e);
+		}
+		final Object values = document.get(VALUES);
+		if (!(values instanceof Document)) {
+			throw new IllegalArgumentException("Invalid continuation token [" + token + "]: missing values");
+		}
+		return new DefaultContinuationToken((Document) values, document.get(DOCUMENT_ID));
+	}
+
+	/**
+	 * Create a continuation token using given last row.
+	 * @param lastRow The last row (not null)
+	 * @param sort Optional query sort
+	 * @return A new continuation token
+	 */
+	public static ContinuationToken of(PropertyBox lastRow, QuerySort sort) {
+		ObjectUtils.argumentNotNull(lastRow, "Last row must be not null");
+		final Map<String, Object> values = new LinkedHashMap<>();
+		for (PathQuerySort<?> sortPath : KeysetPagination.getSortPaths(sort)) {
+			final String name = sortPath.getPath().relativeName();
+			final Property<Object> property = getProperty(lastRow, name).orElseThrow(
+					() -> new IllegalArgumentException("The last row does not contain the sort path [" + name + "]"));
+			values.put(name, lastRow.getValue(property));
+		}
+		// document id
+		final Object documentId = getDocumentIdProperty(lastRow).map(p -> lastRow.getValue(p)).orElse(null);
+		return new DefaultContinuationToken(values, documentId);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Optional<Property<Object>> getDocumentIdProperty(PropertyBox value) {
+		final Optional<Property<Object>> identifier = value.getFirstIdentifier().map(p -> (Property<Object>) p);
+		return identifier.isPresent() ? identifier : getProperty(value, MongoDocumentContext.ID_FIELD_NAME);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Optional<Property<Object>> getProperty(PropertyBox value, String name) {
+		for (Property<?> property : value) {
+			if (Path.class.isAssignableFrom(property.getClass()) && name.equals(((Path<?>) property).relativeName())) {
+				return Optional.of((Property<Object>) property);
+			}
+		}
+		return Optional.empty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("ContinuationToken [");
+		for (Entry<String, Object> entry : values.entrySet()) {
+			sb.append(entry.getKey()).append("=").append(entry.getValue()).append(", ");
+		}
+		sb.append("documentId=").append(documentId).append("]");
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import com.holonplatform.datastore.mongo.core.CountStrategy;
+
+/**
+ * Default {@link CountStrategy} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultCountStrategy implements CountStrategy {
+
+	private static final long serialVersionUID = -4385529718640937562L;
+
+	/**
+	 * Exact count strategy
+	 */
+	public static final CountStrategy EXACT = new DefaultCountStrategy(Mode.EXACT, null, null);
+
+	/**
+	 * Estimated count strategy
+	 */
+	public static final CountStrategy ESTIMATED = new DefaultCountStrategy(Mode.ESTIMATED, null, null);
+
+	private final Mode mode;
+	private final Integer limit;
+	private final Duration timeToLive;
+
+	/**
+	 * Constructor.
+	 * @param mode Count strategy mode (not null)
+	 * @param limit Count limit
+	 * @param timeToLive Count time to live
+	 */
+	public DefaultCountStrategy(Mode mode, Integer limit, Duration timeToLive) {
+		super();
+		this.mode = mode;
+		this.limit = limit;
+		this.timeToLive = timeToLive;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.CountStrategy#getMode()
+	 */
+	@Override
+	public Mode getMode() {
+		return mode;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.CountStrategy#getLimit()
+	 */
+	@Override
+	public Optional<Integer> getLimit() {
+		return Optional.ofNullable(limit);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.CountStrategy#getTimeToLive()
+	 */
+	@Override
+	public Optional<Duration> getTimeToLive() {
+		return Optional.ofNullable(timeToLive);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "CountStrategy [mode=" + mode + ((limit != null) ? ", limit=" + limit : "")
+				+ ((timeToLive != null) ? ", timeToLive=" + timeToLive : "") + "]";
+	}
+
+}
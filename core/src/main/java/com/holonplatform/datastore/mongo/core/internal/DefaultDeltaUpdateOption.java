@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal;
+
+import java.util.Optional;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.DeltaUpdateOption;
+
+/**
+ * Default {@link DeltaUpdateOption} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultDeltaUpdateOption implements DeltaUpdateOption {
+
+	/**
+	 * Snapshot option
+	 */
+	public static final DeltaUpdateOption SNAPSHOT = new DefaultDeltaUpdateOption();
+
+	private final PropertyBox original;
+
+	private DefaultDeltaUpdateOption() {
+		super();
+		this.original = null;
+	}
+
+	public DefaultDeltaUpdateOption(PropertyBox original) {
+		super();
+		ObjectUtils.argumentNotNull(original, "Original value must be not null");
+		this.original = original;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.DeltaUpdateOption#getOriginal()
+	 */
+	@Override
+	public Optional<PropertyBox> getOriginal() {
+		return Optional.ofNullable(original);
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
+import com.mongodb.client.model.ReturnDocument;
+
+/**
+ * Default {@link ReturnDocumentOption} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultReturnDocumentOption implements ReturnDocumentOption {
+
+	/**
+	 * Return after option
+	 */
+	public static final ReturnDocumentOption AFTER = new DefaultReturnDocumentOption();
+
+	private final ReturnDocument returnDocument;
+	private final PropertySet<?> propertySet;
+	private final Consumer<PropertyBox> receiver;
+
+	private DefaultReturnDocumentOption() {
+		super();
+		this.returnDocument = ReturnDocument.AFTER;
+		this.propertySet = null;
+		this.receiver = null;
+	}
+
+	public DefaultReturnDocumentOption(ReturnDocument returnDocument, PropertySet<?> propertySet,
+			Consumer<PropertyBox> receiver) {
+		super();
+		ObjectUtils.argumentNotNull(returnDocument, "ReturnDocument must be not null");
+		ObjectUtils.argumentNotNull(receiver, "Receiver must be not null");
+		this.returnDocument = returnDocument;
+		this.propertySet = propertySet;
+		this.receiver = receiver;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.ReturnDocumentOption#getReturnDocument()
+	 */
+	@Override
+	public ReturnDocument getReturnDocument() {
+		return returnDocument;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.ReturnDocumentOption#getPropertySet()
+	 */
+	@Override
+	public Optional<PropertySet<?>> getPropertySet() {
+		return Optional.ofNullable(propertySet);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.ReturnDocumentOption#getReceiver()
+	 */
+	@Override
+	public Optional<Consumer<PropertyBox>> getReceiver() {
+		return Optional.ofNullable(receiver);
+	}
+
+}
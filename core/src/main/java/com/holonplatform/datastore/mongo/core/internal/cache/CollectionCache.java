@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache.CacheStatistics;
+
+/**
+ * A bounded, versioned LRU cache bound to a collection, with an optional time to live for each entry.
+ * <p>
+ * The entries are stored in an access ordered {@link LinkedHashMap}, guarded by the cache instance lock. The lock is
+ * held only to read or update the map, never while the cached values are loaded. Each {@link #clear()} increments the
+ * cache version, and a value is stored only if the cache version did not change since the value loading was started.
+ * </p>
+ * 
+ * @param <K> Cache key type
+ * @param <V> Cache value type
+ *
+ * @since 6.0.1
+ */
+final class CollectionCache<K, V> {
+
+	private final int maxSize;
+	private final long ttl;
+
+	private final LinkedHashMap<K, Entry<V>> entries;
+
+	private long version = 0L;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private final CacheStatistics statistics;
+
+	/**
+	 * Constructor.
+	 * @param maxSize Maximum number of entries, must be greater than 0
+	 * @param ttl Entries time to live, must be positive
+	 */
+	CollectionCache(int maxSize, Duration ttl) {
+		this(maxSize, checkTimeToLive(ttl).toNanos());
+	}
+
+	/**
+	 * Constructor for a cache whose entries never expire.
+	 * @param maxSize Maximum number of entries, must be greater than 0
+	 */
+	CollectionCache(int maxSize) {
+		this(maxSize, 0L);
+	}
+
+	private CollectionCache(int maxSize, long ttl) {
+		super();
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Cache maximum size must be greater than 0");
+		}
+		this.maxSize = maxSize;
+		this.ttl = ttl;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true);
+		this.statistics = new DefaultCacheStatistics(hits, misses, evictions);
+	}
+
+	private static Duration checkTimeToLive(Duration ttl) {
+		if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+			throw new IllegalArgumentException("Cache time to live must be positive");
+		}
+		return ttl;
+	}
+
+	/**
+	 * Get the cache statistics.
+	 * @return The cache statistics
+	 */
+	CacheStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Get the current cache version.
+	 * @return The cache version
+	 */
+	synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Get the value bound to given key, if available and not expired.
+	 * @param key The key
+	 * @return The value, <code>null</code> if not available
+	 */
+	V get(K key) {
+		final V value;
+		synchronized (this) {
+			final Entry<V> entry = entries.get(key);
+			if (entry != null && ttl > 0 && entry.isExpired(System.nanoTime())) {
+				entries.remove(key);
+				value = null;
+			} else {
+				value = (entry != null) ? entry.getValue() : null;
+			}
+		}
+		if (value != null) {
+			hits.increment();
+		} else {
+			misses.increment();
+		}
+		return value;
+	}
+
+	/**
+	 * Put an entry, evicting the least recently used entries if the maximum size is exceeded.
+	 * @param key The key
+	 * @param expectedVersion The cache version obtained before loading the value
+	 * @param value The value
+	 * @return The number of evicted entries, <code>-1</code> if the version is not the current one
+	 */
+	int put(K key, long expectedVersion, V value) {
+		int evicted = 0;
+		synchronized (this) {
+			if (version != expectedVersion) {
+				return -1;
+			}
+			entries.put(key, new Entry<>(value, System.nanoTime() + ttl));
+			while (entries.size() > maxSize) {
+				final K eldest = entries.keySet().iterator().next();
+				entries.remove(eldest);
+				evicted++;
+			}
+		}
+		if (evicted > 0) {
+			evictions.add(evicted);
+		}
+		return evicted;
+	}
+
+	/**
+	 * Remove all the entries and increment the cache version.
+	 */
+	synchronized void clear() {
+		version++;
+		entries.clear();
+	}
+
+	/**
+	 * A cache entry.
+	 * @param <V> Value type
+	 */
+	private static final class Entry<V> {
+
+		private final V value;
+		private final long expiresAt;
+
+		Entry(V value, long expiresAt) {
+			super();
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+		V getValue() {
+			return value;
+		}
+
+		boolean isExpired(long now) {
+			return now - expiresAt >= 0;
+		}
+
+	}
+
+}
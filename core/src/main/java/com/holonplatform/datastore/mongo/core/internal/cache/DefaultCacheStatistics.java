@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache.CacheStatistics;
+
+/**
+ * Default {@link CacheStatistics} implementation, backed by the cache counters.
+ *
+ * @since 6.0.1
+ */
+final class DefaultCacheStatistics implements CacheStatistics {
+
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder evictions;
+
+	DefaultCacheStatistics(LongAdder hits, LongAdder misses, LongAdder evictions) {
+		super();
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+	}
+
+	@Override
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	@Override
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStatistics [hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions="
+				+ getEvictionCount() + "]";
+	}
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.bson.types.ObjectId;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.VirtualProperty;
+import com.holonplatform.datastore.mongo.core.cache.EntityCache;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache.CacheStatistics;
+
+/**
+ * Default {@link EntityCache} implementation.
+ * <p>
+ * Each collection cache is a bounded LRU {@link CollectionCache}, whose lock is never held while an entity is read.
+ * The entities are copied when they are stored and each time they are read, including any nested {@link PropertyBox}
+ * value and the collections of values.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class DefaultEntityCache implements EntityCache {
+
+	private final Map<String, CollectionCache<ObjectId, PropertyBox>> collections;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private final CacheStatistics statistics;
+
+	/**
+	 * Constructor.
+	 * @param collections The collection caches
+	 */
+	DefaultEntityCache(Map<String, CollectionCache<ObjectId, PropertyBox>> collections) {
+		super();
+		this.collections = Collections.unmodifiableMap(collections);
+		this.statistics = new DefaultCacheStatistics(hits, misses, evictions);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.EntityCache#getCollectionNames()
+	 */
+	@Override
+	public Set<String> getCollectionNames() {
+		return collections.keySet();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.EntityCache#isEnabled(java.lang.String)
+	 */
+	@Override
+	public boolean isEnabled(String collectionName) {
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		return collections.containsKey(collectionName);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.EntityCache#get(java.lang.String, org.bson.types.ObjectId,
+	 * com.holonplatform.core.property.PropertySet)
+	 */
+	@Override
+	public Optional<PropertyBox> get(String collectionName, ObjectId id, PropertySet<?> propertySet) {
+		ObjectUtils.argumentNotNull(id, "Document id must be not null");
+		ObjectUtils.argumentNotNull(propertySet, "Property set must be not null");
+		final CollectionCache<ObjectId, PropertyBox> cache = getCollectionCache(collectionName);
+		if (cache == null) {
+			return Optional.empty();
+		}
+		final PropertyBox value = cache.get(id);
+		if (value != null && propertySet.stream().allMatch(property -> value.contains(property))) {
+			hits.increment();
+			return Optional.of(copy(value, propertySet));
+		}
+		misses.increment();
+		return Optional.empty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.EntityCache#getVersion(java.lang.String)
+	 */
+	@Override
+	public long getVersion(String collectionName) {
+		final CollectionCache<ObjectId, PropertyBox> cache = getCollectionCache(collectionName);
+		return (cache != null) ? cache.getVersion() : 0L;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.EntityCache#put(java.lang.String, org.bson.types.ObjectId,
+	 * long, com.holonplatform.core.property.PropertyBox)
+	 */
+	@Override
+	public boolean put(String collectionName, ObjectId id, long version, PropertyBox value) {
+		ObjectUtils.argumentNotNull(id, "Document id must be not null");
+		ObjectUtils.argumentNotNull(value, "Value must be not null");
+		final CollectionCache<ObjectId, PropertyBox> cache = getCollectionCache(collectionName);
+		if (cache == null) {
+			return false;
+		}
+		final int evicted = cache.put(id, version, copy(value, value));
+		if (evicted < 0) {
+			return false;
+		}
+		if (evicted > 0) {
+			evictions.add(evicted);
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.EntityCache#invalidate(java.lang.String)
+	 */
+	@Override
+	public void invalidate(String collectionName) {
+		final CollectionCache<ObjectId, PropertyBox> cache = getCollectionCache(collectionName);
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.EntityCache#clear()
+	 */
+	@Override
+	public void clear() {
+		collections.values().forEach(cache -> cache.clear());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.EntityCache#getStatistics()
+	 */
+	@Override
+	public CacheStatistics getStatistics() {
+		return statistics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.EntityCache#getStatistics(java.lang.String)
+	 */
+	@Override
+	public Optional<CacheStatistics> getStatistics(String collectionName) {
+		return Optional.ofNullable(getCollectionCache(collectionName)).map(cache -> cache.getStatistics());
+	}
+
+	private CollectionCache<ObjectId, PropertyBox> getCollectionCache(String collectionName) {
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		return collections.get(collectionName);
+	}
+
+	/**
+	 * Copy given value using given property set.
+	 * @param value The value to copy
+	 * @param propertySet The property set of the copy
+	 * @return The value copy
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static PropertyBox copy(PropertyBox value, PropertySet<?> propertySet) {
+		final PropertyBox.Builder builder = PropertyBox.builder(propertySet).invalidAllowed(true);
+		for (Property property : propertySet) {
+			if (!(property instanceof VirtualProperty) && value.containsValue(property)) {
+				builder.setIgnoreReadOnly(property, copyValue(value.getValue(property)));
+			}
+		}
+		final PropertyBox copy = builder.build();
+		copy.setInvalidAllowed(value.isInvalidAllowed());
+		return copy;
+	}
+
+	/**
+	 * Copy a property value, if it is a {@link PropertyBox} or a collection of values.
+	 * @param value The value to copy
+	 * @return The value copy
+	 */
+	private static Object copyValue(Object value) {
+		if (value instanceof PropertyBox) {
+			return copy((PropertyBox) value, (PropertyBox) value);
+		}
+		if (value instanceof List) {
+			return ((List<?>) value).stream().map(v -> copyValue(v)).collect(Collectors.toList());
+		}
+		if (value instanceof Set) {
+			return ((Set<?>) value).stream().map(v -> copyValue(v))
+					.collect(Collectors.toCollection(LinkedHashSet::new));
+		}
+		return value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "EntityCache [collections=" + collections.keySet() + ", statistics=" + statistics + "]";
+	}
+
+	/**
+	 * Default {@link Builder} implementation.
+	 */
+	public static class DefaultBuilder implements Builder {
+
+		private final Map<String, CollectionCache<ObjectId, PropertyBox>> collections = new HashMap<>();
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.datastore.mongo.core.cache.EntityCache.Builder#collection(java.lang.String, int,
+		 * java.time.Duration)
+		 */
+		@Override
+		public Builder collection(String collectionName, int maxSize, Duration ttl) {
+			ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+			ObjectUtils.argumentNotNull(ttl, "Time to live must be not null");
+			collections.put(collectionName, new CollectionCache<>(maxSize, ttl));
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.datastore.mongo.core.cache.EntityCache.Builder#build()
+		 */
+		@Override
+		public EntityCache build() {
+			return new DefaultEntityCache(new HashMap<>(collections));
+		}
+
+	}
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.cache;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache;
+
+/**
+ * Default {@link MetadataCache} implementation.
+ * <p>
+ * Entries are stored in a {@link ConcurrentHashMap} using weakly referenced, identity based keys. Lookups never lock:
+ * the loader function is invoked outside any map lock, so concurrent misses for the same key may compute the value
+ * more than once, but only the first computed value is retained.
+ * </p>
+ * 
+ * @param <K> Key type
+ * @param <V> Value type
+ *
+ * @since 6.0.1
+ */
+public class DefaultMetadataCache<K, V> implements MetadataCache<K, V> {
+
+	/**
+	 * Placeholder for <code>null</code> values
+	 */
+	private static final Object NULL = new Object();
+
+	private final String name;
+	private final int maxSize;
+	private final Function<? super K, ? extends V> loader;
+
+	private final ConcurrentHashMap<Object, Object> entries;
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private final CacheStatistics statistics;
+
+	/**
+	 * Constructor.
+	 * @param name The cache name (not null)
+	 * @param maxSize The cache maximum size (must be greater than 0)
+	 * @param loader The function to use to compute the value bound to a key (not null)
+	 */
+	public DefaultMetadataCache(String name, int maxSize, Function<? super K, ? extends V> loader) {
+		super();
+		ObjectUtils.argumentNotNull(name, "Cache name must be not null");
+		ObjectUtils.argumentNotNull(loader, "Cache loader must be not null");
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Cache maximum size must be greater than 0");
+		}
+		this.name = name;
+		this.maxSize = maxSize;
+		this.loader = loader;
+		this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 64));
+		this.statistics = new DefaultCacheStatistics(hits, misses, evictions);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCache#getName()
+	 */
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCache#getMaxSize()
+	 */
+	@Override
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCache#get(java.lang.Object)
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(K key) {
+		ObjectUtils.argumentNotNull(key, "Cache key must be not null");
+		Object value = entries.get(new LookupKey(key));
+		if (value != null) {
+			hits.increment();
+			return (value == NULL) ? null : (V) value;
+		}
+		misses.increment();
+		expunge();
+		// compute outside any map lock, the loader may use other caches
+		final V computed = loader.apply(key);
+		final Object previous = entries.putIfAbsent(new WeakKey(key, queue), (computed == null) ? NULL : computed);
+		if (previous != null) {
+			return (previous == NULL) ? null : (V) previous;
+		}
+		evict();
+		return computed;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCache#getIfPresent(java.lang.Object)
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public Optional<V> getIfPresent(K key) {
+		ObjectUtils.argumentNotNull(key, "Cache key must be not null");
+		final Object value = entries.get(new LookupKey(key));
+		if (value == null || value == NULL) {
+			return Optional.empty();
+		}
+		return Optional.of((V) value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCache#invalidate(java.lang.Object)
+	 */
+	@Override
+	public void invalidate(K key) {
+		ObjectUtils.argumentNotNull(key, "Cache key must be not null");
+		entries.remove(new LookupKey(key));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCache#clear()
+	 */
+	@Override
+	public void clear() {
+		entries.clear();
+		expunge();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCache#size()
+	 */
+	@Override
+	public int size() {
+		expunge();
+		return entries.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCache#getStatistics()
+	 */
+	@Override
+	public CacheStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Remove the entries whose key was garbage collected.
+	 */
+	private void expunge() {
+		Reference<?> reference;
+		while ((reference = queue.poll()) != null) {
+			entries.remove(reference);
+		}
+	}
+
+	/**
+	 * Remove entries until the cache size is not greater than the maximum size.
+	 */
+	private void evict() {
+		if (entries.size() > maxSize) {
+			final Iterator<Object> keys = entries.keySet().iterator();
+			while (entries.size() > maxSize && keys.hasNext()) {
+				keys.next();
+				keys.remove();
+				evictions.increment();
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "MetadataCache [name=" + name + ", size=" + entries.size() + ", maxSize=" + maxSize + ", hits="
+				+ hits.sum() + ", misses=" + misses.sum() + ", evictions=" + evictions.sum() + "]";
+	}
+
+	/**
+	 * Common identity key contract.
+	 */
+	private interface IdentityKey {
+
+		Object getKey();
+
+	}
+
+	/**
+	 * Stored key: weakly references the key object.
+	 */
+	private static final class WeakKey extends WeakReference<Object> implements IdentityKey {
+
+		private final int hash;
+
+		WeakKey(Object key, ReferenceQueue<Object> queue) {
+			super(key, queue);
+			this.hash = System.identityHashCode(key);
+		}
+
+		@Override
+		public Object getKey() {
+			return get();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj instanceof IdentityKey) {
+				final Object key = get();
+				return key != null && key == ((IdentityKey) obj).getKey();
+			}
+			return false;
+		}
+
+	}
+
+	/**
+	 * Lookup key: strongly references the key object, used only for map lookups.
+	 */
+	private static final class LookupKey implements IdentityKey {
+
+		private final Object key;
+
+		LookupKey(Object key) {
+			this.key = key;
+		}
+
+		@Override
+		public Object getKey() {
+			return key;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(key);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof IdentityKey && key == ((IdentityKey) obj).getKey();
+		}
+
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.cache;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import com.holonplatform.core.beans.BeanPropertySet;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry;
+import com.holonplatform.datastore.mongo.core.internal.document.DefaultDocumentIdResolver;
+import com.holonplatform.datastore.mongo.core.internal.document.DefaultMongoPropertySetSerializationTreeResolver;
+import com.holonplatform.datastore.mongo.core.internal.document.converter.BeanDocumentMapper;
+import com.holonplatform.datastore.mongo.core.internal.document.converter.PropertyBoxDocumentConverter;
+import com.holonplatform.datastore.mongo.core.internal.resolver.PropertySetDocumentCodec;
+
+/**
+ * Default {@link MetadataCacheRegistry} implementation.
+ *
+ * @since 6.0.1
+ */
+public enum DefaultMetadataCacheRegistry implements MetadataCacheRegistry {
+
+	/**
+	 * Singleton instance
+	 */
+	INSTANCE;
+
+	/**
+	 * Registered caches
+	 */
+	private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+
+	private DefaultMetadataCacheRegistry() {
+		// built-in caches
+		registrations.add(new Registration(PropertySet.class, PropertyBoxDocumentConverter.getPropertySetCache()));
+		registrations.add(new Registration(PropertySet.class, DefaultDocumentIdResolver.getCache()));
+		registrations
+				.add(new Registration(PropertySet.class, DefaultMongoPropertySetSerializationTreeResolver.getCache()));
+		registrations.add(new Registration(PropertySet.class, PropertySetDocumentCodec.getCache()));
+		registrations.add(new Registration(BeanPropertySet.class, BeanDocumentMapper.getCache()));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry#register(java.lang.Class,
+	 * com.holonplatform.datastore.mongo.core.cache.MetadataCache)
+	 */
+	@Override
+	public synchronized <K> void register(Class<K> keyType, MetadataCache<K, ?> cache) {
+		ObjectUtils.argumentNotNull(keyType, "Cache key type must be not null");
+		ObjectUtils.argumentNotNull(cache, "Cache must be not null");
+		if (getCache(cache.getName()).isPresent()) {
+			throw new IllegalArgumentException("A cache named [" + cache.getName() + "] is already registered");
+		}
+		registrations.add(new Registration(keyType, cache));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry#getCaches()
+	 */
+	@Override
+	public List<MetadataCache<?, ?>> getCaches() {
+		return registrations.stream().map(r -> r.getCache()).collect(Collectors.toList());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry#getCache(java.lang.String)
+	 */
+	@Override
+	public Optional<MetadataCache<?, ?>> getCache(String name) {
+		if (name != null) {
+			for (Registration registration : registrations) {
+				if (name.equals(registration.getCache().getName())) {
+					return Optional.of(registration.getCache());
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry#prewarmAll(java.lang.Iterable)
+	 */
+	@Override
+	public void prewarmAll(Iterable<?> keys) {
+		if (keys != null) {
+			for (Object key : keys) {
+				// PropertyBox instances are never cached
+				if (key != null && !(key instanceof PropertyBox)) {
+					prewarmKey(key);
+					// query results use a derived property set
+					if (key instanceof PropertySet) {
+						final PropertySet<?> projection = PropertyBoxDocumentConverter.propertySet((PropertySet<?>) key);
+						if (projection != key) {
+							prewarmKey(projection);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void prewarmKey(Object key) {
+		for (Registration registration : registrations) {
+			registration.prewarm(key);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry#clear()
+	 */
+	@Override
+	public void clear() {
+		for (Registration registration : registrations) {
+			registration.getCache().clear();
+		}
+	}
+
+	/**
+	 * A cache registration.
+	 */
+	private static final class Registration {
+
+		private final Class<?> keyType;
+		private final MetadataCache<?, ?> cache;
+
+		Registration(Class<?> keyType, MetadataCache<?, ?> cache) {
+			super();
+			this.keyType = keyType;
+			this.cache = cache;
+		}
+
+		MetadataCache<?, ?> getCache() {
+			return cache;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		void prewarm(Object key) {
+			if (keyType.isInstance(key)) {
+				((MetadataCache) cache).get(key);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bson.RawBsonDocument;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache.CacheStatistics;
+import com.holonplatform.datastore.mongo.core.cache.QueryResultCache;
+
+/**
+ * Default {@link QueryResultCache} implementation.
+ * <p>
+ * Each collection cache is a bounded LRU {@link CollectionCache}, whose lock is never held while a query is
+ * executed.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class DefaultQueryResultCache implements QueryResultCache {
+
+	private final Map<String, CollectionCache<String, List<RawBsonDocument>>> collections;
+	private final int maxEntryDocuments;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private final CacheStatistics statistics;
+
+	/**
+	 * Constructor.
+	 * @param collections The collection caches
+	 * @param maxEntryDocuments The maximum number of result documents of a cache entry
+	 */
+	DefaultQueryResultCache(Map<String, CollectionCache<String, List<RawBsonDocument>>> collections,
+			int maxEntryDocuments) {
+		super();
+		this.collections = Collections.unmodifiableMap(collections);
+		this.maxEntryDocuments = maxEntryDocuments;
+		this.statistics = new DefaultCacheStatistics(hits, misses, evictions);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache#getCollectionNames()
+	 */
+	@Override
+	public Set<String> getCollectionNames() {
+		return collections.keySet();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache#isEnabled(java.lang.String)
+	 */
+	@Override
+	public boolean isEnabled(String collectionName) {
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		return collections.containsKey(collectionName);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache#getMaxEntryDocuments()
+	 */
+	@Override
+	public int getMaxEntryDocuments() {
+		return maxEntryDocuments;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache#get(java.lang.String, java.lang.String)
+	 */
+	@Override
+	public Optional<List<RawBsonDocument>> get(String collectionName, String key) {
+		ObjectUtils.argumentNotNull(key, "Cache key must be not null");
+		final CollectionCache<String, List<RawBsonDocument>> cache = getCollectionCache(collectionName);
+		if (cache == null) {
+			return Optional.empty();
+		}
+		final List<RawBsonDocument> results = cache.get(key);
+		if (results != null) {
+			hits.increment();
+			return Optional.of(results);
+		}
+		misses.increment();
+		return Optional.empty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache#getVersion(java.lang.String)
+	 */
+	@Override
+	public long getVersion(String collectionName) {
+		final CollectionCache<String, List<RawBsonDocument>> cache = getCollectionCache(collectionName);
+		return (cache != null) ? cache.getVersion() : 0L;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache#put(java.lang.String, java.lang.String, long,
+	 * java.util.List)
+	 */
+	@Override
+	public boolean put(String collectionName, String key, long version, List<RawBsonDocument> results) {
+		ObjectUtils.argumentNotNull(key, "Cache key must be not null");
+		ObjectUtils.argumentNotNull(results, "Results must be not null");
+		final CollectionCache<String, List<RawBsonDocument>> cache = getCollectionCache(collectionName);
+		if (cache == null || results.size() > maxEntryDocuments) {
+			return false;
+		}
+		final int evicted = cache.put(key, version, Collections.unmodifiableList(results));
+		if (evicted < 0) {
+			return false;
+		}
+		if (evicted > 0) {
+			evictions.add(evicted);
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache#invalidate(java.lang.String)
+	 */
+	@Override
+	public void invalidate(String collectionName) {
+		final CollectionCache<String, List<RawBsonDocument>> cache = getCollectionCache(collectionName);
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache#clear()
+	 */
+	@Override
+	public void clear() {
+		collections.values().forEach(cache -> cache.clear());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache#getStatistics()
+	 */
+	@Override
+	public CacheStatistics getStatistics() {
+		return statistics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache#getStatistics(java.lang.String)
+	 */
+	@Override
+	public Optional<CacheStatistics> getStatistics(String collectionName) {
+		return Optional.ofNullable(getCollectionCache(collectionName)).map(cache -> cache.getStatistics());
+	}
+
+	private CollectionCache<String, List<RawBsonDocument>> getCollectionCache(String collectionName) {
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		return collections.get(collectionName);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "QueryResultCache [collections=" + collections.keySet() + ", maxEntryDocuments=" + maxEntryDocuments
+				+ ", statistics=" + statistics + "]";
+	}
+
+	/**
+	 * Default {@link Builder} implementation.
+	 */
+	public static class DefaultBuilder implements Builder {
+
+		private final Map<String, CollectionCache<String, List<RawBsonDocument>>> collections = new HashMap<>();
+		private int maxEntryDocuments = DEFAULT_MAX_ENTRY_DOCUMENTS;
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache.Builder#collection(java.lang.String, int,
+		 * java.time.Duration)
+		 */
+		@Override
+		public Builder collection(String collectionName, int maxSize, Duration ttl) {
+			ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+			ObjectUtils.argumentNotNull(ttl, "Time to live must be not null");
+			collections.put(collectionName, new CollectionCache<>(maxSize, ttl));
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache.Builder#maxEntryDocuments(int)
+		 */
+		@Override
+		public Builder maxEntryDocuments(int maxEntryDocuments) {
+			if (maxEntryDocuments <= 0) {
+				throw new IllegalArgumentException("Maximum entry documents must be greater than 0");
+			}
+			this.maxEntryDocuments = maxEntryDocuments;
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.datastore.mongo.core.cache.QueryResultCache.Builder#build()
+		 */
+		@Override
+		public QueryResultCache build() {
+			return new DefaultQueryResultCache(new HashMap<>(collections), maxEntryDocuments);
+		}
+
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.datastore.mongo.core.CountStrategy;
+
+/**
+ * A cache of the query counts performed using the {@link CountStrategy#cached(Duration)} strategy.
+ * <p>
+ * The counts are keyed by collection name and query filter, and each collection cache holds at most
+ * {@link #MAX_SIZE} counts, evicting the least recently used counts. A count never expires, but it is returned only if
+ * it is not older than the maximum age requested by the count strategy. All the counts of a collection are discarded
+ * when the collection is invalidated, i.e. both when a write operation on the collection is issued and when it is
+ * completed (or, within a transaction, when the transaction ends), and the counts which were running at that time are
+ * not cached.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class QueryCountCache {
+
+	/**
+	 * Maximum number of counts of each collection cache
+	 */
+	public static final int MAX_SIZE = 256;
+
+	private final ConcurrentMap<String, CollectionCache<String, CachedCount>> collections = new ConcurrentHashMap<>();
+
+	/**
+	 * Get the count bound to given collection and query key, if available and not older than given maximum age.
+	 * @param collectionName The collection name (not null)
+	 * @param key The query key (not null)
+	 * @param maxAge The maximum count age (not null)
+	 * @return Optional cached count
+	 */
+	public Optional<Long> get(String collectionName, String key, Duration maxAge) {
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		ObjectUtils.argumentNotNull(key, "Cache key must be not null");
+		ObjectUtils.argumentNotNull(maxAge, "Maximum age must be not null");
+		final CollectionCache<String, CachedCount> cache = collections.get(collectionName);
+		if (cache == null) {
+			return Optional.empty();
+		}
+		final CachedCount count = cache.get(key);
+		if (count != null && System.nanoTime() - count.getStartedAt() < maxAge.toNanos()) {
+			return Optional.of(count.getCount());
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Get the current version of given collection cache, which is incremented each time the collection cache is
+	 * invalidated. The version must be obtained before executing a count, and used to {@link #put} its result.
+	 * @param collectionName The collection name (not null)
+	 * @return The collection cache version
+	 */
+	public long getVersion(String collectionName) {
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		return collections.computeIfAbsent(collectionName, name -> new CollectionCache<>(MAX_SIZE)).getVersion();
+	}
+
+	/**
+	 * Cache a count. The count is discarded if the collection cache was invalidated since the given version was
+	 * obtained.
+	 * @param collectionName The collection name (not null)
+	 * @param key The query key (not null)
+	 * @param version The collection cache version obtained before executing the count
+	 * @param startedAt The {@link System#nanoTime()} at which the count was started
+	 * @param count The count
+	 * @return <code>true</code> if the count was cached
+	 */
+	public boolean put(String collectionName, String key, long version, long startedAt, long count) {
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		ObjectUtils.argumentNotNull(key, "Cache key must be not null");
+		final CollectionCache<String, CachedCount> cache = collections.get(collectionName);
+		return cache != null && cache.put(key, version, new CachedCount(count, startedAt)) >= 0;
+	}
+
+	/**
+	 * Invalidate all the counts of given collection.
+	 * @param collectionName The collection name (not null)
+	 */
+	public void invalidate(String collectionName) {
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		final CollectionCache<String, CachedCount> cache = collections.get(collectionName);
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Invalidate all the counts.
+	 */
+	public void clear() {
+		collections.values().forEach(cache -> cache.clear());
+	}
+
+	/**
+	 * A cached count.
+	 */
+	private static final class CachedCount {
+
+		private final long count;
+		private final long startedAt;
+
+		CachedCount(long count, long startedAt) {
+			super();
+			this.count = count;
+			this.startedAt = startedAt;
+		}
+
+		long getCount() {
+			return count;
+		}
+
+		long getStartedAt() {
+			return startedAt;
+		}
+
+	}
+
+}
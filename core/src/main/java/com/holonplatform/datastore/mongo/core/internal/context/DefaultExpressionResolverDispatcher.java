@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.context;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.holonplatform.core.Expression;
+import com.holonplatform.core.Expression.InvalidExpressionException;
+import com.holonplatform.core.ExpressionResolver;
+import com.holonplatform.core.ExpressionResolver.ResolutionContext;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+
+import jakarta.annotation.Priority;
+
+/**
+ * Default {@link ExpressionResolverDispatcher} implementation.
+ *
+ * @since 6.0.1
+ */
+@SuppressWarnings("rawtypes")
+public class DefaultExpressionResolverDispatcher implements ExpressionResolverDispatcher {
+
+	/**
+	 * No resolvers
+	 */
+	private static final ExpressionResolver[] NONE = new ExpressionResolver[0];
+
+	/**
+	 * Empty dispatcher
+	 */
+	static final ExpressionResolverDispatcher EMPTY = new DefaultExpressionResolverDispatcher(NONE);
+
+	/**
+	 * Resolvers priority comparator
+	 */
+	private static final Comparator<ExpressionResolver> PRIORITY_COMPARATOR = Comparator
+			.comparingInt(r -> r.getClass().isAnnotationPresent(Priority.class)
+					? r.getClass().getAnnotation(Priority.class).value()
+					: ExpressionResolver.DEFAULT_PRIORITY);
+
+	/**
+	 * Registered resolvers, in registration order
+	 */
+	private final ExpressionResolver[] resolvers;
+
+	/**
+	 * Dispatch table: expression type -> resolution type -> ordered resolvers
+	 */
+	private final Map<Class<?>, Map<Class<?>, ExpressionResolver[]>> dispatch = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param resolvers Registered resolvers, in registration order
+	 */
+	private DefaultExpressionResolverDispatcher(ExpressionResolver[] resolvers) {
+		super();
+		this.resolvers = resolvers;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.datastore.mongo.core.internal.context.ExpressionResolverDispatcher#with(java.lang.Iterable)
+	 */
+	@Override
+	public ExpressionResolverDispatcher with(Iterable<? extends ExpressionResolver> expressionResolvers) {
+		if (expressionResolvers == null) {
+			return this;
+		}
+		final List<ExpressionResolver> added = new ArrayList<>();
+		for (ExpressionResolver expressionResolver : expressionResolvers) {
+			ObjectUtils.argumentNotNull(expressionResolver, "ExpressionResolver to add must be not null");
+			added.add(expressionResolver);
+		}
+		if (added.isEmpty()) {
+			return this;
+		}
+		final ExpressionResolver[] layered = Arrays.copyOf(resolvers, resolvers.length + added.size());
+		for (int i = 0; i < added.size(); i++) {
+			layered[resolvers.length + i] = added.get(i);
+		}
+		return new DefaultExpressionResolverDispatcher(layered);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.datastore.mongo.core.internal.context.ExpressionResolverDispatcher#without(com.holonplatform.
+	 * core.ExpressionResolver)
+	 */
+	@Override
+	public ExpressionResolverDispatcher without(ExpressionResolver expressionResolver) {
+		ObjectUtils.argumentNotNull(expressionResolver, "ExpressionResolver to remove must be not null");
+		for (int i = 0; i < resolvers.length; i++) {
+			if (resolvers[i].equals(expressionResolver)) {
+				final ExpressionResolver[] reduced = new ExpressionResolver[resolvers.length - 1];
+				System.arraycopy(resolvers, 0, reduced, 0, i);
+				System.arraycopy(resolvers, i + 1, reduced, i, resolvers.length - i - 1);
+				return new DefaultExpressionResolverDispatcher(reduced);
+			}
+		}
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.ExpressionResolver.ExpressionResolverProvider#getExpressionResolvers()
+	 */
+	@Override
+	public Iterable<ExpressionResolver> getExpressionResolvers() {
+		return Collections.unmodifiableList(Arrays.asList(resolvers));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.datastore.mongo.core.internal.context.ExpressionResolverDispatcher#getExpressionResolvers(java.
+	 * lang.Class, java.lang.Class)
+	 */
+	@Override
+	public List<ExpressionResolver> getExpressionResolvers(Class<? extends Expression> expressionType,
+			Class<? extends Expression> resolutionType) {
+		ObjectUtils.argumentNotNull(expressionType, "Expression type must be not null");
+		ObjectUtils.argumentNotNull(resolutionType, "Resolution type must be not null");
+		return Collections.unmodifiableList(Arrays.asList(getResolvers(expressionType, resolutionType)));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.core.ExpressionResolver.ExpressionResolverHandler#resolve(com.holonplatform.core.Expression,
+	 * java.lang.Class, com.holonplatform.core.ExpressionResolver.ResolutionContext)
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public <E extends Expression, R extends Expression> Optional<R> resolve(E expression, Class<R> resolutionType,
+			ResolutionContext context) throws InvalidExpressionException {
+		ObjectUtils.argumentNotNull(expression, "Expression to resolve must be not null");
+		ObjectUtils.argumentNotNull(resolutionType, "Resolution type must be not null");
+
+		final ExpressionResolver[] candidates = getResolvers(expression.getClass(), resolutionType);
+
+		expression.validate();
+
+		for (ExpressionResolver resolver : candidates) {
+			Optional<R> resolved = resolver.resolve(expression, context);
+			if (resolved.isPresent()) {
+				return resolved;
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Get the resolvers which can handle given expression type and resolution type, ordered by priority.
+	 * @param expressionType Expression type
+	 * @param resolutionType Resolution type
+	 * @return The ordered resolvers, an empty array if none
+	 */
+	private ExpressionResolver[] getResolvers(Class<?> expressionType, Class<?> resolutionType) {
+		if (resolvers.length == 0) {
+			return NONE;
+		}
+		return dispatch.computeIfAbsent(expressionType, t -> new ConcurrentHashMap<>())
+				.computeIfAbsent(resolutionType, t -> lookup(expressionType, resolutionType));
+	}
+
+	/**
+	 * Lookup the resolvers which can handle given expression type and resolution type.
+	 * @param expressionType Expression type
+	 * @param resolutionType Resolution type
+	 * @return The resolvers, ordered by priority and then by registration order
+	 */
+	private ExpressionResolver[] lookup(Class<?> expressionType, Class<?> resolutionType) {
+		final List<ExpressionResolver> candidates = new ArrayList<>();
+		for (ExpressionResolver resolver : resolvers) {
+			final Class<?> type = resolver.getExpressionType();
+			if (type.isAssignableFrom(expressionType) && resolver.getResolvedType() == resolutionType) {
+				candidates.add(resolver);
+			}
+		}
+		if (candidates.isEmpty()) {
+			return NONE;
+		}
+		// stable sort
+		candidates.sort(PRIORITY_COMPARATOR);
+		return candidates.toArray(NONE);
+	}
+
+}
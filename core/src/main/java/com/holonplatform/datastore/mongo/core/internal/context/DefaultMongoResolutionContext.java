@@ -15,6 +15,7 @@
  */
 package com.holonplatform.datastore.mongo.core.internal.context;
 
+import java.util.Collections;
 import java.util.Optional;
 import java.util.function.Supplier;
 
@@ -24,18 +25,23 @@ import com.holonplatform.core.Expression;
 import com.holonplatform.core.Expression.InvalidExpressionException;
 import com.holonplatform.core.ExpressionResolver;
 import com.holonplatform.core.ExpressionResolver.ResolutionContext;
-import com.holonplatform.core.ExpressionResolverRegistry;
 import com.holonplatform.core.Path;
 import com.holonplatform.core.internal.Logger;
 import com.holonplatform.core.internal.utils.ObjectUtils;
 import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.cache.EntityCache;
+import com.holonplatform.datastore.mongo.core.cache.QueryResultCache;
 import com.holonplatform.datastore.mongo.core.context.MongoContext;
 import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
 import com.holonplatform.datastore.mongo.core.document.DocumentIdResolver;
 import com.holonplatform.datastore.mongo.core.document.EnumCodecStrategy;
 import com.holonplatform.datastore.mongo.core.document.QueryOperationType;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.cache.QueryCountCache;
 import com.holonplatform.datastore.mongo.core.internal.logger.MongoDatastoreLogger;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshotsProvider;
 import com.mongodb.ReadConcern;
 import com.mongodb.ReadPreference;
 import com.mongodb.WriteConcern;
@@ -48,14 +54,15 @@ import com.mongodb.session.ClientSession;
  *
  * @since 5.2.0
  */
-public class DefaultMongoResolutionContext<S extends ClientSession> implements MongoResolutionContext<S> {
+public class DefaultMongoResolutionContext<S extends ClientSession>
+		implements MongoResolutionContext<S>, ExpressionResolverDispatcherProvider, PropertyBoxSnapshotsProvider {
 
 	protected final static Logger LOGGER = MongoDatastoreLogger.create();
 
 	/**
-	 * Expression resolvers
+	 * Expression resolvers dispatcher
 	 */
-	private final ExpressionResolverRegistry expressionResolverRegistry = ExpressionResolverRegistry.create();
+	private volatile ExpressionResolverDispatcher expressionResolverDispatcher;
 
 	/**
 	 * Mongo context
@@ -87,6 +94,16 @@ public class DefaultMongoResolutionContext<S extends ClientSession> implements M
 	 */
 	private QueryOperationType queryOperationType;
 
+	/**
+	 * Resolved target collection name
+	 */
+	private String targetCollectionName;
+
+	/**
+	 * Whether more than one target collection name was resolved
+	 */
+	private boolean ambiguousTargetCollection = false;
+
 	/**
 	 * Default constructor.
 	 * @param context Mongo context (not null)
@@ -155,7 +172,7 @@ public class DefaultMongoResolutionContext<S extends ClientSession> implements M
 		this.forUpdate = forUpdate;
 		this.updatePath = updatePath;
 		// inherit resolvers
-		addExpressionResolvers(context.getExpressionResolvers());
+		this.expressionResolverDispatcher = ExpressionResolverDispatcherProvider.getDispatcher(context);
 		// parent config
 		if (parent != null) {
 			expressionAliasProvider = parent.getExpressionAliasProvider();
@@ -233,6 +250,48 @@ public class DefaultMongoResolutionContext<S extends ClientSession> implements M
 		this.queryOperationType = queryOperationType;
 	}
 
+	/**
+	 * Get the name of the collection which was resolved as operation target using this context or any of its parent
+	 * contexts. If no collection name was resolved by a root context, the target collection name of the resolution
+	 * context it was created from, if any, is used.
+	 * @return Optional target collection name, empty if none or if more than one collection name was resolved
+	 * @since 6.0.1
+	 */
+	public Optional<String> getTargetCollectionName() {
+		if (parent instanceof DefaultMongoResolutionContext) {
+			return ((DefaultMongoResolutionContext<?>) parent).getTargetCollectionName();
+		}
+		synchronized (this) {
+			if (ambiguousTargetCollection) {
+				return Optional.empty();
+			}
+			if (targetCollectionName != null) {
+				return Optional.of(targetCollectionName);
+			}
+		}
+		return (context instanceof DefaultMongoResolutionContext)
+				? ((DefaultMongoResolutionContext<?>) context).getTargetCollectionName()
+				: Optional.empty();
+	}
+
+	/**
+	 * Record the name of a collection resolved as operation target.
+	 * @param collectionName The collection name
+	 */
+	private void setTargetCollectionName(String collectionName) {
+		if (parent instanceof DefaultMongoResolutionContext) {
+			((DefaultMongoResolutionContext<?>) parent).setTargetCollectionName(collectionName);
+			return;
+		}
+		synchronized (this) {
+			if (targetCollectionName == null) {
+				targetCollectionName = collectionName;
+			} else if (!targetCollectionName.equals(collectionName)) {
+				ambiguousTargetCollection = true;
+			}
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see com.holonplatform.datastore.mongo.core.context.MongoResolutionContext#childContext()
@@ -336,6 +395,72 @@ public class DefaultMongoResolutionContext<S extends ClientSession> implements M
 		return getContext().getDefaultWriteConcern();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#isSnapshotTrackingEnabled()
+	 */
+	@Override
+	public boolean isSnapshotTrackingEnabled() {
+		return getContext().isSnapshotTrackingEnabled();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshotsProvider#
+	 * getPropertyBoxSnapshots()
+	 */
+	@Override
+	public Optional<PropertyBoxSnapshots> getPropertyBoxSnapshots() {
+		return (getContext() instanceof PropertyBoxSnapshotsProvider)
+				? ((PropertyBoxSnapshotsProvider) getContext()).getPropertyBoxSnapshots()
+				: Optional.empty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#getQueryResultCache()
+	 */
+	@Override
+	public Optional<QueryResultCache> getQueryResultCache() {
+		return getContext().getQueryResultCache();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#getEntityCache()
+	 */
+	@Override
+	public Optional<EntityCache> getEntityCache() {
+		return getContext().getEntityCache();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#getQueryCountCache()
+	 */
+	@Override
+	public Optional<QueryCountCache> getQueryCountCache() {
+		return getContext().getQueryCountCache();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#beforeCollectionWrite(java.lang.String)
+	 */
+	@Override
+	public void beforeCollectionWrite(String collectionName) {
+		getContext().beforeCollectionWrite(collectionName);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#afterCollectionWrite(java.lang.String)
+	 */
+	@Override
+	public void afterCollectionWrite(String collectionName) {
+		getContext().afterCollectionWrite(collectionName);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#trace(java.lang.String)
@@ -347,6 +472,16 @@ public class DefaultMongoResolutionContext<S extends ClientSession> implements M
 
 	// Expression resolvers
 
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.context.ExpressionResolverDispatcherProvider#
+	 * getExpressionResolverDispatcher()
+	 */
+	@Override
+	public ExpressionResolverDispatcher getExpressionResolverDispatcher() {
+		return expressionResolverDispatcher;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see com.holonplatform.core.ExpressionResolver.ExpressionResolverHandler#getExpressionResolvers()
@@ -354,7 +489,7 @@ public class DefaultMongoResolutionContext<S extends ClientSession> implements M
 	@SuppressWarnings("rawtypes")
 	@Override
 	public Iterable<ExpressionResolver> getExpressionResolvers() {
-		return expressionResolverRegistry.getExpressionResolvers();
+		return expressionResolverDispatcher.getExpressionResolvers();
 	}
 
 	/*
@@ -366,7 +501,23 @@ public class DefaultMongoResolutionContext<S extends ClientSession> implements M
 	@Override
 	public <E extends Expression, R extends Expression> Optional<R> resolve(E expression, Class<R> resolutionType,
 			ResolutionContext context) throws InvalidExpressionException {
-		return expressionResolverRegistry.resolve(expression, resolutionType, context);
+		final Optional<R> resolved = expressionResolverDispatcher.resolve(expression, resolutionType, context);
+		// track the operation target collection
+		if (CollectionName.class.isAssignableFrom(resolutionType)) {
+			resolved.ifPresent(r -> setTargetCollectionName(((CollectionName) r).getName()));
+		}
+		return resolved;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.core.ExpressionResolver.ExpressionResolverSupport#addExpressionResolvers(java.lang.Iterable)
+	 */
+	@SuppressWarnings("rawtypes")
+	@Override
+	public void addExpressionResolvers(Iterable<? extends ExpressionResolver> expressionResolvers) {
+		expressionResolverDispatcher = expressionResolverDispatcher.with(expressionResolvers);
 	}
 
 	/*
@@ -378,7 +529,9 @@ public class DefaultMongoResolutionContext<S extends ClientSession> implements M
 	@Override
 	public <E extends Expression, R extends Expression> void addExpressionResolver(
 			ExpressionResolver<E, R> expressionResolver) {
-		expressionResolverRegistry.addExpressionResolver(expressionResolver);
+		ObjectUtils.argumentNotNull(expressionResolver, "ExpressionResolver to add must be not null");
+		expressionResolverDispatcher = expressionResolverDispatcher
+				.with(Collections.singletonList(expressionResolver));
 	}
 
 	/*
@@ -390,7 +543,7 @@ public class DefaultMongoResolutionContext<S extends ClientSession> implements M
 	@Override
 	public <E extends Expression, R extends Expression> void removeExpressionResolver(
 			ExpressionResolver<E, R> expressionResolver) {
-		expressionResolverRegistry.removeExpressionResolver(expressionResolver);
+		expressionResolverDispatcher = expressionResolverDispatcher.without(expressionResolver);
 	}
 
 }
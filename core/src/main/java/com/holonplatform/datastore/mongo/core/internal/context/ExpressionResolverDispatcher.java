@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.context;
+
+import java.util.List;
+
+import com.holonplatform.core.Expression;
+import com.holonplatform.core.ExpressionResolver;
+import com.holonplatform.core.ExpressionResolver.ExpressionResolverHandler;
+
+/**
+ * An immutable, type-indexed {@link ExpressionResolver} dispatch table.
+ * <p>
+ * The resolvers which can handle a given expression type and resolution type pair are computed only once, ordered by
+ * priority, and then shared by any resolution context which uses the same dispatcher instance. Additional resolvers
+ * can be layered on top of an existing dispatcher using {@link #with(Iterable)}, which never modifies the current
+ * instance.
+ * </p>
+ * <p>
+ * The resolution semantics are the same of the default <code>ExpressionResolverRegistry</code>: the candidate
+ * resolvers are the ones whose expression type is assignable from the expression class and whose resolved type
+ * matches the resolution type, ordered by <code>Priority</code> and then by registration order.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface ExpressionResolverDispatcher extends ExpressionResolverHandler {
+
+	/**
+	 * Get the expression resolvers which are used to resolve given expression type into given resolution type, in
+	 * the same order in which they are invoked.
+	 * @param expressionType The expression type (not null)
+	 * @param resolutionType The resolution type (not null)
+	 * @return The expression resolvers, an empty list if none
+	 */
+	@SuppressWarnings("rawtypes")
+	List<ExpressionResolver> getExpressionResolvers(Class<? extends Expression> expressionType,
+			Class<? extends Expression> resolutionType);
+
+	/**
+	 * Get a dispatcher which includes the resolvers of this dispatcher and given additional resolvers.
+	 * <p>
+	 * This dispatcher is not modified. If no additional resolver is provided, this same instance is returned.
+	 * </p>
+	 * @param expressionResolvers The additional expression resolvers
+	 * @return A dispatcher which includes given resolvers
+	 */
+	@SuppressWarnings("rawtypes")
+	ExpressionResolverDispatcher with(Iterable<? extends ExpressionResolver> expressionResolvers);
+
+	/**
+	 * Get a dispatcher which includes the resolvers of this dispatcher except for given resolver.
+	 * <p>
+	 * This dispatcher is not modified. If given resolver is not registered, this same instance is returned.
+	 * </p>
+	 * @param expressionResolver The expression resolver to exclude
+	 * @return A dispatcher which does not include given resolver
+	 */
+	@SuppressWarnings("rawtypes")
+	ExpressionResolverDispatcher without(ExpressionResolver expressionResolver);
+
+	/**
+	 * Get an empty {@link ExpressionResolverDispatcher}.
+	 * @return An empty dispatcher
+	 */
+	static ExpressionResolverDispatcher empty() {
+		return DefaultExpressionResolverDispatcher.EMPTY;
+	}
+
+	/**
+	 * Create a new {@link ExpressionResolverDispatcher} using given expression resolvers.
+	 * @param expressionResolvers The expression resolvers
+	 * @return A new {@link ExpressionResolverDispatcher}
+	 */
+	@SuppressWarnings("rawtypes")
+	static ExpressionResolverDispatcher create(Iterable<? extends ExpressionResolver> expressionResolvers) {
+		return empty().with(expressionResolvers);
+	}
+
+}
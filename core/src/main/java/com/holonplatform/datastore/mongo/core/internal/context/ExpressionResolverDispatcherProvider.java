@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.context;
+
+import com.holonplatform.core.ExpressionResolver.ExpressionResolverProvider;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+
+/**
+ * Internal interface for the objects which provide a shared {@link ExpressionResolverDispatcher}.
+ *
+ * @since 6.0.1
+ */
+public interface ExpressionResolverDispatcherProvider {
+
+	/**
+	 * Get the shared {@link ExpressionResolverDispatcher}.
+	 * @return The expression resolver dispatcher
+	 */
+	ExpressionResolverDispatcher getExpressionResolverDispatcher();
+
+	/**
+	 * Get the {@link ExpressionResolverDispatcher} to use with given expression resolvers provider.
+	 * <p>
+	 * If the provider is an {@link ExpressionResolverDispatcherProvider}, its shared dispatcher is returned. Otherwise, a
+	 * new dispatcher is built using the provider expression resolvers.
+	 * </p>
+	 * @param provider The expression resolvers provider (not null)
+	 * @return The expression resolver dispatcher
+	 */
+	static ExpressionResolverDispatcher getDispatcher(ExpressionResolverProvider provider) {
+		ObjectUtils.argumentNotNull(provider, "Expression resolvers provider must be not null");
+		if (provider instanceof ExpressionResolverDispatcherProvider) {
+			return ((ExpressionResolverDispatcherProvider) provider).getExpressionResolverDispatcher();
+		}
+		return ExpressionResolverDispatcher.create(provider.getExpressionResolvers());
+	}
+
+}
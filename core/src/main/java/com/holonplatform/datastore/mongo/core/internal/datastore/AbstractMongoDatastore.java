@@ -15,9 +15,14 @@
  */
 package com.holonplatform.datastore.mongo.core.internal.datastore;
 
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import org.bson.codecs.Codec;
@@ -35,11 +40,18 @@ import com.holonplatform.core.internal.Logger;
 import com.holonplatform.core.internal.datastore.AbstractInitializableDatastore;
 import com.holonplatform.core.internal.utils.ObjectUtils;
 import com.holonplatform.datastore.mongo.core.MongoDatastoreBuilder;
+import com.holonplatform.datastore.mongo.core.cache.EntityCache;
+import com.holonplatform.datastore.mongo.core.cache.QueryResultCache;
 import com.holonplatform.datastore.mongo.core.config.MongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.config.MongoDatastoreExpressionResolver;
 import com.holonplatform.datastore.mongo.core.document.DocumentIdResolver;
 import com.holonplatform.datastore.mongo.core.document.EnumCodecStrategy;
+import com.holonplatform.datastore.mongo.core.internal.cache.QueryCountCache;
+import com.holonplatform.datastore.mongo.core.internal.context.ExpressionResolverDispatcher;
+import com.holonplatform.datastore.mongo.core.internal.context.ExpressionResolverDispatcherProvider;
 import com.holonplatform.datastore.mongo.core.internal.logger.MongoDatastoreLogger;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshotsProvider;
 import com.holonplatform.datastore.mongo.core.tx.MongoTransaction;
 import com.holonplatform.datastore.mongo.core.tx.MongoTransactionFactory;
 import com.mongodb.ReadConcern;
@@ -58,7 +70,9 @@ import com.mongodb.session.ClientSession;
  * @since 5.2.0
  */
 public abstract class AbstractMongoDatastore<X extends DatastoreCommodityContext, S extends ClientSession, TX extends MongoTransaction<S>, MongoDatabase>
-		extends AbstractInitializableDatastore<X> implements MongoDatastoreCommodityContext<MongoDatabase, S> {
+		extends AbstractInitializableDatastore<X>
+		implements MongoDatastoreCommodityContext<MongoDatabase, S>, ExpressionResolverDispatcherProvider,
+		PropertyBoxSnapshotsProvider {
 
 	private static final long serialVersionUID = -378734658521151958L;
 
@@ -92,6 +106,36 @@ public abstract class AbstractMongoDatastore<X extends DatastoreCommodityContext
 	 */
 	protected WriteConcern defaultWriteConcern;
 
+	/**
+	 * Whether to track the decoded PropertyBox snapshots
+	 */
+	protected boolean snapshotTracking = false;
+
+	/**
+	 * Query result cache
+	 */
+	protected QueryResultCache queryResultCache;
+
+	/**
+	 * Entity cache
+	 */
+	protected EntityCache entityCache;
+
+	/**
+	 * Query count cache
+	 */
+	private final QueryCountCache queryCountCache = new QueryCountCache();
+
+	/**
+	 * Collections written within each client session, whose cached data is invalidated when the transaction ends
+	 */
+	private final transient Map<S, Set<String>> sessionWrites = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * Value snapshots registry
+	 */
+	private final transient PropertyBoxSnapshots propertyBoxSnapshots = new PropertyBoxSnapshots();
+
 	/**
 	 * Database name
 	 */
@@ -107,6 +151,16 @@ public abstract class AbstractMongoDatastore<X extends DatastoreCommodityContext
 	 */
 	private MongoTransactionFactory<S, TX> transactionFactory;
 
+	/**
+	 * Shared expression resolvers dispatcher
+	 */
+	private transient volatile ExpressionResolverDispatcher expressionResolverDispatcher;
+
+	/**
+	 * Configured database handle
+	 */
+	private transient volatile ConfiguredDatabase<MongoDatabase> configuredDatabase;
+
 	/**
 	 * Constructor
 	 * @param commodityFactoryType Commodity factory actual type (not null)
@@ -128,10 +182,56 @@ public abstract class AbstractMongoDatastore<X extends DatastoreCommodityContext
 		loadExpressionResolvers(classLoader);
 		loadCommodityFactories(classLoader);
 
+		// build the shared resolvers dispatch table
+		expressionResolverDispatcher = ExpressionResolverDispatcher.create(getExpressionResolvers());
+
 		onDatastoreInitialized(classLoader);
 		return true;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.context.ExpressionResolverDispatcherProvider#
+	 * getExpressionResolverDispatcher()
+	 */
+	@Override
+	public ExpressionResolverDispatcher getExpressionResolverDispatcher() {
+		ExpressionResolverDispatcher dispatcher = expressionResolverDispatcher;
+		if (dispatcher == null) {
+			dispatcher = ExpressionResolverDispatcher.create(getExpressionResolvers());
+			expressionResolverDispatcher = dispatcher;
+		}
+		return dispatcher;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.core.internal.datastore.AbstractDatastore#addExpressionResolver(com.holonplatform.core.
+	 * ExpressionResolver)
+	 */
+	@Override
+	public <E extends Expression, R extends Expression> void addExpressionResolver(
+			ExpressionResolver<E, R> expressionResolver) {
+		super.addExpressionResolver(expressionResolver);
+		// invalidate the shared dispatcher
+		expressionResolverDispatcher = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.core.internal.datastore.AbstractDatastore#removeExpressionResolver(com.holonplatform.core.
+	 * ExpressionResolver)
+	 */
+	@Override
+	public <E extends Expression, R extends Expression> void removeExpressionResolver(
+			ExpressionResolver<E, R> expressionResolver) {
+		super.removeExpressionResolver(expressionResolver);
+		// invalidate the shared dispatcher
+		expressionResolverDispatcher = null;
+	}
+
 	/**
 	 * Invoked when the Datastore is initialized.
 	 * @param classLoader Initialization ClassLoader
@@ -144,6 +244,7 @@ public abstract class AbstractMongoDatastore<X extends DatastoreCommodityContext
 	 */
 	public void setDatabaseName(String databaseName) {
 		this.databaseName = databaseName;
+		resetConfiguredDatabase();
 	}
 
 	/*
@@ -184,6 +285,37 @@ public abstract class AbstractMongoDatastore<X extends DatastoreCommodityContext
 	 */
 	protected void setAdditionalCodecRegistry(CodecRegistry additionalCodecRegistry) {
 		this.additionalCodecRegistry = additionalCodecRegistry;
+		resetConfiguredDatabase();
+	}
+
+	/**
+	 * Obtain the database to use and configure it, for example registering the additional codecs.
+	 * @return The configured database
+	 */
+	protected abstract ConfiguredDatabase<MongoDatabase> configureDatabase();
+
+	/**
+	 * Get the configured database handle.
+	 * <p>
+	 * The database is configured at first use (see {@link #configureDatabase()}) and then reused, until the
+	 * configuration which affects it changes.
+	 * </p>
+	 * @return The configured database handle
+	 */
+	protected ConfiguredDatabase<MongoDatabase> getConfiguredDatabase() {
+		ConfiguredDatabase<MongoDatabase> database = configuredDatabase;
+		if (database == null) {
+			database = configureDatabase();
+			configuredDatabase = database;
+		}
+		return database;
+	}
+
+	/**
+	 * Discard the current configured database handle, if any. A new one will be configured at next use.
+	 */
+	protected void resetConfiguredDatabase() {
+		configuredDatabase = null;
 	}
 
 	/*
@@ -231,6 +363,76 @@ public abstract class AbstractMongoDatastore<X extends DatastoreCommodityContext
 		return Optional.ofNullable(defaultWriteConcern);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#isSnapshotTrackingEnabled()
+	 */
+	@Override
+	public boolean isSnapshotTrackingEnabled() {
+		return snapshotTracking;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshotsProvider#
+	 * getPropertyBoxSnapshots()
+	 */
+	@Override
+	public Optional<PropertyBoxSnapshots> getPropertyBoxSnapshots() {
+		return Optional.ofNullable(propertyBoxSnapshots);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#getQueryResultCache()
+	 */
+	@Override
+	public Optional<QueryResultCache> getQueryResultCache() {
+		return Optional.ofNullable(queryResultCache);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#getEntityCache()
+	 */
+	@Override
+	public Optional<EntityCache> getEntityCache() {
+		return Optional.ofNullable(entityCache);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#getQueryCountCache()
+	 */
+	@Override
+	public Optional<QueryCountCache> getQueryCountCache() {
+		return Optional.of(queryCountCache);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.context.MongoContext#beforeCollectionWrite(java.lang.String)
+	 */
+	@Override
+	public void beforeCollectionWrite(String collectionName) {
+		MongoDatastoreCommodityContext.super.beforeCollectionWrite(collectionName);
+		// the data written within a transaction is visible to the other sessions only when committed
+		getClientSession().ifPresent(session -> sessionWrites
+				.computeIfAbsent(session, s -> ConcurrentHashMap.newKeySet()).add(collectionName));
+	}
+
+	/**
+	 * Invalidate the cached data of the collections written within given client session. Must be invoked when the
+	 * session transaction is ended, either committed or rolled back.
+	 * @param session The client session (not null)
+	 */
+	protected void onTransactionEnded(S session) {
+		final Set<String> collectionNames = sessionWrites.remove(session);
+		if (collectionNames != null) {
+			collectionNames.forEach(collectionName -> afterCollectionWrite(collectionName));
+		}
+	}
+
 	/**
 	 * Set the {@link DocumentIdResolver} to use.
 	 * @param documentIdResolver the document Id resolver to set (not null)
@@ -273,6 +475,30 @@ public abstract class AbstractMongoDatastore<X extends DatastoreCommodityContext
 		this.defaultWriteConcern = defaultWriteConcern;
 	}
 
+	/**
+	 * Set whether to track the snapshots of the decoded PropertyBox values.
+	 * @param snapshotTracking <code>true</code> to enable snapshot tracking
+	 */
+	public void setSnapshotTracking(boolean snapshotTracking) {
+		this.snapshotTracking = snapshotTracking;
+	}
+
+	/**
+	 * Set the {@link QueryResultCache} to use.
+	 * @param queryResultCache the query result cache to set, <code>null</code> to disable the query result cache
+	 */
+	public void setQueryResultCache(QueryResultCache queryResultCache) {
+		this.queryResultCache = queryResultCache;
+	}
+
+	/**
+	 * Set the {@link EntityCache} to use.
+	 * @param entityCache the entity cache to set, <code>null</code> to disable the entity cache
+	 */
+	public void setEntityCache(EntityCache entityCache) {
+		this.entityCache = entityCache;
+	}
+
 	/**
 	 * Get the {@link MongoTransaction} factory.
 	 * @return the transaction factory
@@ -303,6 +529,47 @@ public abstract class AbstractMongoDatastore<X extends DatastoreCommodityContext
 		}
 	}
 
+	/**
+	 * A configured database handle.
+	 * 
+	 * @param <D> Database type
+	 */
+	protected static final class ConfiguredDatabase<D> {
+
+		private final D database;
+		private final CodecRegistry codecRegistry;
+
+		/**
+		 * Constructor.
+		 * @param database The configured database (not null)
+		 * @param codecRegistry The database codec registry, before any additional codec registration (not null)
+		 */
+		public ConfiguredDatabase(D database, CodecRegistry codecRegistry) {
+			super();
+			ObjectUtils.argumentNotNull(database, "Database must be not null");
+			ObjectUtils.argumentNotNull(codecRegistry, "CodecRegistry must be not null");
+			this.database = database;
+			this.codecRegistry = codecRegistry;
+		}
+
+		/**
+		 * Get the configured database.
+		 * @return the configured database
+		 */
+		public D getDatabase() {
+			return database;
+		}
+
+		/**
+		 * Get the database codec registry, before any additional codec registration.
+		 * @return the database codec registry
+		 */
+		public CodecRegistry getCodecRegistry() {
+			return codecRegistry;
+		}
+
+	}
+
 	@SuppressWarnings("rawtypes")
 	public abstract static class AbstractBuilder<MDB, CX extends DatastoreCommodityContext, S extends ClientSession, TX extends MongoTransaction<S>, I extends AbstractMongoDatastore<CX, S, TX, MDB>, D extends DatastoreOperations, B extends MongoDatastoreBuilder<D, S, TX, B>>
 			implements MongoDatastoreBuilder<D, S, TX, B> {
@@ -389,6 +656,42 @@ public abstract class AbstractMongoDatastore<X extends DatastoreCommodityContext
 			return getActualBuilder();
 		}
 
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.datastore.mongo.core.MongoDatastoreBuilder#snapshotTracking(boolean)
+		 */
+		@Override
+		public B snapshotTracking(boolean snapshotTracking) {
+			getDatastore().setSnapshotTracking(snapshotTracking);
+			return getActualBuilder();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see
+		 * com.holonplatform.datastore.mongo.core.MongoDatastoreBuilder#queryResultCache(com.holonplatform.datastore.
+		 * mongo.core.cache.QueryResultCache)
+		 */
+		@Override
+		public B queryResultCache(QueryResultCache queryResultCache) {
+			ObjectUtils.argumentNotNull(queryResultCache, "QueryResultCache must be not null");
+			getDatastore().setQueryResultCache(queryResultCache);
+			return getActualBuilder();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see
+		 * com.holonplatform.datastore.mongo.core.MongoDatastoreBuilder#entityCache(com.holonplatform.datastore.mongo.
+		 * core.cache.EntityCache)
+		 */
+		@Override
+		public B entityCache(EntityCache entityCache) {
+			ObjectUtils.argumentNotNull(entityCache, "EntityCache must be not null");
+			getDatastore().setEntityCache(entityCache);
+			return getActualBuilder();
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * @see
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.datastore;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+
+/**
+ * Cache of configured MongoDB collection handles.
+ * <p>
+ * The collection handles are bound to the database instance from which they were obtained (compared by identity) and
+ * are cached by collection name, read concern, read preference and write concern. Since collection handles are
+ * immutable and thread-safe, the same handle can be shared by concurrent operations.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public final class MongoCollectionHandles {
+
+	/**
+	 * Cache name
+	 */
+	public static final String CACHE_NAME = "collectionHandles";
+
+	/**
+	 * Max number of cached handles for each database
+	 */
+	private static final int MAX_HANDLES = 256;
+
+	/**
+	 * Handles by database
+	 */
+	private static final MetadataCache<Object, Map<HandleKey, Object>> HANDLES = MetadataCache.create(CACHE_NAME,
+			database -> new ConcurrentHashMap<>());
+
+	private MongoCollectionHandles() {
+	}
+
+	/**
+	 * Get the collection handle bound to given database and configuration, creating it using given
+	 * <code>factory</code> if not available.
+	 * @param <C> Collection type
+	 * @param database The database from which the collection is obtained (not null)
+	 * @param collectionName The collection name (not null)
+	 * @param readConcern The collection read concern, <code>null</code> if none
+	 * @param readPreference The collection read preference, <code>null</code> if none
+	 * @param writeConcern The collection write concern, <code>null</code> if none
+	 * @param factory The function to use to create and configure the collection handle (not null)
+	 * @return The collection handle
+	 */
+	@SuppressWarnings("unchecked")
+	public static <C> C get(Object database, String collectionName, ReadConcern readConcern,
+			ReadPreference readPreference, WriteConcern writeConcern, Supplier<C> factory) {
+		ObjectUtils.argumentNotNull(database, "Database must be not null");
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		ObjectUtils.argumentNotNull(factory, "Collection factory must be not null");
+		final Map<HandleKey, Object> handles = HANDLES.get(database);
+		final HandleKey key = new HandleKey(collectionName, readConcern, readPreference, writeConcern);
+		final Object handle = handles.get(key);
+		if (handle != null) {
+			return (C) handle;
+		}
+		final C collection = factory.get();
+		if (handles.size() < MAX_HANDLES) {
+			final Object previous = handles.putIfAbsent(key, collection);
+			if (previous != null) {
+				return (C) previous;
+			}
+		}
+		return collection;
+	}
+
+	/**
+	 * Get the collection handles cache.
+	 * @return The collection handles cache
+	 */
+	public static MetadataCache<Object, Map<HandleKey, Object>> getCache() {
+		return HANDLES;
+	}
+
+	/**
+	 * Collection handle key.
+	 */
+	public static final class HandleKey {
+
+		private final String collectionName;
+		private final ReadConcern readConcern;
+		private final ReadPreference readPreference;
+		private final WriteConcern writeConcern;
+		private final int hash;
+
+		HandleKey(String collectionName, ReadConcern readConcern, ReadPreference readPreference,
+				WriteConcern writeConcern) {
+			super();
+			this.collectionName = collectionName;
+			this.readConcern = readConcern;
+			this.readPreference = readPreference;
+			this.writeConcern = writeConcern;
+			this.hash = Objects.hash(collectionName, readConcern, readPreference, writeConcern);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof HandleKey)) {
+				return false;
+			}
+			final HandleKey other = (HandleKey) obj;
+			return collectionName.equals(other.collectionName) && Objects.equals(readConcern, other.readConcern)
+					&& Objects.equals(readPreference, other.readPreference)
+					&& Objects.equals(writeConcern, other.writeConcern);
+		}
+
+	}
+
+}
@@ -17,10 +17,7 @@ package com.holonplatform.datastore.mongo.core.internal.document;
 
 import java.math.BigInteger;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.WeakHashMap;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -29,7 +26,10 @@ import org.bson.types.ObjectId;
 import com.holonplatform.core.Path;
 import com.holonplatform.core.internal.utils.ObjectUtils;
 import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertyBox;
 import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry;
 import com.holonplatform.datastore.mongo.core.document.DocumentIdResolver;
 import com.holonplatform.datastore.mongo.core.exceptions.InvalidDocumentIdentifierException;
 
@@ -59,7 +59,17 @@ public enum DefaultDocumentIdResolver implements DocumentIdResolver {
 	/**
 	 * Cache
 	 */
-	private static final Map<PropertySet<?>, Supplier<Object>> DOCUMENT_IDS = new WeakHashMap<>();
+	private static final MetadataCache<PropertySet<?>, Property<?>> DOCUMENT_IDS = MetadataCache
+			.create(MetadataCacheRegistry.DOCUMENT_IDS, ps -> findDocumentIdProperty(ps));
+
+	/**
+	 * Get the document identifier properties cache.
+	 * @return The document identifier properties cache
+	 * @since 6.0.1
+	 */
+	public static MetadataCache<PropertySet<?>, Property<?>> getCache() {
+		return DOCUMENT_IDS;
+	}
 
 	/*
 	 * (non-Javadoc)
@@ -195,7 +205,9 @@ public enum DefaultDocumentIdResolver implements DocumentIdResolver {
 	private static <P extends Path & Property> P resolveDocumentId(PropertySet<?> propertySet)
 			throws InvalidDocumentIdentifierException {
 		ObjectUtils.argumentNotNull(propertySet, "PropertySet must be not null");
-		return (P) DOCUMENT_IDS.computeIfAbsent(propertySet, ps -> () -> findDocumentIdProperty(ps)).get();
+		// PropertyBox instances are not cached
+		return (P) ((propertySet instanceof PropertyBox) ? findDocumentIdProperty(propertySet)
+				: DOCUMENT_IDS.get(propertySet));
 	}
 
 	/**
@@ -15,14 +15,15 @@
  */
 package com.holonplatform.datastore.mongo.core.internal.document;
 
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.function.Predicate;
 
 import com.holonplatform.core.Path;
 import com.holonplatform.core.internal.utils.ObjectUtils;
 import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertyBox;
 import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry;
 import com.holonplatform.json.model.PropertySetSerializationTree;
 import com.holonplatform.json.model.PropertySetSerializationTreeResolver;
 
@@ -48,7 +49,17 @@ public enum DefaultMongoPropertySetSerializationTreeResolver implements MongoPro
 	/**
 	 * Cache
 	 */
-	private final static Map<PropertySet<?>, PropertySetSerializationTree> CACHE = new WeakHashMap<>();
+	private final static MetadataCache<PropertySet<?>, PropertySetSerializationTree> CACHE = MetadataCache
+			.create(MetadataCacheRegistry.SERIALIZATION_TREES, ps -> RESOLVER.resolve(ps));
+
+	/**
+	 * Get the serialization trees cache.
+	 * @return The serialization trees cache
+	 * @since 6.0.1
+	 */
+	public static MetadataCache<PropertySet<?>, PropertySetSerializationTree> getCache() {
+		return CACHE;
+	}
 
 	/*
 	 * (non-Javadoc)
@@ -58,7 +69,8 @@ public enum DefaultMongoPropertySetSerializationTreeResolver implements MongoPro
 	@Override
 	public PropertySetSerializationTree resolve(PropertySet<?> propertySet) {
 		ObjectUtils.argumentNotNull(propertySet, "PropertySet must be not null");
-		return CACHE.computeIfAbsent(propertySet, ps -> RESOLVER.resolve(propertySet));
+		// PropertyBox instances are not cached
+		return (propertySet instanceof PropertyBox) ? RESOLVER.resolve(propertySet) : CACHE.get(propertySet);
 	}
 
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.document;
+
+import java.util.UUID;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.BsonTypeClassMap;
+import org.bson.codecs.BsonTypeCodecMap;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.UuidCodec;
+import org.bson.codecs.configuration.CodecConfigurationException;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.document.PropertyBoxCodec;
+import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
+import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
+import com.holonplatform.datastore.mongo.core.internal.resolver.PropertySetDocumentCodec;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
+
+/**
+ * Default {@link PropertyBoxCodec} implementation.
+ * <p>
+ * When the document context allows it (see {@link PropertySetDocumentCodec#isDecodingEnabled}), the documents are
+ * decoded using the compiled {@link PropertySetDocumentCodec}, reading the field values one at a time the same way
+ * the {@link Document} codec does. Otherwise, the document is read as a {@link Document} and then resolved into a
+ * {@link PropertyBox} using the context resolvers.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class DefaultPropertyBoxCodec implements PropertyBoxCodec {
+
+	private final MongoDocumentContext<?> context;
+
+	private final CodecRegistry codecRegistry;
+
+	private final BsonTypeCodecMap bsonTypeCodecMap;
+
+	private final UuidRepresentation uuidRepresentation;
+
+	private final PropertySetDocumentCodec codec;
+
+	/**
+	 * Constructor.
+	 * @param context The document context to use (not null)
+	 * @param codecRegistry The codec registry to use to decode the document field values (not null)
+	 */
+	public DefaultPropertyBoxCodec(MongoDocumentContext<?> context, CodecRegistry codecRegistry) {
+		super();
+		ObjectUtils.argumentNotNull(context, "Document context must be not null");
+		ObjectUtils.argumentNotNull(codecRegistry, "CodecRegistry must be not null");
+		this.context = context;
+		this.codecRegistry = codecRegistry;
+		this.bsonTypeCodecMap = new BsonTypeCodecMap(new BsonTypeClassMap(), codecRegistry);
+		this.uuidRepresentation = getUuidRepresentation(codecRegistry);
+		this.codec = PropertySetDocumentCodec.isDecodingEnabled(context)
+				? PropertySetDocumentCodec.of(context.getPropertySet())
+				: null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.document.PropertyBoxCodec#getDocumentContext()
+	 */
+	@Override
+	public MongoDocumentContext<?> getDocumentContext() {
+		return context;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.document.PropertyBoxCodec#getFieldValuesCodecRegistry()
+	 */
+	@Override
+	public CodecRegistry getFieldValuesCodecRegistry() {
+		return codecRegistry;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.bson.codecs.Encoder#getEncoderClass()
+	 */
+	@Override
+	public Class<PropertyBox> getEncoderClass() {
+		return PropertyBox.class;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.bson.codecs.Decoder#decode(org.bson.BsonReader, org.bson.codecs.DecoderContext)
+	 */
+	@Override
+	public PropertyBox decode(BsonReader reader, DecoderContext decoderContext) {
+		if (codec != null) {
+			final PropertyBox value = codec.decode(context, reader, r -> readValue(r, decoderContext));
+			// snapshot
+			PropertyBoxSnapshots.track(context, value);
+			return value;
+		}
+		final Document document = codecRegistry.get(Document.class).decode(reader, decoderContext);
+		return context.resolveOrFail(DocumentValue.create(document), PropertyBoxValue.class).getValue();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.bson.codecs.Encoder#encode(org.bson.BsonWriter, java.lang.Object, org.bson.codecs.EncoderContext)
+	 */
+	@Override
+	public void encode(BsonWriter writer, PropertyBox value, EncoderContext encoderContext) {
+		final Document document = context.documentContext(value)
+				.resolveOrFail(PropertyBoxValue.create(value), DocumentValue.class).getValue();
+		encoderContext.encodeWithChildContext(codecRegistry.get(Document.class), writer, document);
+	}
+
+	/**
+	 * Read the current BSON value, consistently with the {@link Document} codec.
+	 * @param reader The BSON reader
+	 * @param decoderContext The decoder context
+	 * @return The value
+	 */
+	private Object readValue(BsonReader reader, DecoderContext decoderContext) {
+		final BsonType bsonType = reader.getCurrentBsonType();
+		if (bsonType == BsonType.NULL) {
+			reader.readNull();
+			return null;
+		}
+		Codec<?> valueCodec = bsonTypeCodecMap.get(bsonType);
+		if (bsonType == BsonType.BINARY && reader.peekBinarySize() == 16) {
+			switch (reader.peekBinarySubType()) {
+			case 3:
+				if (uuidRepresentation == UuidRepresentation.JAVA_LEGACY
+						|| uuidRepresentation == UuidRepresentation.C_SHARP_LEGACY
+						|| uuidRepresentation == UuidRepresentation.PYTHON_LEGACY) {
+					valueCodec = codecRegistry.get(UUID.class);
+				}
+				break;
+			case 4:
+				if (uuidRepresentation == UuidRepresentation.STANDARD) {
+					valueCodec = codecRegistry.get(UUID.class);
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		return decoderContext.decodeWithChildContext(valueCodec, reader);
+	}
+
+	/**
+	 * Get the UUID representation configured for given registry.
+	 * @param codecRegistry The codec registry
+	 * @return The UUID representation
+	 */
+	private static UuidRepresentation getUuidRepresentation(CodecRegistry codecRegistry) {
+		try {
+			final Codec<UUID> uuidCodec = codecRegistry.get(UUID.class);
+			if (uuidCodec instanceof UuidCodec) {
+				return ((UuidCodec) uuidCodec).getUuidRepresentation();
+			}
+		} catch (CodecConfigurationException e) {
+			// no UUID codec available
+		}
+		return UuidRepresentation.UNSPECIFIED;
+	}
+
+}
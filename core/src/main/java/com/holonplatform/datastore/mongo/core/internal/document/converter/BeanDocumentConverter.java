@@ -32,6 +32,7 @@ import com.holonplatform.datastore.mongo.core.document.DocumentConverter;
 import com.holonplatform.datastore.mongo.core.expression.FieldName;
 import com.holonplatform.datastore.mongo.core.expression.FieldValue;
 import com.holonplatform.datastore.mongo.core.expression.Value;
+import com.holonplatform.datastore.mongo.core.internal.resolver.PropertySetDocumentCodec;
 
 /**
  * Bean {@link DocumentConverter}.
@@ -73,8 +74,15 @@ public class BeanDocumentConverter<T> implements DocumentConverter<T> {
 	 */
 	@Override
 	public T convert(MongoResolutionContext<?> context, Document document) {
-		return (document == null) ? null
-				: decodeDocument(context.documentContext(beanPropertySet), null, document, beanPropertySet);
+		if (document == null) {
+			return null;
+		}
+		final MongoDocumentContext<?> documentContext = context.documentContext(beanPropertySet);
+		// check compiled mapper
+		if (PropertySetDocumentCodec.isEnabled(documentContext)) {
+			return BeanDocumentMapper.of(beanPropertySet).decode(documentContext, document);
+		}
+		return decodeDocument(documentContext, null, document, beanPropertySet);
 	}
 
 	private static <T> T decodeDocument(final MongoDocumentContext<?> context, final String parent,
@@ -0,0 +1,461 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.document.converter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.holonplatform.core.Path;
+import com.holonplatform.core.beans.BeanProperty;
+import com.holonplatform.core.beans.BeanPropertySet;
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.core.internal.utils.TypeUtils;
+import com.holonplatform.core.property.PathProperty;
+import com.holonplatform.core.property.Property.PropertyReadException;
+import com.holonplatform.core.property.Property.PropertyWriteException;
+import com.holonplatform.core.property.PropertyValueConverter;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.expression.FieldValue;
+import com.holonplatform.datastore.mongo.core.expression.Value;
+import com.holonplatform.datastore.mongo.core.internal.resolver.FieldNamePathResolver;
+import com.holonplatform.datastore.mongo.core.internal.resolver.PropertySetDocumentCodec;
+
+/**
+ * A {@link BeanPropertySet} bound mapper to decode documents into bean instances.
+ * <p>
+ * The mapper is compiled only once for each bean property set: the bean constructor and the property accessors are
+ * bound as {@link MethodHandle}s and the bean property to use for each document field path, including the nested
+ * document paths, is resolved only once and then cached.
+ * </p>
+ * <p>
+ * The mapper behaves just like the default document field name resolution and the {@link BeanPropertySet} write
+ * operations, so it can be used only when the field name resolution is performed by the default resolvers: see
+ * {@link PropertySetDocumentCodec#isEnabled}.
+ * </p>
+ * 
+ * @param <T> Bean type
+ *
+ * @since 6.0.1
+ */
+public final class BeanDocumentMapper<T> {
+
+	/**
+	 * Max number of cached field writers for each mapper
+	 */
+	private static final int MAX_FIELD_WRITERS = 1024;
+
+	/**
+	 * Mappers cache
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static final MetadataCache<BeanPropertySet<?>, BeanDocumentMapper<?>> MAPPERS = MetadataCache
+			.create(MetadataCacheRegistry.BEAN_MAPPERS, bps -> new BeanDocumentMapper(bps));
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final BeanPropertySet<T> beanPropertySet;
+
+	/**
+	 * Bean constructor, <code>null</code> if not available
+	 */
+	private final MethodHandle constructor;
+
+	/**
+	 * Bean identifier writer, <code>null</code> if not available
+	 */
+	private final FieldWriter identifier;
+
+	/**
+	 * Field writers, by full field path
+	 */
+	private final Map<String, FieldWriter> writers = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param beanPropertySet The bean property set to which the mapper is bound
+	 */
+	@SuppressWarnings("unchecked")
+	private BeanDocumentMapper(BeanPropertySet<T> beanPropertySet) {
+		super();
+		this.beanPropertySet = beanPropertySet;
+		this.constructor = getConstructor(beanPropertySet.getBeanClass());
+		this.identifier = beanPropertySet.getFirstIdentifier().map(p -> compile(p, p)).orElse(null);
+	}
+
+	/**
+	 * Get the mapper bound to given bean property set.
+	 * @param <T> Bean type
+	 * @param beanPropertySet The bean property set
+	 * @return The bean property set mapper
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> BeanDocumentMapper<T> of(BeanPropertySet<T> beanPropertySet) {
+		return (BeanDocumentMapper<T>) MAPPERS.get(beanPropertySet);
+	}
+
+	/**
+	 * Get the mappers cache.
+	 * @return The mappers cache
+	 */
+	public static MetadataCache<BeanPropertySet<?>, BeanDocumentMapper<?>> getCache() {
+		return MAPPERS;
+	}
+
+	/**
+	 * Decode given document into a bean instance.
+	 * @param context The document context, bound to the mapper bean property set
+	 * @param document The document to decode
+	 * @return The bean instance
+	 * @throws DataAccessException If the bean class cannot be instantiated
+	 */
+	T decode(MongoDocumentContext<?> context, Map<String, Object> document) throws DataAccessException {
+		final T instance = newInstance();
+		for (Entry<String, Object> entry : document.entrySet()) {
+			decodeField(context, instance, null, entry.getKey(), entry.getValue());
+		}
+		return instance;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void decodeField(MongoDocumentContext<?> context, T instance, String parent, String name, Object value) {
+		// full path
+		final String fieldName = (parent == null) ? name : parent + "." + name;
+
+		if (value instanceof Map) {
+			// nested value
+			for (Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+				decodeField(context, instance, fieldName, entry.getKey(), entry.getValue());
+			}
+			return;
+		}
+
+		// check id property
+		if (identifier != null && MongoDocumentContext.ID_FIELD_NAME.equals(fieldName)
+				&& context.getDocumentIdResolver().isValidDocumentIdType(identifier.property)) {
+			identifier.write(beanPropertySet, instance,
+					context.resolveOrFail(FieldValue.create(value, identifier.property), Value.class).getValue());
+			return;
+		}
+
+		final FieldWriter writer = getFieldWriter(fieldName);
+		if (writer.property != null) {
+			writer.write(beanPropertySet, instance,
+					context.resolveOrFail(FieldValue.create(value, writer.property), Value.class).getValue());
+		}
+	}
+
+	/**
+	 * Create a new bean instance.
+	 * @return The bean instance
+	 * @throws DataAccessException If the bean class cannot be instantiated
+	 */
+	@SuppressWarnings("unchecked")
+	private T newInstance() throws DataAccessException {
+		try {
+			if (constructor != null) {
+				return (T) constructor.invokeExact();
+			}
+			return beanPropertySet.getBeanClass().getDeclaredConstructor().newInstance();
+		} catch (Throwable e) {
+			throw new DataAccessException("Failed to istantiate bean class [" + beanPropertySet.getBeanClass() + "]",
+					e);
+		}
+	}
+
+	/**
+	 * Get the writer for given field path, compiling it if not available.
+	 * @param fieldName Full field path
+	 * @return The field writer
+	 */
+	private FieldWriter getFieldWriter(String fieldName) {
+		FieldWriter writer = writers.get(fieldName);
+		if (writer == null) {
+			writer = compile(beanPropertySet, fieldName);
+			if (writers.size() < MAX_FIELD_WRITERS) {
+				writers.putIfAbsent(fieldName, writer);
+			}
+		}
+		return writer;
+	}
+
+	// ------- compile
+
+	/**
+	 * Compile the writer for given field path, using the same path resolution strategy of the default field name
+	 * resolver.
+	 * @param beanPropertySet The bean property set
+	 * @param fieldName Full field path
+	 * @return The field writer
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static FieldWriter compile(BeanPropertySet<?> beanPropertySet, String fieldName) {
+		final Path<?> path = FieldNamePathResolver.getPropertySetPath(beanPropertySet, fieldName)
+				.orElse(Path.of(fieldName, Object.class));
+		final Optional<PathProperty<Object>> property = beanPropertySet.getProperty(path.relativeName());
+		return property.map(p -> compile((PathProperty) p, path)).orElse(FieldWriter.NONE);
+	}
+
+	/**
+	 * Compile the writer for given bean property.
+	 * @param property The bean property
+	 * @param path The path used to write the property value
+	 * @return The field writer
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static FieldWriter compile(PathProperty<?> property, Path<?> path) {
+		// value converter
+		final PropertyValueConverter<Object, Object> converter = (PropertyValueConverter) property.getConverter()
+				.filter(c -> TypeUtils.isAssignable(path.getType(), c.getModelType())).orElse(null);
+		// accessors
+		if (property instanceof BeanProperty) {
+			final List<BeanProperty<?>> hierarchy = new ArrayList<>();
+			BeanProperty<?> current = (BeanProperty<?>) property;
+			while (current != null) {
+				hierarchy.add(0, current);
+				current = current.getParentProperty().orElse(null);
+			}
+			final int size = hierarchy.size();
+			final PropertyAccessor[] parents = new PropertyAccessor[size - 1];
+			for (int i = 0; i < size - 1; i++) {
+				parents[i] = PropertyAccessor.compile(hierarchy.get(i), true);
+			}
+			final PropertyAccessor accessor = PropertyAccessor.compile(hierarchy.get(size - 1), false);
+			if (accessor != null && !containsNull(parents)) {
+				return new FieldWriter(property, path, converter, parents, accessor);
+			}
+		}
+		// fallback to bean property set write
+		return new FieldWriter(property, path, null, null, null);
+	}
+
+	private static boolean containsNull(Object[] values) {
+		for (Object value : values) {
+			if (value == null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get the no-args constructor of given class as a {@link MethodHandle}.
+	 * @param beanClass The bean class
+	 * @return The constructor, <code>null</code> if not available
+	 */
+	private static MethodHandle getConstructor(Class<?> beanClass) {
+		try {
+			final Constructor<?> constructor = beanClass.getDeclaredConstructor();
+			return LOOKUP.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+		} catch (NoSuchMethodException | SecurityException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * A document field writer.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final class FieldWriter {
+
+		static final FieldWriter NONE = new FieldWriter(null, null, null, null, null);
+
+		final PathProperty property;
+		private final Path path;
+		private final PropertyValueConverter<Object, Object> converter;
+		private final PropertyAccessor[] parents;
+		private final PropertyAccessor accessor;
+
+		FieldWriter(PathProperty property, Path path, PropertyValueConverter<Object, Object> converter,
+				PropertyAccessor[] parents, PropertyAccessor accessor) {
+			super();
+			this.property = property;
+			this.path = path;
+			this.converter = converter;
+			this.parents = parents;
+			this.accessor = accessor;
+		}
+
+		@SuppressWarnings("unchecked")
+		void write(BeanPropertySet beanPropertySet, Object instance, Object value) {
+			if (accessor == null) {
+				// not compiled
+				beanPropertySet.write(path, value, instance);
+				return;
+			}
+			final Object toWrite = (converter != null) ? converter.fromModel(value, property) : value;
+			Object current = instance;
+			for (PropertyAccessor parent : parents) {
+				Object parentValue = parent.read(current);
+				if (parentValue == null) {
+					parentValue = parent.newInstance(property);
+					parent.write(current, parentValue);
+				}
+				current = parentValue;
+			}
+			accessor.write(current, toWrite);
+		}
+
+	}
+
+	/**
+	 * A bean property accessor, which uses {@link MethodHandle}s bound to the property read and write methods or to
+	 * the property field.
+	 */
+	private static final class PropertyAccessor {
+
+		private final BeanProperty<?> property;
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		private final Object defaultValue;
+		private final MethodHandle constructor;
+
+		private PropertyAccessor(BeanProperty<?> property, MethodHandle getter, MethodHandle setter,
+				Class<?> setterType, MethodHandle constructor) {
+			super();
+			this.property = property;
+			this.getter = getter;
+			this.setter = setter;
+			this.defaultValue = getDefaultValue(setterType);
+			this.constructor = constructor;
+		}
+
+		/**
+		 * Compile the accessor for given property.
+		 * @param property The bean property
+		 * @param parent Whether the property is a parent property, which requires a getter and a constructor
+		 * @return The property accessor, <code>null</code> if it cannot be compiled
+		 */
+		static PropertyAccessor compile(BeanProperty<?> property, boolean parent) {
+			try {
+				final Method writeMethod = property.getWriteMethod().orElse(null);
+				final Field field = property.getField().orElse(null);
+				// setter
+				final MethodHandle setter;
+				final Class<?> setterType;
+				if (writeMethod != null) {
+					setter = LOOKUP.unreflect(writeMethod);
+					setterType = writeMethod.getParameterTypes()[0];
+				} else if (field != null) {
+					field.setAccessible(true);
+					setter = LOOKUP.unreflectSetter(field);
+					setterType = field.getType();
+				} else {
+					return null;
+				}
+				if (!parent) {
+					return new PropertyAccessor(property, null, setter.asType(SETTER_TYPE), setterType, null);
+				}
+				// getter
+				final Method readMethod = property.getReadMethod().orElse(null);
+				final MethodHandle getter;
+				if (readMethod != null) {
+					getter = LOOKUP.unreflect(readMethod);
+				} else if (field != null) {
+					field.setAccessible(true);
+					getter = LOOKUP.unreflectGetter(field);
+				} else {
+					return null;
+				}
+				return new PropertyAccessor(property, getter.asType(GETTER_TYPE), setter.asType(SETTER_TYPE),
+						setterType, getConstructor(property.getType()));
+			} catch (IllegalAccessException | RuntimeException e) {
+				return null;
+			}
+		}
+
+		Object read(Object instance) {
+			try {
+				return getter.invokeExact(instance);
+			} catch (Throwable e) {
+				throw new PropertyReadException(property, "Failed to read bean property [" + property
+						+ "] from instance [" + instance + "]", e);
+			}
+		}
+
+		void write(Object instance, Object value) {
+			try {
+				setter.invokeExact(instance, (value != null) ? value : defaultValue);
+			} catch (Throwable e) {
+				throw new PropertyWriteException(property, "Failed to write bean property [" + property
+						+ "] value [" + value + "] to instance [" + instance + "]", e);
+			}
+		}
+
+		Object newInstance(PathProperty<?> leaf) {
+			try {
+				if (constructor != null) {
+					return constructor.invokeExact();
+				}
+				return property.getType().getDeclaredConstructor().newInstance();
+			} catch (Throwable e) {
+				throw new PropertyWriteException(leaf,
+						"Failed to istantiate nested bean class [" + property.getType().getName() + "]", e);
+			}
+		}
+
+		/**
+		 * Get the value to write when the property value is <code>null</code>, i.e. the default value of the primitive
+		 * types, which must match the primitive type since the setter does not perform widening conversions.
+		 * @param type The property type
+		 * @return The default value, <code>null</code> if the type is not a primitive type
+		 */
+		private static Object getDefaultValue(Class<?> type) {
+			if (!type.isPrimitive()) {
+				return null;
+			}
+			if (type == boolean.class) {
+				return Boolean.FALSE;
+			}
+			if (type == char.class) {
+				return Character.valueOf('\0');
+			}
+			if (type == byte.class) {
+				return Byte.valueOf((byte) 0);
+			}
+			if (type == short.class) {
+				return Short.valueOf((short) 0);
+			}
+			if (type == long.class) {
+				return Long.valueOf(0L);
+			}
+			if (type == float.class) {
+				return Float.valueOf(0f);
+			}
+			if (type == double.class) {
+				return Double.valueOf(0d);
+			}
+			return Integer.valueOf(0);
+		}
+
+	}
+
+}
@@ -18,8 +18,11 @@ package com.holonplatform.datastore.mongo.core.internal.document.converter;
 import org.bson.Document;
 
 import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.Property;
 import com.holonplatform.core.property.PropertyBox;
 import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
 import com.holonplatform.datastore.mongo.core.document.DocumentConverter;
 import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
@@ -32,6 +35,13 @@ import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
  */
 public class PropertyBoxDocumentConverter implements DocumentConverter<PropertyBox> {
 
+	/**
+	 * Property sets cache
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static final MetadataCache<PropertySet<?>, PropertySet<?>> PROPERTY_SETS = MetadataCache
+			.create(MetadataCacheRegistry.PROJECTION_PROPERTY_SETS, ps -> PropertySet.of((Iterable) ps));
+
 	private final PropertySet<?> propertySet;
 
 	/**
@@ -44,6 +54,43 @@ public class PropertyBoxDocumentConverter implements DocumentConverter<PropertyB
 		this.propertySet = propertySet;
 	}
 
+	/**
+	 * Get the property set used to build the {@link PropertyBox} instances.
+	 * @return the property set
+	 * @since 6.0.1
+	 */
+	public PropertySet<?> getPropertySet() {
+		return propertySet;
+	}
+
+	/**
+	 * Get the property set to use to build the {@link PropertyBox} instances from given properties.
+	 * <p>
+	 * When given properties are a {@link PropertySet}, the same property set instance is returned for the same
+	 * {@link PropertySet} instance, so that the property set related metadata caches can be used.
+	 * </p>
+	 * @param properties The properties (not null)
+	 * @return The property set to use
+	 * @since 6.0.1
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public static PropertySet<?> propertySet(Iterable<? extends Property> properties) {
+		ObjectUtils.argumentNotNull(properties, "Properties must be not null");
+		if (properties instanceof PropertySet && !(properties instanceof PropertyBox)) {
+			return PROPERTY_SETS.get((PropertySet<?>) properties);
+		}
+		return PropertySet.of((Iterable) properties);
+	}
+
+	/**
+	 * Get the projection property sets cache.
+	 * @return The projection property sets cache
+	 * @since 6.0.1
+	 */
+	public static MetadataCache<PropertySet<?>, PropertySet<?>> getPropertySetCache() {
+		return PROPERTY_SETS;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see com.holonplatform.datastore.mongo.core.document.DocumentConverter#getConversionType()
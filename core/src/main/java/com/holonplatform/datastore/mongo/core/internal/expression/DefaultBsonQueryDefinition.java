@@ -20,6 +20,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.bson.conversions.Bson;
 
+import com.holonplatform.datastore.mongo.core.CountStrategy;
 import com.holonplatform.datastore.mongo.core.expression.BsonFilterExpression;
 import com.holonplatform.datastore.mongo.core.expression.BsonQueryDefinition;
 import com.mongodb.CursorType;
@@ -52,6 +53,8 @@ public class DefaultBsonQueryDefinition implements BsonQueryDefinition {
 	private Bson min;
 	private boolean returnKey = false;
 	private boolean showRecordId = false;
+	private Integer decodingParallelism;
+	private CountStrategy countStrategy;
 
 	public DefaultBsonQueryDefinition() {
 		super();
@@ -237,6 +240,24 @@ public class DefaultBsonQueryDefinition implements BsonQueryDefinition {
 		return showRecordId;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.expression.BsonQueryDefinition#getDecodingParallelism()
+	 */
+	@Override
+	public Optional<Integer> getDecodingParallelism() {
+		return Optional.ofNullable(decodingParallelism);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.expression.BsonQueryDefinition#getCountStrategy()
+	 */
+	@Override
+	public Optional<CountStrategy> getCountStrategy() {
+		return Optional.ofNullable(countStrategy);
+	}
+
 	// ------- setters
 
 	public void setCollectionName(String collectionName) {
@@ -319,6 +340,14 @@ public class DefaultBsonQueryDefinition implements BsonQueryDefinition {
 		this.showRecordId = showRecordId;
 	}
 
+	public void setDecodingParallelism(Integer decodingParallelism) {
+		this.decodingParallelism = decodingParallelism;
+	}
+
+	public void setCountStrategy(CountStrategy countStrategy) {
+		this.countStrategy = countStrategy;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see com.holonplatform.core.Expression#validate()
@@ -541,6 +570,27 @@ public class DefaultBsonQueryDefinition implements BsonQueryDefinition {
 			return this;
 		}
 
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.datastore.mongo.core.expression.BsonQueryDefinition.Builder#decodingParallelism(int)
+		 */
+		@Override
+		public Builder decodingParallelism(int decodingParallelism) {
+			instance.setDecodingParallelism(decodingParallelism);
+			return this;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see com.holonplatform.datastore.mongo.core.expression.BsonQueryDefinition.Builder#countStrategy(com.
+		 * holonplatform.datastore.mongo.core.CountStrategy)
+		 */
+		@Override
+		public Builder countStrategy(CountStrategy countStrategy) {
+			instance.setCountStrategy(countStrategy);
+			return this;
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * @see com.holonplatform.datastore.mongo.core.expression.MongoQueryDefinition.Builder#build()
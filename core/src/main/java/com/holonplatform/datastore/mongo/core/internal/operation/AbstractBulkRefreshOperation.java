@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshOperation;
+
+/**
+ * Abstract {@link BulkRefreshOperation} implementation.
+ *
+ * @param <O> Actual operation type
+ *
+ * @since 6.0.1
+ */
+public abstract class AbstractBulkRefreshOperation<O extends BulkRefreshOperation<O>>
+		extends AbstractDatastoreOperation<O, BulkRefreshConfiguration, BulkRefreshDefinition>
+		implements BulkRefreshOperation<O> {
+
+	public AbstractBulkRefreshOperation() {
+		super(new DefaultBulkRefreshDefinition());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.datastore.operation.commons.DatastoreOperation#getConfiguration()
+	 */
+	@Override
+	public BulkRefreshConfiguration getConfiguration() {
+		return getDefinition();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkRefreshOperation#add(com.holonplatform.core.property.
+	 * PropertyBox)
+	 */
+	@Override
+	public O add(PropertyBox value) {
+		getDefinition().addValue(value);
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkRefreshOperation#add(java.lang.Iterable)
+	 */
+	@Override
+	public O add(Iterable<? extends PropertyBox> values) {
+		ObjectUtils.argumentNotNull(values, "Values to refresh must be not null");
+		values.forEach(value -> getDefinition().addValue(value));
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkRefreshOperation#chunkSize(int)
+	 */
+	@Override
+	public O chunkSize(int chunkSize) {
+		getDefinition().setChunkSize(chunkSize);
+		return getActualOperation();
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration.WriteType;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperation;
+
+/**
+ * Abstract {@link BulkWriteOperation} implementation.
+ *
+ * @param <O> Actual operation type
+ *
+ * @since 6.0.1
+ */
+public abstract class AbstractBulkWriteOperation<O extends BulkWriteOperation<O>>
+		extends AbstractDatastoreOperation<O, BulkWriteConfiguration, BulkWriteDefinition>
+		implements BulkWriteOperation<O> {
+
+	public AbstractBulkWriteOperation() {
+		super(new DefaultBulkWriteDefinition());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.datastore.operation.commons.DatastoreOperation#getConfiguration()
+	 */
+	@Override
+	public BulkWriteConfiguration getConfiguration() {
+		return getDefinition();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteOperation#insert(com.holonplatform.core.property.
+	 * PropertyBox)
+	 */
+	@Override
+	public O insert(PropertyBox value) {
+		getDefinition().addValue(WriteType.INSERT, value);
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteOperation#update(com.holonplatform.core.property.
+	 * PropertyBox)
+	 */
+	@Override
+	public O update(PropertyBox value) {
+		getDefinition().addValue(WriteType.UPDATE, value);
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteOperation#save(com.holonplatform.core.property.
+	 * PropertyBox)
+	 */
+	@Override
+	public O save(PropertyBox value) {
+		getDefinition().addValue(WriteType.SAVE, value);
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteOperation#delete(com.holonplatform.core.property.
+	 * PropertyBox)
+	 */
+	@Override
+	public O delete(PropertyBox value) {
+		getDefinition().addValue(WriteType.DELETE, value);
+		return getActualOperation();
+	}
+
+}
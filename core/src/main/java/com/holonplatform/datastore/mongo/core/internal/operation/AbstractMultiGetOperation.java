@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.Collection;
+
+import com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.operation.MultiGetConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.MultiGetOperation;
+
+/**
+ * Abstract {@link MultiGetOperation} implementation.
+ *
+ * @param <O> Actual operation type
+ *
+ * @since 6.0.1
+ */
+public abstract class AbstractMultiGetOperation<O extends MultiGetOperation<O>>
+		extends AbstractDatastoreOperation<O, MultiGetConfiguration, MultiGetDefinition>
+		implements MultiGetOperation<O> {
+
+	public AbstractMultiGetOperation() {
+		super(new DefaultMultiGetDefinition());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.datastore.operation.commons.DatastoreOperation#getConfiguration()
+	 */
+	@Override
+	public MultiGetConfiguration getConfiguration() {
+		return getDefinition();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.MultiGetOperation#propertySet(java.lang.Iterable)
+	 */
+	@SuppressWarnings("rawtypes")
+	@Override
+	public <P extends Property> O propertySet(Iterable<P> properties) {
+		ObjectUtils.argumentNotNull(properties, "Property set must be not null");
+		// preserve the property set identifiers, if available
+		getDefinition().setPropertySet(
+				(properties instanceof PropertySet) ? (PropertySet<?>) properties : PropertySet.of(properties));
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.MultiGetOperation#ids(java.util.Collection)
+	 */
+	@Override
+	public O ids(Collection<?> ids) {
+		ObjectUtils.argumentNotNull(ids, "Document ids must be not null");
+		ids.forEach(id -> getDefinition().addId(id));
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.MultiGetOperation#chunkSize(int)
+	 */
+	@Override
+	public O chunkSize(int chunkSize) {
+		getDefinition().setChunkSize(chunkSize);
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.MultiGetOperation#maxConcurrency(int)
+	 */
+	@Override
+	public O maxConcurrency(int maxConcurrency) {
+		getDefinition().setMaxConcurrency(maxConcurrency);
+		return getActualOperation();
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.function.Consumer;
+
+import com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertProgress;
+
+/**
+ * Abstract {@link StreamingInsertOperation} implementation.
+ *
+ * @param <O> Actual operation type
+ *
+ * @since 6.0.1
+ */
+public abstract class AbstractStreamingInsertOperation<O extends StreamingInsertOperation<O>>
+		extends AbstractDatastoreOperation<O, StreamingInsertConfiguration, StreamingInsertDefinition>
+		implements StreamingInsertOperation<O> {
+
+	public AbstractStreamingInsertOperation() {
+		super(new DefaultStreamingInsertDefinition());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.datastore.operation.commons.DatastoreOperation#getConfiguration()
+	 */
+	@Override
+	public StreamingInsertConfiguration getConfiguration() {
+		return getDefinition();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation#propertySet(java.lang.Iterable)
+	 */
+	@SuppressWarnings("rawtypes")
+	@Override
+	public <P extends Property> O propertySet(Iterable<P> properties) {
+		ObjectUtils.argumentNotNull(properties, "Property set must be not null");
+		// preserve the property set identifiers, if available
+		getDefinition().setPropertySet(
+				(properties instanceof PropertySet) ? (PropertySet<?>) properties : PropertySet.of(properties));
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation#maxBatchSize(int)
+	 */
+	@Override
+	public O maxBatchSize(int maxBatchSize) {
+		getDefinition().setMaxBatchSize(maxBatchSize);
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation#maxBatchBytes(int)
+	 */
+	@Override
+	public O maxBatchBytes(int maxBatchBytes) {
+		getDefinition().setMaxBatchBytes(maxBatchBytes);
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation#maxBatchesInFlight(int)
+	 */
+	@Override
+	public O maxBatchesInFlight(int maxBatchesInFlight) {
+		getDefinition().setMaxBatchesInFlight(maxBatchesInFlight);
+		return getActualOperation();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation#onBatchInserted(java.util.
+	 * function.Consumer)
+	 */
+	@Override
+	public O onBatchInserted(Consumer<StreamingInsertProgress> callback) {
+		ObjectUtils.argumentNotNull(callback, "Callback must be not null");
+		getDefinition().setProgressCallback(callback);
+		return getActualOperation();
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
+import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshResult;
+import com.mongodb.client.model.Filters;
+
+/**
+ * Encodes the document ids of the values of a {@link BulkRefreshConfiguration}, splits the distinct ids into chunks
+ * to be read using <code>$in</code> queries and builds the {@link BulkRefreshResult} from the documents read.
+ * <p>
+ * The documents read by the chunk queries must be collected using {@link #addDocument(Document)}, and they are
+ * decoded only when the result is built, each one using the document context of the value to refresh.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class BulkRefreshRequest {
+
+	private final BulkRefreshConfiguration configuration;
+
+	private final List<MongoDocumentContext<?>> contexts;
+	private final List<ObjectId> ids;
+	private final List<List<ObjectId>> chunks = new ArrayList<>();
+
+	private final Map<ObjectId, Document> documents = new HashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param context Resolution context (not null)
+	 * @param configuration Operation configuration (not null)
+	 * @throws DataAccessException If a value does not provide a document id
+	 */
+	public BulkRefreshRequest(MongoResolutionContext<?> context, BulkRefreshConfiguration configuration) {
+		super();
+		ObjectUtils.argumentNotNull(context, "Context must be not null");
+		ObjectUtils.argumentNotNull(configuration, "Configuration must be not null");
+		this.configuration = configuration;
+
+		// encode the document ids
+		final List<PropertyBox> values = configuration.getValues();
+		this.contexts = new ArrayList<>(values.size());
+		this.ids = new ArrayList<>(values.size());
+		final Set<ObjectId> distinct = new LinkedHashSet<>();
+		for (PropertyBox value : values) {
+			final MongoDocumentContext<?> documentContext = context.documentContext(value);
+			final Property<?> idProperty = documentContext.getDocumentIdProperty()
+					.orElseThrow(() -> new DataAccessException(
+							"Cannot perform a REFRESH operation: missing document id property for value [" + value
+									+ "]"));
+			final ObjectId id = documentContext.getDocumentIdResolver().encode(value.getValue(idProperty));
+			if (id == null) {
+				throw new DataAccessException(
+						"Cannot perform a REFRESH operation: missing document id value for property [" + idProperty
+								+ "]");
+			}
+			contexts.add(documentContext);
+			ids.add(id);
+			distinct.add(id);
+		}
+
+		// chunks
+		final int chunkSize = configuration.getChunkSize();
+		List<ObjectId> chunk = new ArrayList<>(Math.min(chunkSize, distinct.size()));
+		for (ObjectId id : distinct) {
+			chunk.add(id);
+			if (chunk.size() >= chunkSize) {
+				chunks.add(chunk);
+				chunk = new ArrayList<>(Math.min(chunkSize, distinct.size()));
+			}
+		}
+		if (!chunk.isEmpty()) {
+			chunks.add(chunk);
+		}
+	}
+
+	/**
+	 * Get the number of chunks, i.e. of <code>$in</code> queries to execute.
+	 * @return The chunk count
+	 */
+	public int getChunkCount() {
+		return chunks.size();
+	}
+
+	/**
+	 * Get the query filter of given chunk.
+	 * @param chunk The chunk index
+	 * @return The chunk query filter
+	 */
+	public Bson getFilter(int chunk) {
+		return Filters.in("_id", chunks.get(chunk));
+	}
+
+	/**
+	 * Get the number of document ids of given chunk.
+	 * @param chunk The chunk index
+	 * @return The chunk size
+	 */
+	public int getChunkSize(int chunk) {
+		return chunks.get(chunk).size();
+	}
+
+	/**
+	 * Add a document read by a chunk query.
+	 * @param document The document to add (not null)
+	 */
+	public void addDocument(Document document) {
+		ObjectUtils.argumentNotNull(document, "Document must be not null");
+		final Object id = document.get("_id");
+		if (id instanceof ObjectId) {
+			documents.put((ObjectId) id, document);
+		}
+	}
+
+	/**
+	 * Build the operation result, decoding the documents read in the original order of the values.
+	 * @return The operation result
+	 */
+	public BulkRefreshResult getResult() {
+		final List<PropertyBox> values = configuration.getValues();
+		final List<Optional<PropertyBox>> refreshed = new ArrayList<>(values.size());
+		final List<PropertyBox> notFound = new ArrayList<>();
+		for (int i = 0; i < values.size(); i++) {
+			final Document document = documents.get(ids.get(i));
+			if (document != null) {
+				refreshed.add(Optional.of(contexts.get(i)
+						.resolveOrFail(DocumentValue.create(document), PropertyBoxValue.class).getValue()));
+			} else {
+				refreshed.add(Optional.empty());
+				notFound.add(values.get(i));
+			}
+		}
+		return new DefaultBulkRefreshResult(refreshed, notFound);
+	}
+
+}
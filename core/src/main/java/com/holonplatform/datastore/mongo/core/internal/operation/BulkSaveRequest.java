@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.context.MongoContext;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.operation.BulkSaveConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration.WriteType;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration.WriteValue;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult;
+
+/**
+ * Partitions the values of a {@link BulkSaveConfiguration} into inserts, for the values without a document id, and
+ * upserts, for the values with a document id, and splits each partition into chunks to be executed as
+ * {@link BulkWriteRequest}s.
+ * <p>
+ * Keeping the inserts and the upserts in separate commands allows the server to execute each command as a single
+ * batch even when the bulk write is ordered. The chunk requests are created on demand, so that only the documents of
+ * the chunk being executed are encoded at a time.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class BulkSaveRequest {
+
+	private final MongoContext<?> context;
+	private final BulkSaveConfiguration configuration;
+
+	private final List<int[]> chunks = new ArrayList<>();
+
+	/**
+	 * Constructor.
+	 * @param context Mongo context (not null)
+	 * @param configuration Operation configuration (not null)
+	 */
+	public BulkSaveRequest(MongoContext<?> context, BulkSaveConfiguration configuration) {
+		super();
+		ObjectUtils.argumentNotNull(context, "Context must be not null");
+		ObjectUtils.argumentNotNull(configuration, "Configuration must be not null");
+		this.context = context;
+		this.configuration = configuration;
+
+		// partition
+		final List<PropertyBox> values = configuration.getValues();
+		final int[] inserts = new int[values.size()];
+		final int[] upserts = new int[values.size()];
+		int insertCount = 0;
+		int upsertCount = 0;
+		for (int i = 0; i < values.size(); i++) {
+			if (hasDocumentId(context, values.get(i))) {
+				upserts[upsertCount++] = i;
+			} else {
+				inserts[insertCount++] = i;
+			}
+		}
+
+		// chunks
+		final int chunkSize = configuration.getChunkSize();
+		for (int i = 0; i < insertCount; i += chunkSize) {
+			chunks.add(Arrays.copyOfRange(inserts, i, Math.min(i + chunkSize, insertCount)));
+		}
+		for (int i = 0; i < upsertCount; i += chunkSize) {
+			chunks.add(Arrays.copyOfRange(upserts, i, Math.min(i + chunkSize, upsertCount)));
+		}
+	}
+
+	/**
+	 * Get the number of chunks, i.e. of <code>bulkWrite</code> commands to execute.
+	 * @return The chunk count
+	 */
+	public int getChunkCount() {
+		return chunks.size();
+	}
+
+	/**
+	 * Build the {@link BulkWriteRequest} of given chunk.
+	 * @param chunk The chunk index
+	 * @return The chunk {@link BulkWriteRequest}
+	 */
+	public BulkWriteRequest getChunk(int chunk) {
+		final List<PropertyBox> values = configuration.getValues();
+		final int[] indexes = chunks.get(chunk);
+		final List<WriteValue> writeValues = new ArrayList<>(indexes.length);
+		for (int index : indexes) {
+			writeValues.add(WriteValue.create(WriteType.SAVE, values.get(index)));
+		}
+		return new BulkWriteRequest(context, configuration, writeValues);
+	}
+
+	/**
+	 * Build the operation result, merging the results of each chunk and restoring the original order of the single
+	 * operation results.
+	 * @param chunkResults The chunk results, in the same order of the chunks
+	 * @return The operation result
+	 */
+	public BulkWriteOperationResult getResult(List<BulkWriteOperationResult> chunkResults) {
+		final OperationResult[] results = new OperationResult[configuration.getValues().size()];
+		long insertedCount = 0L;
+		long upsertedCount = 0L;
+		long matchedCount = 0L;
+		long modifiedCount = 0L;
+		long deletedCount = 0L;
+		for (int c = 0; c < chunkResults.size(); c++) {
+			final BulkWriteOperationResult chunkResult = chunkResults.get(c);
+			insertedCount += chunkResult.getInsertedCount();
+			upsertedCount += chunkResult.getUpsertedCount();
+			matchedCount += chunkResult.getMatchedCount();
+			modifiedCount += chunkResult.getModifiedCount();
+			deletedCount += chunkResult.getDeletedCount();
+			final int[] indexes = chunks.get(c);
+			final List<OperationResult> operationResults = chunkResult.getOperationResults();
+			for (int i = 0; i < indexes.length && i < operationResults.size(); i++) {
+				results[indexes[i]] = operationResults.get(i);
+			}
+		}
+		final List<OperationResult> operationResults = new ArrayList<>(results.length);
+		for (OperationResult result : results) {
+			if (result != null) {
+				operationResults.add(result);
+			}
+		}
+		return new DefaultBulkWriteOperationResult(insertedCount, upsertedCount, matchedCount, modifiedCount,
+				deletedCount, operationResults);
+	}
+
+	private static boolean hasDocumentId(MongoContext<?> context, PropertyBox value) {
+		final MongoDocumentContext<?> documentContext = MongoDocumentContext.createForUpdate(context, value);
+		return documentContext.getDocumentIdProperty()
+				.map(p -> documentContext.getDocumentIdResolver().encode(value.getValue(p))).isPresent();
+	}
+
+}
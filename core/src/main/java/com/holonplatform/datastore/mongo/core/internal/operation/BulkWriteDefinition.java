@@ -0,0 +1,36 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import com.holonplatform.core.internal.datastore.operation.common.DatastoreOperationDefinition;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration;
+
+/**
+ * Bulk write operation definition.
+ *
+ * @since 6.0.1
+ */
+public interface BulkWriteDefinition extends BulkWriteConfiguration, DatastoreOperationDefinition {
+
+	/**
+	 * Add a write operation.
+	 * @param writeType The write operation type (not null)
+	 * @param value The value (not null)
+	 */
+	void addValue(WriteType writeType, PropertyBox value);
+
+}
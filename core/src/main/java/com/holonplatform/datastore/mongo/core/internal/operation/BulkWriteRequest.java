@@ -0,0 +1,306 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.Datastore.OperationType;
+import com.holonplatform.core.datastore.operation.commons.DatastoreOperationConfiguration;
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.DocumentWriteOption;
+import com.holonplatform.datastore.mongo.core.context.MongoContext;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
+import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration.WriteType;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration.WriteValue;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.session.ClientSession;
+
+/**
+ * Translates a {@link BulkWriteConfiguration} into the {@link WriteModel}s of a MongoDB <code>bulkWrite</code> command
+ * and builds the {@link BulkWriteOperationResult} from the command result.
+ * <p>
+ * The values are encoded using the same document contexts and resolvers of the corresponding single value operations:
+ * updates and saves are performed using an <code>updateOne</code> model bound to the document id, with upsert enabled
+ * for saves, while a save of a value without a document id falls back to an insert. The ids of the inserted documents
+ * are generated client side, so that the inserted keys can be provided for each operation.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class BulkWriteRequest {
+
+	private final DatastoreOperationConfiguration configuration;
+
+	private final List<WriteEntry> entries;
+	private final List<WriteModel<Document>> models;
+
+	/**
+	 * Constructor.
+	 * @param context Mongo context (not null)
+	 * @param configuration Operation configuration (not null)
+	 */
+	public BulkWriteRequest(MongoContext<?> context, BulkWriteConfiguration configuration) {
+		this(context, configuration, configuration.getValues());
+	}
+
+	/**
+	 * Constructor.
+	 * @param context Mongo context (not null)
+	 * @param configuration Operation configuration (not null)
+	 * @param values The write operations (not null)
+	 */
+	public BulkWriteRequest(MongoContext<?> context, DatastoreOperationConfiguration configuration,
+			List<WriteValue> values) {
+		super();
+		ObjectUtils.argumentNotNull(context, "Context must be not null");
+		ObjectUtils.argumentNotNull(configuration, "Configuration must be not null");
+		ObjectUtils.argumentNotNull(values, "Values must be not null");
+		this.configuration = configuration;
+		this.entries = new ArrayList<>(values.size());
+		this.models = new ArrayList<>(values.size());
+		for (WriteValue value : values) {
+			add(context, value.getWriteType(), value.getValue());
+		}
+	}
+
+	/**
+	 * Get the bulk write models.
+	 * @return The write models, an empty list if none
+	 */
+	public List<WriteModel<Document>> getModels() {
+		return models;
+	}
+
+	/**
+	 * Get the bulk write options.
+	 * @return The bulk write options
+	 */
+	public BulkWriteOptions getOptions() {
+		final BulkWriteOptions options = new BulkWriteOptions();
+		options.bypassDocumentValidation(configuration.hasWriteOption(DocumentWriteOption.BYPASS_VALIDATION));
+		options.ordered(!configuration.hasWriteOption(DocumentWriteOption.UNORDERED));
+		return options;
+	}
+
+	/**
+	 * Get a JSON summary of the bulk write operations, for tracing purposes.
+	 * @param context Mongo context
+	 * @return The JSON summary
+	 */
+	public String trace(MongoContext<?> context) {
+		final Map<String, Integer> counts = new HashMap<>();
+		entries.forEach(e -> counts.merge(e.writeType.name().toLowerCase(), 1, Integer::sum));
+		return context.toJson(new Document(counts));
+	}
+
+	/**
+	 * Build the operation result.
+	 * @param result The MongoDB bulk write result, <code>null</code> if the bulk write was not performed because there
+	 *        were no operations
+	 * @return The operation result
+	 */
+	public BulkWriteOperationResult getResult(BulkWriteResult result) {
+		final boolean acknowledged = result != null && result.wasAcknowledged();
+
+		final Map<Integer, BsonValue> upserts = new HashMap<>();
+		if (acknowledged) {
+			for (BulkWriteUpsert upsert : result.getUpserts()) {
+				upserts.put(upsert.getIndex(), upsert.getId());
+			}
+		}
+
+		// the update and delete counts can be attributed to each operation only when all or none of them affected a
+		// document, otherwise the count of each operation is unknown
+		final long updates = entries.stream()
+				.filter(e -> e.writeType == WriteType.UPDATE || e.writeType == WriteType.SAVE).count() - upserts.size();
+		final long deletes = entries.stream().filter(e -> e.writeType == WriteType.DELETE).count();
+		final long matchedCount = acknowledged ? result.getMatchedCount() : 0L;
+		final long modifiedCount = acknowledged ? result.getModifiedCount() : 0L;
+		final long deletedCount = acknowledged ? result.getDeletedCount() : 0L;
+		final long updated = acknowledged ? getOperationCount(matchedCount, updates) : 0L;
+		final long deleted = acknowledged ? getOperationCount(deletedCount, deletes) : 0L;
+
+		final List<OperationResult> results = new ArrayList<>(entries.size());
+		for (int i = 0; i < entries.size(); i++) {
+			final WriteEntry entry = entries.get(i);
+			final OperationResult.Builder builder = OperationResult.builder();
+			switch (entry.writeType) {
+			case INSERT:
+				builder.type(OperationType.INSERT).affectedCount(acknowledged ? 1L : 0L);
+				if (acknowledged) {
+					MongoOperations.checkInsertedKeys(builder, entry.context, configuration, entry.document,
+							entry.value);
+				}
+				break;
+			case SAVE:
+				final BsonValue upsertedId = upserts.get(i);
+				if (upsertedId != null) {
+					builder.type(OperationType.INSERT).affectedCount(1L);
+					MongoOperations.checkUpsertedKey(builder, entry.context, configuration, upsertedId, entry.value);
+				} else {
+					builder.type(OperationType.UPDATE).affectedCount(updated);
+				}
+				break;
+			case UPDATE:
+				builder.type(OperationType.UPDATE).affectedCount(updated);
+				break;
+			case DELETE:
+				builder.type(OperationType.DELETE).affectedCount(deleted);
+				break;
+			default:
+				break;
+			}
+			results.add(builder.build());
+		}
+
+		return new DefaultBulkWriteOperationResult(acknowledged ? result.getInsertedCount() : 0L, upserts.size(),
+				matchedCount, modifiedCount, deletedCount, results);
+	}
+
+	/**
+	 * Get the affected count of each operation of a given type, if it can be derived from the aggregated count.
+	 * @param count The aggregated count
+	 * @param operations The number of operations
+	 * @return <code>1</code> if all the operations affected a document, <code>0</code> if none of them did,
+	 *         {@link BulkWriteOperationResult#UNKNOWN_AFFECTED_COUNT} otherwise
+	 */
+	private static long getOperationCount(long count, long operations) {
+		if (count == 0L) {
+			return 0L;
+		}
+		return (count == operations) ? 1L : BulkWriteOperationResult.UNKNOWN_AFFECTED_COUNT;
+	}
+
+	private <S extends ClientSession> void add(MongoContext<S> context, WriteType writeType,
+			PropertyBox value) {
+		switch (writeType) {
+		case INSERT:
+			addInsert(context, value);
+			break;
+		case UPDATE: {
+			final MongoDocumentContext<S> documentContext = documentContext(context, value, true);
+			final ObjectId id = getDocumentId(documentContext, value)
+					.orElseThrow(() -> missingId(documentContext, value, "UPDATE"));
+			final Document document = encode(documentContext, value);
+			models.add(new UpdateOneModel<>(Filters.eq(id), document,
+					MongoOperations.getUpdateOptions(configuration, false)));
+			entries.add(new WriteEntry(WriteType.UPDATE, documentContext, value, document));
+			break;
+		}
+		case SAVE: {
+			final MongoDocumentContext<S> documentContext = documentContext(context, value, true);
+			final ObjectId id = getDocumentId(documentContext, value).orElse(null);
+			if (id == null) {
+				// fallback to insert
+				addInsert(context, value);
+			} else {
+				final Document document = encode(documentContext, value);
+				models.add(new UpdateOneModel<>(Filters.eq(id), document,
+						MongoOperations.getUpdateOptions(configuration, true)));
+				entries.add(new WriteEntry(WriteType.SAVE, documentContext, value, document));
+			}
+			break;
+		}
+		case DELETE: {
+			final MongoDocumentContext<S> documentContext = documentContext(context, value, false);
+			final ObjectId id = getDocumentId(documentContext, value)
+					.orElseThrow(() -> missingId(documentContext, value, "DELETE"));
+			models.add(new DeleteOneModel<>(Filters.eq(id), MongoOperations.getDeleteOptions(configuration)));
+			entries.add(new WriteEntry(WriteType.DELETE, documentContext, value, null));
+			break;
+		}
+		default:
+			break;
+		}
+	}
+
+	private <S extends ClientSession> void addInsert(MongoContext<S> context, PropertyBox value) {
+		final MongoDocumentContext<S> documentContext = documentContext(context, value, false);
+		final Document document = encode(documentContext, value);
+		MongoOperations.assignDocumentId(documentContext, document);
+		if (!document.containsKey(MongoDocumentContext.ID_FIELD_NAME)) {
+			document.put(MongoDocumentContext.ID_FIELD_NAME, new ObjectId());
+		}
+		models.add(new InsertOneModel<>(document));
+		entries.add(new WriteEntry(WriteType.INSERT, documentContext, value, document));
+	}
+
+	private <S extends ClientSession> MongoDocumentContext<S> documentContext(
+			MongoContext<S> context, PropertyBox value, boolean forUpdate) {
+		final MongoDocumentContext<S> documentContext = forUpdate ? MongoDocumentContext.createForUpdate(context, value)
+				: MongoDocumentContext.create(context, value);
+		documentContext.addExpressionResolvers(configuration.getExpressionResolvers());
+		return documentContext;
+	}
+
+	private static Document encode(MongoDocumentContext<?> context, PropertyBox value) {
+		return context.resolveOrFail(PropertyBoxValue.create(value), DocumentValue.class).getValue();
+	}
+
+	private static Optional<ObjectId> getDocumentId(MongoDocumentContext<?> context, PropertyBox value) {
+		return context.getDocumentIdProperty()
+				.map(p -> context.getDocumentIdResolver().encode(value.getValue(p)));
+	}
+
+	private static DataAccessException missingId(MongoDocumentContext<?> context, PropertyBox value,
+			String operation) {
+		return context.getDocumentIdProperty()
+				.map(p -> new DataAccessException("Cannot perform an " + operation
+						+ " operation: missing document id value for property [" + p + "]"))
+				.orElseGet(() -> new DataAccessException("Cannot perform an " + operation
+						+ " operation: missing document id property for value [" + value + "]"));
+	}
+
+	private static final class WriteEntry {
+
+		final WriteType writeType;
+		final MongoDocumentContext<?> context;
+		final PropertyBox value;
+		final Document document;
+
+		WriteEntry(WriteType writeType, MongoDocumentContext<?> context, PropertyBox value, Document document) {
+			super();
+			this.writeType = writeType;
+			this.context = context;
+			this.value = value;
+			this.document = document;
+		}
+
+	}
+
+}
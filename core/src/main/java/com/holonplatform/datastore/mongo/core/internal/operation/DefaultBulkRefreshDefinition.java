@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperationDefinition;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshOperation;
+
+/**
+ * Default {@link BulkRefreshDefinition} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultBulkRefreshDefinition extends AbstractDatastoreOperationDefinition implements BulkRefreshDefinition {
+
+	private final List<PropertyBox> values = new ArrayList<>();
+
+	private int chunkSize = BulkRefreshOperation.DEFAULT_CHUNK_SIZE;
+
+	public DefaultBulkRefreshDefinition() {
+		super();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkRefreshConfiguration#getValues()
+	 */
+	@Override
+	public List<PropertyBox> getValues() {
+		return Collections.unmodifiableList(values);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkRefreshConfiguration#getChunkSize()
+	 */
+	@Override
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.datastore.mongo.core.internal.operation.BulkRefreshDefinition#addValue(com.holonplatform.core.
+	 * property.PropertyBox)
+	 */
+	@Override
+	public void addValue(PropertyBox value) {
+		ObjectUtils.argumentNotNull(value, "Value to refresh must be not null");
+		values.add(value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.operation.BulkRefreshDefinition#setChunkSize(int)
+	 */
+	@Override
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("The chunk size must be greater than 0");
+		}
+		this.chunkSize = chunkSize;
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshResult;
+
+/**
+ * Default {@link BulkRefreshResult} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultBulkRefreshResult implements BulkRefreshResult {
+
+	private final List<Optional<PropertyBox>> values;
+	private final List<PropertyBox> notFound;
+
+	public DefaultBulkRefreshResult(List<Optional<PropertyBox>> values, List<PropertyBox> notFound) {
+		super();
+		this.values = (values != null) ? Collections.unmodifiableList(values) : Collections.emptyList();
+		this.notFound = (notFound != null) ? Collections.unmodifiableList(notFound) : Collections.emptyList();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkRefreshResult#getValues()
+	 */
+	@Override
+	public List<Optional<PropertyBox>> getValues() {
+		return values;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkRefreshResult#getNotFound()
+	 */
+	@Override
+	public List<PropertyBox> getNotFound() {
+		return notFound;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "DefaultBulkRefreshResult [refreshed=" + getRefreshedCount() + ", notFound=" + notFound.size() + "]";
+	}
+
+}
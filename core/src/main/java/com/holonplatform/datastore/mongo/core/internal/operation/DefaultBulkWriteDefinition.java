@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperationDefinition;
+import com.holonplatform.core.property.PropertyBox;
+
+/**
+ * Default {@link BulkWriteDefinition} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultBulkWriteDefinition extends AbstractDatastoreOperationDefinition implements BulkWriteDefinition {
+
+	private final List<WriteValue> values = new ArrayList<>();
+
+	public DefaultBulkWriteDefinition() {
+		super();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration#getValues()
+	 */
+	@Override
+	public List<WriteValue> getValues() {
+		return Collections.unmodifiableList(values);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.operation.BulkWriteDefinition#addValue(com.holonplatform.
+	 * datastore.mongo.core.operation.BulkWriteConfiguration.WriteType, com.holonplatform.core.property.PropertyBox)
+	 */
+	@Override
+	public void addValue(WriteType writeType, PropertyBox value) {
+		values.add(WriteValue.create(writeType, value));
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.holonplatform.core.Path;
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.Datastore.OperationType;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult;
+
+/**
+ * Default {@link BulkWriteOperationResult} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultBulkWriteOperationResult implements BulkWriteOperationResult {
+
+	private static final long serialVersionUID = -6064512405384739212L;
+
+	private final long insertedCount;
+	private final long upsertedCount;
+	private final long matchedCount;
+	private final long modifiedCount;
+	private final long deletedCount;
+	private final List<OperationResult> operationResults;
+
+	public DefaultBulkWriteOperationResult(long insertedCount, long upsertedCount, long matchedCount,
+			long modifiedCount, long deletedCount, List<OperationResult> operationResults) {
+		super();
+		this.insertedCount = insertedCount;
+		this.upsertedCount = upsertedCount;
+		this.matchedCount = matchedCount;
+		this.modifiedCount = modifiedCount;
+		this.deletedCount = deletedCount;
+		this.operationResults = (operationResults != null) ? Collections.unmodifiableList(operationResults)
+				: Collections.emptyList();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.datastore.Datastore.OperationResult#getOperationType()
+	 */
+	@Override
+	public Optional<OperationType> getOperationType() {
+		return Optional.empty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.datastore.Datastore.OperationResult#getAffectedCount()
+	 */
+	@Override
+	public long getAffectedCount() {
+		return insertedCount + upsertedCount + modifiedCount + deletedCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.datastore.Datastore.OperationResult#getInsertedKeys()
+	 */
+	@Override
+	public Map<Path<?>, Object> getInsertedKeys() {
+		return Collections.emptyMap();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.datastore.Datastore.OperationResult#getInsertedKey(com.holonplatform.core.Path)
+	 */
+	@Override
+	public <T> Optional<T> getInsertedKey(Path<T> path) {
+		return Optional.empty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult#getInsertedCount()
+	 */
+	@Override
+	public long getInsertedCount() {
+		return insertedCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult#getUpsertedCount()
+	 */
+	@Override
+	public long getUpsertedCount() {
+		return upsertedCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult#getMatchedCount()
+	 */
+	@Override
+	public long getMatchedCount() {
+		return matchedCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult#getModifiedCount()
+	 */
+	@Override
+	public long getModifiedCount() {
+		return modifiedCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult#getDeletedCount()
+	 */
+	@Override
+	public long getDeletedCount() {
+		return deletedCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult#getOperationResults()
+	 */
+	@Override
+	public List<OperationResult> getOperationResults() {
+		return operationResults;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "BulkWriteOperationResult [insertedCount=" + insertedCount + ", upsertedCount=" + upsertedCount
+				+ ", matchedCount=" + matchedCount + ", modifiedCount=" + modifiedCount + ", deletedCount="
+				+ deletedCount + "]";
+	}
+
+}
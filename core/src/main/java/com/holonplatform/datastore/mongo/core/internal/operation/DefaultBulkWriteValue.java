@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration.WriteType;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration.WriteValue;
+
+/**
+ * Default {@link WriteValue} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultBulkWriteValue implements WriteValue {
+
+	private final WriteType writeType;
+	private final PropertyBox value;
+
+	public DefaultBulkWriteValue(WriteType writeType, PropertyBox value) {
+		super();
+		ObjectUtils.argumentNotNull(writeType, "Write type must be not null");
+		ObjectUtils.argumentNotNull(value, "Value must be not null");
+		this.writeType = writeType;
+		this.value = value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration.WriteValue#getWriteType()
+	 */
+	@Override
+	public WriteType getWriteType() {
+		return writeType;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration.WriteValue#getValue()
+	 */
+	@Override
+	public PropertyBox getValue() {
+		return value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return writeType.name() + ": " + value;
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import com.holonplatform.core.Expression.InvalidExpressionException;
+import com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperationDefinition;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.operation.MultiGetOperation;
+
+/**
+ * Default {@link MultiGetDefinition} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultMultiGetDefinition extends AbstractDatastoreOperationDefinition implements MultiGetDefinition {
+
+	private PropertySet<?> propertySet;
+
+	private final List<Object> ids = new ArrayList<>();
+
+	private int chunkSize = MultiGetOperation.DEFAULT_CHUNK_SIZE;
+
+	private int maxConcurrency = MultiGetOperation.DEFAULT_MAX_CONCURRENCY;
+
+	public DefaultMultiGetDefinition() {
+		super();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.MultiGetConfiguration#getPropertySet()
+	 */
+	@Override
+	public Optional<PropertySet<?>> getPropertySet() {
+		return Optional.ofNullable(propertySet);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.MultiGetConfiguration#getIds()
+	 */
+	@Override
+	public List<Object> getIds() {
+		return Collections.unmodifiableList(ids);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.MultiGetConfiguration#getChunkSize()
+	 */
+	@Override
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.MultiGetConfiguration#getMaxConcurrency()
+	 */
+	@Override
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.datastore.mongo.core.internal.operation.MultiGetDefinition#setPropertySet(com.holonplatform.
+	 * core.property.PropertySet)
+	 */
+	@Override
+	public void setPropertySet(PropertySet<?> propertySet) {
+		this.propertySet = propertySet;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.operation.MultiGetDefinition#addId(java.lang.Object)
+	 */
+	@Override
+	public void addId(Object id) {
+		ObjectUtils.argumentNotNull(id, "Document id must be not null");
+		ids.add(id);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.operation.MultiGetDefinition#setChunkSize(int)
+	 */
+	@Override
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("The chunk size must be greater than 0");
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.operation.MultiGetDefinition#setMaxConcurrency(int)
+	 */
+	@Override
+	public void setMaxConcurrency(int maxConcurrency) {
+		if (maxConcurrency < 1) {
+			throw new IllegalArgumentException("The maximum concurrency must be greater than 0");
+		}
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperationDefinition#validate()
+	 */
+	@Override
+	public void validate() throws InvalidExpressionException {
+		super.validate();
+		if (propertySet == null) {
+			throw new InvalidExpressionException("Missing multi-get operation property set");
+		}
+	}
+
+}
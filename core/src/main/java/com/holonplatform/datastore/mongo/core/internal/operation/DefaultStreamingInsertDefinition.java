@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperationDefinition;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertProgress;
+
+/**
+ * Default {@link StreamingInsertDefinition} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultStreamingInsertDefinition extends AbstractDatastoreOperationDefinition
+		implements StreamingInsertDefinition {
+
+	private PropertySet<?> propertySet;
+
+	private int maxBatchSize = StreamingInsertOperation.DEFAULT_MAX_BATCH_SIZE;
+
+	private int maxBatchBytes = StreamingInsertOperation.MAX_BATCH_BYTES;
+
+	private int maxBatchesInFlight = StreamingInsertOperation.DEFAULT_MAX_BATCHES_IN_FLIGHT;
+
+	private Consumer<StreamingInsertProgress> progressCallback;
+
+	public DefaultStreamingInsertDefinition() {
+		super();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration#getPropertySet()
+	 */
+	@Override
+	public Optional<PropertySet<?>> getPropertySet() {
+		return Optional.ofNullable(propertySet);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration#getMaxBatchSize()
+	 */
+	@Override
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration#getMaxBatchBytes()
+	 */
+	@Override
+	public int getMaxBatchBytes() {
+		return maxBatchBytes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration#getMaxBatchesInFlight()
+	 */
+	@Override
+	public int getMaxBatchesInFlight() {
+		return maxBatchesInFlight;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration#getProgressCallback()
+	 */
+	@Override
+	public Optional<Consumer<StreamingInsertProgress>> getProgressCallback() {
+		return Optional.ofNullable(progressCallback);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertDefinition#setPropertySet(com.
+	 * holonplatform.core.property.PropertySet)
+	 */
+	@Override
+	public void setPropertySet(PropertySet<?> propertySet) {
+		this.propertySet = propertySet;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertDefinition#setMaxBatchSize(int)
+	 */
+	@Override
+	public void setMaxBatchSize(int maxBatchSize) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("The maximum batch size must be greater than 0");
+		}
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertDefinition#setMaxBatchBytes(int)
+	 */
+	@Override
+	public void setMaxBatchBytes(int maxBatchBytes) {
+		if (maxBatchBytes < 1) {
+			throw new IllegalArgumentException("The maximum batch bytes must be greater than 0");
+		}
+		this.maxBatchBytes = Math.min(maxBatchBytes, StreamingInsertOperation.MAX_BATCH_BYTES);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertDefinition#setMaxBatchesInFlight(int)
+	 */
+	@Override
+	public void setMaxBatchesInFlight(int maxBatchesInFlight) {
+		if (maxBatchesInFlight < 1) {
+			throw new IllegalArgumentException("The maximum batches in flight must be greater than 0");
+		}
+		this.maxBatchesInFlight = maxBatchesInFlight;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertDefinition#setProgressCallback(java.
+	 * util.function.Consumer)
+	 */
+	@Override
+	public void setProgressCallback(Consumer<StreamingInsertProgress> progressCallback) {
+		this.progressCallback = progressCallback;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperationDefinition#validate()
+	 */
+	@Override
+	public void validate() throws InvalidExpressionException {
+		super.validate();
+		if (propertySet == null) {
+			throw new InvalidExpressionException("Missing streaming insert operation property set");
+		}
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertProgress;
+
+/**
+ * Default {@link StreamingInsertProgress} implementation.
+ *
+ * @since 6.0.1
+ */
+public class DefaultStreamingInsertProgress implements StreamingInsertProgress {
+
+	private final long batchIndex;
+	private final int batchSize;
+	private final long batchBytes;
+	private final long insertedCount;
+
+	public DefaultStreamingInsertProgress(long batchIndex, int batchSize, long batchBytes, long insertedCount) {
+		super();
+		this.batchIndex = batchIndex;
+		this.batchSize = batchSize;
+		this.batchBytes = batchBytes;
+		this.insertedCount = insertedCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertProgress#getBatchIndex()
+	 */
+	@Override
+	public long getBatchIndex() {
+		return batchIndex;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertProgress#getBatchSize()
+	 */
+	@Override
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertProgress#getBatchBytes()
+	 */
+	@Override
+	public long getBatchBytes() {
+		return batchBytes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.core.operation.StreamingInsertProgress#getInsertedCount()
+	 */
+	@Override
+	public long getInsertedCount() {
+		return insertedCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "StreamingInsertProgress [batchIndex=" + batchIndex + ", batchSize=" + batchSize + ", batchBytes="
+				+ batchBytes + ", insertedCount=" + insertedCount + "]";
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.cache.EntityCache;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+
+/**
+ * A read by document id which uses the {@link EntityCache}.
+ * <p>
+ * The collection cache version is obtained when the request is created, so the request must be created before the
+ * documents are read from the database.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class EntityCacheRequest {
+
+	private final MongoResolutionContext<?> context;
+	private final EntityCache cache;
+	private final String collectionName;
+	private final long version;
+
+	/**
+	 * Constructor.
+	 * @param context Resolution context
+	 * @param cache Entity cache
+	 * @param collectionName Collection name
+	 */
+	private EntityCacheRequest(MongoResolutionContext<?> context, EntityCache cache, String collectionName) {
+		super();
+		this.context = context;
+		this.cache = cache;
+		this.collectionName = collectionName;
+		// obtained before the documents are read
+		this.version = cache.getVersion(collectionName);
+	}
+
+	/**
+	 * Get a copy of the cached entity with given document id, if available.
+	 * @param id The document id (not null)
+	 * @param propertySet The property set of the entity to obtain (not null)
+	 * @return Optional cached entity
+	 */
+	public Optional<PropertyBox> get(ObjectId id, PropertySet<?> propertySet) {
+		return cache.get(collectionName, id, propertySet).map(value -> {
+			context.trace("Entity read from cache", () -> context.toJson(new Document("_id", id)));
+			return value;
+		});
+	}
+
+	/**
+	 * Cache given entity, unless the collection cache was invalidated after this request was created.
+	 * @param id The document id (not null)
+	 * @param value The entity (not null)
+	 * @return The given entity
+	 */
+	public PropertyBox put(ObjectId id, PropertyBox value) {
+		cache.put(collectionName, id, version, value);
+		return value;
+	}
+
+	/**
+	 * Create an entity cache request for given collection, if the cache is enabled for the collection and the entities
+	 * can be cached, i.e. the read is not performed within a client session.
+	 * @param context Resolution context (not null)
+	 * @param collectionName The collection name (not null)
+	 * @return The entity cache request, empty if the cache cannot be used
+	 */
+	public static Optional<EntityCacheRequest> create(MongoResolutionContext<?> context, String collectionName) {
+		ObjectUtils.argumentNotNull(context, "Context must be not null");
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		if (context.getClientSession().isPresent()) {
+			return Optional.empty();
+		}
+		return context.getEntityCache().filter(c -> c.isEnabled(collectionName))
+				.map(c -> new EntityCacheRequest(context, c, collectionName));
+	}
+
+}
@@ -26,6 +26,7 @@ import java.util.Optional;
 import org.bson.BsonType;
 import org.bson.BsonValue;
 import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
@@ -40,12 +41,16 @@ import com.holonplatform.core.internal.utils.ObjectUtils;
 import com.holonplatform.core.internal.utils.TypeUtils;
 import com.holonplatform.core.property.Property;
 import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
 import com.holonplatform.datastore.mongo.core.CollationOption;
+import com.holonplatform.datastore.mongo.core.DeltaUpdateOption;
 import com.holonplatform.datastore.mongo.core.DocumentWriteOption;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
 import com.holonplatform.datastore.mongo.core.context.MongoContext;
 import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
 import com.holonplatform.datastore.mongo.core.document.DocumentConverter;
+import com.holonplatform.datastore.mongo.core.document.PropertyBoxCodec;
 import com.holonplatform.datastore.mongo.core.expression.BsonExpression;
 import com.holonplatform.datastore.mongo.core.expression.BsonFilterExpression;
 import com.holonplatform.datastore.mongo.core.expression.BsonFilterExpression.FilterAggregationPipeline;
@@ -57,15 +62,19 @@ import com.holonplatform.datastore.mongo.core.expression.FieldName;
 import com.holonplatform.datastore.mongo.core.expression.FieldValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
 import com.holonplatform.datastore.mongo.core.expression.Value;
-import com.holonplatform.datastore.mongo.core.internal.support.IdUpdateDocument;
+import com.holonplatform.datastore.mongo.core.internal.document.converter.PropertyBoxDocumentConverter;
+import com.holonplatform.datastore.mongo.core.internal.resolver.PropertySetDocumentCodec;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
 import com.holonplatform.datastore.mongo.core.internal.support.ResolvedDocument;
 import com.mongodb.client.model.Aggregates;
 import com.mongodb.client.model.BsonField;
 import com.mongodb.client.model.DeleteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.InsertOneOptions;
 import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
 import com.mongodb.client.result.UpdateResult;
@@ -134,6 +143,90 @@ public class MongoOperations {
 		return updateResult.getModifiedCount();
 	}
 
+	/**
+	 * Get the document to use to update given value, computing the delta update if the {@link DeltaUpdateOption} write
+	 * option is present and an original value or snapshot is available.
+	 * @param context Document context
+	 * @param configuration Operation configuration
+	 * @param value The value to update
+	 * @param document The value update document
+	 * @param upsert Whether the update is an upsert
+	 * @return The update document, empty if there is nothing to update
+	 * @since 6.0.1
+	 */
+	public static Document getUpdateDocument(MongoDocumentContext<?> context,
+			DatastoreOperationConfiguration configuration, PropertyBox value, Document document, boolean upsert) {
+		final Optional<DeltaUpdateOption> option = configuration.getWriteOption(DeltaUpdateOption.class);
+		if (!option.isPresent()) {
+			return document;
+		}
+		final Optional<Document> original = option.get().getOriginal()
+				.map(o -> Optional.of(PropertyBoxSnapshots.encode(context, o)))
+				.orElseGet(() -> PropertyBoxSnapshots.get(context, value));
+		if (!original.isPresent()) {
+			return document;
+		}
+		final Document delta = PropertyBoxSnapshots.delta(document, original.get(), upsert);
+		return (upsert && delta.isEmpty()) ? document : delta;
+	}
+
+	/**
+	 * Build a {@link FindOneAndUpdateOptions} instance using given operation configuration.
+	 * @param configuration Operation configuration
+	 * @param option The {@link ReturnDocumentOption} to use
+	 * @param upsert Whether to perform an upsert
+	 * @return Options
+	 */
+	public static FindOneAndUpdateOptions getFindOneAndUpdateOptions(DatastoreOperationConfiguration configuration,
+			ReturnDocumentOption option, boolean upsert) {
+		final FindOneAndUpdateOptions options = new FindOneAndUpdateOptions();
+		options.bypassDocumentValidation(configuration.hasWriteOption(DocumentWriteOption.BYPASS_VALIDATION));
+		configuration.getWriteOption(CollationOption.class).ifPresent(o -> options.collation(o.getCollation()));
+		options.returnDocument(option.getReturnDocument());
+		options.upsert(upsert);
+		return options;
+	}
+
+	/**
+	 * Process the document returned by a <code>findOneAndUpdate</code> operation.
+	 * <p>
+	 * The document is decoded using the {@link ReturnDocumentOption} property set, if available, or the property set
+	 * of given value. When the document is returned as it is after the update, the values of given
+	 * {@link PropertyBox} are updated accordingly. The decoded value is then provided to the option receiver, if any.
+	 * </p>
+	 * @param context Resolution context
+	 * @param option The {@link ReturnDocumentOption}
+	 * @param value The operation value, <code>null</code> if not available
+	 * @param document The returned document, <code>null</code> if no document was returned
+	 * @return The decoded value, empty if no document was returned
+	 * @throws DataAccessException If no property set is available to decode the document
+	 */
+	@SuppressWarnings("unchecked")
+	public static Optional<PropertyBox> processReturnedDocument(MongoResolutionContext<?> context,
+			ReturnDocumentOption option, PropertyBox value, Document document) {
+		if (document == null) {
+			return Optional.empty();
+		}
+		final PropertySet<?> propertySet = option.getPropertySet().isPresent() ? option.getPropertySet().get() : value;
+		if (propertySet == null) {
+			throw new DataAccessException("Missing the property set to use to decode the returned document");
+		}
+		// decode
+		final PropertyBox returned = context.documentContext(propertySet)
+				.resolveOrFail(DocumentValue.create(document), PropertyBoxValue.class).getValue();
+		// check value
+		if (value != null && option.getReturnDocument() == ReturnDocument.AFTER) {
+			for (Property<?> property : value) {
+				if (!property.isReadOnly() && returned.contains(property)) {
+					value.setValue((Property<Object>) property, returned.getValue(property));
+				}
+			}
+			PropertyBoxSnapshots.track(context, value);
+		}
+		option.getReceiver().ifPresent(receiver -> receiver.accept(returned));
+		return Optional.of(returned);
+	}
+
 	/**
 	 * Build the update expression for given {@link BulkUpdateOperationConfiguration}.
 	 * @param context Resolution context
@@ -193,36 +286,64 @@ public class MongoOperations {
 	}
 
 	/**
-	 * Get the document which can be used to update the id property field.
+	 * When the document id property is bound to a field other than the default document id field, generate the
+	 * document id of each document which does not provide one and set the same value into the id property field.
+	 * <p>
+	 * This way, the id property field is consistent with the document id as soon as the documents are inserted and no
+	 * further update operation is required.
+	 * </p>
 	 * @param context Document context
-	 * @param insertedId Inserted document id
-	 * @return Optional document which can be used to uodate the id property field
+	 * @param documents The documents to insert
+	 * @since 6.0.1
 	 */
-	public static Optional<IdUpdateDocument> getIdUpdateDocument(MongoDocumentContext<?> context, ObjectId insertedId) {
-		return getIdUpdateDocument(context, insertedId, getPropertyDocumentIdFieldName(context).orElse(null));
+	public static void assignDocumentIds(MongoDocumentContext<?> context, Iterable<Document> documents) {
+		getPropertyDocumentIdFieldName(context).ifPresent(fieldName -> {
+			context.getDocumentIdProperty().map(p -> p.getType()).ifPresent(type -> {
+				for (Document document : documents) {
+					if (document.get(MongoDocumentContext.ID_FIELD_NAME) == null) {
+						final ObjectId oid = new ObjectId();
+						document.put(MongoDocumentContext.ID_FIELD_NAME, oid);
+						putField(document, fieldName,
+								context.resolveOrFail(Value.create(context.getDocumentIdResolver().decode(oid, type)),
+										FieldValue.class).getValue());
+					}
+				}
+			});
+		});
 	}
 
 	/**
-	 * Get the document which can be used to update the id property field.
+	 * When the document id property is bound to a field other than the default document id field, generate the
+	 * document id if the document does not provide one and set the same value into the id property field.
 	 * @param context Document context
-	 * @param insertedId Inserted document id
-	 * @param fieldName The id property field name
-	 * @return Optional document which can be used to uodate the id property field
+	 * @param document The document to insert
+	 * @see #assignDocumentIds(MongoDocumentContext, Iterable)
+	 * @since 6.0.1
+	 */
+	public static void assignDocumentId(MongoDocumentContext<?> context, Document document) {
+		assignDocumentIds(context, Collections.singleton(document));
+	}
+
+	/**
+	 * Put a value into given document, creating the intermediate documents if the field name is a dotted path.
+	 * @param document The document
+	 * @param fieldName The field name
+	 * @param value The value
 	 */
-	public static Optional<IdUpdateDocument> getIdUpdateDocument(MongoDocumentContext<?> context, ObjectId insertedId,
-			String fieldName) {
-		if (fieldName != null) {
-			Class<?> type = context.getDocumentIdProperty().map(p -> p.getType()).orElse(null);
-			if (type != null) {
-				Document document = new Document("$set",
-						new Document(fieldName,
-								context.resolveOrFail(
-										Value.create(context.getDocumentIdResolver().decode(insertedId, type)),
-										FieldValue.class).getValue()));
-				return Optional.of(IdUpdateDocument.create(fieldName, type, document));
+	@SuppressWarnings("unchecked")
+	private static void putField(Map<String, Object> document, String fieldName, Object value) {
+		final int idx = fieldName.indexOf('.');
+		if (idx < 0) {
+			document.put(fieldName, value);
+		} else {
+			final String name = fieldName.substring(0, idx);
+			Object nested = document.get(name);
+			if (!(nested instanceof Map)) {
+				nested = new Document();
+				document.put(name, nested);
 			}
+			putField((Map<String, Object>) nested, fieldName.substring(idx + 1), value);
 		}
-		return Optional.empty();
 	}
 
 	/**
@@ -609,6 +730,33 @@ public class MongoOperations {
 		return documentConverter;
 	}
 
+	/**
+	 * Get the {@link PropertyBoxCodec} to use to read the given query results straight into {@link PropertyBox}
+	 * instances, if the query projection is a property set and the document decoding can be performed by the compiled
+	 * codecs.
+	 * @param context Resolution context
+	 * @param query Query
+	 * @param resultType Expected query result type
+	 * @param codecRegistry The codec registry to use to decode the document field values
+	 * @return The {@link PropertyBoxCodec}, empty if the query results must be decoded as documents
+	 * @since 6.0.1
+	 */
+	public static Optional<PropertyBoxCodec> getPropertyBoxCodec(MongoResolutionContext<?> context, BsonQuery query,
+			Class<?> resultType, CodecRegistry codecRegistry) {
+		if (resultType != PropertyBox.class) {
+			return Optional.empty();
+		}
+		final DocumentConverter<?> converter = getConverter(query);
+		if (converter instanceof PropertyBoxDocumentConverter) {
+			final MongoDocumentContext<?> documentContext = context
+					.documentContext(((PropertyBoxDocumentConverter) converter).getPropertySet());
+			if (PropertySetDocumentCodec.isDecodingEnabled(documentContext)) {
+				return Optional.of(PropertyBoxCodec.create(documentContext, codecRegistry));
+			}
+		}
+		return Optional.empty();
+	}
+
 	/**
 	 * Get the {@link DocumentConverter} to use to process given query results.
 	 * @param <R> Query result type
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import com.holonplatform.core.internal.datastore.operation.common.DatastoreOperationDefinition;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.operation.MultiGetConfiguration;
+
+/**
+ * Multi-get operation definition.
+ *
+ * @since 6.0.1
+ */
+public interface MultiGetDefinition extends MultiGetConfiguration, DatastoreOperationDefinition {
+
+	/**
+	 * Set the operation property set.
+	 * @param propertySet The property set to set
+	 */
+	void setPropertySet(PropertySet<?> propertySet);
+
+	/**
+	 * Add a document id to read.
+	 * @param id The document id to add (not null)
+	 */
+	void addId(Object id);
+
+	/**
+	 * Set the maximum number of document ids of each <code>$in</code> query.
+	 * @param chunkSize The chunk size
+	 */
+	void setChunkSize(int chunkSize);
+
+	/**
+	 * Set the maximum number of queries executed concurrently.
+	 * @param maxConcurrency The maximum concurrency
+	 */
+	void setMaxConcurrency(int maxConcurrency);
+
+}
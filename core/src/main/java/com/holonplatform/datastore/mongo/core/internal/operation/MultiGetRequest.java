@@ -0,0 +1,235 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.query.PropertySetProjection;
+import com.holonplatform.datastore.mongo.core.cache.EntityCache;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.BsonProjection;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
+import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
+import com.holonplatform.datastore.mongo.core.operation.MultiGetConfiguration;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+
+/**
+ * Encodes the document ids of a {@link MultiGetConfiguration}, splits the distinct ids into chunks to be read using
+ * <code>$in</code> queries and builds the operation result from the documents read.
+ * <p>
+ * The documents read by the chunk queries must be collected using {@link #addDocument(Document)}, and they are
+ * decoded only when the result is built. This class is not thread safe: when the chunk queries are executed
+ * concurrently, the documents must be collected by a single thread.
+ * </p>
+ * <p>
+ * When the {@link EntityCache} is enabled for the operation collection, the cached entities are obtained when the
+ * request is created and their ids are not included in the chunks, while the entities read from the database are
+ * cached when the result is built.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class MultiGetRequest {
+
+	private final MongoDocumentContext<?> documentContext;
+
+	private final List<Object> ids;
+	private final List<ObjectId> encodedIds;
+	private final List<List<ObjectId>> chunks = new ArrayList<>();
+
+	private final Optional<Bson> projection;
+
+	private final Map<ObjectId, Document> documents = new HashMap<>();
+
+	private final Optional<EntityCacheRequest> cacheRequest;
+	private final Map<ObjectId, PropertyBox> cached = new HashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param context Resolution context (not null)
+	 * @param configuration Operation configuration (not null)
+	 * @throws DataAccessException If the property set is missing or a document id cannot be encoded
+	 */
+	@SuppressWarnings("rawtypes")
+	public MultiGetRequest(MongoResolutionContext<?> context, MultiGetConfiguration configuration) {
+		super();
+		ObjectUtils.argumentNotNull(context, "Context must be not null");
+		ObjectUtils.argumentNotNull(configuration, "Configuration must be not null");
+
+		final PropertySet<?> propertySet = configuration.getPropertySet().orElseThrow(
+				() -> new DataAccessException("Cannot perform a MULTI GET operation: missing property set"));
+		this.documentContext = context.documentContext(propertySet);
+
+		// encode the document ids
+		this.ids = configuration.getIds();
+		this.encodedIds = new ArrayList<>(ids.size());
+		final Set<ObjectId> distinct = new LinkedHashSet<>();
+		for (Object id : ids) {
+			final ObjectId encoded;
+			try {
+				encoded = documentContext.getDocumentIdResolver().encode(id);
+			} catch (Exception e) {
+				throw new DataAccessException(
+						"Cannot perform a MULTI GET operation: failed to encode document id [" + id + "]", e);
+			}
+			if (encoded == null) {
+				throw new DataAccessException(
+						"Cannot perform a MULTI GET operation: failed to encode document id [" + id + "]");
+			}
+			encodedIds.add(encoded);
+			distinct.add(encoded);
+		}
+
+		// cached entities
+		this.cacheRequest = context.getEntityCache().isPresent()
+				? EntityCacheRequest.create(context,
+						context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName())
+				: Optional.empty();
+		cacheRequest.ifPresent(request -> {
+			for (ObjectId id : distinct) {
+				request.get(id, propertySet).ifPresent(value -> cached.put(id, value));
+			}
+			distinct.removeAll(cached.keySet());
+		});
+
+		// chunks
+		final int chunkSize = configuration.getChunkSize();
+		List<ObjectId> chunk = new ArrayList<>(Math.min(chunkSize, distinct.size()));
+		for (ObjectId id : distinct) {
+			chunk.add(id);
+			if (chunk.size() >= chunkSize) {
+				chunks.add(chunk);
+				chunk = new ArrayList<>(Math.min(chunkSize, distinct.size()));
+			}
+		}
+		if (!chunk.isEmpty()) {
+			chunks.add(chunk);
+		}
+
+		// projection
+		this.projection = context.resolve(PropertySetProjection.<Property> of(propertySet), BsonProjection.class)
+				.filter(p -> !p.isEmpty()).map(p -> Projections.include(((BsonProjection<?>) p).getFieldNames()));
+	}
+
+	/**
+	 * Get the number of chunks, i.e. of <code>$in</code> queries to execute.
+	 * @return The chunk count
+	 */
+	public int getChunkCount() {
+		return chunks.size();
+	}
+
+	/**
+	 * Get the query filter of given chunk.
+	 * @param chunk The chunk index
+	 * @return The chunk query filter
+	 */
+	public Bson getFilter(int chunk) {
+		return Filters.in("_id", chunks.get(chunk));
+	}
+
+	/**
+	 * Get the number of document ids of given chunk.
+	 * @param chunk The chunk index
+	 * @return The chunk size
+	 */
+	public int getChunkSize(int chunk) {
+		return chunks.get(chunk).size();
+	}
+
+	/**
+	 * Get the query projection, which includes the document fields of the operation property set.
+	 * @return Optional query projection, empty if all the document fields are to be read
+	 */
+	public Optional<Bson> getProjection() {
+		return projection;
+	}
+
+	/**
+	 * Add a document read by a chunk query.
+	 * @param document The document to add (not null)
+	 */
+	public void addDocument(Document document) {
+		ObjectUtils.argumentNotNull(document, "Document must be not null");
+		final Object id = document.get("_id");
+		if (id instanceof ObjectId) {
+			documents.put((ObjectId) id, document);
+		}
+	}
+
+	/**
+	 * Add the documents read by a chunk query.
+	 * @param documents The documents to add (not null)
+	 */
+	public void addDocuments(Collection<Document> documents) {
+		ObjectUtils.argumentNotNull(documents, "Documents must be not null");
+		documents.forEach(document -> addDocument(document));
+	}
+
+	/**
+	 * Build the operation result, decoding the documents read. The result map is keyed by the document ids in the
+	 * same order in which they were provided, and does not contain the ids whose document was not found.
+	 * @return The operation result
+	 */
+	public Map<Object, PropertyBox> getResult() {
+		final Map<Object, PropertyBox> result = new LinkedHashMap<>();
+		final Map<ObjectId, PropertyBox> decoded = new HashMap<>(cached);
+		for (int i = 0; i < ids.size(); i++) {
+			final ObjectId encodedId = encodedIds.get(i);
+			final PropertyBox value = decoded.computeIfAbsent(encodedId, id -> decode(id));
+			if (value != null) {
+				result.put(ids.get(i), value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Decode the document with given id, caching the decoded entity if the entity cache is enabled.
+	 * @param id The document id
+	 * @return The decoded entity, <code>null</code> if the document was not found
+	 */
+	private PropertyBox decode(ObjectId id) {
+		final Document document = documents.get(id);
+		if (document == null) {
+			return null;
+		}
+		final PropertyBox value = documentContext.resolveOrFail(DocumentValue.create(document), PropertyBoxValue.class)
+				.getValue();
+		return cacheRequest.map(request -> request.put(id, value)).orElse(value);
+	}
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.bson.BsonDocument;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.datastore.mongo.core.CountStrategy;
+import com.holonplatform.datastore.mongo.core.CountStrategy.Mode;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.BsonQueryDefinition;
+import com.holonplatform.datastore.mongo.core.internal.cache.QueryCountCache;
+import com.holonplatform.datastore.mongo.core.internal.document.DocumentSerializer;
+import com.mongodb.client.model.CountOptions;
+
+/**
+ * A query <em>count</em> execution, which applies the query {@link CountStrategy}.
+ * <p>
+ * When the {@link Mode#CACHED} strategy is used, the collection count cache version is obtained when the request is
+ * created, so the request must be created before the count is executed.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class QueryCountRequest {
+
+	private static final JsonWriterSettings KEY_SETTINGS = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED)
+			.build();
+
+	private final MongoResolutionContext<?> context;
+	private final String collectionName;
+	private final Bson filter;
+	private final CountStrategy strategy;
+
+	private final QueryCountCache cache;
+	private final String key;
+	private final long version;
+	private final long startedAt;
+
+	/**
+	 * Constructor.
+	 * @param context Resolution context
+	 * @param collectionName Collection name
+	 * @param filter Query filter, <code>null</code> if none
+	 * @param strategy Count strategy
+	 * @param cache Count cache, <code>null</code> if the count must not be cached
+	 * @param key Count cache key
+	 */
+	private QueryCountRequest(MongoResolutionContext<?> context, String collectionName, Bson filter,
+			CountStrategy strategy, QueryCountCache cache, String key) {
+		super();
+		this.context = context;
+		this.collectionName = collectionName;
+		this.filter = filter;
+		this.strategy = strategy;
+		this.cache = cache;
+		this.key = key;
+		// obtained before the count execution
+		this.version = (cache != null) ? cache.getVersion(collectionName) : 0L;
+		this.startedAt = System.nanoTime();
+	}
+
+	/**
+	 * Get the count filter.
+	 * @return The count filter, an empty document if the query has no filter
+	 */
+	public Bson getFilter() {
+		return (filter != null) ? filter : new BsonDocument();
+	}
+
+	/**
+	 * Get whether the count can be obtained from the collection metadata, using the
+	 * <code>estimatedDocumentCount</code> collection operation.
+	 * @return <code>true</code> if the {@link Mode#ESTIMATED} strategy is used, the query has no filter and it is not
+	 *         executed within a client session
+	 */
+	public boolean isEstimated() {
+		return strategy.getMode() == Mode.ESTIMATED && filter == null && !context.getClientSession().isPresent();
+	}
+
+	/**
+	 * Get the <code>countDocuments</code> operation options, which include the count limit when the
+	 * {@link Mode#CAPPED} strategy is used.
+	 * @return The count options
+	 */
+	public CountOptions getCountOptions() {
+		final CountOptions options = new CountOptions();
+		if (strategy.getMode() == Mode.CAPPED) {
+			strategy.getLimit().ifPresent(limit -> options.limit(limit));
+		}
+		return options;
+	}
+
+	/**
+	 * Get the cached count, if the {@link Mode#CACHED} strategy is used and a count of the same query is available.
+	 * @return Optional cached count
+	 */
+	public Optional<Long> getCachedCount() {
+		if (cache == null) {
+			return Optional.empty();
+		}
+		return cache.get(collectionName, key, strategy.getTimeToLive().orElse(Duration.ZERO)).map(count -> {
+			context.trace("Count read from cache", () -> key);
+			return count;
+		});
+	}
+
+	/**
+	 * Cache the count, if the {@link Mode#CACHED} strategy is used and the collection count cache was not invalidated
+	 * after this request was created.
+	 * @param count The count
+	 * @return The given count
+	 */
+	public Long setCount(Long count) {
+		if (cache != null && count != null) {
+			cache.put(collectionName, key, version, startedAt, count);
+		}
+		return count;
+	}
+
+	/**
+	 * Trace the count operation.
+	 */
+	public void trace() {
+		context.trace(isEstimated() ? "COUNT query (estimated)" : "COUNT query",
+				() -> "Filter: \n" + DocumentSerializer.getDefault().toJson(filter)
+						+ ((strategy.getMode() == Mode.CAPPED) ? "\nLimit: " + strategy.getLimit().orElse(null) : ""));
+	}
+
+	/**
+	 * Create a count request for given query definition, using the {@link CountStrategy#exact()} strategy if the query
+	 * definition does not provide a count strategy.
+	 * @param context Resolution context (not null)
+	 * @param definition Query definition (not null)
+	 * @param codecRegistry The collection codec registry (not null)
+	 * @return The count request
+	 */
+	public static QueryCountRequest create(MongoResolutionContext<?> context, BsonQueryDefinition definition,
+			CodecRegistry codecRegistry) {
+		ObjectUtils.argumentNotNull(context, "Context must be not null");
+		ObjectUtils.argumentNotNull(definition, "Query definition must be not null");
+		ObjectUtils.argumentNotNull(codecRegistry, "Codec registry must be not null");
+
+		final String collectionName = definition.getCollectionName();
+		final Bson filter = definition.getFilter().map(f -> f.getExpression()).orElse(null);
+		final CountStrategy strategy = definition.getCountStrategy().orElse(CountStrategy.exact());
+
+		// check cache
+		if (strategy.getMode() == Mode.CACHED && !context.getClientSession().isPresent()) {
+			final Optional<QueryCountCache> cache = context.getQueryCountCache();
+			if (cache.isPresent()) {
+				final String key = (filter != null)
+						? filter.toBsonDocument(BsonDocument.class, codecRegistry).toJson(KEY_SETTINGS)
+						: "{}";
+				return new QueryCountRequest(context, collectionName, filter, strategy, cache.get(), key);
+			}
+		}
+		return new QueryCountRequest(context, collectionName, filter, strategy, null, null);
+	}
+
+}
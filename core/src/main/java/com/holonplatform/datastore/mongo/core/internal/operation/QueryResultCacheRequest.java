@@ -0,0 +1,327 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.conversions.Bson;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.datastore.mongo.core.cache.QueryResultCache;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.document.DocumentConverter;
+import com.holonplatform.datastore.mongo.core.document.PropertyBoxCodec;
+import com.holonplatform.datastore.mongo.core.expression.BsonQuery;
+import com.holonplatform.datastore.mongo.core.expression.BsonQueryDefinition;
+import com.mongodb.CursorType;
+
+/**
+ * A query execution which uses the {@link QueryResultCache}.
+ * <p>
+ * The cache key is the extended JSON serialization of the query elements which affect the result documents. The raw
+ * result documents are decoded into the query result type each time they are read, using the same decoding strategy
+ * of the uncached query execution.
+ * </p>
+ * <p>
+ * The results of a query execution are streamed while they are collected, and they are cached only when the query
+ * execution completes, provided that they do not exceed the {@link QueryResultCache#getMaxEntryDocuments()} limit.
+ * </p>
+ * 
+ * @param <R> Query result type
+ *
+ * @since 6.0.1
+ */
+public class QueryResultCacheRequest<R> {
+
+	private static final JsonWriterSettings KEY_SETTINGS = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED)
+			.build();
+
+	private final MongoResolutionContext<?> context;
+	private final QueryResultCache cache;
+	private final String collectionName;
+	private final String key;
+	private final long version;
+	private final Function<RawBsonDocument, R> decoder;
+
+	/**
+	 * Constructor.
+	 * @param context Resolution context
+	 * @param cache Query result cache
+	 * @param collectionName Collection name
+	 * @param key Query key
+	 * @param decoder Result documents decoder
+	 */
+	private QueryResultCacheRequest(MongoResolutionContext<?> context, QueryResultCache cache, String collectionName,
+			String key, Function<RawBsonDocument, R> decoder) {
+		super();
+		this.context = context;
+		this.cache = cache;
+		this.collectionName = collectionName;
+		this.key = key;
+		// obtained before the query execution
+		this.version = cache.getVersion(collectionName);
+		this.decoder = decoder;
+	}
+
+	/**
+	 * Get the result documents decoder.
+	 * @return The result documents decoder
+	 */
+	public Function<RawBsonDocument, R> getDecoder() {
+		return decoder;
+	}
+
+	/**
+	 * Get the cached query results, if available.
+	 * @return Optional stream of the decoded cached results
+	 */
+	public Optional<Stream<R>> getResults() {
+		return cache.get(collectionName, key).map(results -> {
+			context.trace("Query results read from cache", () -> key);
+			return results.stream().map(decoder);
+		});
+	}
+
+	/**
+	 * Cache the query result documents, unless the collection cache was invalidated after this request was created or
+	 * the documents exceed the cache entry limit.
+	 * @param results The query result documents (not null)
+	 * @return The stream of the decoded results
+	 */
+	public Stream<R> setResults(List<RawBsonDocument> results) {
+		ObjectUtils.argumentNotNull(results, "Results must be not null");
+		cache.put(collectionName, key, version, results);
+		return results.stream().map(decoder);
+	}
+
+	/**
+	 * Decode the query result documents while they are read from given stream, and cache them when the stream is
+	 * exhausted, unless the collection cache was invalidated after this request was created or the documents exceed the
+	 * cache entry limit. The documents are not cached if the stream is not fully consumed.
+	 * @param results The query result documents stream (not null)
+	 * @return The stream of the decoded results, which closes the given stream when closed
+	 */
+	public Stream<R> setResults(Stream<RawBsonDocument> results) {
+		ObjectUtils.argumentNotNull(results, "Results must be not null");
+		final ResultsCollector collector = collector();
+		final Spliterator<RawBsonDocument> source = results.spliterator();
+		return StreamSupport.stream(new Spliterators.AbstractSpliterator<RawBsonDocument>(Long.MAX_VALUE,
+				Spliterator.ORDERED) {
+
+			@Override
+			public boolean tryAdvance(Consumer<? super RawBsonDocument> action) {
+				if (source.tryAdvance(document -> action.accept(collector.add(document)))) {
+					return true;
+				}
+				collector.complete();
+				return false;
+			}
+
+		}, false).onClose(results::close).map(decoder);
+	}
+
+	/**
+	 * Create a collector of the result documents of a query execution.
+	 * @return A new {@link ResultsCollector}
+	 */
+	public ResultsCollector collector() {
+		return new ResultsCollector(cache.getMaxEntryDocuments());
+	}
+
+	/**
+	 * Create a cache request for a <em>find</em> query.
+	 * @param <R> Query result type
+	 * @param context Resolution context (not null)
+	 * @param query The query (not null)
+	 * @param resultType Query result type (not null)
+	 * @param codecRegistry The collection codec registry (not null)
+	 * @return The cache request, empty if the query results cannot be cached
+	 */
+	public static <R> Optional<QueryResultCacheRequest<R>> find(MongoResolutionContext<?> context, BsonQuery query,
+			Class<? extends R> resultType, CodecRegistry codecRegistry) {
+		return getCache(context, query).map(cache -> {
+			final BsonQueryDefinition definition = query.getDefinition();
+			final BsonDocument key = new BsonDocument("find", new BsonString(definition.getCollectionName()));
+			definition.getFilter().map(f -> f.getExpression())
+					.ifPresent(f -> key.append("filter", toBsonDocument(f, codecRegistry)));
+			definition.getSort().ifPresent(s -> key.append("sort", toBsonDocument(s, codecRegistry)));
+			query.getProjection().filter(p -> !p.isEmpty())
+					.ifPresent(p -> key.append("projection", new BsonArray(p.getFieldNames().stream()
+							.map(n -> new BsonString(n)).collect(Collectors.toList()))));
+			definition.getOffset().ifPresent(o -> key.append("skip", new BsonInt32(o)));
+			definition.getLimit().ifPresent(l -> key.append("limit", new BsonInt32(l)));
+			definition.getCollation().ifPresent(c -> key.append("collation", c.asDocument()));
+			definition.getHint().ifPresent(h -> key.append("hint", toBsonDocument(h, codecRegistry)));
+			definition.getMax().ifPresent(m -> key.append("max", toBsonDocument(m, codecRegistry)));
+			definition.getMin().ifPresent(m -> key.append("min", toBsonDocument(m, codecRegistry)));
+			if (definition.isPartial()) {
+				key.append("partial", BsonBoolean.TRUE);
+			}
+			if (definition.isReturnKey()) {
+				key.append("returnKey", BsonBoolean.TRUE);
+			}
+			if (definition.isShowRecordId()) {
+				key.append("showRecordId", BsonBoolean.TRUE);
+			}
+			return new QueryResultCacheRequest<>(context, cache, definition.getCollectionName(),
+					key.toJson(KEY_SETTINGS), decoder(context, query, resultType, codecRegistry));
+		});
+	}
+
+	/**
+	 * Create a cache request for an <em>aggregate</em> query.
+	 * @param <R> Query result type
+	 * @param context Resolution context (not null)
+	 * @param query The query (not null)
+	 * @param pipeline The aggregation pipeline (not null)
+	 * @param resultType Query result type (not null)
+	 * @param codecRegistry The collection codec registry (not null)
+	 * @return The cache request, empty if the query results cannot be cached
+	 */
+	public static <R> Optional<QueryResultCacheRequest<R>> aggregate(MongoResolutionContext<?> context,
+			BsonQuery query, List<Bson> pipeline, Class<? extends R> resultType, CodecRegistry codecRegistry) {
+		ObjectUtils.argumentNotNull(pipeline, "Pipeline must be not null");
+		return getCache(context, query).map(cache -> {
+			final BsonQueryDefinition definition = query.getDefinition();
+			final BsonDocument key = new BsonDocument("aggregate", new BsonString(definition.getCollectionName()));
+			final BsonArray stages = new BsonArray();
+			pipeline.forEach(stage -> stages.add(toBsonDocument(stage, codecRegistry)));
+			key.append("pipeline", stages);
+			definition.getCollation().ifPresent(c -> key.append("collation", c.asDocument()));
+			definition.getHint().ifPresent(h -> key.append("hint", toBsonDocument(h, codecRegistry)));
+			return new QueryResultCacheRequest<>(context, cache, definition.getCollectionName(),
+					key.toJson(KEY_SETTINGS), decoder(context, query, resultType, codecRegistry));
+		});
+	}
+
+	/**
+	 * Get the query result cache to use for given query, if the cache is enabled for the query collection and the
+	 * query results can be cached, i.e. the query is not executed within a client session and does not use a tailable
+	 * cursor.
+	 * @param context Resolution context
+	 * @param query The query
+	 * @return Optional query result cache
+	 */
+	private static Optional<QueryResultCache> getCache(MongoResolutionContext<?> context, BsonQuery query) {
+		ObjectUtils.argumentNotNull(context, "Context must be not null");
+		ObjectUtils.argumentNotNull(query, "Query must be not null");
+		if (context.getClientSession().isPresent()) {
+			return Optional.empty();
+		}
+		if (query.getDefinition().getCursorType().filter(c -> c != CursorType.NonTailable).isPresent()) {
+			return Optional.empty();
+		}
+		return context.getQueryResultCache().filter(c -> c.isEnabled(query.getDefinition().getCollectionName()));
+	}
+
+	/**
+	 * Get the result documents decoder, using the {@link PropertyBoxCodec} if available or the query
+	 * {@link DocumentConverter} otherwise.
+	 * @param <R> Query result type
+	 * @param context Resolution context
+	 * @param query The query
+	 * @param resultType Query result type
+	 * @param codecRegistry The collection codec registry
+	 * @return The result documents decoder
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> Function<RawBsonDocument, R> decoder(MongoResolutionContext<?> context, BsonQuery query,
+			Class<? extends R> resultType, CodecRegistry codecRegistry) {
+		final DocumentConverter<R> documentConverter = MongoOperations.getAndCheckConverter(query, resultType);
+		final Optional<PropertyBoxCodec> codec = MongoOperations.getPropertyBoxCodec(context, query, resultType,
+				codecRegistry);
+		if (codec.isPresent()) {
+			final PropertyBoxCodec propertyBoxCodec = codec.get();
+			return document -> (R) document.decode(propertyBoxCodec);
+		}
+		final Codec<Document> documentCodec = codecRegistry.get(Document.class);
+		return document -> documentConverter.convert(context, document.decode(documentCodec));
+	}
+
+	private static BsonDocument toBsonDocument(Bson bson, CodecRegistry codecRegistry) {
+		return bson.toBsonDocument(BsonDocument.class, codecRegistry);
+	}
+
+	/**
+	 * Collects the result documents of a query execution while they are read, and caches them when the execution is
+	 * completed. The documents are no longer collected as soon as they exceed the cache entry limit.
+	 */
+	public final class ResultsCollector {
+
+		private final int maxDocuments;
+
+		private List<RawBsonDocument> documents = new ArrayList<>();
+
+		/**
+		 * Constructor.
+		 * @param maxDocuments The maximum number of documents to collect
+		 */
+		ResultsCollector(int maxDocuments) {
+			super();
+			this.maxDocuments = maxDocuments;
+		}
+
+		/**
+		 * Collect a result document.
+		 * @param document The result document
+		 * @return The given document
+		 */
+		public RawBsonDocument add(RawBsonDocument document) {
+			if (documents != null) {
+				if (documents.size() < maxDocuments) {
+					documents.add(document);
+				} else {
+					// too large to be cached
+					documents = null;
+				}
+			}
+			return document;
+		}
+
+		/**
+		 * Notify that the query execution is completed, caching the collected documents if they do not exceed the
+		 * cache entry limit.
+		 */
+		public void complete() {
+			if (documents != null) {
+				cache.put(collectionName, key, version, documents);
+				documents = null;
+			}
+		}
+
+	}
+
+}
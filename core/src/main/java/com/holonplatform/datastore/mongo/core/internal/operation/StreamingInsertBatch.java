@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.List;
+
+import org.bson.RawBsonDocument;
+
+import com.holonplatform.datastore.mongo.core.internal.support.ResolvedDocument;
+
+/**
+ * A batch of encoded documents to be inserted by a streaming insert operation.
+ *
+ * @since 6.0.1
+ */
+public class StreamingInsertBatch {
+
+	private final long index;
+	private final List<RawBsonDocument> documents;
+	private final List<ResolvedDocument> values;
+	private final long bytes;
+
+	public StreamingInsertBatch(long index, List<RawBsonDocument> documents, List<ResolvedDocument> values,
+			long bytes) {
+		super();
+		this.index = index;
+		this.documents = documents;
+		this.values = values;
+		this.bytes = bytes;
+	}
+
+	/**
+	 * Get the batch index, starting from <code>0</code>.
+	 * @return The batch index
+	 */
+	public long getIndex() {
+		return index;
+	}
+
+	/**
+	 * Get the encoded documents to insert.
+	 * @return The batch documents
+	 */
+	public List<RawBsonDocument> getDocuments() {
+		return documents;
+	}
+
+	/**
+	 * Get the batch {@link com.holonplatform.core.property.PropertyBox} values, each one bound to a document which
+	 * only contains the document id.
+	 * @return The batch values
+	 */
+	public List<ResolvedDocument> getValues() {
+		return values;
+	}
+
+	/**
+	 * Get the number of documents of the batch.
+	 * @return The batch document count
+	 */
+	public int size() {
+		return documents.size();
+	}
+
+	/**
+	 * Get the accumulated BSON size of the batch documents, in bytes.
+	 * @return The batch size in bytes
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.types.ObjectId;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.Datastore.OperationType;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
+import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
+import com.holonplatform.datastore.mongo.core.internal.support.ResolvedDocument;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertProgress;
+
+/**
+ * Encodes the {@link PropertyBox} values of a streaming insert operation into {@link RawBsonDocument}s and groups
+ * them into {@link StreamingInsertBatch}es, according to the configured document count and BSON size limits.
+ * <p>
+ * The document ids are always generated client side, since the {@link RawBsonDocument} codec does not generate them
+ * at insert time and they are required to bring back the generated ids.
+ * </p>
+ * <p>
+ * The {@link #add(PropertyBox)} and {@link #flush()} methods are expected to be invoked by a single producer, while
+ * {@link #completed(StreamingInsertBatch)} can be invoked concurrently. To encode the values of the same operation
+ * using more producers, each producer should use its own batcher obtained through {@link #fork(MongoDocumentContext)}.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public class StreamingInsertBatcher {
+
+	private final MongoDocumentContext<?> context;
+	private final StreamingInsertConfiguration configuration;
+	private final Codec<Document> codec;
+
+	private final int maxBatchSize;
+	private final long maxBatchBytes;
+
+	private List<RawBsonDocument> documents;
+	private List<ResolvedDocument> values;
+	private long bytes;
+
+	private final AtomicLong batchSequence;
+	private final AtomicLong insertedCount;
+
+	/**
+	 * Constructor.
+	 * @param context Document context (not null)
+	 * @param configuration Operation configuration (not null)
+	 */
+	public StreamingInsertBatcher(MongoDocumentContext<?> context, StreamingInsertConfiguration configuration) {
+		this(context, configuration, new AtomicLong(), new AtomicLong());
+	}
+
+	private StreamingInsertBatcher(MongoDocumentContext<?> context, StreamingInsertConfiguration configuration,
+			AtomicLong batchSequence, AtomicLong insertedCount) {
+		super();
+		ObjectUtils.argumentNotNull(context, "Context must be not null");
+		ObjectUtils.argumentNotNull(configuration, "Configuration must be not null");
+		this.context = context;
+		this.configuration = configuration;
+		this.batchSequence = batchSequence;
+		this.insertedCount = insertedCount;
+		this.codec = context.getDatabaseCodecRegistry().get(Document.class);
+		this.maxBatchSize = configuration.getMaxBatchSize();
+		this.maxBatchBytes = configuration.getMaxBatchBytes();
+		reset();
+	}
+
+	/**
+	 * Create a new batcher which uses given document context and which shares the batch index sequence and the
+	 * inserted document count with this batcher.
+	 * @param context Document context (not null)
+	 * @return A new batcher
+	 */
+	public StreamingInsertBatcher fork(MongoDocumentContext<?> context) {
+		return new StreamingInsertBatcher(context, configuration, batchSequence, insertedCount);
+	}
+
+	/**
+	 * Encode given value and add it to the current batch.
+	 * @param value The value to add (not null)
+	 * @return If the current batch was completed, the batch to insert
+	 */
+	public Optional<StreamingInsertBatch> add(PropertyBox value) {
+		ObjectUtils.argumentNotNull(value, "Value to insert must be not null");
+
+		// encode
+		final Document document = context.resolveOrFail(PropertyBoxValue.create(value), DocumentValue.class)
+				.getValue();
+		// document id
+		MongoOperations.assignDocumentId(context, document);
+		if (!document.containsKey(MongoDocumentContext.ID_FIELD_NAME)) {
+			document.put(MongoDocumentContext.ID_FIELD_NAME, new ObjectId());
+		}
+		final Object id = document.get(MongoDocumentContext.ID_FIELD_NAME);
+
+		final RawBsonDocument raw = new RawBsonDocument(document, codec);
+		final int size = raw.getByteBuffer().remaining();
+
+		// check size limit
+		StreamingInsertBatch completed = null;
+		if (!documents.isEmpty() && (bytes + size) > maxBatchBytes) {
+			completed = close();
+		}
+
+		documents.add(raw);
+		values.add(ResolvedDocument.create(value,
+				(id instanceof ObjectId) ? new Document(MongoDocumentContext.ID_FIELD_NAME, id) : new Document()));
+		bytes += size;
+
+		// check count limit
+		if (completed == null && documents.size() >= maxBatchSize) {
+			completed = close();
+		}
+		return Optional.ofNullable(completed);
+	}
+
+	/**
+	 * Close the current batch, if not empty.
+	 * @return The batch to insert, empty if there are no pending documents
+	 */
+	public Optional<StreamingInsertBatch> flush() {
+		return documents.isEmpty() ? Optional.empty() : Optional.of(close());
+	}
+
+	/**
+	 * Notify that given batch was successfully inserted, checking the inserted keys and invoking the progress
+	 * callback, if any.
+	 * @param batch The inserted batch
+	 * @return The operation progress
+	 */
+	public StreamingInsertProgress completed(StreamingInsertBatch batch) {
+		return completed(batch, Collections.emptySet());
+	}
+
+	/**
+	 * Notify that given batch was inserted, except for the documents at given batch positions, checking the inserted
+	 * keys of the inserted documents and invoking the progress callback, if any.
+	 * @param batch The inserted batch
+	 * @param failed The positions within the batch of the documents which were not inserted
+	 * @return The operation progress
+	 */
+	public StreamingInsertProgress completed(StreamingInsertBatch batch, Set<Integer> failed) {
+		final List<ResolvedDocument> inserted;
+		if (failed.isEmpty()) {
+			inserted = batch.getValues();
+		} else {
+			inserted = new ArrayList<>(batch.size());
+			for (int i = 0; i < batch.size(); i++) {
+				if (!failed.contains(i)) {
+					inserted.add(batch.getValues().get(i));
+				}
+			}
+		}
+		MongoOperations.checkInsertedKeys(context, configuration, inserted);
+		final StreamingInsertProgress progress = StreamingInsertProgress.create(batch.getIndex(), inserted.size(),
+				batch.getBytes(), insertedCount.addAndGet(inserted.size()));
+		context.trace("Inserted documents batch",
+				() -> context.toJson(new Document("batch", progress.getBatchIndex())
+						.append("documents", progress.getBatchSize()).append("bytes", progress.getBatchBytes())
+						.append("inserted", progress.getInsertedCount())));
+		configuration.getProgressCallback().ifPresent(callback -> callback.accept(progress));
+		return progress;
+	}
+
+	/**
+	 * Get the total number of inserted documents.
+	 * @return The inserted document count
+	 */
+	public long getInsertedCount() {
+		return insertedCount.get();
+	}
+
+	/**
+	 * Get the aggregated operation result.
+	 * @return The operation result
+	 */
+	public OperationResult getResult() {
+		return OperationResult.builder().type(OperationType.INSERT).affectedCount(insertedCount.get()).build();
+	}
+
+	private StreamingInsertBatch close() {
+		final StreamingInsertBatch batch = new StreamingInsertBatch(batchSequence.getAndIncrement(), documents, values, bytes);
+		reset();
+		return batch;
+	}
+
+	private void reset() {
+		final int capacity = Math.min(maxBatchSize, 1024);
+		this.documents = new ArrayList<>(capacity);
+		this.values = new ArrayList<>(capacity);
+		this.bytes = 0L;
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.operation;
+
+import java.util.function.Consumer;
+
+import com.holonplatform.core.internal.datastore.operation.common.DatastoreOperationDefinition;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertProgress;
+
+/**
+ * Streaming insert operation definition.
+ *
+ * @since 6.0.1
+ */
+public interface StreamingInsertDefinition extends StreamingInsertConfiguration, DatastoreOperationDefinition {
+
+	/**
+	 * Set the operation property set.
+	 * @param propertySet The property set to set
+	 */
+	void setPropertySet(PropertySet<?> propertySet);
+
+	/**
+	 * Set the maximum number of documents of each batch.
+	 * @param maxBatchSize The maximum batch size
+	 */
+	void setMaxBatchSize(int maxBatchSize);
+
+	/**
+	 * Set the maximum accumulated BSON size of each batch, in bytes.
+	 * @param maxBatchBytes The maximum batch size in bytes
+	 */
+	void setMaxBatchBytes(int maxBatchBytes);
+
+	/**
+	 * Set the maximum number of batches which can be inserted concurrently.
+	 * @param maxBatchesInFlight The maximum number of batches in flight
+	 */
+	void setMaxBatchesInFlight(int maxBatchesInFlight);
+
+	/**
+	 * Set the callback to notify when a batch of documents has been inserted.
+	 * @param progressCallback The progress callback
+	 */
+	void setProgressCallback(Consumer<StreamingInsertProgress> progressCallback);
+
+}
@@ -41,6 +41,7 @@ import com.holonplatform.datastore.mongo.core.expression.FieldValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
 import com.holonplatform.datastore.mongo.core.expression.Value;
 import com.holonplatform.datastore.mongo.core.internal.document.DocumentPathMatcher;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
 import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
 
 /**
@@ -70,8 +71,18 @@ public enum DocumentPropertyBoxResolver implements MongoExpressionResolver<Docum
 		final MongoDocumentContext documentContext = MongoDocumentContext.isDocumentContext(context).orElseThrow(
 				() -> new InvalidExpressionException("The resolution context must be a MongoDocumentContext"));
 
-		return Optional
-				.ofNullable(PropertyBoxValue.create(decodePropertyBox(documentContext, null, expression.getValue())));
+		// check compiled codec
+		final PropertyBox value = PropertySetDocumentCodec.isEnabled(documentContext)
+				? PropertySetDocumentCodec.of(documentContext.getPropertySet()).decode(documentContext,
+						expression.getValue())
+				: decodePropertyBox(documentContext, null, expression.getValue());
+
+		// snapshot
+		if (value != null) {
+			PropertyBoxSnapshots.track(documentContext, value);
+		}
+
+		return Optional.ofNullable(PropertyBoxValue.create(value));
 	}
 
 	/*
@@ -22,6 +22,7 @@ import jakarta.annotation.Priority;
 import com.holonplatform.core.Expression.InvalidExpressionException;
 import com.holonplatform.core.Path;
 import com.holonplatform.core.property.PathPropertySetAdapter;
+import com.holonplatform.core.property.PropertySet;
 import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
 import com.holonplatform.datastore.mongo.core.expression.FieldName;
@@ -58,19 +59,27 @@ public enum FieldNamePathResolver implements MongoExpressionResolver<FieldName,
 	}
 
 	private static Optional<Path> getPathUsingDocumentContext(MongoResolutionContext context, String fieldName) {
-		PathPropertySetAdapter adapter = MongoDocumentContext.isDocumentContext(context)
-				.map(dc -> PathPropertySetAdapter.create(dc.getPropertySet())).orElse(null);
-		if (adapter != null) {
-			Optional<Path> path = adapter.getProperty(fieldName).flatMap(p -> adapter.getPath(p)).map(p -> (Path) p);
-			if (path.isPresent()) {
-				return path;
-			}
-			// check data path
-			return adapter.propertyPaths()
-					.filter(pp -> fieldName.equals(pp.getPath().relativeName(p -> p.getDataPath().orElse(p.getName()))))
-					.map(pp -> (Path) pp.getPath()).findFirst();
+		return MongoDocumentContext.isDocumentContext(context)
+				.flatMap(dc -> getPropertySetPath(dc.getPropertySet(), fieldName));
+	}
+
+	/**
+	 * Get the {@link Path} of the given property set which matches given field name, if available.
+	 * @param propertySet The property set
+	 * @param fieldName The field name
+	 * @return Optional matching path
+	 * @since 6.0.1
+	 */
+	public static Optional<Path> getPropertySetPath(PropertySet<?> propertySet, String fieldName) {
+		final PathPropertySetAdapter adapter = PathPropertySetAdapter.create(propertySet);
+		Optional<Path> path = adapter.getProperty(fieldName).flatMap(p -> adapter.getPath(p)).map(p -> (Path) p);
+		if (path.isPresent()) {
+			return path;
 		}
-		return Optional.empty();
+		// check data path
+		return adapter.propertyPaths()
+				.filter(pp -> fieldName.equals(pp.getPath().relativeName(p -> p.getDataPath().orElse(p.getName()))))
+				.map(pp -> (Path) pp.getPath()).findFirst();
 	}
 
 	/*
@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.lang.reflect.Array;
+import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -27,13 +28,16 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import jakarta.annotation.Priority;
@@ -68,6 +72,36 @@ public enum FieldValueResolver implements MongoExpressionResolver<FieldValue, Va
 
 	private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
 
+	/**
+	 * Types for which a value of the same type never requires a conversion
+	 */
+	private static final Set<Class<?>> IDENTITY_TYPES = new HashSet<>(Arrays.asList(String.class, Integer.class,
+			Long.class, Double.class, Boolean.class, ObjectId.class));
+
+	/**
+	 * Bson type conversions, by target type and value type
+	 */
+	private static final ClassValue<Map<Class<?>, BsonTypeConversion>> BSON_TYPE_CONVERSIONS = new ClassValue<Map<Class<?>, BsonTypeConversion>>() {
+
+		@Override
+		protected Map<Class<?>, BsonTypeConversion> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>(8);
+		}
+
+	};
+
+	/**
+	 * Value type conversions, by target type and value type
+	 */
+	private static final ClassValue<Map<Class<?>, Conversion>> TYPE_CONVERSIONS = new ClassValue<Map<Class<?>, Conversion>>() {
+
+		@Override
+		protected Map<Class<?>, Conversion> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>(8);
+		}
+
+	};
+
 	/*
 	 * (non-Javadoc)
 	 * @see com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver#resolve(com.holonplatform.core.
@@ -97,7 +131,7 @@ public enum FieldValueResolver implements MongoExpressionResolver<FieldValue, Va
 	 * @throws InvalidExpressionException If an error occurred
 	 */
 	@SuppressWarnings("unchecked")
-	private static Object decode(MongoResolutionContext context, TypedExpression<?> expression, Object value)
+	static Object decode(MongoResolutionContext context, TypedExpression<?> expression, Object value)
 			throws InvalidExpressionException {
 
 		try {
@@ -144,34 +178,7 @@ public enum FieldValueResolver implements MongoExpressionResolver<FieldValue, Va
 	 */
 	private static Object checkBsonType(Class<?> targetType, Object value) {
 		if (value != null) {
-			// binary
-			if (Binary.class.isAssignableFrom(value.getClass()) && !Binary.class.isAssignableFrom(targetType)) {
-				return ((Binary) value).getData();
-			}
-			// code
-			if (Code.class.isAssignableFrom(value.getClass()) && String.class.isAssignableFrom(targetType)) {
-				return ((Code) value).getCode();
-			}
-			// symbol
-			if (Symbol.class.isAssignableFrom(value.getClass()) && String.class.isAssignableFrom(targetType)) {
-				return ((Symbol) value).getSymbol();
-			}
-			// decimal
-			if (Decimal128.class.isAssignableFrom(value.getClass())) {
-				if (BigInteger.class.isAssignableFrom(targetType) || TypeUtils.isIntegerNumber(targetType)) {
-					return ((Decimal128) value).bigDecimalValue().toBigInteger();
-				}
-				return ((Decimal128) value).bigDecimalValue();
-			}
-			// timestamp
-			if (BsonTimestamp.class.isAssignableFrom(value.getClass())) {
-				final BsonTimestamp ts = (BsonTimestamp) value;
-				if (LocalDateTime.class.isAssignableFrom(targetType)) {
-					return LocalDateTime.ofInstant(Instant.ofEpochSecond(ts.getTime()),
-							TimeZone.getDefault().toZoneId());
-				}
-				return new Date(ts.getTime());
-			}
+			return getBsonTypeConversion(targetType, value.getClass()).conversion.convert(value);
 		}
 		return value;
 	}
@@ -183,125 +190,238 @@ public enum FieldValueResolver implements MongoExpressionResolver<FieldValue, Va
 	 * @return Checked value
 	 * @throws InvalidExpressionException If an error occurred
 	 */
-	@SuppressWarnings("unchecked")
 	private static Object checkType(Class<?> targetType, Object v) throws InvalidExpressionException {
+		if (v != null) {
+			final Class<?> valueType = v.getClass();
+			// identity fast path
+			if (valueType == targetType && IDENTITY_TYPES.contains(valueType)) {
+				return v;
+			}
+			return TYPE_CONVERSIONS.get(targetType).computeIfAbsent(valueType, t -> compileType(targetType, t))
+					.convert(v);
+		}
+		return v;
+	}
 
-		// check Bson types
-		final Object value = checkBsonType(targetType, v);
+	// ------- conversion plans
 
-		if (value != null) {
+	private static BsonTypeConversion getBsonTypeConversion(Class<?> targetType, Class<?> valueType) {
+		return BSON_TYPE_CONVERSIONS.get(targetType).computeIfAbsent(valueType,
+				t -> compileBsonType(targetType, t));
+	}
 
-			// check array
-			if (targetType.isArray() && !value.getClass().isArray()) {
-				if (Collection.class.isAssignableFrom(value.getClass())) {
-					if (int[].class == targetType) {
-						return toIntArray((Collection<?>) value);
-					}
-					if (long[].class == targetType) {
-						return toLongArray((Collection<?>) value);
-					}
-					if (double[].class == targetType) {
-						return toDoubleArray((Collection<?>) value);
-					}
-					if (float[].class == targetType) {
-						return toFloatArray((Collection<?>) value);
-					}
-					if (short[].class == targetType) {
-						return toShortArray((Collection<?>) value);
-					}
-					if (boolean[].class == targetType) {
-						return toBooleanArray((Collection<?>) value);
-					}
-					return collectionToArray(targetType, (Collection<?>) value);
-				}
+	/**
+	 * Compile the specific Bson types conversion of a value type into a target type.
+	 * @param targetType Target type
+	 * @param valueType Value type
+	 * @return The conversion
+	 */
+	private static BsonTypeConversion compileBsonType(Class<?> targetType, Class<?> valueType) {
+		// binary
+		if (Binary.class.isAssignableFrom(valueType) && !Binary.class.isAssignableFrom(targetType)) {
+			return new BsonTypeConversion(v -> ((Binary) v).getData(), byte[].class);
+		}
+		// code
+		if (Code.class.isAssignableFrom(valueType) && String.class.isAssignableFrom(targetType)) {
+			return new BsonTypeConversion(v -> ((Code) v).getCode(), String.class);
+		}
+		// symbol
+		if (Symbol.class.isAssignableFrom(valueType) && String.class.isAssignableFrom(targetType)) {
+			return new BsonTypeConversion(v -> ((Symbol) v).getSymbol(), String.class);
+		}
+		// decimal
+		if (Decimal128.class.isAssignableFrom(valueType)) {
+			if (BigInteger.class.isAssignableFrom(targetType) || TypeUtils.isIntegerNumber(targetType)) {
+				return new BsonTypeConversion(v -> ((Decimal128) v).bigDecimalValue().toBigInteger(),
+						BigInteger.class);
 			}
-
-			// enum
-			if (TypeUtils.isEnum(targetType)) {
-				return ConversionUtils.convertEnumValue((Class<Enum>) targetType, value);
+			return new BsonTypeConversion(v -> ((Decimal128) v).bigDecimalValue(), BigDecimal.class);
+		}
+		// timestamp
+		if (BsonTimestamp.class.isAssignableFrom(valueType)) {
+			if (LocalDateTime.class.isAssignableFrom(targetType)) {
+				return new BsonTypeConversion(v -> LocalDateTime.ofInstant(
+						Instant.ofEpochSecond(((BsonTimestamp) v).getTime()), TimeZone.getDefault().toZoneId()),
+						LocalDateTime.class);
 			}
+			return new BsonTypeConversion(v -> new Date(((BsonTimestamp) v).getTime()), Date.class);
+		}
+		return new BsonTypeConversion(Conversion.IDENTITY, valueType);
+	}
 
-			// number
-			if (TypeUtils.isNumber(targetType) && TypeUtils.isNumber(value.getClass())) {
-				return ConversionUtils.convertNumberToTargetClass((Number) value, (Class<Number>) targetType);
+	/**
+	 * Compile the conversion of a value type into a target type, including the specific Bson types conversion.
+	 * @param targetType Target type
+	 * @param valueType Value type
+	 * @return The conversion
+	 */
+	private static Conversion compileType(Class<?> targetType, Class<?> valueType) {
+		final BsonTypeConversion bsonTypeConversion = getBsonTypeConversion(targetType, valueType);
+		final Conversion conversion = compileValueType(targetType, bsonTypeConversion.type);
+		if (bsonTypeConversion.conversion == Conversion.IDENTITY) {
+			return conversion;
+		}
+		if (conversion == Conversion.IDENTITY) {
+			return bsonTypeConversion.conversion;
+		}
+		return v -> conversion.convert(bsonTypeConversion.conversion.convert(v));
+	}
+
+	/**
+	 * Compile the conversion of a value type into a target type.
+	 * @param targetType Target type
+	 * @param valueType Value type
+	 * @return The conversion
+	 */
+	@SuppressWarnings("unchecked")
+	private static Conversion compileValueType(Class<?> targetType, Class<?> valueType) {
+
+		// check array
+		if (targetType.isArray() && !valueType.isArray() && Collection.class.isAssignableFrom(valueType)) {
+			if (int[].class == targetType) {
+				return v -> toIntArray((Collection<?>) v);
+			}
+			if (long[].class == targetType) {
+				return v -> toLongArray((Collection<?>) v);
+			}
+			if (double[].class == targetType) {
+				return v -> toDoubleArray((Collection<?>) v);
+			}
+			if (float[].class == targetType) {
+				return v -> toFloatArray((Collection<?>) v);
+			}
+			if (short[].class == targetType) {
+				return v -> toShortArray((Collection<?>) v);
 			}
+			if (boolean[].class == targetType) {
+				return v -> toBooleanArray((Collection<?>) v);
+			}
+			return v -> collectionToArray(targetType, (Collection<?>) v);
+		}
+
+		// enum
+		if (TypeUtils.isEnum(targetType)) {
+			return v -> ConversionUtils.convertEnumValue((Class<Enum>) targetType, v);
+		}
 
-			// char[]
-			if (char[].class == targetType && TypeUtils.isString(value.getClass())) {
-				return ((String) value).toCharArray();
+		// number
+		if (TypeUtils.isNumber(targetType) && TypeUtils.isNumber(valueType)) {
+			if (targetType.isAssignableFrom(valueType)) {
+				return Conversion.IDENTITY;
 			}
+			return v -> ConversionUtils.convertNumberToTargetClass((Number) v, (Class<Number>) targetType);
+		}
 
-			// date and times
-			if (Date.class.isAssignableFrom(value.getClass())) {
-				if (LocalDate.class.isAssignableFrom(targetType)) {
-					return ConversionUtils.toLocalDate((Date) value, UTC);
-				}
-				if (LocalDateTime.class.isAssignableFrom(targetType)) {
-					return ConversionUtils.toLocalDateTime((Date) value, UTC);
-				}
-				if (LocalTime.class.isAssignableFrom(targetType)) {
-					return ConversionUtils.toLocalTime((Date) value, UTC);
-				}
+		// char[]
+		if (char[].class == targetType && TypeUtils.isString(valueType)) {
+			return v -> ((String) v).toCharArray();
+		}
+
+		// date and times
+		if (Date.class.isAssignableFrom(valueType)) {
+			if (LocalDate.class.isAssignableFrom(targetType)) {
+				return v -> ConversionUtils.toLocalDate((Date) v, UTC);
+			}
+			if (LocalDateTime.class.isAssignableFrom(targetType)) {
+				return v -> ConversionUtils.toLocalDateTime((Date) v, UTC);
 			}
+			if (LocalTime.class.isAssignableFrom(targetType)) {
+				return v -> ConversionUtils.toLocalTime((Date) v, UTC);
+			}
+		}
 
-			if (Calendar.class.isAssignableFrom(value.getClass())) {
-				if (LocalDateTime.class.isAssignableFrom(targetType)) {
-					return ConversionUtils.toLocalDateTime((Calendar) value);
-				}
-				if (LocalDate.class.isAssignableFrom(targetType)) {
-					return ConversionUtils.toLocalDate((Calendar) value);
-				}
-				if (LocalTime.class.isAssignableFrom(targetType)) {
-					final Calendar calendar = (Calendar) value;
+		if (Calendar.class.isAssignableFrom(valueType)) {
+			if (LocalDateTime.class.isAssignableFrom(targetType)) {
+				return v -> ConversionUtils.toLocalDateTime((Calendar) v);
+			}
+			if (LocalDate.class.isAssignableFrom(targetType)) {
+				return v -> ConversionUtils.toLocalDate((Calendar) v);
+			}
+			if (LocalTime.class.isAssignableFrom(targetType)) {
+				return v -> {
+					final Calendar calendar = (Calendar) v;
 					return LocalTime.of(calendar.get(Calendar.HOUR_OF_DAY), calendar.get(Calendar.MINUTE),
 							calendar.get(Calendar.SECOND),
 							(int) TimeUnit.MILLISECONDS.toNanos(calendar.get(Calendar.MILLISECOND)));
-				}
-				if (java.util.Date.class.isAssignableFrom(targetType)) {
-					return ((Calendar) value).getTime();
-				}
+				};
+			}
+			if (java.util.Date.class.isAssignableFrom(targetType)) {
+				return v -> ((Calendar) v).getTime();
 			}
+		}
 
-			if (LocalDate.class.isAssignableFrom(value.getClass())) {
-				if (java.util.Date.class.isAssignableFrom(targetType)) {
-					return ConversionUtils.fromLocalDate((LocalDate) value, UTC);
-				}
+		if (LocalDate.class.isAssignableFrom(valueType)) {
+			if (java.util.Date.class.isAssignableFrom(targetType)) {
+				return v -> ConversionUtils.fromLocalDate((LocalDate) v, UTC);
 			}
-			if (LocalDateTime.class.isAssignableFrom(value.getClass())) {
-				if (java.util.Date.class.isAssignableFrom(targetType)) {
-					return ConversionUtils.fromLocalDateTime(((LocalDateTime) value), UTC);
-				}
-				if (LocalDate.class.isAssignableFrom(targetType)) {
-					return ((LocalDateTime) value).toLocalDate();
-				}
-				if (LocalTime.class.isAssignableFrom(targetType)) {
-					return ((LocalDateTime) value).toLocalTime();
-				}
+		}
+		if (LocalDateTime.class.isAssignableFrom(valueType)) {
+			if (java.util.Date.class.isAssignableFrom(targetType)) {
+				return v -> ConversionUtils.fromLocalDateTime(((LocalDateTime) v), UTC);
 			}
-			if (OffsetDateTime.class.isAssignableFrom(value.getClass())) {
-				if (LocalDateTime.class.isAssignableFrom(targetType)) {
-					return ((OffsetDateTime) value).toLocalDateTime();
-				}
-				if (LocalDate.class.isAssignableFrom(targetType)) {
-					return ((OffsetDateTime) value).toLocalDate();
-				}
-				if (LocalTime.class.isAssignableFrom(targetType)) {
-					return ((OffsetDateTime) value).toLocalTime();
-				}
+			if (LocalDate.class.isAssignableFrom(targetType)) {
+				return v -> ((LocalDateTime) v).toLocalDate();
 			}
-
-			// String to Reader
-			if (TypeUtils.isString(value.getClass()) && Reader.class.isAssignableFrom(targetType)) {
-				return new StringReader((String) value);
+			if (LocalTime.class.isAssignableFrom(targetType)) {
+				return v -> ((LocalDateTime) v).toLocalTime();
 			}
-
-			// Byte[] to InputStream
-			if (value instanceof byte[] && InputStream.class.isAssignableFrom(targetType)) {
-				return new ByteArrayInputStream((byte[]) value);
+		}
+		if (OffsetDateTime.class.isAssignableFrom(valueType)) {
+			if (LocalDateTime.class.isAssignableFrom(targetType)) {
+				return v -> ((OffsetDateTime) v).toLocalDateTime();
+			}
+			if (LocalDate.class.isAssignableFrom(targetType)) {
+				return v -> ((OffsetDateTime) v).toLocalDate();
+			}
+			if (LocalTime.class.isAssignableFrom(targetType)) {
+				return v -> ((OffsetDateTime) v).toLocalTime();
 			}
+		}
 
+		// String to Reader
+		if (TypeUtils.isString(valueType) && Reader.class.isAssignableFrom(targetType)) {
+			return v -> new StringReader((String) v);
 		}
-		return value;
+
+		// Byte[] to InputStream
+		if (byte[].class == valueType && InputStream.class.isAssignableFrom(targetType)) {
+			return v -> new ByteArrayInputStream((byte[]) v);
+		}
+
+		return Conversion.IDENTITY;
+	}
+
+	/**
+	 * A value conversion.
+	 */
+	@FunctionalInterface
+	private interface Conversion {
+
+		Conversion IDENTITY = v -> v;
+
+		/**
+		 * Convert given value.
+		 * @param value The value to convert (never null)
+		 * @return The converted value
+		 */
+		Object convert(Object value);
+
+	}
+
+	/**
+	 * A specific Bson type conversion, with the type of the converted values.
+	 */
+	private static final class BsonTypeConversion {
+
+		final Conversion conversion;
+		final Class<?> type;
+
+		BsonTypeConversion(Conversion conversion, Class<?> type) {
+			super();
+			this.conversion = conversion;
+			this.type = type;
+		}
+
 	}
 
 	/**
@@ -370,7 +490,8 @@ public enum FieldValueResolver implements MongoExpressionResolver<FieldValue, Va
 			int[] a = new int[value.size()];
 			int idx = 0;
 			for (Object v : value) {
-				a[idx++] = ConversionUtils.convertNumberToTargetClass((Number) v, int.class);
+				a[idx++] = (v instanceof Integer) ? ((Integer) v).intValue()
+						: ConversionUtils.convertNumberToTargetClass((Number) v, int.class);
 			}
 			return a;
 		}
@@ -382,7 +503,8 @@ public enum FieldValueResolver implements MongoExpressionResolver<FieldValue, Va
 			long[] a = new long[value.size()];
 			int idx = 0;
 			for (Object v : value) {
-				a[idx++] = ConversionUtils.convertNumberToTargetClass((Number) v, long.class);
+				a[idx++] = (v instanceof Long || v instanceof Integer) ? ((Number) v).longValue()
+						: ConversionUtils.convertNumberToTargetClass((Number) v, long.class);
 			}
 			return a;
 		}
@@ -394,7 +516,8 @@ public enum FieldValueResolver implements MongoExpressionResolver<FieldValue, Va
 			double[] a = new double[value.size()];
 			int idx = 0;
 			for (Object v : value) {
-				a[idx++] = ConversionUtils.convertNumberToTargetClass((Number) v, double.class);
+				a[idx++] = (v instanceof Double) ? ((Double) v).doubleValue()
+						: ConversionUtils.convertNumberToTargetClass((Number) v, double.class);
 			}
 			return a;
 		}
@@ -59,7 +59,10 @@ public enum PropertyBoxDocumentResolver implements MongoExpressionResolver<Prope
 
 	INSTANCE;
 
-	private static final Object NO_VALUE = "";
+	/**
+	 * Value used to mark a field to be removed in update mode
+	 */
+	static final Object NO_VALUE = "";
 
 	/*
 	 * (non-Javadoc)
@@ -78,8 +81,10 @@ public enum PropertyBoxDocumentResolver implements MongoExpressionResolver<Prope
 				.orElse(context.documentContext(expression.getPropertySet()));
 
 		// Encode document
-		final Map<String, Object> nodes = encodePropertyBox(documentContext, expression.getValue(), null,
-				documentContext.isForUpdate());
+		final Map<String, Object> nodes = PropertySetDocumentCodec.isEnabled(documentContext)
+				? PropertySetDocumentCodec.of(documentContext.getPropertySet()).encode(documentContext,
+						expression.getValue(), documentContext.isForUpdate())
+				: encodePropertyBox(documentContext, expression.getValue(), null, documentContext.isForUpdate());
 
 		if (documentContext.isForUpdate()) {
 			// update operators
@@ -96,7 +101,7 @@ public enum PropertyBoxDocumentResolver implements MongoExpressionResolver<Prope
 			return Optional.of(DocumentValue.create(document));
 		}
 
-		return Optional.of(DocumentValue.create(new Document(nodes)));
+		return Optional.of(DocumentValue.create((nodes instanceof Document) ? (Document) nodes : new Document(nodes)));
 	}
 
 	/*
@@ -0,0 +1,635 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.resolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.Document;
+
+import com.holonplatform.core.Expression;
+import com.holonplatform.core.Expression.InvalidExpressionException;
+import com.holonplatform.core.ExpressionResolver;
+import com.holonplatform.core.Path;
+import com.holonplatform.core.TypedExpression;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.CollectionProperty;
+import com.holonplatform.core.property.PathPropertySetAdapter;
+import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.document.EnumCodecStrategy;
+import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
+import com.holonplatform.datastore.mongo.core.expression.FieldName;
+import com.holonplatform.datastore.mongo.core.expression.FieldValue;
+import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
+import com.holonplatform.datastore.mongo.core.expression.Value;
+import com.holonplatform.datastore.mongo.core.internal.context.ExpressionResolverDispatcher;
+import com.holonplatform.datastore.mongo.core.internal.context.ExpressionResolverDispatcherProvider;
+import com.holonplatform.datastore.mongo.core.internal.document.DocumentPathMatcher;
+import com.holonplatform.datastore.mongo.core.internal.document.MongoPropertySetSerializationTreeResolver;
+import com.holonplatform.datastore.mongo.core.internal.expression.DefaultDocumentValue;
+import com.holonplatform.datastore.mongo.core.internal.expression.DefaultFieldName;
+import com.holonplatform.datastore.mongo.core.internal.expression.DefaultFieldValue;
+import com.holonplatform.datastore.mongo.core.internal.expression.DefaultValue;
+import com.holonplatform.json.model.PropertySetSerializationNode;
+
+/**
+ * A {@link PropertySet} bound codec to encode {@link PropertyBox} values into documents and to decode documents into
+ * {@link PropertyBox} values.
+ * <p>
+ * The codec is compiled only once for each property set and it precomputes the document field names, the nested
+ * document paths, the property value converters and the document id handling, so that the field name and field value
+ * resolutions do not need to go through the resolvers chain for each property value.
+ * </p>
+ * <p>
+ * The codec behaves just like the default {@link PropertyBoxDocumentResolver} and {@link DocumentPropertyBoxResolver}
+ * resolvers, so it can be used only when the field name and field value resolution is performed by the default
+ * resolvers: see {@link #isEnabled(MongoResolutionContext)}.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public final class PropertySetDocumentCodec {
+
+	/**
+	 * Max number of cached field decoders for each codec
+	 */
+	private static final int MAX_FIELD_DECODERS = 1024;
+
+	/**
+	 * Codecs cache
+	 */
+	private static final MetadataCache<PropertySet<?>, PropertySetDocumentCodec> CODECS = MetadataCache
+			.create(MetadataCacheRegistry.DOCUMENT_CODECS, ps -> new PropertySetDocumentCodec(ps));
+
+	/**
+	 * Default resolvers
+	 */
+	private static final Set<ExpressionResolver> DEFAULT_RESOLVERS = Collections
+			.newSetFromMap(new IdentityHashMap<>());
+
+	static {
+		DEFAULT_RESOLVERS.addAll(DefaultMongoExpressionResolvers.getExpressionresolvers());
+	}
+
+	/**
+	 * Path expression type used to resolve the document field names
+	 */
+	private static final Class<? extends Expression> PATH_TYPE = Path.of("_", Object.class).getClass();
+
+	/**
+	 * Property encoders
+	 */
+	private final FieldEncoder[] encoders;
+
+	/**
+	 * Properties with a converter
+	 */
+	private final List<Property<?>> converterProperties;
+
+	/**
+	 * Field decoders, by full field path
+	 */
+	private final Map<String, FieldDecoder> decoders = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param propertySet The property set to which the codec is bound
+	 */
+	private PropertySetDocumentCodec(PropertySet<?> propertySet) {
+		super();
+		this.encoders = compile(MongoPropertySetSerializationTreeResolver.getDefault().resolve(propertySet));
+		final List<Property<?>> cps = new LinkedList<>();
+		for (Property<?> property : propertySet) {
+			if (property.getConverter().isPresent()) {
+				cps.add(property);
+			}
+		}
+		this.converterProperties = cps.isEmpty() ? Collections.emptyList() : new ArrayList<>(cps);
+	}
+
+	/**
+	 * Get the codec bound to given property set.
+	 * <p>
+	 * The codec is compiled at first use and then cached. When a {@link PropertyBox} instance is used as property set,
+	 * the codec is not cached.
+	 * </p>
+	 * @param propertySet The property set (not null)
+	 * @return The property set codec
+	 */
+	public static PropertySetDocumentCodec of(PropertySet<?> propertySet) {
+		ObjectUtils.argumentNotNull(propertySet, "PropertySet must be not null");
+		if (propertySet instanceof PropertyBox) {
+			return new PropertySetDocumentCodec(propertySet);
+		}
+		return CODECS.get(propertySet);
+	}
+
+	/**
+	 * Get the codecs cache.
+	 * @return The codecs cache
+	 */
+	public static MetadataCache<PropertySet<?>, PropertySetDocumentCodec> getCache() {
+		return CODECS;
+	}
+
+	/**
+	 * Checks whether the compiled codecs can be used with given resolution context, i.e. if the document field names
+	 * and values resolution is performed only by the default resolvers.
+	 * <p>
+	 * If a custom resolver for any of the field name, path or field value expressions is registered, the resolvers
+	 * chain must be used instead.
+	 * </p>
+	 * @param context The resolution context (not null)
+	 * @return <code>true</code> if the compiled codecs can be used
+	 */
+	public static boolean isEnabled(MongoResolutionContext<?> context) {
+		final ExpressionResolverDispatcher dispatcher = ExpressionResolverDispatcherProvider.getDispatcher(context);
+		return isDefaultResolution(dispatcher, PATH_TYPE, FieldName.class)
+				&& isDefaultResolution(dispatcher, DefaultFieldName.class, Path.class)
+				&& isDefaultResolution(dispatcher, DefaultValue.class, FieldValue.class)
+				&& isDefaultResolution(dispatcher, DefaultFieldValue.class, Value.class);
+	}
+
+	/**
+	 * Checks whether the compiled codecs can be used to decode documents into {@link PropertyBox} values with given
+	 * resolution context, bypassing the {@link DocumentValue} to {@link PropertyBoxValue} resolution.
+	 * <p>
+	 * Besides the conditions checked by {@link #isEnabled(MongoResolutionContext)}, the document decoding must be
+	 * performed only by the default resolvers.
+	 * </p>
+	 * @param context The resolution context (not null)
+	 * @return <code>true</code> if the compiled codecs can be used to decode documents
+	 */
+	public static boolean isDecodingEnabled(MongoResolutionContext<?> context) {
+		return isEnabled(context) && isDefaultResolution(ExpressionResolverDispatcherProvider.getDispatcher(context),
+				DefaultDocumentValue.class, PropertyBoxValue.class);
+	}
+
+	private static boolean isDefaultResolution(ExpressionResolverDispatcher dispatcher,
+			Class<? extends Expression> expressionType, Class<? extends Expression> resolutionType) {
+		for (ExpressionResolver resolver : dispatcher.getExpressionResolvers(expressionType, resolutionType)) {
+			if (!DEFAULT_RESOLVERS.contains(resolver)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// ------- encode
+
+	/**
+	 * Encode given {@link PropertyBox} into a document.
+	 * <p>
+	 * When the encoding is performed for an update operation, the document field names are expressed as full paths and
+	 * any <code>null</code> value is encoded as {@link PropertyBoxDocumentResolver#NO_VALUE}.
+	 * </p>
+	 * @param context The document context, bound to the codec property set (not null)
+	 * @param propertyBox The PropertyBox to encode (not null)
+	 * @param forUpdate Whether the encoding is performed for an update operation
+	 * @return The encoded document
+	 * @throws InvalidExpressionException If an error occurred
+	 */
+	public Document encode(MongoDocumentContext<?> context, PropertyBox propertyBox, boolean forUpdate)
+			throws InvalidExpressionException {
+		final Property<?> documentIdProperty = context.getDocumentIdProperty().orElse(null);
+		return encode(context, propertyBox, documentIdProperty, null, forUpdate);
+	}
+
+	private Document encode(MongoResolutionContext<?> context, PropertyBox propertyBox,
+			Property<?> documentIdProperty, String parentPath, boolean forUpdate) throws InvalidExpressionException {
+		final Document document = new Document();
+		encode(context, propertyBox, documentIdProperty, encoders, parentPath, forUpdate, document);
+		return document;
+	}
+
+	private static void encode(MongoResolutionContext<?> context, PropertyBox propertyBox,
+			Property<?> documentIdProperty, FieldEncoder[] encoders, String parentPath, boolean forUpdate,
+			Map<String, Object> document) throws InvalidExpressionException {
+		for (FieldEncoder encoder : encoders) {
+			if (encoder.property != null) {
+				encodeProperty(context, propertyBox, documentIdProperty, encoder, parentPath, forUpdate, document);
+			} else {
+				// nested
+				if (forUpdate) {
+					encode(context, propertyBox, documentIdProperty, encoder.children,
+							composeFieldPath(parentPath, encoder.name), true, document);
+				} else {
+					final Document nested = new Document();
+					encode(context, propertyBox, documentIdProperty, encoder.children,
+							composeFieldPath(parentPath, encoder.name), false, nested);
+					document.putIfAbsent(encoder.name, nested);
+				}
+			}
+		}
+	}
+
+	private static void encodeProperty(MongoResolutionContext<?> context, PropertyBox propertyBox,
+			Property<?> documentIdProperty, FieldEncoder encoder, String parentPath, boolean forUpdate,
+			Map<String, Object> document) throws InvalidExpressionException {
+		final Property<Object> property = encoder.property;
+		final Object value = propertyBox.getValue(property);
+		final boolean documentId = documentIdProperty != null
+				&& (property == documentIdProperty || property.equals(documentIdProperty));
+		if (value == null) {
+			if (forUpdate && !documentId) {
+				// empty value for $unset
+				document.putIfAbsent(composeFieldPath(parentPath, encoder.name), PropertyBoxDocumentResolver.NO_VALUE);
+			}
+			return;
+		}
+		try {
+			// check nested PropertyBox
+			if (encoder.propertyBox) {
+				final PropertyBox pb = (PropertyBox) value;
+				final Document encoded = of((encoder.propertySet != null) ? encoder.propertySet : pb).encode(context,
+						pb, null, forUpdate ? composeFieldPath(parentPath, encoder.name) : parentPath, forUpdate);
+				if (forUpdate) {
+					putAllIfAbsent(document, encoded);
+				} else {
+					document.putIfAbsent(encoder.name, encoded);
+				}
+				return;
+			}
+			// check PropertyBox collection property
+			if (encoder.propertyBoxCollection && value instanceof Collection) {
+				final Collection<PropertyBox> values = (Collection<PropertyBox>) value;
+				if (!values.isEmpty()) {
+					final List<Document> encoded = new ArrayList<>(values.size());
+					for (PropertyBox pb : values) {
+						encoded.add(of((encoder.propertySet != null) ? encoder.propertySet : pb).encode(context, pb,
+								null, parentPath, forUpdate));
+					}
+					document.putIfAbsent(forUpdate ? composeFieldPath(parentPath, encoder.name) : encoder.name,
+							encoded);
+				}
+				return;
+			}
+			// encode field value
+			final Object fieldValue = ValueResolver.encode(context, property, value,
+					(encoder.enumCodecStrategy != null) ? encoder.enumCodecStrategy
+							: context.getDefaultEnumCodecStrategy(),
+					documentId && encoder.defaultDocumentIdName);
+
+			// check document id property
+			if (!forUpdate && parentPath == null && fieldValue != null && documentId
+					&& !encoder.defaultDocumentIdName) {
+				// add the default _id field
+				document.putIfAbsent(encoder.name, fieldValue);
+				document.putIfAbsent(MongoDocumentContext.ID_FIELD_NAME,
+						context.getDocumentIdResolver().encode(value));
+				return;
+			}
+			document.putIfAbsent(forUpdate ? composeFieldPath(parentPath, encoder.name) : encoder.name,
+					(fieldValue != null) ? fieldValue : PropertyBoxDocumentResolver.NO_VALUE);
+		} catch (Exception e) {
+			throw new InvalidExpressionException(
+					"Failed to encode Property [" + property + "] using field name [" + encoder.name + "]", e);
+		}
+	}
+
+	private static void putAllIfAbsent(Map<String, Object> document, Map<String, Object> values) {
+		for (Entry<String, Object> entry : values.entrySet()) {
+			document.putIfAbsent(entry.getKey(), entry.getValue());
+		}
+	}
+
+	// ------- decode
+
+	/**
+	 * Decode given document into a {@link PropertyBox}.
+	 * @param context The document context, bound to the codec property set (not null)
+	 * @param document The document to decode (not null)
+	 * @return The decoded PropertyBox
+	 * @throws InvalidExpressionException If an error occurred
+	 */
+	public PropertyBox decode(MongoDocumentContext<?> context, Map<String, Object> document)
+			throws InvalidExpressionException {
+		return decode(context, context.getPropertySet(), null, document);
+	}
+
+	private PropertyBox decode(MongoResolutionContext<?> context, PropertySet<?> propertySet, String parent,
+			Map<String, Object> document) throws InvalidExpressionException {
+		final PropertyBox propertyBox = PropertyBox.builder(propertySet).invalidAllowed(true).build();
+		decodeDocument(context, propertySet, parent, document, propertyBox);
+		return propertyBox;
+	}
+
+	private void decodeDocument(MongoResolutionContext<?> context, PropertySet<?> propertySet, String parent,
+			Map<String, Object> document, PropertyBox propertyBox) throws InvalidExpressionException {
+		final List<Property<?>> properties = converterProperties.isEmpty() ? null
+				: new ArrayList<>(converterProperties);
+		for (Entry<String, Object> entry : document.entrySet()) {
+			final Property<?> decoded = decodeField(context, propertySet, propertyBox, parent, entry.getKey(),
+					entry.getValue());
+			if (decoded != null && properties != null) {
+				properties.remove(decoded);
+			}
+		}
+		forceConverterProperties(properties, propertyBox);
+	}
+
+	/**
+	 * Decode the document which is the current value of given {@link BsonReader} into a {@link PropertyBox}, without
+	 * materializing the document itself.
+	 * <p>
+	 * The document fields are read one at a time: any embedded document which is not bound to a PropertyBox type
+	 * property is decoded in place, while any other field value is read using given <code>valueReader</code>, which
+	 * is expected to produce the same value that the {@link Document} codec would produce for the current BSON value.
+	 * </p>
+	 * @param context The document context, bound to the codec property set (not null)
+	 * @param reader The BSON reader, positioned at the start of the document (not null)
+	 * @param valueReader The function to use to read the current BSON value (not null)
+	 * @return The decoded PropertyBox
+	 * @throws InvalidExpressionException If an error occurred
+	 */
+	public PropertyBox decode(MongoDocumentContext<?> context, BsonReader reader,
+			Function<BsonReader, Object> valueReader) throws InvalidExpressionException {
+		final PropertySet<?> propertySet = context.getPropertySet();
+		final PropertyBox propertyBox = PropertyBox.builder(propertySet).invalidAllowed(true).build();
+		decodeDocument(context, propertySet, null, reader, valueReader, propertyBox);
+		return propertyBox;
+	}
+
+	private void decodeDocument(MongoResolutionContext<?> context, PropertySet<?> propertySet, String parent,
+			BsonReader reader, Function<BsonReader, Object> valueReader, PropertyBox propertyBox)
+			throws InvalidExpressionException {
+		final List<Property<?>> properties = converterProperties.isEmpty() ? null
+				: new ArrayList<>(converterProperties);
+		reader.readStartDocument();
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			final String name = reader.readName();
+			final Property<?> decoded;
+			if (reader.getCurrentBsonType() == BsonType.DOCUMENT
+					&& getFieldDecoder(propertySet, composeFieldPath(parent, name)).nestedProperty == null) {
+				// nested document not bound to a property: decode in place
+				decodeDocument(context, propertySet, composeFieldPath(parent, name), reader, valueReader,
+						propertyBox);
+				decoded = null;
+			} else {
+				decoded = decodeField(context, propertySet, propertyBox, parent, name, valueReader.apply(reader));
+			}
+			if (decoded != null && properties != null) {
+				properties.remove(decoded);
+			}
+		}
+		reader.readEndDocument();
+		forceConverterProperties(properties, propertyBox);
+	}
+
+	/**
+	 * Force the <code>null</code> value set for the properties with a converter which were not decoded, so that the
+	 * converter is anyway invoked.
+	 * @param properties The properties with a converter which were not decoded (may be null)
+	 * @param propertyBox The PropertyBox
+	 */
+	private static void forceConverterProperties(List<Property<?>> properties, PropertyBox propertyBox) {
+		if (properties != null) {
+			for (Property<?> property : properties) {
+				if (propertyBox.contains(property)) {
+					propertyBox.setValue(property, null);
+				}
+			}
+		}
+	}
+
+	private Property<?> decodeField(MongoResolutionContext<?> context, PropertySet<?> propertySet,
+			PropertyBox propertyBox, String parent, String name, Object value) throws InvalidExpressionException {
+
+		// full path
+		final String fieldName = composeFieldPath(parent, name);
+		final FieldDecoder decoder = getFieldDecoder(propertySet, fieldName);
+
+		// check nested document
+		if (value instanceof Map) {
+			final Map<String, Object> nested = (Map<String, Object>) value;
+			decodeDocument(context, propertySet, fieldName, nested, propertyBox);
+			if (decoder.nestedProperty != null) {
+				final PropertySet<?> nestedPropertySet = getPropertySet(decoder.nestedProperty, fieldName);
+				propertyBox.setValue(decoder.nestedProperty,
+						of(nestedPropertySet).decode(context, nestedPropertySet, parent, nested));
+			}
+			return decoder.nestedProperty;
+		}
+
+		// check collection of nested documents
+		if (decoder.propertyBoxCollection && value instanceof Collection && !((Collection) value).isEmpty()) {
+			final Object firstElement = ((Collection) value).iterator().next();
+			if (firstElement instanceof Map) {
+				final PropertySet<?> elementPropertySet = getPropertySet(decoder.property, fieldName);
+				final PropertySetDocumentCodec codec = of(elementPropertySet);
+				final int size = ((Collection) value).size();
+				final Collection<PropertyBox> propertyValues = decoder.list ? new ArrayList<>(size)
+						: new HashSet<>(size);
+				for (Object element : ((Collection) value)) {
+					propertyValues
+							.add(codec.decode(context, elementPropertySet, parent, (Map<String, Object>) element));
+				}
+				propertyBox.setValue(decoder.property, propertyValues);
+				return decoder.property;
+			}
+		}
+
+		// check alias
+		if (context.maybeAliasName(name)) {
+			Optional<TypedExpression<Object>> aliasExpression = context.getExpression(name);
+			if (aliasExpression.isPresent()) {
+				final TypedExpression<?> exp = aliasExpression.get();
+				Object resolvedValue = context.resolveOrFail(FieldValue.create(value, exp), Value.class).getValue();
+				// check property
+				if (exp instanceof Property) {
+					final Property<Object> property = (Property) exp;
+					if (propertyBox.contains(property)) {
+						propertyBox.setValue(property, resolvedValue);
+					}
+					return property;
+				}
+				return null;
+			}
+		}
+
+		// decode value
+		if (decoder.property != null) {
+			propertyBox.setValue(decoder.property, FieldValueResolver.decode(context, decoder.property, value));
+		}
+		return decoder.property;
+	}
+
+	/**
+	 * Get the decoder for given field path, compiling it if not available.
+	 * @param propertySet The codec property set
+	 * @param fieldName Full field path
+	 * @return The field decoder
+	 */
+	private FieldDecoder getFieldDecoder(PropertySet<?> propertySet, String fieldName) {
+		FieldDecoder decoder = decoders.get(fieldName);
+		if (decoder == null) {
+			decoder = compile(propertySet, fieldName);
+			if (decoders.size() < MAX_FIELD_DECODERS) {
+				decoders.putIfAbsent(fieldName, decoder);
+			}
+		}
+		return decoder;
+	}
+
+	/**
+	 * Compile the decoder for given field path.
+	 * @param propertySet The codec property set
+	 * @param fieldName Full field path
+	 * @return The field decoder
+	 */
+	private static FieldDecoder compile(PropertySet<?> propertySet, String fieldName) {
+		final PathPropertySetAdapter propertyAdapter = PathPropertySetAdapter.builder(propertySet)
+				.pathMatcher(DocumentPathMatcher.INSTANCE).build();
+		// PropertyBox type property for nested documents
+		final Property<Object> nestedProperty = propertyAdapter.getProperty(Path.of(fieldName, Object.class))
+				.filter(p -> PropertyBox.class.isAssignableFrom(p.getType())).orElse(null);
+		// property bound to the field path
+		final Path<?> path = FieldNamePathResolver.getPropertySetPath(propertySet, fieldName)
+				.orElse(Path.of(fieldName, Object.class));
+		final Property<Object> property = propertyAdapter.getProperty((Path<Object>) path).orElse(null);
+		return new FieldDecoder(property, nestedProperty);
+	}
+
+	/**
+	 * Get the {@link PropertySet} of a PropertyBox type property.
+	 * @param property The property
+	 * @param fieldName The field path
+	 * @return The property set
+	 * @throws InvalidExpressionException If the property set is not available
+	 */
+	private static PropertySet<?> getPropertySet(Property<?> property, String fieldName)
+			throws InvalidExpressionException {
+		return property.getConfiguration().getParameter(PropertySet.PROPERTY_CONFIGURATION_ATTRIBUTE)
+				.orElseThrow(() -> new InvalidExpressionException("Failed to deserialize PropertyBox type path ["
+						+ fieldName + "]: missing PropertySet. Check property configuration attribute ["
+						+ PropertySet.PROPERTY_CONFIGURATION_ATTRIBUTE.getKey() + "]"));
+	}
+
+	// ------- compile
+
+	/**
+	 * Compile the encoders for given serialization nodes.
+	 * @param nodes Serialization nodes
+	 * @return The field encoders
+	 */
+	private static FieldEncoder[] compile(Iterable<PropertySetSerializationNode> nodes) {
+		final List<FieldEncoder> encoders = new ArrayList<>();
+		for (PropertySetSerializationNode node : nodes) {
+			final Property<?> property = node.getProperty().filter(p -> p instanceof Path).orElse(null);
+			encoders.add((property != null) ? new FieldEncoder(node.getName(), (Property<Object>) property)
+					: new FieldEncoder(node.getName(), compile(node.getChildren())));
+		}
+		return encoders.toArray(new FieldEncoder[encoders.size()]);
+	}
+
+	/**
+	 * Compose a field path using an optional parent path.
+	 * @param parent Optional parent path
+	 * @param name Field name
+	 * @return Full path
+	 */
+	private static String composeFieldPath(String parent, String name) {
+		return (parent == null) ? name : parent + "." + name;
+	}
+
+	/**
+	 * Compiled property encoder.
+	 */
+	private static final class FieldEncoder {
+
+		final String name;
+		final Property<Object> property;
+		final FieldEncoder[] children;
+		final EnumCodecStrategy enumCodecStrategy;
+		final boolean propertyBox;
+		final boolean propertyBoxCollection;
+		final PropertySet<?> propertySet;
+		final boolean defaultDocumentIdName;
+
+		FieldEncoder(String name, Property<Object> property) {
+			super();
+			this.name = name;
+			this.property = property;
+			this.children = null;
+			this.enumCodecStrategy = property.getConfiguration().getParameter(EnumCodecStrategy.CONFIG_PROPERTY)
+					.orElse(null);
+			this.propertyBox = PropertyBox.class.isAssignableFrom(property.getType());
+			this.propertyBoxCollection = isPropertyBoxCollection(property);
+			this.propertySet = property.getConfiguration().getParameter(PropertySet.PROPERTY_CONFIGURATION_ATTRIBUTE)
+					.orElse(null);
+			this.defaultDocumentIdName = MongoDocumentContext.ID_FIELD_NAME.equals(((Path<?>) property).relativeName());
+		}
+
+		FieldEncoder(String name, FieldEncoder[] children) {
+			super();
+			this.name = name;
+			this.property = null;
+			this.children = children;
+			this.enumCodecStrategy = null;
+			this.propertyBox = false;
+			this.propertyBoxCollection = false;
+			this.propertySet = null;
+			this.defaultDocumentIdName = false;
+		}
+
+	}
+
+	/**
+	 * Compiled field decoder.
+	 */
+	private static final class FieldDecoder {
+
+		final Property<Object> property;
+		final Property<Object> nestedProperty;
+		final boolean propertyBoxCollection;
+		final boolean list;
+
+		FieldDecoder(Property<Object> property, Property<Object> nestedProperty) {
+			super();
+			this.property = property;
+			this.nestedProperty = nestedProperty;
+			this.propertyBoxCollection = property != null && isPropertyBoxCollection(property);
+			this.list = property != null && List.class.isAssignableFrom(property.getType());
+		}
+
+	}
+
+	private static boolean isPropertyBoxCollection(Property<?> property) {
+		return property instanceof CollectionProperty
+				&& PropertyBox.class.isAssignableFrom(((CollectionProperty<?, ?>) property).getElementType());
+	}
+
+}
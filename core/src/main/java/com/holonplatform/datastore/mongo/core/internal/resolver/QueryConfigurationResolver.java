@@ -15,6 +15,8 @@
  */
 package com.holonplatform.datastore.mongo.core.internal.resolver;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -25,6 +27,9 @@ import org.bson.Document;
 import com.holonplatform.core.Expression.InvalidExpressionException;
 import com.holonplatform.core.Path;
 import com.holonplatform.core.query.QueryConfiguration;
+import com.holonplatform.core.query.QueryFilter;
+import com.holonplatform.core.query.QuerySort;
+import com.holonplatform.datastore.mongo.core.ContinuationToken;
 import com.holonplatform.datastore.mongo.core.ReadOperationConfiguration;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
 import com.holonplatform.datastore.mongo.core.document.QueryOperationType;
@@ -33,6 +38,7 @@ import com.holonplatform.datastore.mongo.core.expression.BsonFilterExpression;
 import com.holonplatform.datastore.mongo.core.expression.BsonQueryDefinition;
 import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.expression.FieldName;
+import com.holonplatform.datastore.mongo.core.internal.support.KeysetPagination;
 import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
 
 /**
@@ -69,13 +75,27 @@ public enum QueryConfigurationResolver implements MongoExpressionResolver<QueryC
 			builder.distinct(true);
 		}
 
+		// keyset pagination
+		final Optional<ContinuationToken> continuation = expression
+				.getParameter(ReadOperationConfiguration.QUERY_CONTINUATION);
+		if (continuation.isPresent() && expression.getOffset().isPresent()) {
+			throw new InvalidExpressionException("The query offset cannot be used along with a continuation token");
+		}
+
 		// filters
-		expression.getFilter().ifPresent(f -> {
+		final List<QueryFilter> filters = new ArrayList<>(2);
+		expression.getFilter().ifPresent(f -> filters.add(f));
+		continuation.flatMap(t -> KeysetPagination.getFilter(context, expression.getSort().orElse(null), t))
+				.ifPresent(f -> filters.add(f));
+		QueryFilter.allOf(filters).ifPresent(f -> {
 			builder.filter(context.resolveOrFail(f, BsonFilterExpression.class));
 		});
 
 		// sort
-		expression.getSort().ifPresent(s -> {
+		final Optional<QuerySort> sort = continuation.isPresent()
+				? Optional.of(KeysetPagination.getSort(context, expression.getSort().orElse(null)))
+				: expression.getSort();
+		sort.ifPresent(s -> {
 			builder.sort(context.resolveOrFail(s, BsonExpression.class).getValue());
 		});
 
@@ -146,6 +166,18 @@ public enum QueryConfigurationResolver implements MongoExpressionResolver<QueryC
 		expression.getParameter(ReadOperationConfiguration.QUERY_SHOW_RECORD_ID).ifPresent(p -> {
 			builder.showRecordId(p);
 		});
+		expression.getParameter(ReadOperationConfiguration.QUERY_DECODING_PARALLELISM).ifPresent(p -> {
+			builder.decodingParallelism(p);
+		});
+		expression.getParameter(ReadOperationConfiguration.QUERY_COUNT_STRATEGY).ifPresent(p -> {
+			builder.countStrategy(p);
+		});
+
+		// first result only
+		if (expression.getParameter(ReadOperationConfiguration.QUERY_FIRST_RESULT, Boolean.FALSE)) {
+			builder.limit(1);
+			builder.batchSize(1);
+		}
 
 		// resolved
 		return Optional.of(builder.build());
@@ -31,6 +31,7 @@ import org.bson.types.Binary;
 import org.bson.types.Decimal128;
 
 import com.holonplatform.core.Expression.InvalidExpressionException;
+import com.holonplatform.core.TypedExpression;
 import com.holonplatform.core.internal.utils.CalendarUtils;
 import com.holonplatform.core.temporal.TemporalType;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
@@ -66,23 +67,18 @@ public enum ValueResolver implements MongoExpressionResolver<Value, FieldValue>
 
 		final Value<Object> exp = expression;
 
-		// check converter
-		final Object value = exp.getExpression().flatMap(e -> e.isConverterExpression())
-				.map(ce -> ce.getModelValue(exp.getValue())).orElse(exp.getValue());
+		// value expression
+		final TypedExpression<Object> valueExpression = exp.getExpression().orElse(null);
 
 		// Enum codec strategy
 		final EnumCodecStrategy strategy = exp.getEnumCodecStrategy().orElse(context.getDefaultEnumCodecStrategy());
 
-		// Temporal type
-		TemporalType temporalType = exp.getExpression().flatMap(e -> e.getTemporalType()).orElse(null);
-
 		// check type conversion
 		try {
-			Object encoded = exp.getExpression().filter(p -> DocumentIdHelper.isDefaultDocumentIdProperty(context, p))
-					.map(p -> (Object) context.getDocumentIdResolver().encode(value))
-					.orElse(checkType(strategy, temporalType, value));
+			Object encoded = encode(context, valueExpression, exp.getValue(), strategy, valueExpression != null
+					&& DocumentIdHelper.isDefaultDocumentIdProperty(context, valueExpression));
 
-			return Optional.of(FieldValue.create(encoded, exp.getExpression().orElse(null), strategy));
+			return Optional.of(FieldValue.create(encoded, valueExpression, strategy));
 		} catch (InvalidExpressionException e) {
 			throw e;
 		} catch (Exception e) {
@@ -90,6 +86,29 @@ public enum ValueResolver implements MongoExpressionResolver<Value, FieldValue>
 		}
 	}
 
+	/**
+	 * Encode given value.
+	 * @param context Resolution context
+	 * @param expression Optional value expression
+	 * @param value The value to encode
+	 * @param strategy Enum codec strategy
+	 * @param documentId Whether the value expression acts as the default document id property
+	 * @return Encoded value
+	 */
+	static Object encode(MongoResolutionContext<?> context, TypedExpression<Object> expression, Object value,
+			EnumCodecStrategy strategy, boolean documentId) {
+		// check converter
+		final Object modelValue = (expression == null) ? value
+				: expression.isConverterExpression().map(ce -> ce.getModelValue(value)).orElse(value);
+		// check document id
+		if (documentId) {
+			return context.getDocumentIdResolver().encode(modelValue);
+		}
+		// check type conversion
+		return checkType(strategy, (expression == null) ? null : expression.getTemporalType().orElse(null),
+				modelValue);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see com.holonplatform.core.ExpressionResolver#getExpressionType()
@@ -1,65 +0,0 @@
-/*
- * Copyright 2016-2018 Axioma srl.
- * 
- * Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- * 
- * http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-package com.holonplatform.datastore.mongo.core.internal.support;
-
-import org.bson.Document;
-
-/**
- * Default {@link IdUpdateDocument} implementation.
- *
- * @since 5.2.0
- */
-public class DefaultIdUpdateDocument implements IdUpdateDocument {
-
-	private final String fieldName;
-	private final Class<?> fieldType;
-	private final Document document;
-
-	public DefaultIdUpdateDocument(String fieldName, Class<?> fieldType, Document document) {
-		super();
-		this.fieldName = fieldName;
-		this.fieldType = fieldType;
-		this.document = document;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * @see com.holonplatform.datastore.mongo.core.internal.support.IdUpdateDocument#getFieldName()
-	 */
-	@Override
-	public String getFieldName() {
-		return fieldName;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * @see com.holonplatform.datastore.mongo.core.internal.support.IdUpdateDocument#getFieldType()
-	 */
-	@Override
-	public Class<?> getFieldType() {
-		return fieldType;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * @see com.holonplatform.datastore.mongo.core.internal.support.IdUpdateDocument#getUpdateDocument()
-	 */
-	@Override
-	public Document getUpdateDocument() {
-		return document;
-	}
-
-}
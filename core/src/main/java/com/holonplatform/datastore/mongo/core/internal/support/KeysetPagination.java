@@ -0,0 +1,206 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.holonplatform.core.Expression.InvalidExpressionException;
+import com.holonplatform.core.Path;
+import com.holonplatform.core.internal.utils.TypeUtils;
+import com.holonplatform.core.query.QueryFilter;
+import com.holonplatform.core.query.QuerySort;
+import com.holonplatform.core.query.QuerySort.CompositeQuerySort;
+import com.holonplatform.core.query.QuerySort.PathQuerySort;
+import com.holonplatform.core.query.QuerySort.SortDirection;
+import com.holonplatform.datastore.mongo.core.ContinuationToken;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.FieldName;
+import com.holonplatform.datastore.mongo.core.expression.FieldValue;
+import com.holonplatform.datastore.mongo.core.expression.Value;
+
+/**
+ * Keyset pagination support, used to translate a {@link ContinuationToken} into a query range filter.
+ * <p>
+ * Given the sort paths <code>k1..kn</code> and the last row values <code>v1..vn</code>, the range filter is the
+ * disjunction, for each <code>i</code>, of <code>k1 = v1 and ... and k(i-1) = v(i-1) and ki &gt; vi</code> (or
+ * <code>&lt;</code> for descending sorts). The document id is always used as the last, ascending, sort key to break
+ * the ties. Since <code>null</code> values are sorted first, the <code>null</code> values are explicitly handled.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public final class KeysetPagination {
+
+	/**
+	 * Document id path, used as tie-breaker
+	 */
+	private static final Path<Object> DOCUMENT_ID = Path.of(MongoDocumentContext.ID_FIELD_NAME, Object.class);
+
+	private KeysetPagination() {
+	}
+
+	/**
+	 * Get the sort paths of given query sort.
+	 * @param sort The query sort, may be <code>null</code>
+	 * @return The sort paths, in the sort order
+	 * @throws IllegalArgumentException If the query sort is not path based
+	 */
+	public static List<PathQuerySort<?>> getSortPaths(QuerySort sort) {
+		if (sort == null) {
+			return Collections.emptyList();
+		}
+		final List<PathQuerySort<?>> paths = new ArrayList<>();
+		collectSortPaths(sort, paths);
+		return paths;
+	}
+
+	private static void collectSortPaths(QuerySort sort, List<PathQuerySort<?>> paths) {
+		if (sort instanceof PathQuerySort) {
+			paths.add((PathQuerySort<?>) sort);
+		} else if (sort instanceof CompositeQuerySort) {
+			for (QuerySort s : ((CompositeQuerySort) sort).getComposition()) {
+				collectSortPaths(s, paths);
+			}
+		} else {
+			throw new IllegalArgumentException("Keyset pagination supports only path based query sorts, got ["
+					+ sort.getClass().getName() + "]");
+		}
+	}
+
+	/**
+	 * Get the query sort to use with keyset pagination, which includes the document id as tie-breaker.
+	 * @param context Resolution context
+	 * @param sort The query sort, may be <code>null</code>
+	 * @return The keyset pagination query sort
+	 * @throws InvalidExpressionException If the query sort is not path based
+	 */
+	public static QuerySort getSort(MongoResolutionContext<?> context, QuerySort sort)
+			throws InvalidExpressionException {
+		if (sort == null) {
+			return QuerySort.asc(DOCUMENT_ID);
+		}
+		return hasDocumentIdPath(context, getKeys(sort)) ? sort : sort.and(QuerySort.asc(DOCUMENT_ID));
+	}
+
+	/**
+	 * Get the range filter which selects the rows which follow the last row represented by given token.
+	 * @param context Resolution context
+	 * @param sort The query sort, may be <code>null</code>
+	 * @param token The continuation token
+	 * @return The range filter, empty for the first page token
+	 * @throws InvalidExpressionException If the token does not match the query sort
+	 */
+	@SuppressWarnings("unchecked")
+	public static Optional<QueryFilter> getFilter(MongoResolutionContext<?> context, QuerySort sort,
+			ContinuationToken token) throws InvalidExpressionException {
+		if (token.isFirst()) {
+			return Optional.empty();
+		}
+		final List<PathQuerySort<?>> keys = (sort == null) ? Collections.emptyList() : getKeys(sort);
+
+		// check token values
+		final Map<String, Object> tokenValues = token.getValues();
+		if (tokenValues.size() != keys.size()) {
+			throw new InvalidExpressionException("The continuation token does not match the query sort");
+		}
+		final List<Path<Object>> paths = new ArrayList<>(keys.size() + 1);
+		final List<SortDirection> directions = new ArrayList<>(keys.size() + 1);
+		final List<Object> values = new ArrayList<>(keys.size() + 1);
+		final Iterator<Map.Entry<String, Object>> entries = tokenValues.entrySet().iterator();
+		for (PathQuerySort<?> key : keys) {
+			final Map.Entry<String, Object> entry = entries.next();
+			if (!entry.getKey().equals(key.getPath().relativeName())) {
+				throw new InvalidExpressionException("The continuation token does not match the query sort: expected ["
+						+ key.getPath().relativeName() + "], got [" + entry.getKey() + "]");
+			}
+			paths.add((Path<Object>) key.getPath());
+			directions.add(key.getDirection());
+			values.add(decode(context, (Path<Object>) key.getPath(), entry.getValue()));
+		}
+		// tie-breaker
+		if (!hasDocumentIdPath(context, keys)) {
+			paths.add(DOCUMENT_ID);
+			directions.add(SortDirection.ASCENDING);
+			values.add(token.getDocumentId().orElseThrow(
+					() -> new InvalidExpressionException("The continuation token does not provide a document id")));
+		}
+
+		// build range filter
+		final List<QueryFilter> disjunction = new ArrayList<>(paths.size());
+		for (int i = 0; i < paths.size(); i++) {
+			final List<QueryFilter> conjunction = new ArrayList<>(i + 1);
+			for (int j = 0; j < i; j++) {
+				conjunction.add(equal(paths.get(j), values.get(j)));
+			}
+			final Optional<QueryFilter> following = following(paths.get(i), directions.get(i), values.get(i));
+			if (following.isPresent()) {
+				conjunction.add(following.get());
+				QueryFilter.allOf(conjunction).ifPresent(f -> disjunction.add(f));
+			}
+		}
+		if (disjunction.isEmpty()) {
+			throw new InvalidExpressionException("The continuation token does not select any row");
+		}
+		return QueryFilter.anyOf(disjunction);
+	}
+
+	private static List<PathQuerySort<?>> getKeys(QuerySort sort) throws InvalidExpressionException {
+		try {
+			return getSortPaths(sort);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidExpressionException(e.getMessage(), e);
+		}
+	}
+
+	private static boolean hasDocumentIdPath(MongoResolutionContext<?> context, List<PathQuerySort<?>> keys) {
+		for (PathQuerySort<?> key : keys) {
+			if (MongoDocumentContext.ID_FIELD_NAME
+					.equals(context.resolveOrFail(key.getPath(), FieldName.class).getFieldName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Object decode(MongoResolutionContext<?> context, Path<Object> path, Object value) {
+		// values decoded from an encoded token are expressed using the BSON types
+		if (value == null || TypeUtils.isAssignable(value.getClass(), path.getType())) {
+			return value;
+		}
+		return context.resolveOrFail(FieldValue.create(value, path), Value.class).getValue();
+	}
+
+	private static QueryFilter equal(Path<Object> path, Object value) {
+		return (value == null) ? QueryFilter.isNull(path) : QueryFilter.eq(path, value);
+	}
+
+	private static Optional<QueryFilter> following(Path<Object> path, SortDirection direction, Object value) {
+		if (direction == SortDirection.DESCENDING) {
+			// null values are sorted last
+			return (value == null) ? Optional.empty()
+					: QueryFilter.anyOf(QueryFilter.lt(path, value), QueryFilter.isNull(path));
+		}
+		// null values are sorted first
+		return Optional.of((value == null) ? QueryFilter.isNotNull(path) : QueryFilter.gt(path, value));
+	}
+
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.internal.support;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.Document;
+
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.context.MongoContext;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
+import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
+import com.holonplatform.datastore.mongo.core.internal.context.DefaultMongoResolutionContext;
+
+/**
+ * Registry of the {@link PropertyBox} value snapshots, used to perform delta updates.
+ * <p>
+ * A snapshot is the update document of a value, i.e. its <code>$set</code> and <code>$unset</code> representation,
+ * at the time it was decoded from or last written to a collection. Each datastore owns its own registry, and a
+ * snapshot is bound to the collection it refers to, so it is never used to update a document of another collection.
+ * The values are weakly referenced by identity, so a snapshot is discarded as soon as its value is no longer in use.
+ * </p>
+ * <p>
+ * Within a client session the value state may never be committed, so any snapshot of a value read or written using a
+ * session is discarded instead of being recorded.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public final class PropertyBoxSnapshots {
+
+	private static final String SET = "$set";
+	private static final String UNSET = "$unset";
+	private static final String SET_ON_INSERT = "$setOnInsert";
+
+	private final ReferenceQueue<PropertyBox> queue = new ReferenceQueue<>();
+
+	private final Map<ValueKey, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+	/**
+	 * Get the snapshot of given value, bound to given collection.
+	 * @param collectionName The collection name (not null)
+	 * @param value The value (not null)
+	 * @return Optional value snapshot
+	 */
+	public Optional<Document> get(String collectionName, PropertyBox value) {
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		ObjectUtils.argumentNotNull(value, "Value must be not null");
+		purge();
+		final Snapshot snapshot = snapshots.get(new ValueKey(value, null));
+		return (snapshot != null && snapshot.collectionName.equals(collectionName))
+				? Optional.of(snapshot.document)
+				: Optional.empty();
+	}
+
+	/**
+	 * Set given update document as the snapshot of given value, bound to given collection.
+	 * @param collectionName The collection name (not null)
+	 * @param value The value (not null)
+	 * @param document The value update document (not null)
+	 */
+	public void put(String collectionName, PropertyBox value, Document document) {
+		ObjectUtils.argumentNotNull(collectionName, "Collection name must be not null");
+		ObjectUtils.argumentNotNull(value, "Value must be not null");
+		ObjectUtils.argumentNotNull(document, "Document must be not null");
+		purge();
+		snapshots.put(new ValueKey(value, queue), new Snapshot(collectionName, (Document) copy(document)));
+	}
+
+	/**
+	 * Discard the snapshot of given value, if any.
+	 * @param value The value (not null)
+	 */
+	public void remove(PropertyBox value) {
+		ObjectUtils.argumentNotNull(value, "Value must be not null");
+		purge();
+		snapshots.remove(new ValueKey(value, null));
+	}
+
+	/**
+	 * Get the snapshots registry to use with given context, if snapshot tracking is enabled.
+	 * @param context Mongo context (not null)
+	 * @return Optional snapshots registry
+	 */
+	public static Optional<PropertyBoxSnapshots> getSnapshots(MongoContext<?> context) {
+		ObjectUtils.argumentNotNull(context, "Context must be not null");
+		if (context.isSnapshotTrackingEnabled() && context instanceof PropertyBoxSnapshotsProvider) {
+			return ((PropertyBoxSnapshotsProvider) context).getPropertyBoxSnapshots();
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Record the snapshot of given value, if snapshot tracking is enabled for given context.
+	 * @param context Mongo context (not null)
+	 * @param value The value (not null)
+	 */
+	public static void track(MongoContext<?> context, PropertyBox value) {
+		track(context, value, null);
+	}
+
+	/**
+	 * Record given update document as the snapshot of given value, if snapshot tracking is enabled for given context.
+	 * <p>
+	 * The snapshot is bound to the collection resolved by given context. If the collection is not known or a client
+	 * session is active, any previous snapshot of the value is discarded.
+	 * </p>
+	 * @param context Mongo context (not null)
+	 * @param value The value (not null)
+	 * @param document The value update document, <code>null</code> to encode the value
+	 */
+	public static void track(MongoContext<?> context, PropertyBox value, Document document) {
+		getSnapshots(context).ifPresent(snapshots -> {
+			final Optional<String> collectionName = getCollectionName(context);
+			if (!collectionName.isPresent() || context.getClientSession().isPresent()) {
+				snapshots.remove(value);
+			} else {
+				snapshots.put(collectionName.get(), value, (document != null) ? document : encode(context, value));
+			}
+		});
+	}
+
+	/**
+	 * Get the snapshot of given value, bound to the collection resolved by given context.
+	 * @param context Mongo context (not null)
+	 * @param value The value (not null)
+	 * @return Optional value snapshot
+	 */
+	public static Optional<Document> get(MongoContext<?> context, PropertyBox value) {
+		return getSnapshots(context)
+				.flatMap(snapshots -> getCollectionName(context).flatMap(c -> snapshots.get(c, value)));
+	}
+
+	private static Optional<String> getCollectionName(MongoContext<?> context) {
+		if (context instanceof DefaultMongoResolutionContext) {
+			return ((DefaultMongoResolutionContext<?>) context).getTargetCollectionName();
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Encode given value into its update document.
+	 * @param context Mongo context (not null)
+	 * @param value The value to encode (not null)
+	 * @return The value update document
+	 */
+	public static Document encode(MongoContext<?> context, PropertyBox value) {
+		return MongoDocumentContext.createForUpdate(context, value)
+				.resolveOrFail(PropertyBoxValue.create(value), DocumentValue.class).getValue();
+	}
+
+	/**
+	 * Compute the delta between two update documents.
+	 * <p>
+	 * The delta contains the <code>$set</code> paths whose value is missing or different in the original document
+	 * and the <code>$unset</code> paths which are not unset in the original document. When <code>upsert</code> is
+	 * <code>true</code>, the unchanged <code>$set</code> paths are included using the <code>$setOnInsert</code>
+	 * operator.
+	 * </p>
+	 * @param document The update document of the current value (not null)
+	 * @param original The update document of the original value (not null)
+	 * @param upsert Whether the update is an upsert
+	 * @return The delta update document, empty if there is nothing to update
+	 */
+	public static Document delta(Document document, Document original, boolean upsert) {
+		final Map<String, Object> set = getOperator(document, SET);
+		final Map<String, Object> unset = getOperator(document, UNSET);
+		final Map<String, Object> originalSet = getOperator(original, SET);
+		final Map<String, Object> originalUnset = getOperator(original, UNSET);
+
+		final Document deltaSet = new Document();
+		final Document deltaUnset = new Document();
+		final Document deltaSetOnInsert = new Document();
+
+		for (Entry<String, Object> entry : set.entrySet()) {
+			if (!originalSet.containsKey(entry.getKey())
+					|| !Objects.deepEquals(entry.getValue(), originalSet.get(entry.getKey()))) {
+				deltaSet.put(entry.getKey(), entry.getValue());
+			} else if (upsert) {
+				deltaSetOnInsert.put(entry.getKey(), entry.getValue());
+			}
+		}
+		for (Entry<String, Object> entry : unset.entrySet()) {
+			if (!originalUnset.containsKey(entry.getKey())) {
+				deltaUnset.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		final Document delta = new Document();
+		if (!deltaSet.isEmpty()) {
+			delta.append(SET, deltaSet);
+		}
+		if (!deltaUnset.isEmpty()) {
+			delta.append(UNSET, deltaUnset);
+		}
+		if (!deltaSetOnInsert.isEmpty()) {
+			delta.append(SET_ON_INSERT, deltaSetOnInsert);
+		}
+		return delta;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getOperator(Document document, String operator) {
+		final Object value = document.get(operator);
+		return (value instanceof Map) ? (Map<String, Object>) value : Collections.emptyMap();
+	}
+
+	/**
+	 * Deep copy the mutable structures of given value, so that a snapshot is not affected by the changes of the
+	 * current value.
+	 * @param value The value to copy
+	 * @return The copied value
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object copy(Object value) {
+		if (value instanceof Map) {
+			final Map<String, Object> map = (Map<String, Object>) value;
+			final Map<String, Object> copy = (value instanceof Document) ? new Document()
+					: new LinkedHashMap<>(map.size());
+			map.forEach((k, v) -> copy.put(k, copy(v)));
+			return copy;
+		}
+		if (value instanceof Collection) {
+			final Collection<Object> collection = (Collection<Object>) value;
+			final Collection<Object> copy = (value instanceof Set) ? new LinkedHashSet<>(collection.size())
+					: new ArrayList<>(collection.size());
+			collection.forEach(v -> copy.add(copy(v)));
+			return copy;
+		}
+		if (value instanceof byte[]) {
+			return ((byte[]) value).clone();
+		}
+		return value;
+	}
+
+	/**
+	 * Remove the snapshots of the values which are no longer in use.
+	 */
+	private void purge() {
+		Reference<? extends PropertyBox> reference;
+		while ((reference = queue.poll()) != null) {
+			snapshots.remove(reference);
+		}
+	}
+
+	/**
+	 * A value snapshot, bound to a collection.
+	 */
+	private static final class Snapshot {
+
+		final String collectionName;
+		final Document document;
+
+		Snapshot(String collectionName, Document document) {
+			super();
+			this.collectionName = collectionName;
+			this.document = document;
+		}
+
+	}
+
+	/**
+	 * A weak, identity based, value key.
+	 */
+	private static final class ValueKey extends WeakReference<PropertyBox> {
+
+		private final int hash;
+
+		ValueKey(PropertyBox value, ReferenceQueue<PropertyBox> queue) {
+			super(value, queue);
+			this.hash = System.identityHashCode(value);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ValueKey)) {
+				return false;
+			}
+			final PropertyBox value = get();
+			return value != null && value == ((ValueKey) obj).get();
+		}
+
+	}
+
+}
@@ -15,35 +15,19 @@
  */
 package com.holonplatform.datastore.mongo.core.internal.support;
 
-import org.bson.Document;
+import java.util.Optional;
 
 /**
- * Field name and Document which can be used to update an id property field.
+ * Internal interface for the objects which provide a {@link PropertyBoxSnapshots} registry.
  *
- * @since 5.2.0
+ * @since 6.0.1
  */
-public interface IdUpdateDocument {
+public interface PropertyBoxSnapshotsProvider {
 
 	/**
-	 * Get the identifier field name.
-	 * @return Field name
+	 * Get the {@link PropertyBoxSnapshots} registry, if available.
+	 * @return Optional snapshots registry
 	 */
-	String getFieldName();
-
-	/**
-	 * Get the identifier field type.
-	 * @return Field type
-	 */
-	Class<?> getFieldType();
-
-	/**
-	 * Get the update document.
-	 * @return Update document
-	 */
-	Document getUpdateDocument();
-
-	static IdUpdateDocument create(String fieldName, Class<?> fieldType, Document document) {
-		return new DefaultIdUpdateDocument(fieldName, fieldType, document);
-	}
+	Optional<PropertyBoxSnapshots> getPropertyBoxSnapshots();
 
 }
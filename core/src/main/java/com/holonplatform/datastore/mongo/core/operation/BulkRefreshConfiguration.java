@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import java.util.List;
+
+import com.holonplatform.core.datastore.operation.commons.DatastoreOperationConfiguration;
+import com.holonplatform.core.property.PropertyBox;
+
+/**
+ * {@link BulkRefreshOperation} configuration.
+ *
+ * @since 6.0.1
+ */
+public interface BulkRefreshConfiguration extends DatastoreOperationConfiguration {
+
+	/**
+	 * Get the values to refresh, in the same order in which they were added.
+	 * @return The values to refresh, an empty list if none
+	 */
+	List<PropertyBox> getValues();
+
+	/**
+	 * Get the maximum number of document ids of each <code>$in</code> query.
+	 * @return The chunk size
+	 */
+	int getChunkSize();
+
+}
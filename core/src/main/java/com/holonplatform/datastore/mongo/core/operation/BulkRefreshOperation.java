@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import java.util.Arrays;
+
+import com.holonplatform.core.datastore.operation.commons.DatastoreOperation;
+import com.holonplatform.core.property.PropertyBox;
+
+/**
+ * A bulk refresh operation: each {@link PropertyBox} value is reloaded from the operation target collection using its
+ * document id.
+ * <p>
+ * The document ids of the values are collected and the documents are read using <code>$in</code> queries of at most
+ * {@link #chunkSize(int)} ids. The refreshed values are provided in the same order in which the values were added,
+ * and a value whose document is not found is reported as such in the {@link BulkRefreshResult}, without failing the
+ * whole operation.
+ * </p>
+ * 
+ * @param <O> Actual operation type
+ *
+ * @since 6.0.1
+ */
+public interface BulkRefreshOperation<O extends BulkRefreshOperation<O>>
+		extends DatastoreOperation<O, BulkRefreshConfiguration> {
+
+	/**
+	 * Default maximum number of document ids of each <code>$in</code> query.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	/**
+	 * Add a value to refresh.
+	 * @param value The value to refresh (not null)
+	 * @return this
+	 */
+	O add(PropertyBox value);
+
+	/**
+	 * Add the values to refresh.
+	 * @param values The values to refresh (not null)
+	 * @return this
+	 */
+	O add(Iterable<? extends PropertyBox> values);
+
+	/**
+	 * Add the values to refresh.
+	 * @param values The values to refresh (not null)
+	 * @return this
+	 */
+	default O add(PropertyBox... values) {
+		return add(Arrays.asList(values));
+	}
+
+	/**
+	 * Set the maximum number of document ids of each <code>$in</code> query. Default is {@link #DEFAULT_CHUNK_SIZE}.
+	 * @param chunkSize The chunk size (must be greater than 0)
+	 * @return this
+	 */
+	O chunkSize(int chunkSize);
+
+}
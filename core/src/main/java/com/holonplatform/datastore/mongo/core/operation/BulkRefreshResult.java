@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.holonplatform.core.property.PropertyBox;
+
+/**
+ * The result of a {@link BulkRefreshOperation}.
+ *
+ * @since 6.0.1
+ */
+public interface BulkRefreshResult {
+
+	/**
+	 * Get the refreshed values, in the same order of the values to refresh. An empty {@link Optional} is provided for
+	 * each value whose document was not found.
+	 * @return The refreshed values, an empty list if none
+	 */
+	List<Optional<PropertyBox>> getValues();
+
+	/**
+	 * Get the refreshed value at given position.
+	 * @param index The position of the value in the values to refresh
+	 * @return The refreshed value, empty if the document was not found
+	 * @throws IndexOutOfBoundsException If the index is out of range
+	 */
+	default Optional<PropertyBox> getValue(int index) {
+		return getValues().get(index);
+	}
+
+	/**
+	 * Get the values to refresh whose document was not found, in the same order of the values to refresh.
+	 * @return The values not found, an empty list if all the documents were found
+	 */
+	List<PropertyBox> getNotFound();
+
+	/**
+	 * Get the number of refreshed values, i.e. the number of values whose document was found.
+	 * @return The refreshed values count
+	 */
+	default int getRefreshedCount() {
+		return getValues().size() - getNotFound().size();
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import java.util.Arrays;
+
+import com.holonplatform.core.datastore.operation.commons.DatastoreOperation;
+import com.holonplatform.core.property.PropertyBox;
+
+/**
+ * A bulk save operation: each {@link PropertyBox} value is updated, or inserted if not existing, when it provides a
+ * document id, and inserted otherwise.
+ * <p>
+ * The values are partitioned into the inserts of the values without a document id and the upserts of the values with
+ * a document id, and each partition is sent to the operation target collection using <code>bulkWrite</code> commands
+ * of at most {@link #chunkSize(int)} operations. Since the inserted values cannot match any existing document, the
+ * partitioning does not change the operation outcome.
+ * </p>
+ * 
+ * @param <O> Actual operation type
+ *
+ * @since 6.0.1
+ */
+public interface BulkSaveOperation<O extends BulkSaveOperation<O>>
+		extends DatastoreOperation<O, BulkSaveConfiguration> {
+
+	/**
+	 * Default maximum number of operations of each <code>bulkWrite</code> command.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	/**
+	 * Add a value to save.
+	 * @param value The value to save (not null)
+	 * @return this
+	 */
+	O add(PropertyBox value);
+
+	/**
+	 * Add the values to save.
+	 * @param values The values to save (not null)
+	 * @return this
+	 */
+	O add(Iterable<? extends PropertyBox> values);
+
+	/**
+	 * Add the values to save.
+	 * @param values The values to save (not null)
+	 * @return this
+	 */
+	default O add(PropertyBox... values) {
+		return add(Arrays.asList(values));
+	}
+
+	/**
+	 * Set the maximum number of operations of each <code>bulkWrite</code> command. Default is
+	 * {@link #DEFAULT_CHUNK_SIZE}.
+	 * @param chunkSize The chunk size (must be greater than 0)
+	 * @return this
+	 */
+	O chunkSize(int chunkSize);
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import java.util.List;
+
+import com.holonplatform.core.datastore.operation.commons.DatastoreOperationConfiguration;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.internal.operation.DefaultBulkWriteValue;
+
+/**
+ * {@link BulkWriteOperation} configuration.
+ *
+ * @since 6.0.1
+ */
+public interface BulkWriteConfiguration extends DatastoreOperationConfiguration {
+
+	/**
+	 * Get the write operations, in the same order in which they were added.
+	 * @return The write operations, an empty list if none
+	 */
+	List<WriteValue> getValues();
+
+	/**
+	 * Bulk write operation type.
+	 */
+	public enum WriteType {
+
+		/**
+		 * Insert
+		 */
+		INSERT,
+
+		/**
+		 * Update
+		 */
+		UPDATE,
+
+		/**
+		 * Save (update or insert)
+		 */
+		SAVE,
+
+		/**
+		 * Delete
+		 */
+		DELETE;
+
+	}
+
+	/**
+	 * A {@link PropertyBox} value bound to a bulk write operation type.
+	 */
+	public interface WriteValue {
+
+		/**
+		 * Get the write operation type.
+		 * @return The write operation type
+		 */
+		WriteType getWriteType();
+
+		/**
+		 * Get the value.
+		 * @return The value
+		 */
+		PropertyBox getValue();
+
+		/**
+		 * Create a new {@link WriteValue}.
+		 * @param writeType The write operation type (not null)
+		 * @param value The value (not null)
+		 * @return A new {@link WriteValue}
+		 */
+		static WriteValue create(WriteType writeType, PropertyBox value) {
+			return new DefaultBulkWriteValue(writeType, value);
+		}
+
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import com.holonplatform.core.datastore.operation.commons.DatastoreOperation;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.DocumentWriteOption;
+
+/**
+ * A bulk write operation, which collects a sequence of insert, update, save and delete operations on
+ * {@link PropertyBox} values and executes them against the operation target collection using a single
+ * <code>bulkWrite</code> command.
+ * <p>
+ * Supported write options are {@link DocumentWriteOption#UNORDERED}, to perform an unordered bulk write,
+ * {@link DocumentWriteOption#BYPASS_VALIDATION} and
+ * {@link com.holonplatform.core.datastore.DefaultWriteOption#BRING_BACK_GENERATED_IDS}.
+ * </p>
+ * 
+ * @param <O> Actual operation type
+ *
+ * @since 6.0.1
+ */
+public interface BulkWriteOperation<O extends BulkWriteOperation<O>>
+		extends DatastoreOperation<O, BulkWriteConfiguration> {
+
+	/**
+	 * Add an insert operation.
+	 * @param value The value to insert (not null)
+	 * @return this
+	 */
+	O insert(PropertyBox value);
+
+	/**
+	 * Add an update operation. The value must provide the document id.
+	 * @param value The value to update (not null)
+	 * @return this
+	 */
+	O update(PropertyBox value);
+
+	/**
+	 * Add a save operation: the value is updated if its document id is available, inserted otherwise.
+	 * @param value The value to save (not null)
+	 * @return this
+	 */
+	O save(PropertyBox value);
+
+	/**
+	 * Add a delete operation. The value must provide the document id.
+	 * @param value The value to delete (not null)
+	 * @return this
+	 */
+	O delete(PropertyBox value);
+
+}
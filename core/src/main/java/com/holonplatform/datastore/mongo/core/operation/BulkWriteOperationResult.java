@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import java.util.List;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+
+/**
+ * The result of a {@link BulkWriteOperation}.
+ * <p>
+ * The affected count is the total number of inserted, upserted, modified and deleted documents. Since a bulk write may
+ * insert more than one document, the inserted keys are only available from the results of the single write operations,
+ * see {@link #getOperationResults()}.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface BulkWriteOperationResult extends OperationResult {
+
+	/**
+	 * The affected count of a single write operation result when it cannot be determined.
+	 */
+	public static final long UNKNOWN_AFFECTED_COUNT = -1L;
+
+	/**
+	 * Get the number of inserted documents, not including the upserted ones.
+	 * @return The inserted count
+	 */
+	long getInsertedCount();
+
+	/**
+	 * Get the number of documents inserted by save operations.
+	 * @return The upserted count
+	 */
+	long getUpsertedCount();
+
+	/**
+	 * Get the number of documents matched by update and save operations.
+	 * @return The matched count
+	 */
+	long getMatchedCount();
+
+	/**
+	 * Get the number of documents modified by update and save operations.
+	 * @return The modified count
+	 */
+	long getModifiedCount();
+
+	/**
+	 * Get the number of deleted documents.
+	 * @return The deleted count
+	 */
+	long getDeletedCount();
+
+	/**
+	 * Get the results of the single write operations, in the same order in which they were added.
+	 * <p>
+	 * Each result provides the actual operation type (a save operation is reported as an insert when the document was
+	 * upserted) and the inserted keys, if any. The MongoDB bulk write only reports aggregated counts for the update and
+	 * delete operations, so the affected count of each of them is known only when all or none of the operations of the
+	 * same type matched a document: it is <code>1</code> or <code>0</code> respectively, and
+	 * {@link #UNKNOWN_AFFECTED_COUNT} otherwise. An update is counted when it matches a document, even if the document
+	 * was not modified. Use the aggregated counts of this result to get the exact totals.
+	 * </p>
+	 * @return The single write operation results
+	 */
+	List<OperationResult> getOperationResults();
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.holonplatform.core.datastore.operation.commons.DatastoreOperationConfiguration;
+import com.holonplatform.core.property.PropertySet;
+
+/**
+ * {@link MultiGetOperation} configuration.
+ *
+ * @since 6.0.1
+ */
+public interface MultiGetConfiguration extends DatastoreOperationConfiguration {
+
+	/**
+	 * Get the operation property set.
+	 * @return The operation property set, which is required for the operation execution
+	 */
+	Optional<PropertySet<?>> getPropertySet();
+
+	/**
+	 * Get the document ids to read, in the same order in which they were added.
+	 * @return The document ids, an empty list if none
+	 */
+	List<Object> getIds();
+
+	/**
+	 * Get the maximum number of document ids of each <code>$in</code> query.
+	 * @return The chunk size
+	 */
+	int getChunkSize();
+
+	/**
+	 * Get the maximum number of queries executed concurrently.
+	 * @return The maximum concurrency
+	 */
+	int getMaxConcurrency();
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.holonplatform.core.datastore.operation.commons.DatastoreOperation;
+import com.holonplatform.core.property.Property;
+
+/**
+ * A multi-get operation: the documents of the operation target collection with the given document ids are read and
+ * decoded into {@link com.holonplatform.core.property.PropertyBox} values, using the operation property set.
+ * <p>
+ * The document ids are encoded using the {@link com.holonplatform.datastore.mongo.core.document.DocumentIdResolver}
+ * and read using <code>$in</code> queries of at most {@link #chunkSize(int)} ids, executing at most
+ * {@link #maxConcurrency(int)} queries concurrently. The operation result is a map keyed by the given ids, in the same
+ * order in which the ids were added, which does not contain the ids whose document was not found.
+ * </p>
+ * 
+ * @param <O> Actual operation type
+ *
+ * @since 6.0.1
+ */
+public interface MultiGetOperation<O extends MultiGetOperation<O>>
+		extends DatastoreOperation<O, MultiGetConfiguration> {
+
+	/**
+	 * Default maximum number of document ids of each <code>$in</code> query.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	/**
+	 * Default maximum number of queries executed concurrently.
+	 */
+	public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+	/**
+	 * Set the operation property set, i.e. the properties of the {@link com.holonplatform.core.property.PropertyBox}
+	 * values to read.
+	 * @param <P> Property type
+	 * @param properties The property set (not null)
+	 * @return this
+	 */
+	@SuppressWarnings("rawtypes")
+	<P extends Property> O propertySet(Iterable<P> properties);
+
+	/**
+	 * Set the operation property set, i.e. the properties of the {@link com.holonplatform.core.property.PropertyBox}
+	 * values to read.
+	 * @param <P> Property type
+	 * @param properties The property set (not null)
+	 * @return this
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	default <P extends Property> O propertySet(P... properties) {
+		return propertySet(Arrays.asList(properties));
+	}
+
+	/**
+	 * Add the document ids to read.
+	 * @param ids The document ids (not null)
+	 * @return this
+	 */
+	O ids(Collection<?> ids);
+
+	/**
+	 * Add the document ids to read.
+	 * @param ids The document ids (not null)
+	 * @return this
+	 */
+	default O ids(Object... ids) {
+		return ids(Arrays.asList(ids));
+	}
+
+	/**
+	 * Set the maximum number of document ids of each <code>$in</code> query. Default is {@link #DEFAULT_CHUNK_SIZE}.
+	 * @param chunkSize The chunk size (must be greater than 0)
+	 * @return this
+	 */
+	O chunkSize(int chunkSize);
+
+	/**
+	 * Set the maximum number of queries executed concurrently. Default is {@link #DEFAULT_MAX_CONCURRENCY}. When the
+	 * operation is executed within a transaction, the queries are executed one at a time.
+	 * @param maxConcurrency The maximum concurrency (must be greater than 0)
+	 * @return this
+	 */
+	O maxConcurrency(int maxConcurrency);
+
+}
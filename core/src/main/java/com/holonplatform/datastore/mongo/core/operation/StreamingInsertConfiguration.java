@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.holonplatform.core.datastore.operation.commons.DatastoreOperationConfiguration;
+import com.holonplatform.core.property.PropertySet;
+
+/**
+ * {@link StreamingInsertOperation} configuration.
+ *
+ * @since 6.0.1
+ */
+public interface StreamingInsertConfiguration extends DatastoreOperationConfiguration {
+
+	/**
+	 * Get the operation property set.
+	 * @return Optional operation property set
+	 */
+	Optional<PropertySet<?>> getPropertySet();
+
+	/**
+	 * Get the maximum number of documents of each batch.
+	 * @return The maximum batch size
+	 */
+	int getMaxBatchSize();
+
+	/**
+	 * Get the maximum accumulated BSON size of each batch, in bytes.
+	 * @return The maximum batch size in bytes
+	 */
+	int getMaxBatchBytes();
+
+	/**
+	 * Get the maximum number of batches which can be inserted concurrently.
+	 * @return The maximum number of batches in flight
+	 */
+	int getMaxBatchesInFlight();
+
+	/**
+	 * Get the callback to notify when a batch of documents has been inserted.
+	 * @return Optional progress callback
+	 */
+	Optional<Consumer<StreamingInsertProgress>> getProgressCallback();
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import com.holonplatform.core.datastore.operation.commons.DatastoreOperation;
+import com.holonplatform.core.property.Property;
+
+/**
+ * A streaming bulk insert operation, which consumes the {@link com.holonplatform.core.property.PropertyBox} values to
+ * insert from a source which is not required to be fully materialized.
+ * <p>
+ * The values are lazily encoded into documents and grouped into batches, each of them inserted using a single
+ * <code>insertMany</code> operation. A batch is closed when it reaches the {@link #maxBatchSize(int)} document count
+ * or when adding the next document would exceed the {@link #maxBatchBytes(int)} accumulated BSON size.
+ * </p>
+ * 
+ * @param <O> Actual operation type
+ *
+ * @since 6.0.1
+ */
+public interface StreamingInsertOperation<O extends StreamingInsertOperation<O>>
+		extends DatastoreOperation<O, StreamingInsertConfiguration> {
+
+	/**
+	 * Default maximum number of documents of each batch.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+	/**
+	 * Maximum accumulated BSON size of each batch, in bytes, which matches the MongoDB 48MB message size limit.
+	 */
+	public static final int MAX_BATCH_BYTES = 48000000;
+
+	/**
+	 * Default maximum number of batches which can be inserted concurrently.
+	 */
+	public static final int DEFAULT_MAX_BATCHES_IN_FLIGHT = 2;
+
+	/**
+	 * Set the operation property set, i.e. the properties of the {@link com.holonplatform.core.property.PropertyBox}
+	 * values to insert.
+	 * @param <P> Property type
+	 * @param properties The property set (not null)
+	 * @return this
+	 */
+	@SuppressWarnings("rawtypes")
+	<P extends Property> O propertySet(Iterable<P> properties);
+
+	/**
+	 * Set the operation property set, i.e. the properties of the {@link com.holonplatform.core.property.PropertyBox}
+	 * values to insert.
+	 * @param <P> Property type
+	 * @param properties The property set (not null)
+	 * @return this
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	default <P extends Property> O propertySet(P... properties) {
+		return propertySet(Arrays.asList(properties));
+	}
+
+	/**
+	 * Set the maximum number of documents of each batch. Default is {@link #DEFAULT_MAX_BATCH_SIZE}.
+	 * @param maxBatchSize The maximum batch size (must be greater than 0)
+	 * @return this
+	 */
+	O maxBatchSize(int maxBatchSize);
+
+	/**
+	 * Set the maximum accumulated BSON size of each batch, in bytes. Default and upper limit is
+	 * {@link #MAX_BATCH_BYTES}.
+	 * @param maxBatchBytes The maximum batch size in bytes (must be greater than 0, values greater than
+	 *        {@link #MAX_BATCH_BYTES} are reduced to that limit)
+	 * @return this
+	 */
+	O maxBatchBytes(int maxBatchBytes);
+
+	/**
+	 * Set the maximum number of batches which can be inserted concurrently, for the Datastore implementations which
+	 * support it. Default is {@link #DEFAULT_MAX_BATCHES_IN_FLIGHT}.
+	 * <p>
+	 * When the operation is executed within a transaction, the batches are always inserted one at a time.
+	 * </p>
+	 * @param maxBatchesInFlight The maximum number of batches in flight (must be greater than 0)
+	 * @return this
+	 */
+	O maxBatchesInFlight(int maxBatchesInFlight);
+
+	/**
+	 * Set a callback to be notified each time a batch of documents has been inserted.
+	 * <p>
+	 * When more than one batch can be in flight, the callback may be invoked concurrently and the batches may
+	 * complete out of order: use {@link StreamingInsertProgress#getBatchIndex()} to identify the batch.
+	 * </p>
+	 * @param callback The progress callback (not null)
+	 * @return this
+	 */
+	O onBatchInserted(Consumer<StreamingInsertProgress> callback);
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.operation;
+
+import com.holonplatform.datastore.mongo.core.internal.operation.DefaultStreamingInsertProgress;
+
+/**
+ * {@link StreamingInsertOperation} progress, notified each time a batch of documents has been inserted.
+ *
+ * @since 6.0.1
+ */
+public interface StreamingInsertProgress {
+
+	/**
+	 * Get the inserted batch index, starting from <code>0</code>.
+	 * @return The batch index
+	 */
+	long getBatchIndex();
+
+	/**
+	 * Get the number of documents of the inserted batch.
+	 * @return The batch document count
+	 */
+	int getBatchSize();
+
+	/**
+	 * Get the accumulated BSON size of the inserted batch, in bytes.
+	 * @return The batch size in bytes
+	 */
+	long getBatchBytes();
+
+	/**
+	 * Get the total number of documents inserted so far, including the inserted batch.
+	 * @return The total inserted document count
+	 */
+	long getInsertedCount();
+
+	/**
+	 * Create a new {@link StreamingInsertProgress}.
+	 * @param batchIndex The batch index
+	 * @param batchSize The batch document count
+	 * @param batchBytes The batch size in bytes
+	 * @param insertedCount The total inserted document count
+	 * @return A new {@link StreamingInsertProgress}
+	 */
+	static StreamingInsertProgress create(long batchIndex, int batchSize, long batchBytes, long insertedCount) {
+		return new DefaultStreamingInsertProgress(batchIndex, batchSize, batchBytes, insertedCount);
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.ExpressionResolver;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.document.DocumentConverter;
+import com.holonplatform.datastore.mongo.core.expression.FieldValue;
+import com.holonplatform.datastore.mongo.core.expression.Value;
+import com.holonplatform.datastore.mongo.core.internal.resolver.PropertySetDocumentCodec;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+import com.holonplatform.datastore.mongo.core.test.data.EnumValue;
+import com.holonplatform.datastore.mongo.core.test.data.TestBean;
+
+public class TestBeanDocumentConversion {
+
+	private static MongoResolutionContext<?> context;
+
+	private static MongoResolutionContext<?> chainContext;
+
+	@BeforeAll
+	public static void init() {
+		context = MongoResolutionContext.create(new MongoTestContext());
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+
+		chainContext = MongoResolutionContext.create(new MongoTestContext());
+		chainContext.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+		chainContext.addExpressionResolver(
+				ExpressionResolver.create(Value.class, FieldValue.class, (v, c) -> Optional.empty()));
+	}
+
+	@Test
+	public void testBeanConversion() {
+
+		assertTrue(PropertySetDocumentCodec.isEnabled(context));
+		assertFalse(PropertySetDocumentCodec.isEnabled(chainContext));
+
+		final DocumentConverter<TestBean> converter = DocumentConverter.bean(TestBean.class);
+
+		final ObjectId oid = new ObjectId();
+
+		final Document document = new Document("_id", oid).append("str", "test").append("num", 7)
+				.append("flag", true).append("enm", EnumValue.SECOND.name()).append("xxx", "unknown")
+				.append("nested", new Document("v1", "nv1").append("v2", 3));
+
+		for (int i = 0; i < 2; i++) {
+			final TestBean bean = converter.convert(context, document);
+			final TestBean chainBean = converter.convert(chainContext, document);
+			assertNotNull(bean);
+			assertNotNull(chainBean);
+
+			assertEquals(oid, bean.getId());
+			assertEquals("test", bean.getStr());
+			assertEquals(7, bean.getNum());
+			assertEquals(0L, bean.getLng());
+			assertTrue(bean.isFlag());
+			assertEquals(EnumValue.SECOND, bean.getEnm());
+			assertNotNull(bean.getNested());
+			assertEquals("nv1", bean.getNested().getV1());
+			assertEquals(Integer.valueOf(3), bean.getNested().getValue2());
+
+			assertEquals(chainBean.getId(), bean.getId());
+			assertEquals(chainBean.getStr(), bean.getStr());
+			assertEquals(chainBean.getNum(), bean.getNum());
+			assertEquals(chainBean.getLng(), bean.getLng());
+			assertEquals(chainBean.isFlag(), bean.isFlag());
+			assertEquals(chainBean.getEnm(), bean.getEnm());
+			assertEquals(chainBean.getNested().getV1(), bean.getNested().getV1());
+			assertEquals(chainBean.getNested().getValue2(), bean.getNested().getValue2());
+		}
+
+		// null values
+		final TestBean bean = converter.convert(context, new Document("num", null).append("str", null));
+		assertEquals(0, bean.getNum());
+		assertNull(bean.getStr());
+		assertNull(bean.getNested());
+
+		// null primitive values
+		final TestBean nulls = converter.convert(context,
+				new Document("shrt", null).append("chr", null).append("lng", null));
+		assertEquals((short) 0, nulls.getShrt());
+		assertEquals('\0', nulls.getChr());
+		assertEquals(0L, nulls.getLng());
+
+		// missing primitive values
+		for (MongoResolutionContext<?> ctx : new MongoResolutionContext<?>[] { context, chainContext }) {
+			final TestBean missing = converter.convert(ctx, new Document("str", "test"));
+			assertEquals((short) 0, missing.getShrt());
+			assertEquals('\0', missing.getChr());
+			assertEquals("test", missing.getStr());
+		}
+
+		assertNull(converter.convert(context, null));
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkRefreshRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.DefaultBulkRefreshDefinition;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshResult;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+import com.mongodb.MongoClientSettings;
+
+public class TestBulkRefresh {
+
+	private static final StringProperty ID = StringProperty.create("_id");
+	private static final StringProperty TEXT = StringProperty.create("text");
+	private static final PropertySet<?> SET = PropertySet.builderOf(ID, TEXT).withIdentifier(ID).build();
+
+	private static MongoResolutionContext<?> context;
+
+	@BeforeAll
+	public static void init() {
+		context = MongoResolutionContext.create(new MongoTestContext());
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+	}
+
+	@Test
+	public void testChunks() {
+		final DefaultBulkRefreshDefinition definition = new DefaultBulkRefreshDefinition();
+		assertThrows(IllegalArgumentException.class, () -> definition.setChunkSize(0));
+		definition.setChunkSize(2);
+
+		final ObjectId duplicate = new ObjectId();
+		definition.addValue(value(duplicate, "a"));
+		definition.addValue(value(new ObjectId(), "b"));
+		definition.addValue(value(duplicate, "c"));
+		definition.addValue(value(new ObjectId(), "d"));
+
+		// 3 distinct ids, in chunks of 2
+		final BulkRefreshRequest request = new BulkRefreshRequest(context, definition);
+		assertEquals(2, request.getChunkCount());
+		assertEquals(2, request.getChunkSize(0));
+		assertEquals(1, request.getChunkSize(1));
+
+		final BsonDocument filter = request.getFilter(0).toBsonDocument(BsonDocument.class,
+				MongoClientSettings.getDefaultCodecRegistry());
+		assertTrue(filter.getDocument("_id").containsKey("$in"));
+		assertEquals(duplicate, filter.getDocument("_id").getArray("$in").get(0).asObjectId().getValue());
+
+		assertEquals(0, new BulkRefreshRequest(context, new DefaultBulkRefreshDefinition()).getChunkCount());
+
+		// missing id
+		final DefaultBulkRefreshDefinition missing = new DefaultBulkRefreshDefinition();
+		missing.addValue(PropertyBox.builder(SET).set(TEXT, "x").build());
+		assertThrows(DataAccessException.class, () -> new BulkRefreshRequest(context, missing));
+	}
+
+	@Test
+	public void testResult() {
+		final ObjectId id1 = new ObjectId();
+		final ObjectId id2 = new ObjectId();
+		final ObjectId id3 = new ObjectId();
+
+		final DefaultBulkRefreshDefinition definition = new DefaultBulkRefreshDefinition();
+		definition.addValue(value(id1, "old1"));
+		definition.addValue(value(id2, "old2"));
+		definition.addValue(value(id3, "old3"));
+
+		final BulkRefreshRequest request = new BulkRefreshRequest(context, definition);
+		// returned in a different order, id2 missing
+		request.addDocument(new Document("_id", id3).append("text", "new3"));
+		request.addDocument(new Document("_id", id1).append("text", "new1"));
+
+		final BulkRefreshResult result = request.getResult();
+		assertEquals(3, result.getValues().size());
+		assertEquals(2, result.getRefreshedCount());
+
+		assertEquals("new1", result.getValue(0).map(v -> v.getValue(TEXT)).orElse(null));
+		assertEquals(id1.toHexString(), result.getValue(0).map(v -> v.getValue(ID)).orElse(null));
+		assertFalse(result.getValue(1).isPresent());
+		assertEquals("new3", result.getValue(2).map(v -> v.getValue(TEXT)).orElse(null));
+
+		assertEquals(1, result.getNotFound().size());
+		assertEquals("old2", result.getNotFound().get(0).getValue(TEXT));
+	}
+
+	private static PropertyBox value(ObjectId id, String text) {
+		return PropertyBox.builder(SET).set(ID, id.toHexString()).set(TEXT, text).build();
+	}
+
+}
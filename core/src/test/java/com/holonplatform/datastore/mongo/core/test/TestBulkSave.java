@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.Datastore.OperationType;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkSaveRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkWriteRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.DefaultBulkSaveDefinition;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+
+public class TestBulkSave {
+
+	private static final StringProperty CODE = StringProperty.create("code");
+	private static final StringProperty TEXT = StringProperty.create("text");
+	private static final PropertySet<?> SET = PropertySet.builderOf(CODE, TEXT).withIdentifier(CODE).build();
+
+	private static MongoResolutionContext<?> context;
+
+	@BeforeAll
+	public static void init() {
+		context = MongoResolutionContext.create(new MongoTestContext());
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+	}
+
+	@Test
+	public void testChunks() {
+
+		final DefaultBulkSaveDefinition definition = new DefaultBulkSaveDefinition();
+		assertThrows(IllegalArgumentException.class, () -> definition.setChunkSize(0));
+		definition.setChunkSize(2);
+		for (int i = 0; i < 3; i++) {
+			definition.addValue(PropertyBox.builder(SET).set(TEXT, "new" + i).build());
+			definition.addValue(
+					PropertyBox.builder(SET).set(CODE, new ObjectId().toHexString()).set(TEXT, "old" + i).build());
+		}
+
+		final BulkSaveRequest request = new BulkSaveRequest(context, definition);
+		// 3 inserts and 3 upserts, in chunks of 2
+		assertEquals(4, request.getChunkCount());
+
+		assertInserts(request.getChunk(0), 2);
+		assertInserts(request.getChunk(1), 1);
+		assertUpserts(request.getChunk(2), 2);
+		assertUpserts(request.getChunk(3), 1);
+
+		assertEquals(0, new BulkSaveRequest(context, new DefaultBulkSaveDefinition()).getChunkCount());
+	}
+
+	@Test
+	public void testResult() {
+
+		final ObjectId id = new ObjectId();
+
+		final DefaultBulkSaveDefinition definition = new DefaultBulkSaveDefinition();
+		definition.addValue(PropertyBox.builder(SET).set(CODE, id.toHexString()).set(TEXT, "old").build());
+		definition.addValue(PropertyBox.builder(SET).set(TEXT, "new").build());
+
+		final BulkSaveRequest request = new BulkSaveRequest(context, definition);
+		assertEquals(2, request.getChunkCount());
+
+		final BulkWriteRequest inserts = request.getChunk(0);
+		final BulkWriteRequest upserts = request.getChunk(1);
+
+		final BulkWriteOperationResult result = request.getResult(Arrays.asList(
+				inserts.getResult(BulkWriteResult.acknowledged(1, 0, 0, 0, Collections.emptyList(),
+						Collections.emptyList())),
+				upserts.getResult(BulkWriteResult.acknowledged(0, 0, 0, 0,
+						Collections.singletonList(new BulkWriteUpsert(0, new BsonObjectId(id))),
+						Collections.emptyList()))));
+
+		assertEquals(1, result.getInsertedCount());
+		assertEquals(1, result.getUpsertedCount());
+		assertEquals(2, result.getAffectedCount());
+
+		// original order restored
+		final List<OperationResult> results = result.getOperationResults();
+		assertEquals(2, results.size());
+		assertEquals(id.toHexString(), results.get(0).getInsertedKey(CODE).orElse(null));
+		assertEquals(OperationType.INSERT, results.get(1).getOperationType().orElse(null));
+		assertEquals(((InsertOneModel<Document>) inserts.getModels().get(0)).getDocument().getObjectId("_id")
+				.toHexString(), results.get(1).getInsertedKey(CODE).orElse(null));
+
+		final BulkWriteOperationResult empty = new BulkSaveRequest(context, new DefaultBulkSaveDefinition())
+				.getResult(Collections.emptyList());
+		assertEquals(0, empty.getAffectedCount());
+		assertTrue(empty.getOperationResults().isEmpty());
+	}
+
+	private static void assertInserts(BulkWriteRequest chunk, int size) {
+		final List<WriteModel<Document>> models = chunk.getModels();
+		assertEquals(size, models.size());
+		models.forEach(m -> assertTrue(m instanceof InsertOneModel));
+	}
+
+	private static void assertUpserts(BulkWriteRequest chunk, int size) {
+		final List<WriteModel<Document>> models = chunk.getModels();
+		assertEquals(size, models.size());
+		models.forEach(m -> assertTrue(((UpdateOneModel<Document>) m).getOptions().isUpsert()));
+	}
+
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.Datastore.OperationType;
+import com.holonplatform.core.datastore.DefaultWriteOption;
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.datastore.mongo.core.DocumentWriteOption;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkWriteRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.DefaultBulkWriteDefinition;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration.WriteType;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+
+public class TestBulkWrite {
+
+	private static final StringProperty CODE = StringProperty.create("code");
+	private static final StringProperty TEXT = StringProperty.create("text");
+	private static final PropertySet<?> SET = PropertySet.builderOf(CODE, TEXT).withIdentifier(CODE).build();
+
+	private static MongoResolutionContext<?> context;
+
+	@BeforeAll
+	public static void init() {
+		context = MongoResolutionContext.create(new MongoTestContext());
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+	}
+
+	@Test
+	public void testModels() {
+
+		final ObjectId id1 = new ObjectId();
+		final ObjectId id2 = new ObjectId();
+
+		final DefaultBulkWriteDefinition definition = new DefaultBulkWriteDefinition();
+		definition.addValue(WriteType.INSERT, PropertyBox.builder(SET).set(TEXT, "ins").build());
+		definition.addValue(WriteType.UPDATE,
+				PropertyBox.builder(SET).set(CODE, id1.toHexString()).set(TEXT, "upd").build());
+		definition.addValue(WriteType.SAVE, PropertyBox.builder(SET).set(TEXT, "sav").build());
+		definition.addValue(WriteType.SAVE,
+				PropertyBox.builder(SET).set(CODE, id2.toHexString()).set(TEXT, "sav").build());
+		definition.addValue(WriteType.DELETE, PropertyBox.builder(SET).set(CODE, id1.toHexString()).build());
+
+		final BulkWriteRequest request = new BulkWriteRequest(context, definition);
+		final List<WriteModel<Document>> models = request.getModels();
+		assertEquals(5, models.size());
+
+		assertTrue(models.get(0) instanceof InsertOneModel);
+		final Document inserted = ((InsertOneModel<Document>) models.get(0)).getDocument();
+		assertTrue(inserted.get("_id") instanceof ObjectId);
+		assertEquals(inserted.getObjectId("_id").toHexString(), inserted.get("code"));
+
+		assertTrue(models.get(1) instanceof UpdateOneModel);
+		assertFalse(((UpdateOneModel<Document>) models.get(1)).getOptions().isUpsert());
+
+		// save without id falls back to insert
+		assertTrue(models.get(2) instanceof InsertOneModel);
+
+		assertTrue(models.get(3) instanceof UpdateOneModel);
+		assertTrue(((UpdateOneModel<Document>) models.get(3)).getOptions().isUpsert());
+
+		assertTrue(models.get(4) instanceof DeleteOneModel);
+
+		assertTrue(request.getOptions().isOrdered());
+		assertFalse(request.getOptions().getBypassDocumentValidation());
+
+		definition.addWriteOption(DocumentWriteOption.UNORDERED);
+		definition.addWriteOption(DocumentWriteOption.BYPASS_VALIDATION);
+		assertFalse(request.getOptions().isOrdered());
+		assertTrue(request.getOptions().getBypassDocumentValidation());
+	}
+
+	@Test
+	public void testMissingId() {
+		final DefaultBulkWriteDefinition definition = new DefaultBulkWriteDefinition();
+		definition.addValue(WriteType.UPDATE, PropertyBox.builder(SET).set(TEXT, "upd").build());
+		assertThrows(DataAccessException.class, () -> new BulkWriteRequest(context, definition));
+
+		final DefaultBulkWriteDefinition definition2 = new DefaultBulkWriteDefinition();
+		definition2.addValue(WriteType.DELETE, PropertyBox.builder(SET).set(TEXT, "del").build());
+		assertThrows(DataAccessException.class, () -> new BulkWriteRequest(context, definition2));
+	}
+
+	@Test
+	public void testResult() {
+
+		final ObjectId id1 = new ObjectId();
+		final ObjectId id2 = new ObjectId();
+
+		final PropertyBox toInsert = PropertyBox.builder(SET).set(TEXT, "ins").build();
+
+		final DefaultBulkWriteDefinition definition = new DefaultBulkWriteDefinition();
+		definition.addWriteOption(DefaultWriteOption.BRING_BACK_GENERATED_IDS);
+		definition.addValue(WriteType.INSERT, toInsert);
+		definition.addValue(WriteType.UPDATE,
+				PropertyBox.builder(SET).set(CODE, id1.toHexString()).set(TEXT, "upd").build());
+		definition.addValue(WriteType.SAVE,
+				PropertyBox.builder(SET).set(CODE, id2.toHexString()).set(TEXT, "sav").build());
+		definition.addValue(WriteType.DELETE, PropertyBox.builder(SET).set(CODE, id1.toHexString()).build());
+
+		final BulkWriteRequest request = new BulkWriteRequest(context, definition);
+
+		final BulkWriteOperationResult result = request.getResult(BulkWriteResult.acknowledged(1, 1, 1, 1,
+				Collections.singletonList(new BulkWriteUpsert(2, new BsonObjectId(id2))), Collections.emptyList()));
+
+		assertEquals(1, result.getInsertedCount());
+		assertEquals(1, result.getUpsertedCount());
+		assertEquals(1, result.getMatchedCount());
+		assertEquals(1, result.getModifiedCount());
+		assertEquals(1, result.getDeletedCount());
+		assertEquals(4, result.getAffectedCount());
+		assertFalse(result.getOperationType().isPresent());
+
+		final List<OperationResult> results = result.getOperationResults();
+		assertEquals(4, results.size());
+
+		assertEquals(OperationType.INSERT, results.get(0).getOperationType().orElse(null));
+		assertEquals(1, results.get(0).getAffectedCount());
+		final String insertedKey = results.get(0).getInsertedKey(CODE).orElse(null);
+		assertEquals(
+				((InsertOneModel<Document>) request.getModels().get(0)).getDocument().getObjectId("_id")
+						.toHexString(),
+				insertedKey);
+		assertEquals(insertedKey, toInsert.getValue(CODE));
+
+		assertEquals(OperationType.UPDATE, results.get(1).getOperationType().orElse(null));
+		assertEquals(1, results.get(1).getAffectedCount());
+
+		assertEquals(OperationType.INSERT, results.get(2).getOperationType().orElse(null));
+		assertEquals(1, results.get(2).getAffectedCount());
+		assertEquals(id2.toHexString(), results.get(2).getInsertedKey(CODE).orElse(null));
+
+		assertEquals(OperationType.DELETE, results.get(3).getOperationType().orElse(null));
+		assertEquals(1, results.get(3).getAffectedCount());
+
+		// empty
+		final BulkWriteOperationResult empty = new BulkWriteRequest(context, new DefaultBulkWriteDefinition())
+				.getResult(null);
+		assertEquals(0, empty.getAffectedCount());
+		assertTrue(empty.getOperationResults().isEmpty());
+	}
+
+	@Test
+	public void testUpdateCounts() {
+
+		final DefaultBulkWriteDefinition definition = new DefaultBulkWriteDefinition();
+		definition.addValue(WriteType.UPDATE,
+				PropertyBox.builder(SET).set(CODE, new ObjectId().toHexString()).set(TEXT, "upd1").build());
+		definition.addValue(WriteType.UPDATE,
+				PropertyBox.builder(SET).set(CODE, new ObjectId().toHexString()).set(TEXT, "upd2").build());
+		definition.addValue(WriteType.DELETE,
+				PropertyBox.builder(SET).set(CODE, new ObjectId().toHexString()).build());
+		definition.addValue(WriteType.DELETE,
+				PropertyBox.builder(SET).set(CODE, new ObjectId().toHexString()).build());
+
+		final BulkWriteRequest request = new BulkWriteRequest(context, definition);
+
+		// both updates matched, but one of them did not modify the document
+		BulkWriteOperationResult result = request.getResult(
+				BulkWriteResult.acknowledged(0, 2, 2, 1, Collections.emptyList(), Collections.emptyList()));
+		assertEquals(2, result.getMatchedCount());
+		assertEquals(1, result.getModifiedCount());
+		assertEquals(1, result.getOperationResults().get(0).getAffectedCount());
+		assertEquals(1, result.getOperationResults().get(1).getAffectedCount());
+		assertEquals(1, result.getOperationResults().get(2).getAffectedCount());
+		assertEquals(1, result.getOperationResults().get(3).getAffectedCount());
+
+		// only one update matched and no delete
+		result = request.getResult(
+				BulkWriteResult.acknowledged(0, 1, 0, 0, Collections.emptyList(), Collections.emptyList()));
+		assertEquals(BulkWriteOperationResult.UNKNOWN_AFFECTED_COUNT,
+				result.getOperationResults().get(0).getAffectedCount());
+		assertEquals(BulkWriteOperationResult.UNKNOWN_AFFECTED_COUNT,
+				result.getOperationResults().get(1).getAffectedCount());
+		assertEquals(0, result.getOperationResults().get(2).getAffectedCount());
+		assertEquals(0, result.getOperationResults().get(3).getAffectedCount());
+	}
+
+}
@@ -15,13 +15,24 @@
  */
 package com.holonplatform.datastore.mongo.core.test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 
+import com.holonplatform.core.ExpressionResolver;
 import com.holonplatform.core.Path;
+import com.holonplatform.core.property.PathProperty;
+import com.holonplatform.core.property.PropertySet;
 import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.FieldName;
+import com.holonplatform.datastore.mongo.core.internal.context.ExpressionResolverDispatcherProvider;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
 import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
 
 public class TestContext {
@@ -39,4 +50,38 @@ public class TestContext {
 
 	}
 
+	@Test
+	public void testResolverDispatcher() {
+
+		final MongoResolutionContext<?> ctx = MongoResolutionContext.create(new MongoTestContext());
+		ctx.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+
+		final PathProperty<String> property = PathProperty.create("test", String.class);
+
+		// children share the parent dispatcher
+		final MongoResolutionContext<?> child = ctx.childContext();
+		assertSame(ExpressionResolverDispatcherProvider.getDispatcher(ctx),
+				ExpressionResolverDispatcherProvider.getDispatcher(ctx));
+		assertSame(ExpressionResolverDispatcherProvider.getDispatcher(ctx),
+				ExpressionResolverDispatcherProvider.getDispatcher(child));
+		assertSame(ExpressionResolverDispatcherProvider.getDispatcher(ctx),
+				ExpressionResolverDispatcherProvider.getDispatcher(child.documentContext(PropertySet.of(property))));
+
+		assertEquals("test", child.resolveOrFail(property, FieldName.class).getFieldName());
+
+		// layered resolvers are not visible from the parent
+		final ExpressionResolver<Path, FieldName> resolver = ExpressionResolver.create(Path.class, FieldName.class,
+				(p, c) -> Optional.of(FieldName.create("x_" + p.getName())));
+		child.addExpressionResolver(resolver);
+
+		assertEquals("x_test", child.resolveOrFail(property, FieldName.class).getFieldName());
+		assertEquals("test", ctx.resolveOrFail(property, FieldName.class).getFieldName());
+		assertEquals("x_test", child.childContext().resolveOrFail(property, FieldName.class).getFieldName());
+
+		child.removeExpressionResolver(resolver);
+		assertEquals("test", child.resolveOrFail(property, FieldName.class).getFieldName());
+		assertTrue(ctx.getExpressionResolvers().iterator().hasNext());
+
+	}
+
 }
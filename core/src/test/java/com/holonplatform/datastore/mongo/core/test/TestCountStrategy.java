@@ -0,0 +1,193 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.datastore.DataTarget;
+import com.holonplatform.core.internal.query.QueryDefinition;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.datastore.mongo.core.CountStrategy;
+import com.holonplatform.datastore.mongo.core.CountStrategy.Mode;
+import com.holonplatform.datastore.mongo.core.ReadOperationConfiguration;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.BsonQueryDefinition;
+import com.holonplatform.datastore.mongo.core.internal.cache.QueryCountCache;
+import com.holonplatform.datastore.mongo.core.internal.operation.QueryCountRequest;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+import com.mongodb.MongoClientSettings;
+
+public class TestCountStrategy {
+
+	private static final StringProperty TEXT = StringProperty.create("text");
+
+	@Test
+	public void testStrategies() {
+		assertEquals(Mode.EXACT, CountStrategy.exact().getMode());
+		assertEquals(Mode.ESTIMATED, CountStrategy.estimated().getMode());
+
+		final CountStrategy capped = CountStrategy.capped(1000);
+		assertEquals(Mode.CAPPED, capped.getMode());
+		assertEquals(Integer.valueOf(1000), capped.getLimit().orElse(null));
+		assertFalse(capped.getTimeToLive().isPresent());
+
+		final CountStrategy cached = CountStrategy.cached(Duration.ofSeconds(30));
+		assertEquals(Mode.CACHED, cached.getMode());
+		assertEquals(Duration.ofSeconds(30), cached.getTimeToLive().orElse(null));
+		assertFalse(cached.getLimit().isPresent());
+
+		assertThrows(IllegalArgumentException.class, () -> CountStrategy.capped(0));
+		assertThrows(IllegalArgumentException.class, () -> CountStrategy.cached(Duration.ZERO));
+		assertThrows(IllegalArgumentException.class, () -> CountStrategy.cached(null));
+	}
+
+	@Test
+	public void testCountRequest() {
+		final MongoResolutionContext<?> context = createContext(new QueryCountCache());
+
+		final QueryDefinition query = QueryDefinition.create();
+		query.setTarget(DataTarget.named("test"));
+
+		// default
+		QueryCountRequest request = createRequest(context, query);
+		assertFalse(request.isEstimated());
+		assertEquals(0, request.getCountOptions().getLimit());
+
+		// estimated
+		query.addParameter(ReadOperationConfiguration.QUERY_COUNT_STRATEGY, CountStrategy.estimated());
+		assertEquals(CountStrategy.estimated(),
+				context.resolveOrFail(query, BsonQueryDefinition.class).getCountStrategy().orElse(null));
+		assertTrue(createRequest(context, query).isEstimated());
+
+		// capped
+		query.addParameter(ReadOperationConfiguration.QUERY_COUNT_STRATEGY, CountStrategy.capped(100));
+		request = createRequest(context, query);
+		assertFalse(request.isEstimated());
+		assertEquals(100, request.getCountOptions().getLimit());
+
+		// a filter is present
+		query.addFilter(TEXT.eq("test"));
+		query.addParameter(ReadOperationConfiguration.QUERY_COUNT_STRATEGY, CountStrategy.estimated());
+		assertFalse(createRequest(context, query).isEstimated());
+	}
+
+	@Test
+	public void testCachedCount() {
+		final QueryCountCache cache = new QueryCountCache();
+		final MongoResolutionContext<?> context = createContext(cache);
+
+		final QueryDefinition query = QueryDefinition.create();
+		query.setTarget(DataTarget.named("test"));
+		query.addFilter(TEXT.eq("a"));
+		query.addParameter(ReadOperationConfiguration.QUERY_COUNT_STRATEGY,
+				CountStrategy.cached(Duration.ofMinutes(1)));
+
+		assertFalse(createRequest(context, query).getCachedCount().isPresent());
+		assertEquals(Long.valueOf(5), createRequest(context, query).setCount(5L));
+		assertEquals(Long.valueOf(5), createRequest(context, query).getCachedCount().orElse(null));
+
+		// another filter
+		final QueryDefinition other = QueryDefinition.create();
+		other.setTarget(DataTarget.named("test"));
+		other.addFilter(TEXT.eq("b"));
+		other.addParameter(ReadOperationConfiguration.QUERY_COUNT_STRATEGY,
+				CountStrategy.cached(Duration.ofMinutes(1)));
+		assertFalse(createRequest(context, other).getCachedCount().isPresent());
+
+		// a count started before a write is discarded
+		final QueryCountRequest request = createRequest(context, other);
+		context.beforeCollectionWrite("test");
+		assertFalse(createRequest(context, query).getCachedCount().isPresent());
+		request.setCount(3L);
+		assertFalse(createRequest(context, other).getCachedCount().isPresent());
+
+		// exact strategy
+		query.addParameter(ReadOperationConfiguration.QUERY_COUNT_STRATEGY, CountStrategy.exact());
+		createRequest(context, query).setCount(7L);
+		assertFalse(cache.get("test", "{\"text\": \"a\"}", Duration.ofMinutes(1)).isPresent());
+	}
+
+	@Test
+	public void testWriteInterleaving() {
+		final MongoResolutionContext<?> context = createContext(new QueryCountCache());
+
+		final QueryDefinition query = QueryDefinition.create();
+		query.setTarget(DataTarget.named("test"));
+		query.addParameter(ReadOperationConfiguration.QUERY_COUNT_STRATEGY,
+				CountStrategy.cached(Duration.ofMinutes(1)));
+
+		// a count which starts after the invalidation and completes before the write
+		context.beforeCollectionWrite("test");
+		createRequest(context, query).setCount(5L);
+		assertTrue(createRequest(context, query).getCachedCount().isPresent());
+		context.afterCollectionWrite("test");
+		assertFalse(createRequest(context, query).getCachedCount().isPresent());
+
+		// a count which starts after the invalidation and completes after the write
+		context.beforeCollectionWrite("test");
+		final QueryCountRequest request = createRequest(context, query);
+		context.afterCollectionWrite("test");
+		request.setCount(5L);
+		assertFalse(createRequest(context, query).getCachedCount().isPresent());
+
+		// a count which starts after the write
+		createRequest(context, query).setCount(6L);
+		assertEquals(Long.valueOf(6), createRequest(context, query).getCachedCount().orElse(null));
+	}
+
+	@Test
+	public void testCacheMaxAge() throws InterruptedException {
+		final QueryCountCache cache = new QueryCountCache();
+		final long version = cache.getVersion("test");
+		assertTrue(cache.put("test", "{}", version, System.nanoTime(), 10L));
+		assertEquals(Long.valueOf(10), cache.get("test", "{}", Duration.ofMinutes(1)).orElse(null));
+		Thread.sleep(50);
+		assertFalse(cache.get("test", "{}", Duration.ofMillis(10)).isPresent());
+		assertTrue(cache.get("test", "{}", Duration.ofMinutes(1)).isPresent());
+
+		cache.invalidate("test");
+		assertFalse(cache.get("test", "{}", Duration.ofMinutes(1)).isPresent());
+		assertFalse(cache.put("test", "{}", version, System.nanoTime(), 10L));
+	}
+
+	private static MongoResolutionContext<?> createContext(QueryCountCache cache) {
+		final MongoResolutionContext<?> context = MongoResolutionContext.create(new MongoTestContext() {
+
+			@Override
+			public Optional<QueryCountCache> getQueryCountCache() {
+				return Optional.of(cache);
+			}
+
+		});
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+		return context;
+	}
+
+	private static QueryCountRequest createRequest(MongoResolutionContext<?> context, QueryDefinition query) {
+		return QueryCountRequest.create(context, context.resolveOrFail(query, BsonQueryDefinition.class),
+				MongoClientSettings.getDefaultCodecRegistry());
+	}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.datastore.DataTarget;
+import com.holonplatform.core.property.NumericProperty;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.datastore.mongo.core.DeltaUpdateOption;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshotsProvider;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+import com.mongodb.session.ClientSession;
+
+public class TestDeltaUpdate {
+
+	private static final StringProperty ID = StringProperty.create("_id");
+	private static final StringProperty TEXT = StringProperty.create("text");
+	private static final StringProperty NESTED = StringProperty.create("n.text");
+	private static final NumericProperty<Integer> NUM = NumericProperty.integerType("num");
+	private static final PropertySet<?> SET = PropertySet.builderOf(ID, TEXT, NESTED, NUM).withIdentifier(ID).build();
+
+	private static MongoResolutionContext<?> context;
+
+	@BeforeAll
+	public static void init() {
+		context = MongoResolutionContext.create(new MongoTestContext());
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+	}
+
+	@Test
+	public void testOption() {
+		assertFalse(DeltaUpdateOption.snapshot().getOriginal().isPresent());
+		final PropertyBox value = PropertyBox.builder(SET).set(TEXT, "a").build();
+		assertTrue(DeltaUpdateOption.of(value).getOriginal().isPresent());
+	}
+
+	@Test
+	public void testDelta() {
+		final String id = new ObjectId().toHexString();
+		final PropertyBox original = PropertyBox.builder(SET).set(ID, id).set(TEXT, "a").set(NESTED, "n").set(NUM, 1)
+				.build();
+		final PropertyBox value = original.cloneBox();
+		value.setValue(NESTED, "m");
+		value.setValue(NUM, null);
+
+		final Document delta = PropertyBoxSnapshots.delta(PropertyBoxSnapshots.encode(context, value),
+				PropertyBoxSnapshots.encode(context, original), false);
+
+		final Document set = delta.get("$set", Document.class);
+		assertNotNull(set);
+		assertEquals(1, set.size());
+		assertEquals("m", set.get("n.text"));
+		final Document unset = delta.get("$unset", Document.class);
+		assertNotNull(unset);
+		assertTrue(unset.containsKey("num"));
+		assertNull(delta.get("$setOnInsert"));
+
+		// upsert
+		final Document upsert = PropertyBoxSnapshots.delta(PropertyBoxSnapshots.encode(context, value),
+				PropertyBoxSnapshots.encode(context, original), true);
+		final Document onInsert = upsert.get("$setOnInsert", Document.class);
+		assertNotNull(onInsert);
+		assertEquals("a", onInsert.get("text"));
+		assertFalse(onInsert.containsKey("n.text"));
+
+		// no changes
+		final Document empty = PropertyBoxSnapshots.delta(PropertyBoxSnapshots.encode(context, original),
+				PropertyBoxSnapshots.encode(context, original), false);
+		assertTrue(empty.isEmpty());
+	}
+
+	@Test
+	public void testSnapshots() {
+		final PropertyBoxSnapshots snapshots = new PropertyBoxSnapshots();
+
+		final PropertyBox value = PropertyBox.builder(SET).set(TEXT, "a").build();
+		final PropertyBox equal = value.cloneBox();
+
+		assertFalse(snapshots.get("c1", value).isPresent());
+
+		final Document document = PropertyBoxSnapshots.encode(context, value);
+		snapshots.put("c1", value, document);
+
+		final Optional<Document> snapshot = snapshots.get("c1", value);
+		assertTrue(snapshot.isPresent());
+		assertEquals(document, snapshot.get());
+		// identity based
+		assertFalse(snapshots.get("c1", equal).isPresent());
+		// collection scoped
+		assertFalse(snapshots.get("c2", value).isPresent());
+
+		snapshots.remove(value);
+		assertFalse(snapshots.get("c1", value).isPresent());
+
+		// tracking disabled by default
+		final PropertyBox other = PropertyBox.builder(SET).set(TEXT, "b").build();
+		PropertyBoxSnapshots.track(context, other);
+		assertFalse(PropertyBoxSnapshots.get(context, other).isPresent());
+	}
+
+	@Test
+	public void testTracking() {
+		final PropertyBoxSnapshots snapshots = new PropertyBoxSnapshots();
+		final PropertyBox value = PropertyBox.builder(SET).set(TEXT, "a").build();
+
+		// unknown target collection
+		final MongoResolutionContext<?> ctx = createContext(snapshots, false);
+		PropertyBoxSnapshots.track(ctx, value);
+		assertFalse(PropertyBoxSnapshots.get(ctx, value).isPresent());
+
+		// target collection
+		ctx.resolveOrFail(DataTarget.named("c1"), CollectionName.class);
+		PropertyBoxSnapshots.track(ctx.documentContext(SET), value);
+		assertTrue(PropertyBoxSnapshots.get(ctx, value).isPresent());
+		assertTrue(snapshots.get("c1", value).isPresent());
+		// a context created from a resolution context
+		assertTrue(PropertyBoxSnapshots.get(MongoDocumentContext.createForUpdate(ctx, value), value).isPresent());
+
+		// another collection
+		final MongoResolutionContext<?> ctx2 = createContext(snapshots, false);
+		ctx2.resolveOrFail(DataTarget.named("c2"), CollectionName.class);
+		assertFalse(PropertyBoxSnapshots.get(ctx2, value).isPresent());
+
+		// another datastore
+		final MongoResolutionContext<?> ctx3 = createContext(new PropertyBoxSnapshots(), false);
+		ctx3.resolveOrFail(DataTarget.named("c1"), CollectionName.class);
+		assertFalse(PropertyBoxSnapshots.get(ctx3, value).isPresent());
+
+		// ambiguous target collection
+		final MongoResolutionContext<?> ctx4 = createContext(snapshots, false);
+		ctx4.resolveOrFail(DataTarget.named("c1"), CollectionName.class);
+		ctx4.childContext().resolveOrFail(DataTarget.named("c2"), CollectionName.class);
+		assertFalse(PropertyBoxSnapshots.get(ctx4, value).isPresent());
+
+		// client session: the snapshot is discarded
+		final MongoResolutionContext<?> ctx5 = createContext(snapshots, true);
+		ctx5.resolveOrFail(DataTarget.named("c1"), CollectionName.class);
+		PropertyBoxSnapshots.track(ctx5, value);
+		assertFalse(snapshots.get("c1", value).isPresent());
+	}
+
+	private static MongoResolutionContext<?> createContext(PropertyBoxSnapshots snapshots, boolean session) {
+		final MongoResolutionContext<?> ctx = MongoResolutionContext.create(new SnapshotsTestContext(snapshots,
+				session ? (ClientSession) Proxy.newProxyInstance(TestDeltaUpdate.class.getClassLoader(),
+						new Class<?>[] { ClientSession.class }, (proxy, method, args) -> null) : null));
+		ctx.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+		return ctx;
+	}
+
+	private static final class SnapshotsTestContext extends MongoTestContext implements PropertyBoxSnapshotsProvider {
+
+		private final PropertyBoxSnapshots snapshots;
+		private final ClientSession session;
+
+		SnapshotsTestContext(PropertyBoxSnapshots snapshots, ClientSession session) {
+			super();
+			this.snapshots = snapshots;
+			this.session = session;
+		}
+
+		@Override
+		public boolean isSnapshotTrackingEnabled() {
+			return true;
+		}
+
+		@Override
+		public Optional<ClientSession> getClientSession() {
+			return Optional.ofNullable(session);
+		}
+
+		@Override
+		public Optional<PropertyBoxSnapshots> getPropertyBoxSnapshots() {
+			return Optional.of(snapshots);
+		}
+
+	}
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.datastore.DataTarget;
+import com.holonplatform.core.property.ListPathProperty;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertyBoxProperty;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.datastore.mongo.core.cache.EntityCache;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.internal.operation.DefaultMultiGetDefinition;
+import com.holonplatform.datastore.mongo.core.internal.operation.EntityCacheRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.MultiGetRequest;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+
+public class TestEntityCache {
+
+	private static final StringProperty ID = StringProperty.create("_id");
+	private static final StringProperty TEXT = StringProperty.create("text");
+	private static final ListPathProperty<String> TAGS = ListPathProperty.create("tags", String.class);
+	private static final StringProperty NESTED_TEXT = StringProperty.create("ntext");
+	private static final PropertyBoxProperty NESTED = PropertyBoxProperty.create("nested",
+			PropertySet.of(NESTED_TEXT));
+
+	private static final PropertySet<?> SET = PropertySet.builderOf(ID, TEXT, TAGS, NESTED).withIdentifier(ID)
+			.build();
+	private static final PropertySet<?> SUBSET = PropertySet.builderOf(ID, TEXT).withIdentifier(ID).build();
+
+	@Test
+	public void testBuilder() {
+		assertThrows(IllegalArgumentException.class,
+				() -> EntityCache.builder().collection("test", 0, Duration.ofSeconds(1)));
+		assertThrows(IllegalArgumentException.class,
+				() -> EntityCache.builder().collection("test", 1, Duration.ofSeconds(-1)));
+
+		final EntityCache cache = EntityCache.builder().collection("test").build();
+		assertTrue(cache.isEnabled("test"));
+		assertFalse(cache.isEnabled("other"));
+	}
+
+	@Test
+	public void testCopies() {
+		final EntityCache cache = EntityCache.builder().collection("test").build();
+
+		final ObjectId id = new ObjectId();
+		final PropertyBox value = PropertyBox.builder(SET).set(ID, id.toHexString()).set(TEXT, "v1")
+				.set(TAGS, new ArrayList<>(Arrays.asList("a", "b")))
+				.set(NESTED, PropertyBox.builder(NESTED.getPropertySet()).set(NESTED_TEXT, "n1").build()).build();
+		assertTrue(cache.put("test", id, cache.getVersion("test"), value));
+
+		// the stored value is a copy
+		value.setValue(TEXT, "changed");
+		value.getValue(TAGS).add("c");
+		value.getValue(NESTED).setValue(NESTED_TEXT, "changed");
+
+		final PropertyBox cached = cache.get("test", id, SET).orElse(null);
+		assertEquals("v1", cached.getValue(TEXT));
+		assertEquals(Arrays.asList("a", "b"), cached.getValue(TAGS));
+		assertEquals("n1", cached.getValue(NESTED).getValue(NESTED_TEXT));
+
+		// the returned value is a copy
+		cached.setValue(TEXT, "changed");
+		cached.getValue(TAGS).add("c");
+		cached.getValue(NESTED).setValue(NESTED_TEXT, "changed");
+
+		final PropertyBox other = cache.get("test", id, SET).orElse(null);
+		assertNotSame(cached, other);
+		assertEquals("v1", other.getValue(TEXT));
+		assertEquals(Arrays.asList("a", "b"), other.getValue(TAGS));
+		assertEquals("n1", other.getValue(NESTED).getValue(NESTED_TEXT));
+	}
+
+	@Test
+	public void testPropertySet() {
+		final EntityCache cache = EntityCache.builder().collection("test").build();
+
+		final ObjectId id = new ObjectId();
+		assertTrue(cache.put("test", id, cache.getVersion("test"),
+				PropertyBox.builder(SUBSET).set(ID, id.toHexString()).set(TEXT, "v1").build()));
+
+		final PropertyBox value = cache.get("test", id, PropertySet.of(TEXT)).orElse(null);
+		assertEquals(1, value.size());
+		assertEquals("v1", value.getValue(TEXT));
+
+		// not all the properties are available
+		assertFalse(cache.get("test", id, SET).isPresent());
+
+		assertEquals(1, cache.getStatistics().getHitCount());
+		assertEquals(1, cache.getStatistics().getMissCount());
+	}
+
+	@Test
+	public void testInvalidation() {
+		final EntityCache cache = EntityCache.builder().collection("test", 2, Duration.ofMinutes(1)).build();
+		final MongoTestContext context = new MongoTestContext() {
+
+			@Override
+			public Optional<EntityCache> getEntityCache() {
+				return Optional.of(cache);
+			}
+
+		};
+
+		final ObjectId id = new ObjectId();
+		final PropertyBox value = PropertyBox.builder(SUBSET).set(ID, id.toHexString()).set(TEXT, "v1").build();
+
+		final long version = cache.getVersion("test");
+		assertTrue(cache.put("test", id, version, value));
+		context.beforeCollectionWrite("other");
+		assertTrue(cache.get("test", id, SUBSET).isPresent());
+		context.beforeCollectionWrite("test");
+		assertFalse(cache.get("test", id, SUBSET).isPresent());
+
+		// an entity read before the invalidation is discarded
+		assertFalse(cache.put("test", id, version, value));
+		assertFalse(cache.get("test", id, SUBSET).isPresent());
+
+		// eviction
+		final ObjectId id2 = new ObjectId();
+		final ObjectId id3 = new ObjectId();
+		assertTrue(cache.put("test", id, cache.getVersion("test"), value));
+		assertTrue(cache.put("test", id2, cache.getVersion("test"), value));
+		assertTrue(cache.put("test", id3, cache.getVersion("test"), value));
+		assertFalse(cache.get("test", id, SUBSET).isPresent());
+		assertTrue(cache.get("test", id2, SUBSET).isPresent());
+		assertTrue(cache.get("test", id3, SUBSET).isPresent());
+		assertEquals(1, cache.getStatistics("test").get().getEvictionCount());
+	}
+
+	@Test
+	public void testWriteInterleaving() {
+		final EntityCache cache = EntityCache.builder().collection("test").build();
+		final MongoResolutionContext<?> context = MongoResolutionContext.create(new MongoTestContext() {
+
+			@Override
+			public Optional<EntityCache> getEntityCache() {
+				return Optional.of(cache);
+			}
+
+		});
+
+		final ObjectId id = new ObjectId();
+		final PropertyBox value = PropertyBox.builder(SUBSET).set(ID, id.toHexString()).set(TEXT, "v1").build();
+
+		// a read which starts after the invalidation and completes before the write
+		context.beforeCollectionWrite("test");
+		EntityCacheRequest request = EntityCacheRequest.create(context, "test").get();
+		request.put(id, value);
+		assertTrue(cache.get("test", id, SUBSET).isPresent());
+		context.afterCollectionWrite("test");
+		assertFalse(request.get(id, SUBSET).isPresent());
+
+		// a read which starts after the invalidation and completes after the write
+		context.beforeCollectionWrite("test");
+		request = EntityCacheRequest.create(context, "test").get();
+		context.afterCollectionWrite("test");
+		request.put(id, value);
+		assertFalse(request.get(id, SUBSET).isPresent());
+
+		// a read which starts after the write
+		request = EntityCacheRequest.create(context, "test").get();
+		request.put(id, value);
+		assertTrue(request.get(id, SUBSET).isPresent());
+	}
+
+	@Test
+	public void testMultiGet() {
+		final EntityCache cache = EntityCache.builder().collection("test").build();
+		final MongoResolutionContext<?> context = MongoResolutionContext.create(new MongoTestContext() {
+
+			@Override
+			public Optional<EntityCache> getEntityCache() {
+				return Optional.of(cache);
+			}
+
+		});
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+
+		final ObjectId cachedId = new ObjectId();
+		final ObjectId readId = new ObjectId();
+		cache.put("test", cachedId, cache.getVersion("test"),
+				PropertyBox.builder(SUBSET).set(ID, cachedId.toHexString()).set(TEXT, "cached").build());
+
+		final DefaultMultiGetDefinition definition = new DefaultMultiGetDefinition();
+		definition.setTarget(DataTarget.named("test"));
+		definition.setPropertySet(SUBSET);
+		definition.addId(cachedId);
+		definition.addId(readId);
+
+		// only the not cached id is read
+		final MultiGetRequest request = new MultiGetRequest(context, definition);
+		assertEquals(1, request.getChunkCount());
+		assertEquals(1, request.getChunkSize(0));
+
+		request.addDocument(new Document("_id", readId).append("text", "read"));
+		final Map<Object, PropertyBox> result = request.getResult();
+		assertEquals(2, result.size());
+		assertEquals("cached", result.get(cachedId).getValue(TEXT));
+		assertEquals("read", result.get(readId).getValue(TEXT));
+
+		// the read entity is cached
+		assertEquals("read", cache.get("test", readId, SUBSET).map(v -> v.getValue(TEXT)).orElse(null));
+		assertEquals(0, new MultiGetRequest(context, definition).getChunkCount());
+	}
+
+}
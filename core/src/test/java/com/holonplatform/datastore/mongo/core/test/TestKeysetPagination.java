@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.Expression.InvalidExpressionException;
+import com.holonplatform.core.property.NumericProperty;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.core.query.QueryFilter;
+import com.holonplatform.core.query.QuerySort;
+import com.holonplatform.datastore.mongo.core.BsonSort;
+import com.holonplatform.datastore.mongo.core.ContinuationToken;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.BsonExpression;
+import com.holonplatform.datastore.mongo.core.expression.BsonFilterExpression;
+import com.holonplatform.datastore.mongo.core.internal.support.KeysetPagination;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+import com.mongodb.MongoClientSettings;
+
+public class TestKeysetPagination {
+
+	private static final StringProperty ID = StringProperty.create("_id");
+	private static final StringProperty TEXT = StringProperty.create("text");
+	private static final NumericProperty<Integer> NUM = NumericProperty.integerType("num");
+	private static final PropertySet<?> SET = PropertySet.builderOf(ID, TEXT, NUM).withIdentifier(ID).build();
+
+	private static MongoResolutionContext<?> context;
+
+	@BeforeAll
+	public static void init() {
+		context = MongoResolutionContext.create(new MongoTestContext());
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+	}
+
+	@Test
+	public void testToken() {
+		final ObjectId id = new ObjectId();
+		final PropertyBox row = PropertyBox.builder(SET).set(ID, id.toHexString()).set(TEXT, "a").set(NUM, 3).build();
+		final QuerySort sort = NUM.desc().and(TEXT.asc());
+
+		final ContinuationToken token = ContinuationToken.of(row, sort);
+		assertFalse(token.isFirst());
+		assertEquals(Arrays.asList("num", "text"), Arrays.asList(token.getValues().keySet().toArray()));
+		assertEquals(id.toHexString(), token.getDocumentId().orElse(null));
+
+		final ContinuationToken decoded = ContinuationToken.decode(token.encode());
+		assertEquals(token.getValues(), decoded.getValues());
+		assertEquals(token.getDocumentId(), decoded.getDocumentId());
+
+		assertTrue(ContinuationToken.first().isFirst());
+		assertFalse(ContinuationToken.next(Collections.emptyList(), sort).isPresent());
+		assertTrue(ContinuationToken.next(Collections.singletonList(row), sort).isPresent());
+
+		assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode("not a token"));
+		assertThrows(IllegalArgumentException.class,
+				() -> ContinuationToken.of(row, BsonSort.create(new Document("text", 1))));
+	}
+
+	@Test
+	public void testSort() {
+		assertEquals(new Document("_id", 1), toDocument(KeysetPagination.getSort(context, null)));
+		assertEquals(new Document("text", 1).append("_id", 1),
+				toDocument(KeysetPagination.getSort(context, TEXT.asc())));
+		// already unique
+		assertEquals(new Document("_id", -1), toDocument(KeysetPagination.getSort(context, ID.desc())));
+	}
+
+	@Test
+	public void testFilter() {
+		assertFalse(KeysetPagination.getFilter(context, TEXT.asc(), ContinuationToken.first()).isPresent());
+
+		final ObjectId id = new ObjectId();
+		final PropertyBox row = PropertyBox.builder(SET).set(ID, id.toHexString()).set(TEXT, "a").set(NUM, 3).build();
+		final QuerySort sort = NUM.desc().and(TEXT.asc());
+
+		final Optional<QueryFilter> filter = KeysetPagination.getFilter(context, sort,
+				ContinuationToken.decode(ContinuationToken.of(row, sort).encode()));
+		assertTrue(filter.isPresent());
+
+		final String json = toJson(context.resolveOrFail(filter.get(), BsonFilterExpression.class).getExpression());
+		assertTrue(json.contains("\"$lt\": 3"));
+		assertTrue(json.contains("\"$gt\": \"a\""));
+		assertTrue(json.contains("\"$gt\": {\"$oid\": \"" + id.toHexString() + "\"}"));
+
+		// mismatching sort
+		assertThrows(InvalidExpressionException.class, () -> KeysetPagination.getFilter(context, TEXT.asc(),
+				ContinuationToken.of(row, sort)));
+	}
+
+	@Test
+	public void testNullValues() {
+		final ObjectId id = new ObjectId();
+		final PropertyBox row = PropertyBox.builder(SET).set(ID, id.toHexString()).set(TEXT, "a").build();
+
+		final Optional<QueryFilter> filter = KeysetPagination.getFilter(context, NUM.asc(),
+				ContinuationToken.of(row, NUM.asc()));
+		assertTrue(filter.isPresent());
+		final String json = toJson(context.resolveOrFail(filter.get(), BsonFilterExpression.class).getExpression());
+		assertTrue(json.contains("{\"num\": {\"$exists\": true}}"));
+	}
+
+	private static Document toDocument(QuerySort sort) {
+		final Bson bson = context.resolveOrFail(sort, BsonExpression.class).getValue();
+		return Document.parse(toJson(bson));
+	}
+
+	private static String toJson(Bson bson) {
+		final BsonDocument document = bson.toBsonDocument(BsonDocument.class,
+				MongoClientSettings.getDefaultCodecRegistry());
+		return document.toJson();
+	}
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.property.BooleanProperty;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCache;
+import com.holonplatform.datastore.mongo.core.cache.MetadataCacheRegistry;
+import com.holonplatform.datastore.mongo.core.document.DocumentIdResolver;
+import com.holonplatform.datastore.mongo.core.internal.datastore.MongoCollectionHandles;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+
+public class TestMetadataCache {
+
+	@Test
+	public void testCache() {
+
+		final AtomicInteger loads = new AtomicInteger();
+		final MetadataCache<String, Integer> cache = MetadataCache.create("test", 10, key -> {
+			loads.incrementAndGet();
+			return key.isEmpty() ? null : key.length();
+		});
+
+		final String key = "test";
+		assertFalse(cache.getIfPresent(key).isPresent());
+
+		assertEquals(Integer.valueOf(4), cache.get(key));
+		assertEquals(Integer.valueOf(4), cache.get(key));
+		assertTrue(cache.getIfPresent(key).isPresent());
+		assertEquals(1, loads.get());
+
+		// null values are cached too
+		final String empty = new String();
+		assertNull(cache.get(empty));
+		assertNull(cache.get(empty));
+		assertEquals(2, loads.get());
+
+		assertEquals(2, cache.size());
+		assertEquals(2, cache.getStatistics().getHitCount());
+		assertEquals(2, cache.getStatistics().getMissCount());
+		assertEquals(0.5d, cache.getStatistics().getHitRatio());
+
+		// identity keys
+		final String other = new String(key);
+		assertFalse(cache.getIfPresent(other).isPresent());
+
+		cache.invalidate(key);
+		assertFalse(cache.getIfPresent(key).isPresent());
+		assertEquals(1, cache.size());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+
+		assertThrows(IllegalArgumentException.class, () -> MetadataCache.create("test", 0, key2 -> key2));
+	}
+
+	@Test
+	public void testEviction() {
+
+		final MetadataCache<Object, Integer> cache = MetadataCache.create("test", 10, key -> key.hashCode());
+
+		final List<Object> keys = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			final Object key = new Object();
+			keys.add(key);
+			assertEquals(Integer.valueOf(key.hashCode()), cache.get(key));
+			assertTrue(cache.size() <= 10);
+		}
+		assertEquals(90, cache.getStatistics().getEvictionCount());
+		assertEquals(100, cache.getStatistics().getMissCount());
+	}
+
+	@Test
+	public void testPrewarm() {
+
+		final MetadataCache<Object, Object> cache = MetadataCache.create("test", key -> key);
+		final Object k1 = new Object();
+		final Object k2 = new Object();
+		cache.prewarm(Arrays.asList(k1, k2));
+		assertEquals(2, cache.size());
+		assertSame(k1, cache.get(k1));
+		assertEquals(1, cache.getStatistics().getHitCount());
+
+		final StringProperty ID = StringProperty.create("_id");
+		final BooleanProperty BOOL = BooleanProperty.create("bool");
+		final PropertySet<?> SET = PropertySet.builderOf(ID, BOOL).withIdentifier(ID).build();
+
+		final MetadataCacheRegistry registry = MetadataCacheRegistry.getDefault();
+		assertTrue(registry.getCache(MetadataCacheRegistry.DOCUMENT_IDS).isPresent());
+		assertTrue(registry.getCache(MetadataCacheRegistry.SERIALIZATION_TREES).isPresent());
+		assertTrue(registry.getCache(MetadataCacheRegistry.DOCUMENT_CODECS).isPresent());
+		assertTrue(registry.getCache(MetadataCacheRegistry.BEAN_MAPPERS).isPresent());
+
+		registry.prewarm(SET);
+
+		@SuppressWarnings("unchecked")
+		final MetadataCache<PropertySet<?>, ?> ids = (MetadataCache<PropertySet<?>, ?>) registry
+				.getCache(MetadataCacheRegistry.DOCUMENT_IDS).get();
+		assertEquals(ID, ids.getIfPresent(SET).orElse(null));
+
+		assertThrows(IllegalArgumentException.class, () -> registry.register(PropertySet.class,
+				MetadataCache.create(MetadataCacheRegistry.DOCUMENT_IDS, ps -> ps)));
+	}
+
+	@Test
+	public void testIdentityKeys() {
+
+		final StringProperty CODE = StringProperty.create("code");
+		final BooleanProperty BOOL = BooleanProperty.create("bool");
+
+		// equal property sets, with different identifiers
+		final PropertySet<?> SET1 = PropertySet.builderOf(CODE, BOOL).withIdentifier(CODE).build();
+		final PropertySet<?> SET2 = PropertySet.of(CODE, BOOL);
+
+		assertEquals(CODE, DocumentIdResolver.getDefault().resolveDocumentIdProperty(SET1).orElse(null));
+		assertFalse(DocumentIdResolver.getDefault().resolveDocumentIdProperty(SET2).isPresent());
+	}
+
+	@Test
+	public void testCollectionHandles() {
+
+		final Object database = new Object();
+		final AtomicInteger created = new AtomicInteger();
+
+		final Object h1 = MongoCollectionHandles.get(database, "test", ReadConcern.MAJORITY, ReadPreference.primary(),
+				null, () -> created.incrementAndGet());
+		final Object h2 = MongoCollectionHandles.get(database, "test", ReadConcern.MAJORITY, ReadPreference.primary(),
+				null, () -> created.incrementAndGet());
+		assertSame(h1, h2);
+		assertEquals(1, created.get());
+
+		MongoCollectionHandles.get(database, "test", null, null, WriteConcern.MAJORITY,
+				() -> created.incrementAndGet());
+		MongoCollectionHandles.get(database, "other", ReadConcern.MAJORITY, ReadPreference.primary(), null,
+				() -> created.incrementAndGet());
+		MongoCollectionHandles.get(new Object(), "test", ReadConcern.MAJORITY, ReadPreference.primary(), null,
+				() -> created.incrementAndGet());
+		assertEquals(4, created.get());
+	}
+
+	@Test
+	public void testConcurrency() throws Exception {
+
+		final AtomicInteger loads = new AtomicInteger();
+		final MetadataCache<Object, Object> cache = MetadataCache.create("test", 50, key -> {
+			loads.incrementAndGet();
+			return new Object();
+		});
+
+		final Object[] keys = new Object[100];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = new Object();
+		}
+
+		final int threads = 16;
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int n = 0; n < 100; n++) {
+						for (Object key : keys) {
+							assertNotNull(cache.get(key));
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertTrue(cache.size() <= 50);
+		assertEquals(threads * 100 * keys.length,
+				cache.getStatistics().getHitCount() + cache.getStatistics().getMissCount());
+		assertEquals(loads.get(), cache.getStatistics().getMissCount());
+	}
+
+}
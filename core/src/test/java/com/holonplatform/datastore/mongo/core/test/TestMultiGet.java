@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.Expression.InvalidExpressionException;
+import com.holonplatform.core.datastore.DataTarget;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.internal.operation.DefaultMultiGetDefinition;
+import com.holonplatform.datastore.mongo.core.internal.operation.MultiGetRequest;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+import com.mongodb.MongoClientSettings;
+
+public class TestMultiGet {
+
+	private static final StringProperty ID = StringProperty.create("_id");
+	private static final StringProperty TEXT = StringProperty.create("text");
+	private static final PropertySet<?> SET = PropertySet.builderOf(ID, TEXT).withIdentifier(ID).build();
+
+	private static MongoResolutionContext<?> context;
+
+	@BeforeAll
+	public static void init() {
+		context = MongoResolutionContext.create(new MongoTestContext());
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+	}
+
+	@Test
+	public void testDefinition() {
+		final DefaultMultiGetDefinition definition = new DefaultMultiGetDefinition();
+		assertThrows(IllegalArgumentException.class, () -> definition.setChunkSize(0));
+		assertThrows(IllegalArgumentException.class, () -> definition.setMaxConcurrency(0));
+		assertThrows(IllegalArgumentException.class, () -> definition.addId(null));
+
+		definition.setTarget(DataTarget.named("test"));
+		assertThrows(InvalidExpressionException.class, () -> definition.validate());
+		definition.setPropertySet(SET);
+		definition.validate();
+	}
+
+	@Test
+	public void testChunks() {
+		final DefaultMultiGetDefinition definition = new DefaultMultiGetDefinition();
+		definition.setPropertySet(SET);
+		definition.setChunkSize(2);
+
+		final ObjectId duplicate = new ObjectId();
+		definition.addId(duplicate.toHexString());
+		definition.addId(new ObjectId().toHexString());
+		definition.addId(duplicate);
+		definition.addId(new ObjectId());
+
+		// 3 distinct ids, in chunks of 2
+		final MultiGetRequest request = new MultiGetRequest(context, definition);
+		assertEquals(2, request.getChunkCount());
+		assertEquals(2, request.getChunkSize(0));
+		assertEquals(1, request.getChunkSize(1));
+
+		final BsonDocument filter = request.getFilter(0).toBsonDocument(BsonDocument.class,
+				MongoClientSettings.getDefaultCodecRegistry());
+		assertTrue(filter.getDocument("_id").containsKey("$in"));
+		assertEquals(duplicate, filter.getDocument("_id").getArray("$in").get(0).asObjectId().getValue());
+
+		// projection
+		assertTrue(request.getProjection().isPresent());
+		final BsonDocument projection = request.getProjection().get().toBsonDocument(BsonDocument.class,
+				MongoClientSettings.getDefaultCodecRegistry());
+		assertTrue(projection.containsKey("text"));
+
+		final DefaultMultiGetDefinition empty = new DefaultMultiGetDefinition();
+		empty.setPropertySet(SET);
+		assertEquals(0, new MultiGetRequest(context, empty).getChunkCount());
+		assertTrue(new MultiGetRequest(context, empty).getResult().isEmpty());
+	}
+
+	@Test
+	public void testResult() {
+		final ObjectId id1 = new ObjectId();
+		final ObjectId id2 = new ObjectId();
+		final ObjectId id3 = new ObjectId();
+
+		final DefaultMultiGetDefinition definition = new DefaultMultiGetDefinition();
+		definition.setPropertySet(SET);
+		definition.addId(id3.toHexString());
+		definition.addId(id2.toHexString());
+		definition.addId(id1.toHexString());
+
+		final MultiGetRequest request = new MultiGetRequest(context, definition);
+		// returned in a different order, id2 missing
+		request.addDocuments(Arrays.asList(new Document("_id", id1).append("text", "v1"),
+				new Document("_id", id3).append("text", "v3")));
+
+		final Map<Object, PropertyBox> result = request.getResult();
+		assertEquals(2, result.size());
+		assertEquals(Arrays.asList(id3.toHexString(), id1.toHexString()), new ArrayList<>(result.keySet()));
+		assertFalse(result.containsKey(id2.toHexString()));
+		assertEquals("v3", result.get(id3.toHexString()).getValue(TEXT));
+		assertEquals(id1.toHexString(), result.get(id1.toHexString()).getValue(ID));
+	}
+
+}
@@ -70,11 +70,15 @@ import static com.holonplatform.datastore.mongo.core.test.data.ModelTest.VRT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -82,17 +86,39 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
 import org.bson.Document;
+import org.bson.codecs.DecoderContext;
 import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.json.JsonWriterSettings;
+import org.bson.types.Binary;
+import org.bson.types.Code;
+import org.bson.types.Decimal128;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import com.holonplatform.core.Expression.InvalidExpressionException;
+import com.holonplatform.core.ExpressionResolver;
+import com.holonplatform.core.TypedExpression;
+import com.holonplatform.core.property.PathProperty;
+import com.holonplatform.core.property.Property;
 import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.document.PropertyBoxCodec;
 import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
+import com.holonplatform.datastore.mongo.core.expression.FieldValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
+import com.holonplatform.datastore.mongo.core.expression.Value;
+import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.resolver.PropertySetDocumentCodec;
 import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
 import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
 import com.holonplatform.datastore.mongo.core.test.data.EnumValue;
@@ -576,6 +602,208 @@ public class TestPropertyBoxDocumentResolution {
 
 	}
 
+	@Test
+	public void testCompiledCodec() {
+
+		final MongoResolutionContext<?> chainContext = createChainContext();
+
+		assertTrue(PropertySetDocumentCodec.isEnabled(context));
+		assertFalse(PropertySetDocumentCodec.isEnabled(chainContext));
+
+		final List<PropertyBox> values = codecValues();
+
+		for (PropertyBox value : values) {
+			for (boolean forUpdate : new boolean[] { false, true }) {
+				final Document compiled = encode(context, value, forUpdate);
+				final Document chain = encode(chainContext, value, forUpdate);
+				assertEquals(toBson(chain), toBson(compiled));
+
+				if (!forUpdate) {
+					final PropertyBox decoded = context.documentContext(value).resolveOrFail(
+							DocumentValue.create(compiled), PropertyBoxValue.class).getValue();
+					final PropertyBox chainDecoded = chainContext.documentContext(value)
+							.resolveOrFail(DocumentValue.create(chain), PropertyBoxValue.class).getValue();
+					// nested PropertyBox values are compared by encoding
+					assertPropertyValues(value, chainDecoded, decoded);
+					assertEquals(toBson(encode(chainContext, chainDecoded, false)),
+							toBson(encode(context, decoded, false)));
+				}
+			}
+		}
+
+	}
+
+	@Test
+	public void testFieldValueConversions() {
+
+		final PathProperty<long[]> alng = PathProperty.create("alng", long[].class);
+		final PathProperty<double[]> adbl = PathProperty.create("adbl", double[].class);
+
+		// repeated to check cached conversions
+		for (int i = 0; i < 2; i++) {
+			assertTrue(Arrays.equals(new int[] { 1, 2, 3 },
+					(int[]) decode(A_INT, Arrays.asList(Integer.valueOf(1), Long.valueOf(2L), Integer.valueOf(3)))));
+			assertTrue(Arrays.equals(new long[] { 1L, 2L },
+					(long[]) decode(alng, Arrays.asList(Integer.valueOf(1), Long.valueOf(2L)))));
+			assertTrue(Arrays.equals(new double[] { 1.5d, 2d },
+					(double[]) decode(adbl, Arrays.asList(Double.valueOf(1.5d), Integer.valueOf(2)))));
+
+			assertEquals("test", decode(STR1, "test"));
+			assertEquals(Integer.valueOf(7), decode(INT, Integer.valueOf(7)));
+			assertEquals(Integer.valueOf(7), decode(INT, Long.valueOf(7L)));
+			assertEquals(new BigDecimal("12.5"), decode(BGD, new Decimal128(new BigDecimal("12.5"))));
+			assertEquals(EnumValue.SECOND, decode(ENM, EnumValue.SECOND.name()));
+			assertEquals("code", decode(STR1, new Code("code")));
+			assertTrue(Arrays.equals(new byte[] { 1, 2 }, (byte[]) decode(A_BYT, new Binary(new byte[] { 1, 2 }))));
+			assertEquals(TestValues.LDAT, decode(LDAT,
+					java.util.Date.from(TestValues.LDAT.atStartOfDay(ZoneId.of("UTC")).toInstant())));
+		}
+
+		assertThrows(InvalidExpressionException.class,
+				() -> decode(A_INT, Arrays.asList(Integer.valueOf(1), Long.valueOf(Long.MAX_VALUE))));
+	}
+
+	private static Object decode(TypedExpression<?> expression, Object value) {
+		return context.resolveOrFail(FieldValue.create(value, expression), Value.class).getValue();
+	}
+
+	@Test
+	public void testPropertyBoxCodec() {
+
+		final MongoResolutionContext<?> chainContext = createChainContext();
+
+		final CodecRegistry registry = MongoClientSettings.getDefaultCodecRegistry();
+
+		for (PropertyBox value : codecValues()) {
+			final BsonDocument bson = toBson(encode(context, value, false));
+			final Document document = new DocumentCodec(registry).decode(new BsonDocumentReader(bson),
+					DecoderContext.builder().build());
+
+			final PropertyBox expected = context.documentContext(value)
+					.resolveOrFail(DocumentValue.create(document), PropertyBoxValue.class).getValue();
+
+			final PropertyBoxCodec codec = PropertyBoxCodec.create(context.documentContext(value), registry);
+			assertEquals(PropertyBox.class, codec.getEncoderClass());
+			assertEquals(codec, codec.getCodecRegistry().get(PropertyBox.class));
+
+			final PropertyBox decoded = codec.decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+			assertNotNull(decoded);
+			assertPropertyValues(value, expected, decoded);
+			assertEquals(toBson(encode(context, expected, false)), toBson(encode(context, decoded, false)));
+
+			// resolvers chain fallback
+			final PropertyBox chainDecoded = PropertyBoxCodec.create(chainContext.documentContext(value), registry)
+					.decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+			assertEquals(toBson(encode(context, expected, false)), toBson(encode(context, chainDecoded, false)));
+
+			// encode
+			final BsonDocument encoded = new BsonDocument();
+			codec.encode(new BsonDocumentWriter(encoded), value, EncoderContext.builder().build());
+			assertEquals(bson, encoded);
+		}
+
+	}
+
+	private static List<PropertyBox> codecValues() {
+		final ObjectId oid = new ObjectId();
+
+		final List<PropertyBox> values = new LinkedList<>();
+
+		values.add(PropertyBox.builder(SET1).set(ID, oid).set(STR1, TestValues.STR1).set(BOOL, TestValues.BOOL)
+				.set(INT, TestValues.INT).set(LNG, TestValues.LNG).set(DBL, TestValues.DBL).set(FLT, TestValues.FLT)
+				.set(SHR, TestValues.SHR).set(BYT, TestValues.BYT).set(BGD, TestValues.BGD).set(ENM, TestValues.ENM)
+				.set(DAT, TestValues.DAT).set(TMS, TestValues.TMS).set(LDAT, TestValues.LDAT).set(LTMS, TestValues.LTMS)
+				.set(LTM, TestValues.LTM).set(A_STR, TestValues.A_STR).set(A_INT, TestValues.A_INT)
+				.set(A_ENM, TestValues.A_ENM).set(A_CHR, TestValues.A_CHR).set(A_BYT, TestValues.A_BYT).set(NBL, true)
+				.build());
+		values.add(PropertyBox.builder(SET3).set(ID3, oid).set(STR1, TestValues.STR1).build());
+		values.add(PropertyBox.builder(SET5).set(ID5, new BigInteger(oid.toHexString(), 16))
+				.set(STR1, TestValues.STR1).build());
+		values.add(PropertyBox.builder(SET8).set(ID, oid).set(STR1, "testn").set(ENM, EnumValue.FIRST)
+				.set(NESTED, PropertyBox.builder(NESTED_SET).set(NESTED_V1, "n1v1").set(NESTED_V2, "n1v2").build())
+				.set(N2_V1, 52).set(N2_V2, "n2v2").set(N3_V1, "n3v1").set(N3_V2, 12.97d).build());
+		values.add(PropertyBox.builder(SET9).set(ID, oid).set(STR1, "test").set(CP_LIST, Arrays.asList("a", "b"))
+				.set(CP_SET, new HashSet<>(Arrays.asList(1, 2))).set(CP_ENM, Collections.singleton(EnumValue.SECOND))
+				.build());
+		values.add(PropertyBox.builder(SET10).set(ID, oid).set(STR1, "testn")
+				.set(C_PBX,
+						Arrays.asList(PropertyBox.builder(NESTED_SET).set(NESTED_V1, "n1v1").build(),
+								PropertyBox.builder(NESTED_SET).set(NESTED_V1, "n2v1").set(NESTED_V2, "n2v2").build()))
+				.build());
+
+		return values;
+	}
+
+	@Test
+	public void testAssignDocumentIds() {
+
+		final StringProperty CODE = StringProperty.create("code");
+		final StringProperty TEXT = StringProperty.create("text");
+		final PropertySet<?> SET = PropertySet.builderOf(CODE, TEXT).withIdentifier(CODE).build();
+
+		final MongoDocumentContext<?> documentContext = context.documentContext(SET);
+
+		final Document generated = documentContext.resolveOrFail(
+				PropertyBoxValue.create(PropertyBox.builder(SET).set(TEXT, "test").build()), DocumentValue.class)
+				.getValue();
+		assertFalse(generated.containsKey("_id"));
+
+		final ObjectId oid = new ObjectId();
+		final Document provided = documentContext.resolveOrFail(
+				PropertyBoxValue.create(PropertyBox.builder(SET).set(CODE, oid.toHexString()).build()),
+				DocumentValue.class).getValue();
+
+		MongoOperations.assignDocumentIds(documentContext, Arrays.asList(generated, provided));
+
+		assertTrue(generated.get("_id") instanceof ObjectId);
+		assertEquals(generated.getObjectId("_id").toHexString(), generated.get("code"));
+		assertEquals("test", generated.get("text"));
+
+		assertEquals(oid, provided.get("_id"));
+		assertEquals(oid.toHexString(), provided.get("code"));
+
+		// default id field name
+		final Document document = encode(context, PropertyBox.builder(SET1).set(STR1, "test").build(), false);
+		MongoOperations.assignDocumentId(context.documentContext(SET1), document);
+		assertFalse(document.containsKey("_id"));
+	}
+
+	private static Document encode(MongoResolutionContext<?> context, PropertyBox value, boolean forUpdate) {
+		final MongoDocumentContext<?> documentContext = forUpdate
+				? MongoDocumentContext.createForUpdate(context, value)
+				: MongoDocumentContext.create(context, value);
+		return documentContext.resolveOrFail(PropertyBoxValue.create(value), DocumentValue.class).getValue();
+	}
+
+	/**
+	 * Create a context which disables the compiled codecs, so that the values are encoded and decoded using the
+	 * expression resolvers chain.
+	 */
+	private static MongoResolutionContext<?> createChainContext() {
+		final MongoResolutionContext<?> chainContext = MongoResolutionContext.create(new MongoTestContext());
+		chainContext.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+		chainContext.addExpressionResolver(
+				ExpressionResolver.create(Value.class, FieldValue.class, (v, c) -> Optional.empty()));
+		return chainContext;
+	}
+
+	/**
+	 * Assert that the property values of two property boxes are equal, skipping the array, collection and nested
+	 * PropertyBox values, which must be compared by encoding.
+	 */
+	private static void assertPropertyValues(PropertyBox value, PropertyBox expected, PropertyBox actual) {
+		for (Property<?> property : value) {
+			if (!property.getType().isArray() && !PropertyBox.class.isAssignableFrom(property.getType())
+					&& !(actual.getValue(property) instanceof Collection)) {
+				assertEquals(expected.getValue(property), actual.getValue(property));
+			}
+		}
+	}
+
+	private static BsonDocument toBson(Document document) {
+		return document.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+	}
+
 	private static String checkJson(Document document) {
 		return document.toJson(JsonWriterSettings.builder().build(),
 				new DocumentCodec(MongoClientSettings.getDefaultCodecRegistry()));
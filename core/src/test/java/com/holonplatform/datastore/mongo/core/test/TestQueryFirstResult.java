@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.datastore.DataTarget;
+import com.holonplatform.core.internal.query.QueryDefinition;
+import com.holonplatform.datastore.mongo.core.ReadOperationConfiguration;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.BsonQueryDefinition;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+
+public class TestQueryFirstResult {
+
+	private static MongoResolutionContext<?> context;
+
+	@BeforeAll
+	public static void init() {
+		context = MongoResolutionContext.create(new MongoTestContext());
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+	}
+
+	@Test
+	public void testFirstResult() {
+		final QueryDefinition query = QueryDefinition.create();
+		query.setTarget(DataTarget.named("test"));
+		query.setLimit(10);
+		query.addParameter(ReadOperationConfiguration.QUERY_BATCH_SIZE, 100);
+
+		BsonQueryDefinition definition = context.resolveOrFail(query, BsonQueryDefinition.class);
+		assertEquals(Integer.valueOf(10), definition.getLimit().orElse(null));
+		assertEquals(Integer.valueOf(100), definition.getBatchSize().orElse(null));
+
+		query.addParameter(ReadOperationConfiguration.QUERY_FIRST_RESULT, Boolean.TRUE);
+		definition = context.resolveOrFail(query, BsonQueryDefinition.class);
+		assertEquals(Integer.valueOf(1), definition.getLimit().orElse(null));
+		assertEquals(Integer.valueOf(1), definition.getBatchSize().orElse(null));
+
+		query.addParameter(ReadOperationConfiguration.QUERY_FIRST_RESULT, Boolean.FALSE);
+		query.setLimit(null);
+		definition = context.resolveOrFail(query, BsonQueryDefinition.class);
+		assertFalse(definition.getLimit().isPresent());
+	}
+
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.datastore.DataTarget;
+import com.holonplatform.core.internal.query.QueryDefinition;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.core.query.PropertySetProjection;
+import com.holonplatform.core.query.QueryOperation;
+import com.holonplatform.datastore.mongo.core.cache.QueryResultCache;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.BsonQuery;
+import com.holonplatform.datastore.mongo.core.internal.operation.QueryResultCacheRequest;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+import com.mongodb.MongoClientSettings;
+
+public class TestQueryResultCache {
+
+	private static final List<RawBsonDocument> RESULTS = Collections
+			.singletonList(new RawBsonDocument(new BsonDocument("v", new BsonInt32(1)), new BsonDocumentCodec()));
+
+	private static final StringProperty TEXT = StringProperty.create("text");
+
+	@Test
+	public void testBuilder() {
+		assertThrows(IllegalArgumentException.class,
+				() -> QueryResultCache.builder().collection("test", 0, Duration.ofSeconds(1)));
+		assertThrows(IllegalArgumentException.class,
+				() -> QueryResultCache.builder().collection("test", 1, Duration.ZERO));
+
+		final QueryResultCache cache = QueryResultCache.builder().collection("test1").collection("test2").build();
+		assertEquals(2, cache.getCollectionNames().size());
+		assertTrue(cache.isEnabled("test1"));
+		assertTrue(cache.isEnabled("test2"));
+		assertFalse(cache.isEnabled("test3"));
+	}
+
+	@Test
+	public void testCache() {
+		final QueryResultCache cache = QueryResultCache.builder().collection("test").build();
+
+		assertFalse(cache.get("test", "k1").isPresent());
+		assertTrue(cache.put("test", "k1", cache.getVersion("test"), RESULTS));
+		assertEquals(RESULTS, cache.get("test", "k1").orElse(null));
+		assertThrows(UnsupportedOperationException.class, () -> cache.get("test", "k1").get().clear());
+
+		// not cached collection
+		assertFalse(cache.put("other", "k1", cache.getVersion("other"), RESULTS));
+		assertFalse(cache.get("other", "k1").isPresent());
+		assertFalse(cache.getStatistics("other").isPresent());
+
+		assertEquals(2, cache.getStatistics().getHitCount());
+		assertEquals(1, cache.getStatistics().getMissCount());
+		assertEquals(2, cache.getStatistics("test").get().getHitCount());
+		assertEquals(1, cache.getStatistics("test").get().getMissCount());
+	}
+
+	@Test
+	public void testInvalidation() {
+		final QueryResultCache cache = QueryResultCache.builder().collection("test").collection("other").build();
+
+		final long version = cache.getVersion("test");
+		assertTrue(cache.put("test", "k1", version, RESULTS));
+		assertTrue(cache.put("other", "k1", cache.getVersion("other"), RESULTS));
+
+		cache.invalidate("test");
+		assertFalse(cache.get("test", "k1").isPresent());
+		assertTrue(cache.get("other", "k1").isPresent());
+
+		// results of a query started before the invalidation are discarded
+		assertFalse(cache.put("test", "k1", version, RESULTS));
+		assertFalse(cache.get("test", "k1").isPresent());
+		assertTrue(cache.put("test", "k1", cache.getVersion("test"), RESULTS));
+		assertTrue(cache.get("test", "k1").isPresent());
+
+		cache.clear();
+		assertFalse(cache.get("test", "k1").isPresent());
+		assertFalse(cache.get("other", "k1").isPresent());
+	}
+
+	@Test
+	public void testWriteInvalidation() {
+		final QueryResultCache cache = QueryResultCache.builder().collection("test").build();
+		final MongoTestContext context = new MongoTestContext() {
+
+			@Override
+			public Optional<QueryResultCache> getQueryResultCache() {
+				return Optional.of(cache);
+			}
+
+		};
+
+		assertTrue(cache.put("test", "k1", cache.getVersion("test"), RESULTS));
+		context.beforeCollectionWrite("other");
+		assertTrue(cache.get("test", "k1").isPresent());
+		context.beforeCollectionWrite("test");
+		assertFalse(cache.get("test", "k1").isPresent());
+	}
+
+	@Test
+	public void testWriteInterleaving() {
+		final QueryResultCache cache = QueryResultCache.builder().collection("test").build();
+		final MongoResolutionContext<?> context = MongoResolutionContext.create(new MongoTestContext() {
+
+			@Override
+			public Optional<QueryResultCache> getQueryResultCache() {
+				return Optional.of(cache);
+			}
+
+		});
+
+		// a query which starts after the invalidation and completes before the write
+		context.beforeCollectionWrite("test");
+		assertTrue(cache.put("test", "k1", cache.getVersion("test"), RESULTS));
+		context.afterCollectionWrite("test");
+		assertFalse(cache.get("test", "k1").isPresent());
+
+		// a query which starts after the invalidation and completes after the write
+		context.beforeCollectionWrite("test");
+		final long version = cache.getVersion("test");
+		context.afterCollectionWrite("test");
+		assertFalse(cache.put("test", "k1", version, RESULTS));
+		assertFalse(cache.get("test", "k1").isPresent());
+
+		// a query which starts after the write
+		assertTrue(cache.put("test", "k1", cache.getVersion("test"), RESULTS));
+		assertTrue(cache.get("test", "k1").isPresent());
+	}
+
+	@Test
+	public void testMaxEntryDocuments() {
+		assertThrows(IllegalArgumentException.class, () -> QueryResultCache.builder().maxEntryDocuments(0));
+
+		final QueryResultCache cache = QueryResultCache.builder().collection("test").maxEntryDocuments(2).build();
+		assertEquals(2, cache.getMaxEntryDocuments());
+		assertEquals(QueryResultCache.DEFAULT_MAX_ENTRY_DOCUMENTS,
+				QueryResultCache.builder().build().getMaxEntryDocuments());
+
+		assertFalse(cache.put("test", "k1", cache.getVersion("test"), documents(3)));
+		assertFalse(cache.get("test", "k1").isPresent());
+		assertTrue(cache.put("test", "k1", cache.getVersion("test"), documents(2)));
+		assertTrue(cache.get("test", "k1").isPresent());
+		cache.clear();
+
+		// streamed results
+		final MongoResolutionContext<?> context = MongoResolutionContext.create(new MongoTestContext() {
+
+			@Override
+			public Optional<QueryResultCache> getQueryResultCache() {
+				return Optional.of(cache);
+			}
+
+		});
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+		final QueryDefinition definition = QueryDefinition.create();
+		definition.setTarget(DataTarget.named("test"));
+		final BsonQuery query = context.resolveOrFail(
+				QueryOperation.create(definition, PropertySetProjection.of(Collections.singletonList(TEXT))),
+				BsonQuery.class);
+
+		// exceeds the limit
+		List<PropertyBox> values = createRequest(context, query).setResults(documents(3).stream())
+				.collect(Collectors.toList());
+		assertEquals(3, values.size());
+		assertEquals("v2", values.get(2).getValue(TEXT));
+		assertFalse(createRequest(context, query).getResults().isPresent());
+
+		// not fully consumed
+		assertTrue(createRequest(context, query).setResults(documents(2).stream()).findFirst().isPresent());
+		assertFalse(createRequest(context, query).getResults().isPresent());
+
+		values = createRequest(context, query).setResults(documents(2).stream()).collect(Collectors.toList());
+		assertEquals(2, values.size());
+		assertEquals(2, createRequest(context, query).getResults().map(r -> r.count()).orElse(0L).longValue());
+	}
+
+	@Test
+	public void testEviction() {
+		final QueryResultCache cache = QueryResultCache.builder().collection("test", 2, Duration.ofMinutes(1))
+				.build();
+
+		assertTrue(cache.put("test", "k1", cache.getVersion("test"), RESULTS));
+		assertTrue(cache.put("test", "k2", cache.getVersion("test"), RESULTS));
+		// k1 is the most recently used
+		assertTrue(cache.get("test", "k1").isPresent());
+		assertTrue(cache.put("test", "k3", cache.getVersion("test"), RESULTS));
+
+		assertTrue(cache.get("test", "k1").isPresent());
+		assertFalse(cache.get("test", "k2").isPresent());
+		assertTrue(cache.get("test", "k3").isPresent());
+		assertEquals(1, cache.getStatistics().getEvictionCount());
+		assertEquals(1, cache.getStatistics("test").get().getEvictionCount());
+	}
+
+	@Test
+	public void testExpiration() throws InterruptedException {
+		final QueryResultCache cache = QueryResultCache.builder().collection("test", 10, Duration.ofMillis(50))
+				.build();
+
+		assertTrue(cache.put("test", "k1", cache.getVersion("test"), RESULTS));
+		assertTrue(cache.get("test", "k1").isPresent());
+		Thread.sleep(100);
+		assertFalse(cache.get("test", "k1").isPresent());
+	}
+
+	private static QueryResultCacheRequest<PropertyBox> createRequest(MongoResolutionContext<?> context,
+			BsonQuery query) {
+		return QueryResultCacheRequest.<PropertyBox> find(context, query, PropertyBox.class,
+				MongoClientSettings.getDefaultCodecRegistry()).orElseThrow(IllegalStateException::new);
+	}
+
+	private static List<RawBsonDocument> documents(int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> new RawBsonDocument(new BsonDocument("text", new BsonString("v" + i)),
+						new BsonDocumentCodec()))
+				.collect(Collectors.toList());
+	}
+
+}
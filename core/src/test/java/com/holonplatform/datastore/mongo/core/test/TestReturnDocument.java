@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.core.property.NumericProperty;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.datastore.mongo.core.DocumentWriteOption;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.internal.operation.DefaultBulkSaveDefinition;
+import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+
+public class TestReturnDocument {
+
+	private static final StringProperty ID = StringProperty.create("_id");
+	private static final StringProperty TEXT = StringProperty.create("text");
+	private static final NumericProperty<Integer> VERSION = NumericProperty.integerType("version");
+	private static final PropertySet<?> SET = PropertySet.builderOf(ID, TEXT, VERSION).withIdentifier(ID).build();
+
+	private static MongoResolutionContext<?> context;
+
+	@BeforeAll
+	public static void init() {
+		context = MongoResolutionContext.create(new MongoTestContext());
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+	}
+
+	@Test
+	public void testOptions() {
+		final DefaultBulkSaveDefinition configuration = new DefaultBulkSaveDefinition();
+		configuration.addWriteOption(DocumentWriteOption.BYPASS_VALIDATION);
+
+		FindOneAndUpdateOptions options = MongoOperations.getFindOneAndUpdateOptions(configuration,
+				ReturnDocumentOption.after(), true);
+		assertEquals(ReturnDocument.AFTER, options.getReturnDocument());
+		assertTrue(options.isUpsert());
+		assertEquals(Boolean.TRUE, options.getBypassDocumentValidation());
+
+		options = MongoOperations.getFindOneAndUpdateOptions(configuration, ReturnDocumentOption.before(v -> {
+		}), false);
+		assertEquals(ReturnDocument.BEFORE, options.getReturnDocument());
+		assertFalse(options.isUpsert());
+	}
+
+	@Test
+	public void testAfter() {
+		final ObjectId id = new ObjectId();
+		final PropertyBox value = PropertyBox.builder(SET).set(ID, id.toHexString()).set(TEXT, "a").set(VERSION, 1)
+				.build();
+		final Document returned = new Document("_id", id).append("text", "a").append("version", 2);
+
+		final List<PropertyBox> received = new ArrayList<>();
+		final Optional<PropertyBox> result = MongoOperations.processReturnedDocument(context,
+				ReturnDocumentOption.after(received::add), value, returned);
+		assertTrue(result.isPresent());
+		assertEquals(Integer.valueOf(2), value.getValue(VERSION));
+		assertEquals(1, received.size());
+		assertEquals(Integer.valueOf(2), received.get(0).getValue(VERSION));
+
+		// no document
+		assertFalse(MongoOperations.processReturnedDocument(context, ReturnDocumentOption.after(), value, null)
+				.isPresent());
+	}
+
+	@Test
+	public void testBefore() {
+		final ObjectId id = new ObjectId();
+		final PropertyBox value = PropertyBox.builder(SET).set(ID, id.toHexString()).set(TEXT, "b").set(VERSION, 2)
+				.build();
+		final Document returned = new Document("_id", id).append("text", "a").append("version", 1);
+
+		final List<PropertyBox> received = new ArrayList<>();
+		MongoOperations.processReturnedDocument(context, ReturnDocumentOption.before(received::add), value, returned);
+		// value not changed
+		assertEquals("b", value.getValue(TEXT));
+		assertEquals(1, received.size());
+		assertEquals("a", received.get(0).getValue(TEXT));
+	}
+
+	@Test
+	public void testPropertySet() {
+		final Document returned = new Document("_id", new ObjectId()).append("text", "a");
+
+		assertThrows(DataAccessException.class, () -> MongoOperations.processReturnedDocument(context,
+				ReturnDocumentOption.after(v -> {
+				}), null, returned));
+
+		final List<PropertyBox> received = new ArrayList<>();
+		MongoOperations.processReturnedDocument(context, ReturnDocumentOption.after(SET, received::add), null,
+				returned);
+		assertEquals(1, received.size());
+		assertEquals("a", received.get(0).getValue(TEXT));
+	}
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.core.datastore.DefaultWriteOption;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.core.property.StringProperty;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.internal.operation.DefaultStreamingInsertDefinition;
+import com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertBatch;
+import com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertBatcher;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertProgress;
+import com.holonplatform.datastore.mongo.core.resolver.MongoExpressionResolver;
+import com.holonplatform.datastore.mongo.core.test.context.MongoTestContext;
+
+public class TestStreamingInsert {
+
+	private static final StringProperty CODE = StringProperty.create("code");
+	private static final StringProperty TEXT = StringProperty.create("text");
+	private static final PropertySet<?> SET = PropertySet.builderOf(CODE, TEXT).withIdentifier(CODE).build();
+
+	private static MongoResolutionContext<?> context;
+
+	@BeforeAll
+	public static void init() {
+		context = MongoResolutionContext.create(new MongoTestContext());
+		context.addExpressionResolvers(MongoExpressionResolver.getDefaultResolvers());
+	}
+
+	@Test
+	public void testDefinition() {
+
+		final DefaultStreamingInsertDefinition definition = new DefaultStreamingInsertDefinition();
+		assertEquals(StreamingInsertOperation.DEFAULT_MAX_BATCH_SIZE, definition.getMaxBatchSize());
+		assertEquals(StreamingInsertOperation.MAX_BATCH_BYTES, definition.getMaxBatchBytes());
+		assertEquals(StreamingInsertOperation.DEFAULT_MAX_BATCHES_IN_FLIGHT, definition.getMaxBatchesInFlight());
+
+		definition.setMaxBatchBytes(Integer.MAX_VALUE);
+		assertEquals(StreamingInsertOperation.MAX_BATCH_BYTES, definition.getMaxBatchBytes());
+
+		assertThrows(IllegalArgumentException.class, () -> definition.setMaxBatchSize(0));
+		assertThrows(IllegalArgumentException.class, () -> definition.setMaxBatchBytes(0));
+		assertThrows(IllegalArgumentException.class, () -> definition.setMaxBatchesInFlight(0));
+	}
+
+	@Test
+	public void testBatchSize() {
+
+		final DefaultStreamingInsertDefinition definition = new DefaultStreamingInsertDefinition();
+		definition.setMaxBatchSize(3);
+
+		final List<StreamingInsertBatch> batches = batches(definition, 8, "text");
+
+		assertEquals(3, batches.size());
+		assertEquals(3, batches.get(0).size());
+		assertEquals(3, batches.get(1).size());
+		assertEquals(2, batches.get(2).size());
+		for (int i = 0; i < batches.size(); i++) {
+			assertEquals(i, batches.get(i).getIndex());
+		}
+
+		batches.forEach(batch -> {
+			assertEquals(batch.getDocuments().stream().mapToLong(d -> d.getByteBuffer().remaining()).sum(),
+					batch.getBytes());
+			batch.getDocuments().forEach(d -> {
+				assertTrue(d.get("_id").isObjectId());
+				assertEquals(d.getObjectId("_id").getValue().toHexString(), d.getString("code").getValue());
+			});
+		});
+	}
+
+	@Test
+	public void testBatchBytes() {
+
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			sb.append('x');
+		}
+		final String text = sb.toString();
+
+		final DefaultStreamingInsertDefinition definition = new DefaultStreamingInsertDefinition();
+		definition.setMaxBatchBytes(3500);
+
+		final List<StreamingInsertBatch> batches = batches(definition, 10, text);
+
+		assertEquals(4, batches.size());
+		assertEquals(3, batches.get(0).size());
+		assertEquals(3, batches.get(1).size());
+		assertEquals(3, batches.get(2).size());
+		assertEquals(1, batches.get(3).size());
+		batches.forEach(batch -> assertTrue(batch.getBytes() <= 3500));
+
+		// single document exceeding the limit
+		definition.setMaxBatchBytes(100);
+		final List<StreamingInsertBatch> single = batches(definition, 2, text);
+		assertEquals(2, single.size());
+		assertEquals(1, single.get(0).size());
+		assertEquals(1, single.get(1).size());
+	}
+
+	@Test
+	public void testCompleted() {
+
+		final List<StreamingInsertProgress> progress = new ArrayList<>();
+
+		final DefaultStreamingInsertDefinition definition = new DefaultStreamingInsertDefinition();
+		definition.setMaxBatchSize(2);
+		definition.addWriteOption(DefaultWriteOption.BRING_BACK_GENERATED_IDS);
+		definition.setProgressCallback(p -> progress.add(p));
+
+		final List<PropertyBox> values = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			values.add(PropertyBox.builder(SET).set(TEXT, "text" + i).build());
+		}
+		final ObjectId provided = new ObjectId();
+		values.add(PropertyBox.builder(SET).set(CODE, provided.toHexString()).set(TEXT, "text").build());
+
+		final StreamingInsertBatcher batcher = new StreamingInsertBatcher(MongoDocumentContext.create(context, SET),
+				definition);
+		final List<StreamingInsertBatch> batches = new ArrayList<>();
+		values.forEach(value -> batcher.add(value).ifPresent(b -> batches.add(b)));
+		assertFalse(batcher.flush().isPresent());
+		assertEquals(2, batches.size());
+
+		batches.forEach(b -> batcher.completed(b));
+
+		assertEquals(4, batcher.getInsertedCount());
+		assertEquals(4, batcher.getResult().getAffectedCount());
+		assertEquals(2, progress.size());
+		assertEquals(0, progress.get(0).getBatchIndex());
+		assertEquals(2, progress.get(0).getBatchSize());
+		assertEquals(2, progress.get(0).getInsertedCount());
+		assertEquals(4, progress.get(1).getInsertedCount());
+
+		for (int i = 0; i < 4; i++) {
+			final String code = values.get(i).getValue(CODE);
+			final StreamingInsertBatch batch = batches.get(i / 2);
+			assertEquals(batch.getDocuments().get(i % 2).getObjectId("_id").getValue().toHexString(), code);
+		}
+		assertEquals(provided.toHexString(), values.get(3).getValue(CODE));
+	}
+
+	@Test
+	public void testFork() {
+
+		final DefaultStreamingInsertDefinition definition = new DefaultStreamingInsertDefinition();
+		definition.setMaxBatchSize(2);
+		definition.addWriteOption(DefaultWriteOption.BRING_BACK_GENERATED_IDS);
+
+		final StreamingInsertBatcher batcher = new StreamingInsertBatcher(MongoDocumentContext.create(context, SET),
+				definition);
+		final StreamingInsertBatcher fork1 = batcher.fork(MongoDocumentContext.create(context, SET));
+		final StreamingInsertBatcher fork2 = batcher.fork(MongoDocumentContext.create(context, SET));
+
+		final PropertyBox value1 = PropertyBox.builder(SET).set(TEXT, "text1").build();
+		final PropertyBox value2 = PropertyBox.builder(SET).set(TEXT, "text2").build();
+		final PropertyBox value3 = PropertyBox.builder(SET).set(TEXT, "text3").build();
+
+		assertFalse(fork1.add(value1).isPresent());
+		final StreamingInsertBatch batch1 = fork1.add(value2).orElse(null);
+		assertFalse(fork2.add(value3).isPresent());
+		final StreamingInsertBatch batch2 = fork2.flush().orElse(null);
+
+		// shared batch sequence
+		assertEquals(0, batch1.getIndex());
+		assertEquals(1, batch2.getIndex());
+
+		// partial completion
+		final StreamingInsertProgress progress = fork1.completed(batch1, Collections.singleton(0));
+		assertEquals(1, progress.getBatchSize());
+		assertNull(value1.getValue(CODE));
+		assertEquals(batch1.getDocuments().get(1).getObjectId("_id").getValue().toHexString(), value2.getValue(CODE));
+
+		// shared inserted count
+		fork2.completed(batch2);
+		assertEquals(2, batcher.getInsertedCount());
+		assertEquals(2, fork1.getInsertedCount());
+		assertEquals(2, batcher.getResult().getAffectedCount());
+	}
+
+	private static List<StreamingInsertBatch> batches(DefaultStreamingInsertDefinition definition, int count,
+			String text) {
+		final StreamingInsertBatcher batcher = new StreamingInsertBatcher(MongoDocumentContext.create(context, SET),
+				definition);
+		final List<StreamingInsertBatch> batches = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			batcher.add(PropertyBox.builder(SET).set(TEXT, text).build()).ifPresent(b -> batches.add(b));
+		}
+		final Optional<StreamingInsertBatch> last = batcher.flush();
+		last.ifPresent(b -> batches.add(b));
+		assertFalse(batcher.flush().isPresent());
+		return batches;
+	}
+
+}
@@ -28,6 +28,7 @@ import com.holonplatform.datastore.mongo.core.context.MongoContext;
 import com.holonplatform.datastore.mongo.core.document.DocumentIdResolver;
 import com.holonplatform.datastore.mongo.core.document.EnumCodecStrategy;
 import com.holonplatform.datastore.mongo.core.internal.logger.MongoDatastoreLogger;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.ReadConcern;
 import com.mongodb.ReadPreference;
 import com.mongodb.WriteConcern;
@@ -100,7 +101,7 @@ public class MongoTestContext implements MongoContext<ClientSession> {
 	 */
 	@Override
 	public CodecRegistry getDatabaseCodecRegistry() {
-		return null;
+		return MongoClientSettings.getDefaultCodecRegistry();
 	}
 
 	/*
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test.data;
+
+import org.bson.types.ObjectId;
+
+import com.holonplatform.core.beans.Identifier;
+
+public class TestBean {
+
+	@Identifier
+	private ObjectId id;
+
+	private String str;
+
+	private int num;
+
+	private long lng;
+
+	private short shrt;
+
+	private char chr;
+
+	private boolean flag;
+
+	private EnumValue enm;
+
+	private TestNestedBean nested;
+
+	public ObjectId getId() {
+		return id;
+	}
+
+	public void setId(ObjectId id) {
+		this.id = id;
+	}
+
+	public String getStr() {
+		return str;
+	}
+
+	public void setStr(String str) {
+		this.str = str;
+	}
+
+	public int getNum() {
+		return num;
+	}
+
+	public void setNum(int num) {
+		this.num = num;
+	}
+
+	public long getLng() {
+		return lng;
+	}
+
+	public void setLng(long lng) {
+		this.lng = lng;
+	}
+
+	public short getShrt() {
+		return shrt;
+	}
+
+	public void setShrt(short shrt) {
+		this.shrt = shrt;
+	}
+
+	public char getChr() {
+		return chr;
+	}
+
+	public void setChr(char chr) {
+		this.chr = chr;
+	}
+
+	public boolean isFlag() {
+		return flag;
+	}
+
+	public void setFlag(boolean flag) {
+		this.flag = flag;
+	}
+
+	public EnumValue getEnm() {
+		return enm;
+	}
+
+	public void setEnm(EnumValue enm) {
+		this.enm = enm;
+	}
+
+	public TestNestedBean getNested() {
+		return nested;
+	}
+
+	public void setNested(TestNestedBean nested) {
+		this.nested = nested;
+	}
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.core.test.data;
+
+import com.holonplatform.core.beans.DataPath;
+
+public class TestNestedBean {
+
+	private String v1;
+
+	@DataPath("v2")
+	private Integer value2;
+
+	public String getV1() {
+		return v1;
+	}
+
+	public void setV1(String v1) {
+		this.v1 = v1;
+	}
+
+	public Integer getValue2() {
+		return value2;
+	}
+
+	public void setValue2(Integer value2) {
+		this.value2 = value2;
+	}
+
+}
@@ -26,12 +26,18 @@ import com.holonplatform.core.internal.utils.ObjectUtils;
 import com.holonplatform.datastore.mongo.async.AsyncMongoDatastore;
 import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoBulkDelete;
 import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoBulkInsert;
+import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoBulkRefresh;
+import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoBulkSave;
 import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoBulkUpdate;
+import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoBulkWrite;
 import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoDelete;
 import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoInsert;
+import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoMultiGet;
 import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoQuery;
 import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoRefresh;
 import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoSave;
+import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoStreamingBulkInsert;
+import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoStreamingQuery;
 import com.holonplatform.datastore.mongo.async.internal.operations.AsyncMongoUpdate;
 import com.holonplatform.datastore.mongo.async.tx.AsyncMongoTransaction;
 import com.holonplatform.datastore.mongo.core.async.internal.AbstractAsyncMongoDatastore;
@@ -65,8 +71,14 @@ public class DefaultAsyncMongoDatastore extends AbstractAsyncMongoDatastore<Asyn
 		registerCommodity(AsyncMongoDelete.FACTORY);
 		registerCommodity(AsyncMongoBulkDelete.FACTORY);
 		registerCommodity(AsyncMongoBulkInsert.FACTORY);
+		registerCommodity(AsyncMongoStreamingBulkInsert.FACTORY);
+		registerCommodity(AsyncMongoBulkWrite.FACTORY);
+		registerCommodity(AsyncMongoBulkSave.FACTORY);
+		registerCommodity(AsyncMongoBulkRefresh.FACTORY);
+		registerCommodity(AsyncMongoMultiGet.FACTORY);
 		registerCommodity(AsyncMongoBulkUpdate.FACTORY);
 		registerCommodity(AsyncMongoQuery.FACTORY);
+		registerCommodity(AsyncMongoStreamingQuery.FACTORY);
 	}
 
 	/*
@@ -224,11 +236,16 @@ public class DefaultAsyncMongoDatastore extends AbstractAsyncMongoDatastore<Asyn
 				LOGGER.error("Failed to finalize the transaction", e);
 				return null;
 			}).thenApply(r -> {
+				// invalidate the cached data of the collections written within the transaction
+				onTransactionEnded(tx.getSession());
 				tx.getSession().close();
 				return true;
 			});
 		}
 
+		// invalidate the cached data of the collections written within the transaction
+		onTransactionEnded(tx.getSession());
+
 		// close session
 		try {
 			tx.getSession().close();
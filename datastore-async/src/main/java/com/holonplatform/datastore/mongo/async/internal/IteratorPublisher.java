@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.internal;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * A single subscription {@link Publisher} which emits the elements of an {@link Iterator}, honoring the subscriber
+ * demand.
+ * <p>
+ * The elements are emitted by the thread which requests them, and re-entrant requests are queued, so that the
+ * subscriber can request more elements from within <code>onNext</code> without growing the call stack.
+ * </p>
+ *
+ * @param <T> Element type
+ * 
+ * @since 6.0.1
+ */
+public class IteratorPublisher<T> implements Publisher<T> {
+
+	private final Iterator<? extends T> iterator;
+
+	public IteratorPublisher(Iterator<? extends T> iterator) {
+		super();
+		this.iterator = iterator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.reactivestreams.Publisher#subscribe(org.reactivestreams.Subscriber)
+	 */
+	@Override
+	public void subscribe(Subscriber<? super T> subscriber) {
+		subscriber.onSubscribe(new IteratorSubscription<>(iterator, subscriber));
+	}
+
+	private static final class IteratorSubscription<T> implements Subscription {
+
+		private final Iterator<? extends T> iterator;
+		private final Subscriber<? super T> subscriber;
+
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private volatile boolean cancelled = false;
+		private boolean done = false;
+
+		IteratorSubscription(Iterator<? extends T> iterator, Subscriber<? super T> subscriber) {
+			super();
+			this.iterator = iterator;
+			this.subscriber = subscriber;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.reactivestreams.Subscription#request(long)
+		 */
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				cancelled = true;
+				subscriber.onError(new IllegalArgumentException("Requested elements must be greater than 0: " + n));
+				return;
+			}
+			requested.accumulateAndGet(n, (r, a) -> (r + a < 0) ? Long.MAX_VALUE : r + a);
+			drain();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.reactivestreams.Subscription#cancel()
+		 */
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		private void drain() {
+			if (wip.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			do {
+				final long r = requested.get();
+				long emitted = 0L;
+				while (emitted != r && !cancelled && !done) {
+					final T next;
+					try {
+						if (!iterator.hasNext()) {
+							done = true;
+							subscriber.onComplete();
+							return;
+						}
+						next = iterator.next();
+					} catch (Exception e) {
+						done = true;
+						subscriber.onError(e);
+						return;
+					}
+					subscriber.onNext(next);
+					emitted++;
+				}
+				if (emitted != 0L && r != Long.MAX_VALUE) {
+					requested.addAndGet(-emitted);
+				}
+				missed = wip.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+	}
+
+}
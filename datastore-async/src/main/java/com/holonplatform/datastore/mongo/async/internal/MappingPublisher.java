@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.internal;
+
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * A {@link Publisher} which maps the elements of a source publisher using a mapping function.
+ * <p>
+ * Each element is mapped only when it is emitted by the source publisher, so the subscriber demand is propagated
+ * unchanged to the source. If the mapping function returns <code>null</code>, the element is dropped and one more
+ * element is requested to the source, so that the subscriber demand is still honored. If the mapping function fails,
+ * the source subscription is cancelled and the error is signalled to the subscriber.
+ * </p>
+ *
+ * @param <T> Source element type
+ * @param <R> Mapped element type
+ * 
+ * @since 6.0.1
+ */
+public class MappingPublisher<T, R> implements Publisher<R> {
+
+	private final Publisher<T> source;
+	private final Function<? super T, ? extends R> mapper;
+
+	public MappingPublisher(Publisher<T> source, Function<? super T, ? extends R> mapper) {
+		super();
+		this.source = source;
+		this.mapper = mapper;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.reactivestreams.Publisher#subscribe(org.reactivestreams.Subscriber)
+	 */
+	@Override
+	public void subscribe(Subscriber<? super R> subscriber) {
+		source.subscribe(new MappingSubscriber<>(subscriber, mapper));
+	}
+
+	private static final class MappingSubscriber<T, R> implements Subscriber<T>, Subscription {
+
+		private final Subscriber<? super R> actual;
+		private final Function<? super T, ? extends R> mapper;
+
+		private Subscription upstream;
+		private boolean done = false;
+
+		MappingSubscriber(Subscriber<? super R> actual, Function<? super T, ? extends R> mapper) {
+			super();
+			this.actual = actual;
+			this.mapper = mapper;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.reactivestreams.Subscriber#onSubscribe(org.reactivestreams.Subscription)
+		 */
+		@Override
+		public void onSubscribe(Subscription s) {
+			this.upstream = s;
+			actual.onSubscribe(this);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.reactivestreams.Subscriber#onNext(java.lang.Object)
+		 */
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				return;
+			}
+			final R mapped;
+			try {
+				mapped = mapper.apply(t);
+			} catch (RuntimeException e) {
+				upstream.cancel();
+				onError(e);
+				return;
+			}
+			if (mapped == null) {
+				// null elements are not allowed: drop and replenish
+				upstream.request(1);
+				return;
+			}
+			actual.onNext(mapped);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.reactivestreams.Subscriber#onError(java.lang.Throwable)
+		 */
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.reactivestreams.Subscriber#onComplete()
+		 */
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			actual.onComplete();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.reactivestreams.Subscription#request(long)
+		 */
+		@Override
+		public void request(long n) {
+			upstream.request(n);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.reactivestreams.Subscription#cancel()
+		 */
+		@Override
+		public void cancel() {
+			upstream.cancel();
+		}
+
+	}
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertBatch;
+import com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertBatcher;
+
+/**
+ * A {@link Subscriber} which groups the received {@link PropertyBox} values into batches and inserts them, keeping at
+ * most a given number of batches in flight.
+ * <p>
+ * The values are requested in chunks of the maximum batch size, and no more values are requested while the maximum
+ * number of batches is in flight. The subscriber is itself a {@link CompletableFuture}, completed with the aggregated
+ * operation result when all the batches have been inserted, or exceptionally at the first error.
+ * </p>
+ * 
+ * @since 6.0.1
+ */
+public class StreamingInsertSubscriber extends CompletableFuture<OperationResult> implements Subscriber<PropertyBox> {
+
+	private final StreamingInsertBatcher batcher;
+	private final Function<StreamingInsertBatch, CompletionStage<?>> inserter;
+	private final int maxBatchesInFlight;
+	private final long prefetch;
+
+	private final Deque<StreamingInsertBatch> pending = new ArrayDeque<>();
+
+	private Subscription subscription;
+	private long outstanding = 0L;
+	private int inFlight = 0;
+	private boolean upstreamDone = false;
+	private boolean terminated = false;
+
+	/**
+	 * Constructor.
+	 * @param batcher The batcher to use
+	 * @param inserter The function to use to insert a batch
+	 * @param maxBatchSize The maximum number of documents of each batch
+	 * @param maxBatchesInFlight The maximum number of batches in flight
+	 */
+	public StreamingInsertSubscriber(StreamingInsertBatcher batcher,
+			Function<StreamingInsertBatch, CompletionStage<?>> inserter, int maxBatchSize, int maxBatchesInFlight) {
+		super();
+		this.batcher = batcher;
+		this.inserter = inserter;
+		this.maxBatchesInFlight = maxBatchesInFlight;
+		this.prefetch = maxBatchSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.reactivestreams.Subscriber#onSubscribe(org.reactivestreams.Subscription)
+	 */
+	@Override
+	public void onSubscribe(Subscription s) {
+		synchronized (this) {
+			if (subscription != null || terminated) {
+				s.cancel();
+				return;
+			}
+			subscription = s;
+			outstanding = prefetch;
+		}
+		s.request(prefetch);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.reactivestreams.Subscriber#onNext(java.lang.Object)
+	 */
+	@Override
+	public void onNext(PropertyBox value) {
+		final StreamingInsertBatch batch;
+		synchronized (this) {
+			if (terminated) {
+				return;
+			}
+			outstanding--;
+			try {
+				batch = dispatch(batcher.add(value).orElse(null));
+			} catch (Exception e) {
+				failed(e);
+				return;
+			}
+		}
+		if (batch != null) {
+			insert(batch);
+		}
+		requestMore();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.reactivestreams.Subscriber#onError(java.lang.Throwable)
+	 */
+	@Override
+	public void onError(Throwable t) {
+		synchronized (this) {
+			if (terminated) {
+				return;
+			}
+			terminated = true;
+		}
+		completeExceptionally(t);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.reactivestreams.Subscriber#onComplete()
+	 */
+	@Override
+	public void onComplete() {
+		final StreamingInsertBatch batch;
+		synchronized (this) {
+			if (terminated) {
+				return;
+			}
+			upstreamDone = true;
+			try {
+				batch = dispatch(batcher.flush().orElse(null));
+			} catch (Exception e) {
+				failed(e);
+				return;
+			}
+		}
+		if (batch != null) {
+			insert(batch);
+		} else {
+			checkCompleted();
+		}
+	}
+
+	/**
+	 * Get the batch to insert right away, if any, queueing given batch if the maximum number of batches in flight has
+	 * been reached. Must be invoked while holding the subscriber lock.
+	 * @param batch The completed batch, may be null
+	 * @return The batch to insert, or <code>null</code> if none
+	 */
+	private StreamingInsertBatch dispatch(StreamingInsertBatch batch) {
+		if (batch != null) {
+			pending.addLast(batch);
+		}
+		if (inFlight < maxBatchesInFlight && !pending.isEmpty()) {
+			inFlight++;
+			return pending.pollFirst();
+		}
+		return null;
+	}
+
+	private void insert(StreamingInsertBatch batch) {
+		final CompletionStage<?> stage;
+		try {
+			stage = inserter.apply(batch);
+		} catch (Exception e) {
+			failed(e);
+			return;
+		}
+		stage.whenComplete((r, error) -> {
+			if (error != null) {
+				failed(error);
+				return;
+			}
+			try {
+				batcher.completed(batch);
+			} catch (Exception e) {
+				failed(e);
+				return;
+			}
+			final StreamingInsertBatch next;
+			synchronized (this) {
+				inFlight--;
+				next = terminated ? null : dispatch(null);
+			}
+			if (next != null) {
+				insert(next);
+			} else {
+				checkCompleted();
+			}
+			requestMore();
+		});
+	}
+
+	private void requestMore() {
+		final Subscription s;
+		synchronized (this) {
+			if (terminated || upstreamDone || outstanding > 0 || inFlight >= maxBatchesInFlight
+					|| !pending.isEmpty()) {
+				return;
+			}
+			outstanding = prefetch;
+			s = subscription;
+		}
+		s.request(prefetch);
+	}
+
+	private void checkCompleted() {
+		synchronized (this) {
+			if (terminated || !upstreamDone || inFlight > 0 || !pending.isEmpty()) {
+				return;
+			}
+			terminated = true;
+		}
+		complete(batcher.getResult());
+	}
+
+	private void failed(Throwable error) {
+		final Subscription s;
+		synchronized (this) {
+			if (terminated) {
+				return;
+			}
+			terminated = true;
+			pending.clear();
+			s = upstreamDone ? null : subscription;
+		}
+		if (s != null) {
+			s.cancel();
+		}
+		completeExceptionally(error);
+	}
+
+}
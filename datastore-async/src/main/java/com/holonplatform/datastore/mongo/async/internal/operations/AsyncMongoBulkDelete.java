@@ -95,9 +95,11 @@ public class AsyncMongoBulkDelete extends AbstractAsyncBulkDelete {
 
 		// resolve collection name
 		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// invalidate the cached data before writing
+		context.beforeCollectionWrite(collectionName);
 		// get and configure collection
 		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-			return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+			return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 					configuration);
 		});
 
@@ -115,7 +117,9 @@ public class AsyncMongoBulkDelete extends AbstractAsyncBulkDelete {
 					// result
 					return OperationResult.builder().type(OperationType.DELETE).affectedCount(ctx.getAffectedCount())
 							.build();
-				});
+				})
+				// invalidate the data cached while writing
+				.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
 	}
 
 }
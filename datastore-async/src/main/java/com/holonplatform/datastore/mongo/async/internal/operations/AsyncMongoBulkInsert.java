@@ -15,14 +15,11 @@
  */
 package com.holonplatform.datastore.mongo.async.internal.operations;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 
 import org.bson.Document;
-import org.bson.types.ObjectId;
 
 import com.holonplatform.async.datastore.internal.operation.AbstractAsyncBulkInsert;
 import com.holonplatform.async.datastore.operation.AsyncBulkInsert;
@@ -42,8 +39,6 @@ import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
 import com.holonplatform.datastore.mongo.core.internal.support.ResolvedDocument;
-import com.mongodb.client.model.Filters;
-import com.mongodb.client.result.UpdateResult;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
@@ -102,9 +97,11 @@ public class AsyncMongoBulkInsert extends AbstractAsyncBulkInsert {
 
 		// resolve collection name
 		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// invalidate the cached data before writing
+		context.beforeCollectionWrite(collectionName);
 		// get and configure collection
 		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-			return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+			return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 					configuration);
 		});
 
@@ -115,6 +112,9 @@ public class AsyncMongoBulkInsert extends AbstractAsyncBulkInsert {
 		// documents to insert
 		final List<Document> documents = documentValues.stream().map(v -> v.getDocument()).collect(Collectors.toList());
 
+		// generate the document ids, if required
+		MongoOperations.assignDocumentIds(context, documents);
+
 		return context.getClientSession()
 				.map(session -> CompletableFutureSubscriber.fromPublisher(
 						collection.insertMany(session, documents, MongoOperations.getInsertManyOptions(configuration))))
@@ -122,40 +122,17 @@ public class AsyncMongoBulkInsert extends AbstractAsyncBulkInsert {
 						collection.insertMany(documents, MongoOperations.getInsertManyOptions(configuration))))
 				.thenApply(result -> AsyncMultiPropertyBoxOperationResultContext.create(context, collection,
 						configuration, documents.size(), OperationType.INSERT, documentValues))
-				.thenCompose(ctx -> {
+				.thenApply(ctx -> {
 					// check inserted keys
-					List<ObjectId> insertedIds = MongoOperations.checkInsertedKeys(ctx.getContext(),
-							ctx.getConfiguration(), ctx.getValues());
-					// check if the identifier property has to be updated with the document ids values
-					final List<CompletableFuture<UpdateResult>> operations = new ArrayList<>(insertedIds.size());
-					if (!insertedIds.isEmpty()) {
-						MongoOperations.getPropertyDocumentIdFieldName(ctx.getContext()).ifPresent(fieldName -> {
-							for (ObjectId insertedId : insertedIds) {
-								MongoOperations.getIdUpdateDocument(ctx.getContext(), insertedId, fieldName)
-										.ifPresent(toUpdate -> {
-											operations.add(CompletableFutureSubscriber.fromPublisher(ctx.getCollection()
-													.updateOne(Filters.eq(insertedId), toUpdate.getUpdateDocument()))
-													.thenApply(ur -> {
-														context.trace("Updated identifier property value",
-																toUpdate.getUpdateDocument());
-														return ur;
-													}));
-										});
-							}
-						});
-					}
-					if (!operations.isEmpty()) {
-						return CompletableFuture.allOf(operations.toArray(new CompletableFuture[operations.size()]))
-								.thenApply(x -> ctx);
-					}
-					return CompletableFuture.completedFuture(ctx);
-				}).thenApply(ctx -> {
+					MongoOperations.checkInsertedKeys(ctx.getContext(), ctx.getConfiguration(), ctx.getValues());
 					// trace
 					ctx.trace("Inserted documents",
 							ctx.getValues().stream().map(v -> v.getDocument()).collect(Collectors.toList()));
 					return OperationResult.builder().type(OperationType.INSERT).affectedCount(ctx.getAffectedCount())
 							.build();
-				});
+				})
+				// invalidate the data cached while writing
+				.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
 	}
 
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.internal.operations;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.datastore.mongo.async.internal.CompletableFutureStreamSubscriber;
+import com.holonplatform.datastore.mongo.async.operation.AsyncBulkRefresh;
+import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.document.DocumentSerializer;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractBulkRefreshOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkRefreshRequest;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshResult;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+/**
+ * Mongo {@link AsyncBulkRefresh} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class AsyncMongoBulkRefresh extends AbstractBulkRefreshOperation<AsyncBulkRefresh> implements AsyncBulkRefresh {
+
+	private static final long serialVersionUID = -2748853107521374935L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncBulkRefresh> FACTORY = new DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncBulkRefresh>() {
+
+		@Override
+		public Class<? extends AsyncBulkRefresh> getCommodityType() {
+			return AsyncBulkRefresh.class;
+		}
+
+		@Override
+		public AsyncBulkRefresh createCommodity(AsyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new AsyncMongoBulkRefresh(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public AsyncMongoBulkRefresh(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected AsyncBulkRefresh getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.async.operation.AsyncBulkRefresh#execute()
+	 */
+	@Override
+	public CompletionStage<BulkRefreshResult> execute() {
+
+		// configuration
+		final BulkRefreshConfiguration configuration = getConfiguration();
+		// validate
+		configuration.validate();
+
+		// resolution context
+		final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+		context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+		// encode the document ids
+		final BulkRefreshRequest request = new BulkRefreshRequest(context, configuration);
+
+		// resolve collection name
+		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// get and configure collection
+		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
+			return AsyncMongoCollectionConfigurator.getReadCollection(database, collectionName, context,
+					configuration.getParameters());
+		});
+
+		// execute the chunks one at a time
+		CompletionStage<BulkRefreshRequest> stage = CompletableFuture.completedFuture(request);
+		for (int i = 0; i < request.getChunkCount(); i++) {
+			final int index = i;
+			stage = stage.thenCompose(r -> {
+				final Bson filter = r.getFilter(index);
+				// trace
+				context.trace("Bulk refresh", () -> DocumentSerializer.getDefault().toJson(filter));
+				// read the chunk documents in a single batch
+				return CompletableFutureStreamSubscriber
+						.fromPublisher(context.getClientSession().map(session -> collection.find(session, filter))
+								.orElseGet(() -> collection.find(filter)).batchSize(r.getChunkSize(index)))
+						.thenApply(documents -> {
+							documents.forEach(r::addDocument);
+							return r;
+						});
+			});
+		}
+		return stage.thenApply(r -> r.getResult());
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.internal.operations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.bson.Document;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.datastore.mongo.async.internal.CompletableFutureSubscriber;
+import com.holonplatform.datastore.mongo.async.operation.AsyncBulkSave;
+import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractBulkSaveOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkSaveRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkWriteRequest;
+import com.holonplatform.datastore.mongo.core.operation.BulkSaveConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+/**
+ * Mongo {@link AsyncBulkSave} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class AsyncMongoBulkSave extends AbstractBulkSaveOperation<AsyncBulkSave> implements AsyncBulkSave {
+
+	private static final long serialVersionUID = -4619872354806104385L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncBulkSave> FACTORY = new DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncBulkSave>() {
+
+		@Override
+		public Class<? extends AsyncBulkSave> getCommodityType() {
+			return AsyncBulkSave.class;
+		}
+
+		@Override
+		public AsyncBulkSave createCommodity(AsyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new AsyncMongoBulkSave(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public AsyncMongoBulkSave(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected AsyncBulkSave getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.async.operation.AsyncBulkSave#execute()
+	 */
+	@Override
+	public CompletionStage<BulkWriteOperationResult> execute() {
+
+		// configuration
+		final BulkSaveConfiguration configuration = getConfiguration();
+		// validate
+		configuration.validate();
+
+		// resolution context
+		final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+		context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+		// partition the values
+		final BulkSaveRequest request = new BulkSaveRequest(operationContext, configuration);
+
+		// resolve collection name
+		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// invalidate the cached data before writing
+		context.beforeCollectionWrite(collectionName);
+		// get and configure collection
+		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
+			return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
+					configuration);
+		});
+
+		// execute the chunks one at a time
+		CompletionStage<List<BulkWriteOperationResult>> stage = CompletableFuture
+				.completedFuture(new ArrayList<>(request.getChunkCount()));
+		for (int i = 0; i < request.getChunkCount(); i++) {
+			final int index = i;
+			stage = stage.thenCompose(results -> {
+				final BulkWriteRequest chunk = request.getChunk(index);
+				return context.getClientSession()
+						.map(session -> CompletableFutureSubscriber
+								.fromPublisher(collection.bulkWrite(session, chunk.getModels(), chunk.getOptions())))
+						.orElseGet(() -> CompletableFutureSubscriber
+								.fromPublisher(collection.bulkWrite(chunk.getModels(), chunk.getOptions())))
+						.thenApply(result -> {
+							// trace
+							context.trace("Bulk save", chunk.trace(context));
+							results.add(chunk.getResult(result));
+							return results;
+						});
+			});
+		}
+		return stage.thenApply(results -> request.getResult(results))
+				// invalidate the data cached while writing
+				.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
+	}
+
+}
@@ -28,7 +28,9 @@ import com.holonplatform.core.datastore.Datastore.OperationType;
 import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
 import com.holonplatform.core.datastore.DatastoreCommodityFactory;
 import com.holonplatform.core.datastore.operation.commons.BulkUpdateOperationConfiguration;
+import com.holonplatform.core.exceptions.DataAccessException;
 import com.holonplatform.datastore.mongo.async.internal.CompletableFutureSubscriber;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
 import com.holonplatform.datastore.mongo.core.async.internal.support.AsyncOperationResultContext;
@@ -37,6 +39,7 @@ import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
 import com.holonplatform.datastore.mongo.core.expression.BsonExpression;
 import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
@@ -95,15 +98,45 @@ public class AsyncMongoBulkUpdate extends AbstractAsyncBulkUpdate {
 
 		// resolve collection name
 		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// invalidate the cached data before writing
+		context.beforeCollectionWrite(collectionName);
 		// get and configure collection
 		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-			return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+			return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 					configuration);
 		});
 
 		// update expression
 		final Bson update = MongoOperations.getUpdateExpression(context, configuration);
 
+		// check return document
+		final Optional<ReturnDocumentOption> returnDocument = configuration.getWriteOption(ReturnDocumentOption.class);
+		if (returnDocument.isPresent()) {
+			if (!returnDocument.get().getPropertySet().isPresent()) {
+				throw new DataAccessException(
+						"A property set must be provided to return the updated document with a bulk UPDATE");
+			}
+			final Bson query = filter.orElseGet(Document::new);
+			final FindOneAndUpdateOptions options = MongoOperations.getFindOneAndUpdateOptions(configuration,
+					returnDocument.get(), false);
+			return context.getClientSession()
+					.map(session -> CompletableFutureSubscriber
+							.fromPublisher(collection.findOneAndUpdate(session, query, update, options)))
+					.orElseGet(() -> CompletableFutureSubscriber
+							.fromPublisher(collection.findOneAndUpdate(query, update, options)))
+					.thenApply(returned -> {
+						// trace
+						context.trace("Update document", MongoOperations.traceUpdate(context, filter, update));
+						// returned document
+						MongoOperations.processReturnedDocument(context, returnDocument.get(), null, returned);
+						// result
+						return OperationResult.builder().type(OperationType.UPDATE)
+								.affectedCount((returned != null) ? 1 : 0).build();
+					})
+					// invalidate the data cached while writing
+					.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
+		}
+
 		return context.getClientSession()
 				.map(session -> CompletableFutureSubscriber.fromPublisher(collection.updateMany(session,
 						filter.orElse(null), update, MongoOperations.getUpdateOptions(configuration, false))))
@@ -117,7 +150,9 @@ public class AsyncMongoBulkUpdate extends AbstractAsyncBulkUpdate {
 					// result
 					return OperationResult.builder().type(OperationType.UPDATE).affectedCount(ctx.getAffectedCount())
 							.build();
-				});
+				})
+				// invalidate the data cached while writing
+				.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
 	}
 
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.internal.operations;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.bson.Document;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.datastore.mongo.async.internal.CompletableFutureSubscriber;
+import com.holonplatform.datastore.mongo.async.operation.AsyncBulkWrite;
+import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractBulkWriteOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkWriteRequest;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+/**
+ * Mongo {@link AsyncBulkWrite} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class AsyncMongoBulkWrite extends AbstractBulkWriteOperation<AsyncBulkWrite> implements AsyncBulkWrite {
+
+	private static final long serialVersionUID = 3541297640587316342L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncBulkWrite> FACTORY = new DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncBulkWrite>() {
+
+		@Override
+		public Class<? extends AsyncBulkWrite> getCommodityType() {
+			return AsyncBulkWrite.class;
+		}
+
+		@Override
+		public AsyncBulkWrite createCommodity(AsyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new AsyncMongoBulkWrite(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public AsyncMongoBulkWrite(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected AsyncBulkWrite getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.async.operation.AsyncBulkWrite#execute()
+	 */
+	@Override
+	public CompletionStage<BulkWriteOperationResult> execute() {
+
+		// configuration
+		final BulkWriteConfiguration configuration = getConfiguration();
+		// validate
+		configuration.validate();
+
+		// resolution context
+		final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+		context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+		// encode the write operations
+		final BulkWriteRequest request = new BulkWriteRequest(operationContext, configuration);
+		if (request.getModels().isEmpty()) {
+			return CompletableFuture.completedFuture(request.getResult(null));
+		}
+
+		// resolve collection name
+		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// invalidate the cached data before writing
+		context.beforeCollectionWrite(collectionName);
+		// get and configure collection
+		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
+			return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
+					configuration);
+		});
+
+		return context.getClientSession()
+				.map(session -> CompletableFutureSubscriber
+						.fromPublisher(collection.bulkWrite(session, request.getModels(), request.getOptions())))
+				.orElseGet(() -> CompletableFutureSubscriber
+						.fromPublisher(collection.bulkWrite(request.getModels(), request.getOptions())))
+				.thenApply(result -> {
+					// trace
+					context.trace("Bulk write", request.trace(context));
+					// operation result
+					return request.getResult(result);
+				})
+				// invalidate the data cached while writing
+				.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
+	}
+
+}
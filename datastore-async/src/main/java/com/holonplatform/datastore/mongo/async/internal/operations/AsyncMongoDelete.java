@@ -93,9 +93,11 @@ public class AsyncMongoDelete extends AbstractAsyncDelete {
 
 		// resolve collection name
 		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// invalidate the cached data before writing
+		context.beforeCollectionWrite(collectionName);
 		// get and configure collection
 		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-			return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+			return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 					configuration);
 		});
 
@@ -124,7 +126,9 @@ public class AsyncMongoDelete extends AbstractAsyncDelete {
 					// operation result
 					return OperationResult.builder().type(OperationType.DELETE).affectedCount(ctx.getAffectedCount())
 							.build();
-				});
+				})
+				// invalidate the data cached while writing
+				.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
 	}
 
 }
@@ -15,12 +15,9 @@
  */
 package com.holonplatform.datastore.mongo.async.internal.operations;
 
-import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import org.bson.Document;
-import org.bson.types.ObjectId;
 
 import com.holonplatform.async.datastore.internal.operation.AbstractAsyncInsert;
 import com.holonplatform.async.datastore.operation.AsyncInsert;
@@ -30,20 +27,17 @@ import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfi
 import com.holonplatform.core.datastore.DatastoreCommodityFactory;
 import com.holonplatform.core.datastore.operation.commons.PropertyBoxOperationConfiguration;
 import com.holonplatform.datastore.mongo.async.internal.CompletableFutureSubscriber;
+import com.holonplatform.datastore.mongo.core.DocumentWriteOption;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
 import com.holonplatform.datastore.mongo.core.async.internal.support.AsyncPropertyBoxOperationResultContext;
 import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
-import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
-import com.holonplatform.datastore.mongo.core.internal.support.IdUpdateDocument;
-import com.mongodb.client.model.Filters;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.MongoCollection;
-import com.mongodb.reactivestreams.client.MongoDatabase;
 
 /**
  * MongoDB {@link AsyncInsert}.
@@ -70,9 +64,9 @@ public class AsyncMongoInsert extends AbstractAsyncInsert {
 		}
 	};
 
-	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+	private final AsyncMongoDatastoreCommodityContext operationContext;
 
-	public AsyncMongoInsert(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+	public AsyncMongoInsert(AsyncMongoDatastoreCommodityContext operationContext) {
 		super();
 		this.operationContext = operationContext;
 	}
@@ -96,9 +90,11 @@ public class AsyncMongoInsert extends AbstractAsyncInsert {
 
 		// resolve collection name
 		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// invalidate the cached data before writing
+		context.beforeCollectionWrite(collectionName);
 		// get and configure collection
 		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-			return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+			return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 					configuration);
 		});
 
@@ -106,11 +102,20 @@ public class AsyncMongoInsert extends AbstractAsyncInsert {
 		final Document document = context
 				.resolveOrFail(PropertyBoxValue.create(configuration.getValue()), DocumentValue.class).getValue();
 
-		return context.getClientSession()
-				.map(session -> CompletableFutureSubscriber.fromPublisher(
+		// generate the document id, if required
+		MongoOperations.assignDocumentId(context, document);
+
+		// insert, coalescing the single insertions outside of a transaction if enabled
+		final CompletionStage<?> insert = context.getClientSession()
+				.<CompletionStage<?>>map(session -> CompletableFutureSubscriber.fromPublisher(
 						collection.insertOne(session, document, MongoOperations.getInsertOneOptions(configuration))))
-				.orElseGet(() -> CompletableFutureSubscriber.fromPublisher(
-						collection.insertOne(document, MongoOperations.getInsertOneOptions(configuration))))
+				.orElseGet(() -> operationContext.getInsertCoalescer()
+						.<CompletionStage<?>>map(coalescer -> coalescer.insert(collection, document,
+								configuration.hasWriteOption(DocumentWriteOption.BYPASS_VALIDATION)))
+						.orElseGet(() -> CompletableFutureSubscriber.fromPublisher(
+								collection.insertOne(document, MongoOperations.getInsertOneOptions(configuration)))));
+
+		return insert
 				.thenApply(result -> AsyncPropertyBoxOperationResultContext.create(context, collection, configuration,
 						1, OperationType.INSERT, configuration.getValue(), document))
 				.thenApply(ctx -> {
@@ -121,27 +126,13 @@ public class AsyncMongoInsert extends AbstractAsyncInsert {
 							.affectedCount(1);
 
 					// check inserted keys
-					Optional<ObjectId> insertedId = MongoOperations.checkInsertedKeys(builder, ctx.getContext(),
-							ctx.getConfiguration(), ctx.requireDocument(), ctx.getValue());
-
-					final OperationResult result = builder.build();
-
-					CompletableFuture<OperationResult> operation;
-					// check if the identifier property has to be updated with the document id value
-					final IdUpdateDocument toUpdate = (!insertedId.isPresent()) ? null
-							: MongoOperations.getIdUpdateDocument(ctx.getContext(), insertedId.get()).orElse(null);
-					if (insertedId.isPresent() && toUpdate != null) {
-						operation = CompletableFutureSubscriber.fromPublisher(ctx.getCollection()
-								.updateOne(Filters.eq(insertedId.get()), toUpdate.getUpdateDocument()))
-								.thenApply(ur -> {
-									ctx.trace("Updated identifier property value", toUpdate.getUpdateDocument());
-									return result;
-								});
-					} else {
-						operation = CompletableFuture.completedFuture(result);
-					}
-					return operation.join();
-				});
+					MongoOperations.checkInsertedKeys(builder, ctx.getContext(), ctx.getConfiguration(),
+							ctx.requireDocument(), ctx.getValue());
+
+					return builder.build();
+				})
+				// invalidate the data cached while writing
+				.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
 	}
 
 }
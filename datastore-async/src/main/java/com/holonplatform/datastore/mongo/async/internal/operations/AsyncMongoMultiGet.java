@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.internal.operations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.async.internal.CompletableFutureStreamSubscriber;
+import com.holonplatform.datastore.mongo.async.operation.AsyncMultiGet;
+import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.document.DocumentSerializer;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractMultiGetOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.MultiGetRequest;
+import com.holonplatform.datastore.mongo.core.operation.MultiGetConfiguration;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+/**
+ * Mongo {@link AsyncMultiGet} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class AsyncMongoMultiGet extends AbstractMultiGetOperation<AsyncMultiGet> implements AsyncMultiGet {
+
+	private static final long serialVersionUID = 8829180947261873361L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncMultiGet> FACTORY = new DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncMultiGet>() {
+
+		@Override
+		public Class<? extends AsyncMultiGet> getCommodityType() {
+			return AsyncMultiGet.class;
+		}
+
+		@Override
+		public AsyncMultiGet createCommodity(AsyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new AsyncMongoMultiGet(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public AsyncMongoMultiGet(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected AsyncMultiGet getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.async.operation.AsyncMultiGet#execute()
+	 */
+	@Override
+	public CompletionStage<Map<Object, PropertyBox>> execute() {
+
+		// configuration
+		final MultiGetConfiguration configuration = getConfiguration();
+		// validate
+		configuration.validate();
+
+		// resolution context
+		final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+		context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+		// encode the document ids
+		final MultiGetRequest request = new MultiGetRequest(context, configuration);
+		final int chunkCount = request.getChunkCount();
+		if (chunkCount == 0) {
+			return CompletableFuture.completedFuture(request.getResult());
+		}
+
+		// resolve collection name
+		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// get and configure collection
+		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
+			return AsyncMongoCollectionConfigurator.getReadCollection(database, collectionName, context,
+					configuration.getParameters());
+		});
+
+		// a client session does not support concurrent operations
+		final int concurrency = context.getClientSession().isPresent() ? 1
+				: Math.min(configuration.getMaxConcurrency(), chunkCount);
+
+		// each lane reads its chunks one at a time, storing the documents by chunk index
+		final List<List<Document>> chunks = new ArrayList<>(chunkCount);
+		for (int i = 0; i < chunkCount; i++) {
+			chunks.add(null);
+		}
+		final CompletableFuture<?>[] lanes = new CompletableFuture<?>[concurrency];
+		for (int lane = 0; lane < concurrency; lane++) {
+			CompletionStage<Void> stage = CompletableFuture.completedFuture(null);
+			for (int i = lane; i < chunkCount; i += concurrency) {
+				final int index = i;
+				stage = stage.thenCompose(v -> read(context, collection, request, index).thenAccept(documents -> {
+					synchronized (chunks) {
+						chunks.set(index, documents);
+					}
+				}));
+			}
+			lanes[lane] = stage.toCompletableFuture();
+		}
+
+		// collect the chunk documents in order
+		return CompletableFuture.allOf(lanes).thenApply(v -> {
+			synchronized (chunks) {
+				chunks.forEach(request::addDocuments);
+			}
+			return request.getResult();
+		});
+	}
+
+	/**
+	 * Read the documents of given chunk.
+	 * @param context Resolution context
+	 * @param collection The collection
+	 * @param request The multi-get request
+	 * @param chunk The chunk index
+	 * @return A {@link CompletionStage} which provides the chunk documents
+	 */
+	private static CompletionStage<List<Document>> read(MongoResolutionContext<ClientSession> context,
+			MongoCollection<Document> collection, MultiGetRequest request, int chunk) {
+		final Bson filter = request.getFilter(chunk);
+		// trace
+		context.trace("Multi get", () -> DocumentSerializer.getDefault().toJson(filter));
+		// read the chunk documents in a single batch
+		final FindPublisher<Document> fp = context.getClientSession().map(session -> collection.find(session, filter))
+				.orElseGet(() -> collection.find(filter)).batchSize(request.getChunkSize(chunk));
+		request.getProjection().ifPresent(p -> fp.projection(p));
+		return CompletableFutureStreamSubscriber.fromPublisher(fp).thenApply(documents -> {
+			final List<Document> list = new ArrayList<>(request.getChunkSize(chunk));
+			documents.forEach(list::add);
+			return list;
+		});
+	}
+
+}
@@ -20,10 +20,13 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.bson.Document;
+import org.bson.RawBsonDocument;
 import org.bson.conversions.Bson;
+import org.reactivestreams.Publisher;
 
 import com.holonplatform.async.datastore.internal.operation.AsyncQueryAdapterQuery;
 import com.holonplatform.async.datastore.operation.AsyncQuery;
@@ -31,10 +34,12 @@ import com.holonplatform.async.datastore.operation.AsyncQueryAdapter;
 import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
 import com.holonplatform.core.datastore.DatastoreCommodityFactory;
 import com.holonplatform.core.internal.query.QueryDefinition;
+import com.holonplatform.core.property.PropertyBox;
 import com.holonplatform.core.query.QueryConfiguration;
 import com.holonplatform.core.query.QueryOperation;
 import com.holonplatform.datastore.mongo.async.internal.CompletableFutureStreamSubscriber;
-import com.holonplatform.datastore.mongo.async.internal.CompletableFutureSubscriber;
+import com.holonplatform.datastore.mongo.async.internal.IteratorPublisher;
+import com.holonplatform.datastore.mongo.async.internal.MappingPublisher;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncAggregateOperationConfigurator;
 import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncDistinctOperationConfigurator;
@@ -44,10 +49,12 @@ import com.holonplatform.datastore.mongo.core.async.internal.support.QueryOperat
 import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
 import com.holonplatform.datastore.mongo.core.document.DocumentConverter;
+import com.holonplatform.datastore.mongo.core.document.PropertyBoxCodec;
 import com.holonplatform.datastore.mongo.core.document.QueryOperationType;
 import com.holonplatform.datastore.mongo.core.expression.BsonQuery;
-import com.holonplatform.datastore.mongo.core.internal.document.DocumentSerializer;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.operation.QueryCountRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.QueryResultCacheRequest;
 import com.mongodb.reactivestreams.client.AggregatePublisher;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.DistinctPublisher;
@@ -90,104 +97,220 @@ public class AsyncMongoQuery implements AsyncQueryAdapter<QueryConfiguration> {
 	 * @see
 	 * com.holonplatform.async.datastore.operation.AsyncQueryAdapter#stream(com.holonplatform.core.query.QueryOperation)
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public <R> CompletionStage<Stream<R>> stream(final QueryOperation<QueryConfiguration, R> queryOperation) {
-		return CompletableFuture.supplyAsync(() -> {
-
-			// validate
-			queryOperation.validate();
-
-			// context
-			final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
-			context.addExpressionResolvers(queryOperation.getConfiguration().getExpressionResolvers());
-
-			// resolve query
-			final BsonQuery query = context.resolveOrFail(queryOperation, BsonQuery.class);
-
-			// resolve collection name
-			final String collectionName = query.getDefinition().getCollectionName();
-			// get and configure collection
-			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-				return AsyncMongoCollectionConfigurator.configureRead(database.getCollection(collectionName), context,
-						queryOperation.getConfiguration());
-			});
-
-			// build context
-			return (QueryOperationContext<R>) QueryOperationContext.create(context, collection, query,
-					queryOperation.getProjection().getType());
-
-		}).thenCompose(context -> {
-
-			// query operation type
-			final QueryOperationType queryOperationType = context.getResolutionContext().getQueryOperationType()
-					.orElse(QueryOperationType.FIND);
-			switch (queryOperationType) {
-			case AGGREGATE:
-				return aggregate(context);
-			case COUNT:
-				return count(context);
-			case DISTINCT:
-				return distinct(context);
-			case FIND:
-			default:
-				return find(context);
+		return CompletableFuture.supplyAsync(() -> createContext(operationContext, queryOperation))
+				.thenCompose(context -> cached(context)
+						.orElseGet(() -> CompletableFutureStreamSubscriber.fromPublisher(publisher(context))));
+	}
+
+	/**
+	 * Get the query results using the query result cache, if the cache is enabled for the query collection and the
+	 * query results can be cached.
+	 * @param <R> Query result type
+	 * @param queryContext Query operation context
+	 * @return The query results, empty if the query result cache is not used for the query
+	 */
+	private static <R> Optional<CompletionStage<Stream<R>>> cached(QueryOperationContext<R> queryContext) {
+		final BsonQuery query = queryContext.getQuery();
+		final MongoCollection<RawBsonDocument> collection = queryContext.getCollection()
+				.withDocumentClass(RawBsonDocument.class);
+
+		// query operation type
+		final QueryOperationType queryOperationType = queryContext.getResolutionContext().getQueryOperationType()
+				.orElse(QueryOperationType.FIND);
+		switch (queryOperationType) {
+		case AGGREGATE:
+			final List<Bson> pipeline = MongoOperations.buildAggregationPipeline(query);
+			return QueryResultCacheRequest.<R> aggregate(queryContext.getResolutionContext(), query, pipeline,
+					queryContext.getResultType(), collection.getCodecRegistry())
+					.map(request -> request.getResults()
+							.<CompletionStage<Stream<R>>>map(CompletableFuture::completedFuture)
+							.orElseGet(() -> aggregateAndCache(queryContext, collection, pipeline, request)));
+		case DISTINCT:
+			if (query.getDistinctFieldName().isPresent()) {
+				return Optional.empty();
 			}
+			// a distinct query without a field name is executed as a find query
+		case FIND:
+			return QueryResultCacheRequest.<R> find(queryContext.getResolutionContext(), query,
+					queryContext.getResultType(), collection.getCodecRegistry())
+					.map(request -> request.getResults()
+							.<CompletionStage<Stream<R>>>map(CompletableFuture::completedFuture)
+							.orElseGet(() -> findAndCache(queryContext, collection, request)));
+		default:
+			return Optional.empty();
+		}
+	}
 
-		});
+	/**
+	 * Perform a <em>find</em> operation, caching the raw query results.
+	 * @param <R> Query result type
+	 * @param queryContext Operation context
+	 * @param collection The collection to use
+	 * @param request The query result cache request
+	 * @return The operation result
+	 */
+	private static <R> CompletionStage<Stream<R>> findAndCache(QueryOperationContext<R> queryContext,
+			MongoCollection<RawBsonDocument> collection, QueryResultCacheRequest<R> request) {
+		final FindPublisher<RawBsonDocument> fi = collection.find();
+
+		// configure
+		Optional<Bson> projection = MongoOperations.configure(queryContext.getQuery(),
+				new AsyncFindOperationConfigurator(fi));
+
+		// trace
+		queryContext.trace("FIND query", () -> MongoOperations.traceQuery(queryContext.getResolutionContext(),
+				queryContext.getQuery(), projection.orElse(null)));
+
+		// read all the results, caching them unless they exceed the cache entry limit
+		return CompletableFutureStreamSubscriber.fromPublisher(fi)
+				.thenApply(results -> request.setResults(results.collect(Collectors.toList())));
 	}
 
 	/**
-	 * Perform a <em>count</em> operation.
+	 * Perform a <em>aggregate</em> operation, caching the raw query results.
 	 * @param <R> Query result type
 	 * @param queryContext Operation context
+	 * @param collection The collection to use
+	 * @param pipeline The aggregation pipeline
+	 * @param request The query result cache request
 	 * @return The operation result
 	 */
+	private static <R> CompletionStage<Stream<R>> aggregateAndCache(QueryOperationContext<R> queryContext,
+			MongoCollection<RawBsonDocument> collection, List<Bson> pipeline, QueryResultCacheRequest<R> request) {
+
+		// trace
+		queryContext.trace("Aggregation pipeline",
+				() -> MongoOperations.traceAggregationPipeline(queryContext.getResolutionContext(), pipeline));
+
+		final AggregatePublisher<RawBsonDocument> ai = collection.aggregate(pipeline);
+
+		// configure
+		MongoOperations.configure(queryContext.getQuery(), new AsyncAggregateOperationConfigurator(ai));
+
+		// read all the results, caching them unless they exceed the cache entry limit
+		return CompletableFutureStreamSubscriber.fromPublisher(ai)
+				.thenApply(results -> request.setResults(results.collect(Collectors.toList())));
+	}
+
+	/**
+	 * Resolve given query operation and build the query operation context.
+	 * @param <R> Query result type
+	 * @param operationContext Operation context
+	 * @param queryOperation Query operation
+	 * @return The query operation context
+	 */
 	@SuppressWarnings("unchecked")
-	private static <R> CompletableFuture<Stream<R>> count(QueryOperationContext<R> queryContext) {
+	static <R> QueryOperationContext<R> createContext(
+			MongoOperationContext<MongoDatabase, ClientSession> operationContext,
+			QueryOperation<QueryConfiguration, R> queryOperation) {
+
+		// validate
+		queryOperation.validate();
+
+		// context
+		final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+		context.addExpressionResolvers(queryOperation.getConfiguration().getExpressionResolvers());
+
+		// resolve query
+		final BsonQuery query = context.resolveOrFail(queryOperation, BsonQuery.class);
+
+		// resolve collection name
+		final String collectionName = query.getDefinition().getCollectionName();
+		// get and configure collection
+		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
+			return AsyncMongoCollectionConfigurator.getReadCollection(database, collectionName, context,
+					queryOperation.getConfiguration());
+		});
 
-		// check filter
-		final Bson filter = queryContext.getQuery().getDefinition().getFilter().map(f -> f.getExpression())
-				.orElse(null);
+		// build context
+		return (QueryOperationContext<R>) QueryOperationContext.create(context, collection, query,
+				queryOperation.getProjection().getType());
+	}
+
+	/**
+	 * Get the {@link Publisher} of the query results.
+	 * <p>
+	 * The results are decoded only when they are emitted, honoring the subscriber demand, and the query cursor is
+	 * closed when the subscription is cancelled.
+	 * </p>
+	 * @param <R> Query result type
+	 * @param context Query operation context
+	 * @return The query results publisher
+	 */
+	static <R> Publisher<R> publisher(QueryOperationContext<R> context) {
+		// query operation type
+		final QueryOperationType queryOperationType = context.getResolutionContext().getQueryOperationType()
+				.orElse(QueryOperationType.FIND);
+		switch (queryOperationType) {
+		case AGGREGATE:
+			return aggregate(context);
+		case COUNT:
+			return count(context);
+		case DISTINCT:
+			return distinct(context);
+		case FIND:
+		default:
+			return find(context);
+		}
+	}
+
+	/**
+	 * Perform a <em>count</em> operation, applying the query count strategy.
+	 * @param <R> Query result type
+	 * @param queryContext Operation context
+	 * @return The operation result publisher
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> Publisher<R> count(QueryOperationContext<R> queryContext) {
+
+		final QueryCountRequest request = QueryCountRequest.create(queryContext.getResolutionContext(),
+				queryContext.getQuery().getDefinition(), queryContext.getCollection().getCodecRegistry());
+
+		// check cached count
+		final Optional<Long> cached = request.getCachedCount();
+		if (cached.isPresent()) {
+			return new IteratorPublisher<>(Collections.singleton((R) cached.get()).iterator());
+		}
 
 		// trace
-		queryContext.trace("COUNT query", "Filter: \n" + DocumentSerializer.getDefault().toJson(filter));
+		request.trace();
 
 		// check session
-		return queryContext.getResolutionContext().getClientSession().map(session -> {
-			if (filter != null) {
-				return CompletableFutureSubscriber
-						.fromPublisher(queryContext.getCollection().countDocuments(session, filter))
-						.thenApply(result -> Stream.of((R) result));
-			} else {
-				return CompletableFutureSubscriber.fromPublisher(queryContext.getCollection().countDocuments(session))
-						.thenApply(result -> Stream.of((R) result));
-			}
-		}).orElseGet(() -> {
-			if (filter != null) {
-				return CompletableFutureSubscriber.fromPublisher(queryContext.getCollection().countDocuments(filter))
-						.thenApply(result -> Stream.of((R) result));
-			} else {
-				return CompletableFutureSubscriber.fromPublisher(queryContext.getCollection().countDocuments())
-						.thenApply(result -> Stream.of((R) result));
-			}
-		});
+		final Publisher<Long> publisher = request.isEstimated()
+				? queryContext.getCollection().estimatedDocumentCount()
+				: queryContext.getResolutionContext().getClientSession()
+						.map(session -> queryContext.getCollection().countDocuments(session, request.getFilter(),
+								request.getCountOptions()))
+						.orElseGet(() -> queryContext.getCollection().countDocuments(request.getFilter(),
+								request.getCountOptions()));
+		return new MappingPublisher<>(publisher, result -> (R) request.setCount(result));
 	}
 
 	/**
 	 * Perform a <em>find</em> operation.
 	 * @param <R> Query result type
 	 * @param queryContext Operation context
-	 * @return The operation result
+	 * @return The operation result publisher
 	 */
-	private static <R> CompletableFuture<Stream<R>> find(QueryOperationContext<R> queryContext) {
+	private static <R> Publisher<R> find(QueryOperationContext<R> queryContext) {
 
 		// converter
 		final DocumentConverter<R> documentConverter = MongoOperations.getAndCheckConverter(queryContext.getQuery(),
 				queryContext.getResultType());
 
+		// check PropertyBox codec
+		final Optional<PropertyBoxCodec> codec = MongoOperations.getPropertyBoxCodec(
+				queryContext.getResolutionContext(), queryContext.getQuery(), queryContext.getResultType(),
+				queryContext.getCollection().getCodecRegistry());
+		if (codec.isPresent()) {
+			return findPropertyBoxes(queryContext,
+					queryContext.getCollection().withCodecRegistry(codec.get().getCodecRegistry()));
+		}
+
 		final FindPublisher<Document> fi = queryContext.getResolutionContext().getClientSession()
-				.map(cs -> queryContext.getCollection().find(cs)).orElse(queryContext.getCollection().find());
+				.map(cs -> queryContext.getCollection().find(cs)).orElseGet(() -> queryContext.getCollection().find());
 
 		// configure
 		Optional<Bson> projection = MongoOperations.configure(queryContext.getQuery(),
@@ -198,18 +321,45 @@ public class AsyncMongoQuery implements AsyncQueryAdapter<QueryConfiguration> {
 				queryContext.getQuery(), projection.orElse(null)));
 
 		// execute and map
-		return CompletableFutureStreamSubscriber.fromPublisher(fi).thenApply(documents -> documents
-				.map(document -> documentConverter.convert(queryContext.getResolutionContext(), document)));
+		return new MappingPublisher<>(fi,
+				document -> documentConverter.convert(queryContext.getResolutionContext(), document));
 
 	}
 
+	/**
+	 * Perform a <em>find</em> operation, reading the documents straight into {@link PropertyBox} instances.
+	 * @param <R> Query result type
+	 * @param queryContext Operation context
+	 * @param collection The collection to use, which must provide a {@link PropertyBox} codec
+	 * @return The operation result publisher
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> Publisher<R> findPropertyBoxes(QueryOperationContext<R> queryContext,
+			MongoCollection<Document> collection) {
+
+		final FindPublisher<PropertyBox> fi = queryContext.getResolutionContext().getClientSession()
+				.map(cs -> collection.find(cs, PropertyBox.class))
+				.orElseGet(() -> collection.find(PropertyBox.class));
+
+		// configure
+		Optional<Bson> projection = MongoOperations.configure(queryContext.getQuery(),
+				new AsyncFindOperationConfigurator(fi));
+
+		// trace
+		queryContext.trace("FIND query", () -> MongoOperations.traceQuery(queryContext.getResolutionContext(),
+				queryContext.getQuery(), projection.orElse(null)));
+
+		// execute
+		return (Publisher<R>) fi;
+	}
+
 	/**
 	 * Perform a <em>distinct</em> operation.
 	 * @param <R> Query result type
 	 * @param queryContext Operation context
-	 * @return The operation result
+	 * @return The operation result publisher
 	 */
-	private static <R> CompletableFuture<Stream<R>> distinct(QueryOperationContext<R> queryContext) {
+	private static <R> Publisher<R> distinct(QueryOperationContext<R> queryContext) {
 
 		// check distinct field name
 		if (!queryContext.getQuery().getDistinctFieldName().isPresent()) {
@@ -225,7 +375,8 @@ public class AsyncMongoQuery implements AsyncQueryAdapter<QueryConfiguration> {
 		@SuppressWarnings("unchecked")
 		final DistinctPublisher<R> fi = queryContext.getResolutionContext().getClientSession().map(
 				cs -> queryContext.getCollection().distinct(cs, fieldName, (Class<R>) queryContext.getResultType()))
-				.orElse(queryContext.getCollection().distinct(fieldName, (Class<R>) queryContext.getResultType()));
+				.orElseGet(() -> queryContext.getCollection().distinct(fieldName,
+						(Class<R>) queryContext.getResultType()));
 
 		// configure
 		MongoOperations.configure(queryContext.getQuery(), new AsyncDistinctOperationConfigurator(fi));
@@ -235,19 +386,17 @@ public class AsyncMongoQuery implements AsyncQueryAdapter<QueryConfiguration> {
 				() -> MongoOperations.traceQuery(queryContext.getResolutionContext(), queryContext.getQuery(), null));
 
 		// execute and map
-		return CompletableFutureStreamSubscriber.fromPublisher(fi)
-				.thenApply(values -> values.map(value -> new Document(Collections.singletonMap(fieldName, value))))
-				.thenApply(documents -> documents
-						.map(document -> documentConverter.convert(queryContext.getResolutionContext(), document)));
+		return new MappingPublisher<>(fi, value -> documentConverter.convert(queryContext.getResolutionContext(),
+				new Document(Collections.singletonMap(fieldName, value))));
 	}
 
 	/**
 	 * Perform a <em>aggregate</em> operation.
 	 * @param <R> Query result type
 	 * @param queryContext Operation context
-	 * @return The operation result
+	 * @return The operation result publisher
 	 */
-	private static <R> CompletableFuture<Stream<R>> aggregate(QueryOperationContext<R> queryContext) {
+	private static <R> Publisher<R> aggregate(QueryOperationContext<R> queryContext) {
 
 		// converter
 		final DocumentConverter<R> documentConverter = MongoOperations.getAndCheckConverter(queryContext.getQuery(),
@@ -263,14 +412,14 @@ public class AsyncMongoQuery implements AsyncQueryAdapter<QueryConfiguration> {
 		// iterable
 		final AggregatePublisher<Document> ai = queryContext.getResolutionContext().getClientSession()
 				.map(cs -> queryContext.getCollection().aggregate(cs, pipeline))
-				.orElse(queryContext.getCollection().aggregate(pipeline));
+				.orElseGet(() -> queryContext.getCollection().aggregate(pipeline));
 
 		// configure
 		MongoOperations.configure(queryContext.getQuery(), new AsyncAggregateOperationConfigurator(ai));
 
 		// execute and map
-		return CompletableFutureStreamSubscriber.fromPublisher(ai).thenApply(documents -> documents
-				.map(document -> documentConverter.convert(queryContext.getResolutionContext(), document)));
+		return new MappingPublisher<>(ai,
+				document -> documentConverter.convert(queryContext.getResolutionContext(), document));
 	}
 
 }
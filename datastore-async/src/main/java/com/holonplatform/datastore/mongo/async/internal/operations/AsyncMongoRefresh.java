@@ -15,6 +15,8 @@
  */
 package com.holonplatform.datastore.mongo.async.internal.operations;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import org.bson.Document;
@@ -38,6 +40,7 @@ import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
+import com.holonplatform.datastore.mongo.core.internal.operation.EntityCacheRequest;
 import com.mongodb.client.model.Filters;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.MongoCollection;
@@ -96,7 +99,7 @@ public class AsyncMongoRefresh extends AbstractAsyncRefresh {
 		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
 		// get and configure collection
 		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-			return AsyncMongoCollectionConfigurator.configureRead(database.getCollection(collectionName), context,
+			return AsyncMongoCollectionConfigurator.getReadCollection(database, collectionName, context,
 					configuration.getParameters());
 		});
 
@@ -111,6 +114,14 @@ public class AsyncMongoRefresh extends AbstractAsyncRefresh {
 					"Cannot perform a REFRESH operation: missing document id value for property [" + idProperty + "]");
 		}
 
+		// check cached entity
+		final Optional<EntityCacheRequest> cacheRequest = EntityCacheRequest.create(context, collectionName);
+		final Optional<PropertyBox> cached = cacheRequest
+				.flatMap(request -> request.get(id, configuration.getValue()));
+		if (cached.isPresent()) {
+			return CompletableFuture.completedFuture(cached.get());
+		}
+
 		return context.getClientSession()
 				.map(session -> CompletableFutureSubscriber
 						.fromPublisher(collection.find(session, Filters.eq(id)).first()))
@@ -125,8 +136,9 @@ public class AsyncMongoRefresh extends AbstractAsyncRefresh {
 					// trace
 					ctx.trace("Refreshed document", document);
 					// build operation result
-					return ctx.getContext().resolveOrFail(DocumentValue.create(document), PropertyBoxValue.class)
-							.getValue();
+					final PropertyBox refreshed = ctx.getContext()
+							.resolveOrFail(DocumentValue.create(document), PropertyBoxValue.class).getValue();
+					return cacheRequest.map(request -> request.put(id, refreshed)).orElse(refreshed);
 				});
 	}
 
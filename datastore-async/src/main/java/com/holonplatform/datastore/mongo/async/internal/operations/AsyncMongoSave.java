@@ -19,6 +19,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
+import org.bson.BsonObjectId;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 
@@ -32,6 +33,7 @@ import com.holonplatform.core.datastore.operation.commons.PropertyBoxOperationCo
 import com.holonplatform.core.internal.Logger;
 import com.holonplatform.core.property.Property;
 import com.holonplatform.datastore.mongo.async.internal.CompletableFutureSubscriber;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
 import com.holonplatform.datastore.mongo.core.async.internal.support.AsyncPropertyBoxOperationResultContext;
@@ -42,7 +44,9 @@ import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
 import com.holonplatform.datastore.mongo.core.internal.logger.MongoDatastoreLogger;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
@@ -100,9 +104,11 @@ public class AsyncMongoSave extends AbstractAsyncSave {
 
 		// resolve collection name
 		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// invalidate the cached data before writing
+		context.beforeCollectionWrite(collectionName);
 		// get and configure collection
 		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-			return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+			return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 					configuration);
 		});
 
@@ -142,17 +148,48 @@ public class AsyncMongoSave extends AbstractAsyncSave {
 			final Document document = upsertContext
 					.resolveOrFail(PropertyBoxValue.create(configuration.getValue()), DocumentValue.class).getValue();
 
-			// upsert
-			operation = context.getClientSession()
-					.map(session -> CompletableFutureSubscriber.fromPublisher(collection.updateOne(session,
-							Filters.eq(id), document, MongoOperations.getUpdateOptions(configuration, true))))
-					.orElseGet(() -> CompletableFutureSubscriber.fromPublisher(collection.updateOne(Filters.eq(id),
-							document, MongoOperations.getUpdateOptions(configuration, true))))
-					.thenApply(
-							result -> AsyncPropertyBoxOperationResultContext.create(context, collection, configuration,
+			// check delta update
+			final Document update = MongoOperations.getUpdateDocument(upsertContext, configuration,
+					configuration.getValue(), document, true);
+
+			// check return document
+			final Optional<ReturnDocumentOption> returnDocument = configuration
+					.getWriteOption(ReturnDocumentOption.class);
+			if (returnDocument.isPresent()) {
+				final FindOneAndUpdateOptions options = MongoOperations.getFindOneAndUpdateOptions(configuration,
+						returnDocument.get(), true);
+				operation = context.getClientSession()
+						.map(session -> CompletableFutureSubscriber
+								.fromPublisher(collection.findOneAndUpdate(session, Filters.eq(id), update, options)))
+						.orElseGet(() -> CompletableFutureSubscriber
+								.fromPublisher(collection.findOneAndUpdate(Filters.eq(id), update, options)))
+						.thenApply(returned -> {
+							// snapshot
+							PropertyBoxSnapshots.track(context, configuration.getValue(), document);
+							// returned document
+							MongoOperations.processReturnedDocument(upsertContext, returnDocument.get(),
+									configuration.getValue(), returned);
+							// a missing document before the update means it was inserted
+							return AsyncPropertyBoxOperationResultContext.create(context, collection, configuration, 1,
+									(returned == null) ? OperationType.INSERT : OperationType.UPDATE,
+									configuration.getValue(), update, (returned == null) ? new BsonObjectId(id) : null);
+						});
+			} else {
+				// upsert
+				operation = context.getClientSession()
+						.map(session -> CompletableFutureSubscriber.fromPublisher(collection.updateOne(session,
+								Filters.eq(id), update, MongoOperations.getUpdateOptions(configuration, true))))
+						.orElseGet(() -> CompletableFutureSubscriber.fromPublisher(collection.updateOne(Filters.eq(id),
+								update, MongoOperations.getUpdateOptions(configuration, true))))
+						.thenApply(result -> {
+							// snapshot
+							PropertyBoxSnapshots.track(context, configuration.getValue(), document);
+							return AsyncPropertyBoxOperationResultContext.create(context, collection, configuration,
 									(result.getUpsertedId() != null) ? 1 : MongoOperations.getAffectedCount(result),
 									(result.getUpsertedId() != null) ? OperationType.INSERT : OperationType.UPDATE,
-									configuration.getValue(), document, result.getUpsertedId()));
+									configuration.getValue(), update, result.getUpsertedId());
+						});
+			}
 		}
 
 		return operation.thenApply(ctx -> {
@@ -177,7 +214,9 @@ public class AsyncMongoSave extends AbstractAsyncSave {
 				}
 			}
 			return builder.build();
-		});
+		})
+				// invalidate the data cached while writing
+				.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
 	}
 
 }
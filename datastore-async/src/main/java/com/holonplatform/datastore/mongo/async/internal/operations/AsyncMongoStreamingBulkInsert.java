@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.internal.operations;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletionStage;
+
+import org.bson.RawBsonDocument;
+import org.reactivestreams.Publisher;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.async.internal.CompletableFutureSubscriber;
+import com.holonplatform.datastore.mongo.async.internal.IteratorPublisher;
+import com.holonplatform.datastore.mongo.async.internal.StreamingInsertSubscriber;
+import com.holonplatform.datastore.mongo.async.operation.AsyncStreamingBulkInsert;
+import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractStreamingInsertOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertBatcher;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+/**
+ * Mongo {@link AsyncStreamingBulkInsert} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class AsyncMongoStreamingBulkInsert extends AbstractStreamingInsertOperation<AsyncStreamingBulkInsert>
+		implements AsyncStreamingBulkInsert {
+
+	private static final long serialVersionUID = -3197264830416720958L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncStreamingBulkInsert> FACTORY = new DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncStreamingBulkInsert>() {
+
+		@Override
+		public Class<? extends AsyncStreamingBulkInsert> getCommodityType() {
+			return AsyncStreamingBulkInsert.class;
+		}
+
+		@Override
+		public AsyncStreamingBulkInsert createCommodity(AsyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new AsyncMongoStreamingBulkInsert(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public AsyncMongoStreamingBulkInsert(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected AsyncStreamingBulkInsert getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.async.operation.AsyncStreamingBulkInsert#execute(java.util.Iterator)
+	 */
+	@Override
+	public CompletionStage<OperationResult> execute(Iterator<? extends PropertyBox> values) {
+		ObjectUtils.argumentNotNull(values, "Values to insert must be not null");
+		return execute(new IteratorPublisher<>(values));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.datastore.mongo.async.operation.AsyncStreamingBulkInsert#execute(org.reactivestreams.Publisher)
+	 */
+	@Override
+	public CompletionStage<OperationResult> execute(Publisher<? extends PropertyBox> values) {
+		ObjectUtils.argumentNotNull(values, "Values to insert must be not null");
+
+		// configuration
+		final StreamingInsertConfiguration configuration = getConfiguration();
+		// validate
+		configuration.validate();
+
+		// resolution context
+		final MongoDocumentContext<ClientSession> context = MongoDocumentContext.create(operationContext,
+				configuration.getPropertySet().get());
+		context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+		// resolve collection name
+		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// invalidate the cached data before writing
+		context.beforeCollectionWrite(collectionName);
+		// get and configure collection
+		final MongoCollection<RawBsonDocument> collection = operationContext.withDatabase(database -> {
+			return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
+					configuration);
+		}).withDocumentClass(RawBsonDocument.class);
+
+		// options
+		final InsertManyOptions options = MongoOperations.getInsertManyOptions(configuration);
+
+		// within a transaction, insert one batch at a time
+		final ClientSession session = context.getClientSession().orElse(null);
+		final int maxBatchesInFlight = (session != null) ? 1 : configuration.getMaxBatchesInFlight();
+
+		final StreamingInsertSubscriber subscriber = new StreamingInsertSubscriber(
+				new StreamingInsertBatcher(context, configuration),
+				batch -> CompletableFutureSubscriber.fromPublisher((session != null)
+						? collection.insertMany(session, batch.getDocuments(), options)
+						: collection.insertMany(batch.getDocuments(), options)),
+				configuration.getMaxBatchSize(), maxBatchesInFlight);
+
+		// invalidate the data cached while writing
+		subscriber.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
+
+		values.subscribe(subscriber);
+		return subscriber;
+	}
+
+}
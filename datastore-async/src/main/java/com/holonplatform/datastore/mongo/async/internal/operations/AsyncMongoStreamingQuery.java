@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.internal.operations;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.core.internal.query.AbstractQueryBuilder;
+import com.holonplatform.core.internal.query.QueryDefinition;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.query.QueryConfiguration;
+import com.holonplatform.core.query.QueryOperation;
+import com.holonplatform.core.query.QueryProjection;
+import com.holonplatform.datastore.mongo.async.operation.AsyncStreamingQuery;
+import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.core.async.internal.support.QueryOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+/**
+ * Mongo {@link AsyncStreamingQuery} implementation.
+ *
+ * @since 6.0.1
+ */
+public class AsyncMongoStreamingQuery extends AbstractQueryBuilder<AsyncStreamingQuery, QueryDefinition>
+		implements AsyncStreamingQuery {
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncStreamingQuery> FACTORY = new DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, AsyncStreamingQuery>() {
+
+		@Override
+		public Class<? extends AsyncStreamingQuery> getCommodityType() {
+			return AsyncStreamingQuery.class;
+		}
+
+		@Override
+		public AsyncStreamingQuery createCommodity(AsyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new AsyncMongoStreamingQuery(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public AsyncMongoStreamingQuery(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super(QueryDefinition.create());
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.query.AbstractQueryBuilder#getActualBuilder()
+	 */
+	@Override
+	protected AsyncStreamingQuery getActualBuilder() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.async.operation.AsyncStreamingQuery#publisher(com.holonplatform.core.
+	 * query.QueryProjection)
+	 */
+	@Override
+	public <R> Publisher<R> publisher(QueryProjection<R> projection) {
+		ObjectUtils.argumentNotNull(projection, "Query projection must be not null");
+		final QueryOperation<QueryConfiguration, R> queryOperation = QueryOperation.create(getQueryDefinition(),
+				projection);
+		return subscriber -> {
+			final Publisher<R> publisher;
+			try {
+				final QueryOperationContext<R> context = AsyncMongoQuery.createContext(operationContext,
+						queryOperation);
+				publisher = AsyncMongoQuery.publisher(context);
+			} catch (RuntimeException e) {
+				subscriber.onSubscribe(EmptySubscription.INSTANCE);
+				subscriber.onError(e);
+				return;
+			}
+			publisher.subscribe(subscriber);
+		};
+	}
+
+	private enum EmptySubscription implements Subscription {
+
+		INSTANCE;
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.reactivestreams.Subscription#request(long)
+		 */
+		@Override
+		public void request(long n) {
+			// noop
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.reactivestreams.Subscription#cancel()
+		 */
+		@Override
+		public void cancel() {
+			// noop
+		}
+
+	}
+
+}
@@ -15,6 +15,8 @@
  */
 package com.holonplatform.datastore.mongo.async.internal.operations;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 import org.bson.Document;
@@ -30,6 +32,7 @@ import com.holonplatform.core.datastore.operation.commons.PropertyBoxOperationCo
 import com.holonplatform.core.exceptions.DataAccessException;
 import com.holonplatform.core.property.Property;
 import com.holonplatform.datastore.mongo.async.internal.CompletableFutureSubscriber;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
 import com.holonplatform.datastore.mongo.core.async.internal.support.AsyncPropertyBoxOperationResultContext;
@@ -39,7 +42,9 @@ import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
@@ -95,9 +100,11 @@ public class AsyncMongoUpdate extends AbstractAsyncUpdate {
 
 		// resolve collection name
 		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class).getName();
+		// invalidate the cached data before writing
+		context.beforeCollectionWrite(collectionName);
 		// get and configure collection
 		final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-			return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+			return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 					configuration);
 		});
 
@@ -116,21 +123,60 @@ public class AsyncMongoUpdate extends AbstractAsyncUpdate {
 		final Document document = context
 				.resolveOrFail(PropertyBoxValue.create(configuration.getValue()), DocumentValue.class).getValue();
 
+		// check delta update
+		final Document update = MongoOperations.getUpdateDocument(context, configuration, configuration.getValue(),
+				document, false);
+		if (update.isEmpty()) {
+			context.trace("Update document skipped: no changes", document);
+			return CompletableFuture
+					.completedFuture(OperationResult.builder().type(OperationType.UPDATE).affectedCount(0).build());
+		}
+
+		// check return document
+		final Optional<ReturnDocumentOption> returnDocument = configuration.getWriteOption(ReturnDocumentOption.class);
+		if (returnDocument.isPresent()) {
+			final FindOneAndUpdateOptions options = MongoOperations.getFindOneAndUpdateOptions(configuration,
+					returnDocument.get(), false);
+			return context.getClientSession()
+					.map(session -> CompletableFutureSubscriber
+							.fromPublisher(collection.findOneAndUpdate(session, Filters.eq(id), update, options)))
+					.orElseGet(() -> CompletableFutureSubscriber
+							.fromPublisher(collection.findOneAndUpdate(Filters.eq(id), update, options)))
+					.thenApply(returned -> {
+						// trace
+						context.trace("Updated document", update);
+						// snapshot
+						PropertyBoxSnapshots.track(context, configuration.getValue(), document);
+						// returned document
+						MongoOperations.processReturnedDocument(context, returnDocument.get(),
+								configuration.getValue(), returned);
+						// operation result
+						return OperationResult.builder().type(OperationType.UPDATE)
+								.affectedCount((returned != null) ? 1 : 0).build();
+					})
+					// invalidate the data cached while writing
+					.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
+		}
+
 		return context.getClientSession()
 				.map(session -> CompletableFutureSubscriber.fromPublisher(collection.updateOne(session, Filters.eq(id),
-						document, MongoOperations.getUpdateOptions(configuration, false))))
+						update, MongoOperations.getUpdateOptions(configuration, false))))
 				.orElseGet(() -> CompletableFutureSubscriber.fromPublisher(collection.updateOne(Filters.eq(id),
-						document, MongoOperations.getUpdateOptions(configuration, false))))
+						update, MongoOperations.getUpdateOptions(configuration, false))))
 				.thenApply(result -> AsyncPropertyBoxOperationResultContext.create(context, collection, configuration,
 						MongoOperations.getAffectedCount(result), OperationType.UPDATE, configuration.getValue(),
-						document))
+						update))
 				.thenApply(ctx -> {
 					// trace
 					context.trace("Updated document", ctx.requireDocument());
+					// snapshot
+					PropertyBoxSnapshots.track(context, ctx.getValue(), document);
 					// operation result
 					return OperationResult.builder().type(OperationType.UPDATE).affectedCount(ctx.getAffectedCount())
 							.build();
-				});
+				})
+				// invalidate the data cached while writing
+				.whenComplete((r, e) -> context.afterCollectionWrite(collectionName));
 	}
 
 }
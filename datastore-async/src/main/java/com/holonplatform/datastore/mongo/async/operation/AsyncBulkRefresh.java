@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.operation;
+
+import java.util.concurrent.CompletionStage;
+
+import com.holonplatform.core.datastore.DatastoreCommodity;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshOperation;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshResult;
+
+/**
+ * An asynchronous {@link BulkRefreshOperation} which reads the documents using chunked <code>$in</code> queries,
+ * executed one at a time.
+ *
+ * @since 6.0.1
+ */
+public interface AsyncBulkRefresh extends BulkRefreshOperation<AsyncBulkRefresh>, DatastoreCommodity {
+
+	/**
+	 * Execute the bulk refresh operation.
+	 * @return A {@link CompletionStage} which can be used to handle the operation result
+	 */
+	CompletionStage<BulkRefreshResult> execute();
+
+}
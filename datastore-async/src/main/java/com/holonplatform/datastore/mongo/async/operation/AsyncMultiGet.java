@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.operation;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import com.holonplatform.core.datastore.DataTarget;
+import com.holonplatform.core.datastore.DatastoreCommodity;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.operation.MultiGetOperation;
+
+/**
+ * An asynchronous {@link MultiGetOperation} which reads the documents using chunked <code>$in</code> queries,
+ * executed concurrently.
+ *
+ * @since 6.0.1
+ */
+public interface AsyncMultiGet extends MultiGetOperation<AsyncMultiGet>, DatastoreCommodity {
+
+	/**
+	 * Execute the multi-get operation.
+	 * @return A {@link CompletionStage} which can be used to handle the operation result, i.e. the
+	 *         {@link PropertyBox} values keyed by document id, in the same order in which the ids were provided
+	 */
+	CompletionStage<Map<Object, PropertyBox>> execute();
+
+	/**
+	 * Read the documents of given target with given ids.
+	 * @param target The operation target (not null)
+	 * @param propertySet The property set of the values to read (not null)
+	 * @param ids The document ids (not null)
+	 * @return A {@link CompletionStage} which can be used to handle the operation result, i.e. the
+	 *         {@link PropertyBox} values keyed by document id, in the same order in which the ids were provided
+	 */
+	default CompletionStage<Map<Object, PropertyBox>> getByIds(DataTarget<?> target, PropertySet<?> propertySet,
+			Collection<?> ids) {
+		return target(target).propertySet(propertySet).ids(ids).execute();
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.operation;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+import org.reactivestreams.Publisher;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.DatastoreCommodity;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation;
+
+/**
+ * An asynchronous {@link StreamingInsertOperation} which consumes the values to insert from a {@link Publisher}, a
+ * {@link Stream}, an {@link Iterator} or an {@link Iterable}, without requiring them to be fully materialized.
+ * <p>
+ * The values are requested on demand, so that no more than the configured number of batches is inserted
+ * concurrently. When the values are provided by a {@link Stream}, an {@link Iterator} or an {@link Iterable}, they may
+ * be consumed by a thread which is different from the calling one.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface AsyncStreamingBulkInsert
+		extends StreamingInsertOperation<AsyncStreamingBulkInsert>, DatastoreCommodity {
+
+	/**
+	 * Insert the values provided by given {@link Publisher}.
+	 * @param values The values to insert (not null)
+	 * @return A {@link CompletionStage} which can be used to handle the aggregated operation result
+	 */
+	CompletionStage<OperationResult> execute(Publisher<? extends PropertyBox> values);
+
+	/**
+	 * Insert the values provided by given {@link Iterator}.
+	 * @param values The values to insert (not null)
+	 * @return A {@link CompletionStage} which can be used to handle the aggregated operation result
+	 */
+	CompletionStage<OperationResult> execute(Iterator<? extends PropertyBox> values);
+
+	/**
+	 * Insert the values provided by given {@link Stream}. The stream is not closed by the operation.
+	 * @param values The values to insert (not null)
+	 * @return A {@link CompletionStage} which can be used to handle the aggregated operation result
+	 */
+	default CompletionStage<OperationResult> execute(Stream<? extends PropertyBox> values) {
+		return execute(values.iterator());
+	}
+
+	/**
+	 * Insert the values provided by given {@link Iterable}.
+	 * @param values The values to insert (not null)
+	 * @return A {@link CompletionStage} which can be used to handle the aggregated operation result
+	 */
+	default CompletionStage<OperationResult> execute(Iterable<? extends PropertyBox> values) {
+		return execute(values.iterator());
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.operation;
+
+import java.util.Arrays;
+
+import org.reactivestreams.Publisher;
+
+import com.holonplatform.core.datastore.DatastoreCommodity;
+import com.holonplatform.core.property.Property;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.query.PropertySetProjection;
+import com.holonplatform.core.query.QueryBuilder;
+import com.holonplatform.core.query.QueryProjection;
+import com.holonplatform.datastore.mongo.core.ReadOperationConfiguration;
+
+/**
+ * A query which provides its results as a {@link Publisher}, exposing the results incrementally instead of buffering
+ * the whole result set.
+ * <p>
+ * The query is executed for each subscription. The results are fetched from the server only as requested by the
+ * subscriber, using the {@link ReadOperationConfiguration#QUERY_BATCH_SIZE} batch size if configured, and each result
+ * is decoded only when it is emitted. Cancelling the subscription closes the query cursor.
+ * </p>
+ * <p>
+ * A <code>java.util.concurrent.Flow</code> publisher can be obtained using the Reactive Streams
+ * <code>FlowAdapters</code>.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface AsyncStreamingQuery extends QueryBuilder<AsyncStreamingQuery>, DatastoreCommodity {
+
+	/**
+	 * Get the query results publisher, using given projection.
+	 * @param <R> Results type
+	 * @param projection The query projection (not null)
+	 * @return The query results publisher
+	 */
+	<R> Publisher<R> publisher(QueryProjection<R> projection);
+
+	/**
+	 * Get the query results publisher, using given properties as projection.
+	 * @param <P> Property type
+	 * @param properties The properties to select (not null)
+	 * @return The query results publisher, as {@link PropertyBox} instances
+	 */
+	default <P extends Property> Publisher<PropertyBox> publisher(Iterable<P> properties) {
+		return publisher(PropertySetProjection.of(properties));
+	}
+
+	/**
+	 * Get the query results publisher, using given properties as projection.
+	 * @param properties The properties to select (not null)
+	 * @return The query results publisher, as {@link PropertyBox} instances
+	 */
+	@SuppressWarnings("rawtypes")
+	default Publisher<PropertyBox> publisher(Property... properties) {
+		return publisher(Arrays.asList(properties));
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2016-2017 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.async.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.holonplatform.datastore.mongo.async.internal.MappingPublisher;
+
+public class TestMappingPublisherUT {
+
+	@Test
+	public void testDemand() {
+		final SourcePublisher<Integer> source = new SourcePublisher<>(Arrays.asList(1, 2, 3, 4));
+		final RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+
+		new MappingPublisher<>(source, v -> "v" + v).subscribe(subscriber);
+
+		subscriber.request(2);
+		assertEquals(2, source.requested);
+		assertEquals(Arrays.asList("v1", "v2"), subscriber.values);
+		assertFalse(subscriber.completed);
+
+		subscriber.request(5);
+		assertEquals(7, source.requested);
+		assertEquals(Arrays.asList("v1", "v2", "v3", "v4"), subscriber.values);
+		assertTrue(subscriber.completed);
+		assertEquals(0, subscriber.errors.size());
+	}
+
+	@Test
+	public void testNullValues() {
+		final SourcePublisher<Integer> source = new SourcePublisher<>(Arrays.asList(1, 2, 3, 4, 5));
+		final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+
+		new MappingPublisher<>(source, v -> (v % 2 == 0) ? null : v).subscribe(subscriber);
+
+		subscriber.request(2);
+		assertEquals(Arrays.asList(1, 3), subscriber.values);
+		// one more element requested for the dropped one
+		assertEquals(3, source.requested);
+		assertFalse(subscriber.completed);
+
+		subscriber.request(1);
+		assertEquals(Arrays.asList(1, 3, 5), subscriber.values);
+		assertEquals(5, source.requested);
+		assertEquals(0, subscriber.errors.size());
+	}
+
+	@Test
+	public void testMapperError() {
+		final SourcePublisher<Integer> source = new SourcePublisher<>(Arrays.asList(1, 2, 3));
+		final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+
+		new MappingPublisher<>(source, v -> {
+			if (v == 2) {
+				throw new IllegalStateException("test");
+			}
+			return v;
+		}).subscribe(subscriber);
+
+		subscriber.request(3);
+		assertEquals(Arrays.asList(1), subscriber.values);
+		assertTrue(source.cancelled);
+		assertEquals(1, subscriber.errors.size());
+		assertTrue(subscriber.errors.get(0) instanceof IllegalStateException);
+		assertFalse(subscriber.completed);
+	}
+
+	@Test
+	public void testSourceError() {
+		final Publisher<Integer> source = s -> s.onSubscribe(new Subscription() {
+
+			@Override
+			public void request(long n) {
+				s.onError(new RuntimeException("source"));
+			}
+
+			@Override
+			public void cancel() {
+			}
+		});
+		final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+
+		new MappingPublisher<>(source, v -> v).subscribe(subscriber);
+
+		subscriber.request(1);
+		assertEquals(0, subscriber.values.size());
+		assertEquals(1, subscriber.errors.size());
+		assertEquals("source", subscriber.errors.get(0).getMessage());
+	}
+
+	/**
+	 * Synchronous source publisher which emits the given values on demand.
+	 */
+	private static final class SourcePublisher<T> implements Publisher<T> {
+
+		private final List<T> values;
+
+		long requested = 0;
+		boolean cancelled = false;
+
+		SourcePublisher(List<T> values) {
+			this.values = values;
+		}
+
+		@Override
+		public void subscribe(Subscriber<? super T> s) {
+			final Iterator<T> iterator = values.iterator();
+			s.onSubscribe(new Subscription() {
+
+				private long demand = 0;
+				private boolean emitting = false;
+				private boolean done = false;
+
+				@Override
+				public void request(long n) {
+					requested += n;
+					demand += n;
+					if (emitting) {
+						return;
+					}
+					emitting = true;
+					while (demand > 0 && !cancelled && !done && iterator.hasNext()) {
+						demand--;
+						s.onNext(iterator.next());
+					}
+					if (!cancelled && !done && !iterator.hasNext()) {
+						done = true;
+						s.onComplete();
+					}
+					emitting = false;
+				}
+
+				@Override
+				public void cancel() {
+					cancelled = true;
+				}
+			});
+		}
+
+	}
+
+	private static final class RecordingSubscriber<T> implements Subscriber<T> {
+
+		final List<T> values = new ArrayList<>();
+		final List<Throwable> errors = new ArrayList<>();
+		boolean completed = false;
+
+		private Subscription subscription;
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			this.subscription = s;
+		}
+
+		@Override
+		public void onNext(T t) {
+			assertNotNull(t);
+			values.add(t);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			errors.add(t);
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+
+		void request(long n) {
+			subscription.request(n);
+		}
+
+	}
+
+}
@@ -24,12 +24,17 @@ import com.holonplatform.datastore.mongo.core.async.internal.AbstractAsyncMongoD
 import com.holonplatform.datastore.mongo.reactor.ReactiveMongoDatastore;
 import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoBulkDelete;
 import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoBulkInsert;
+import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoBulkRefresh;
+import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoBulkSave;
 import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoBulkUpdate;
+import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoBulkWrite;
 import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoDelete;
 import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoInsert;
+import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoMultiGet;
 import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoQuery;
 import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoRefresh;
 import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoSave;
+import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoStreamingBulkInsert;
 import com.holonplatform.datastore.mongo.reactor.internal.operation.ReactiveMongoUpdate;
 import com.holonplatform.datastore.mongo.reactor.tx.ReactiveMongoTransaction;
 import com.holonplatform.reactor.datastore.transaction.ReactiveTransactionalOperation;
@@ -63,6 +68,11 @@ public class DefaultReactiveMongoDatastore extends AbstractAsyncMongoDatastore<R
 		registerCommodity(ReactiveMongoDelete.FACTORY);
 		registerCommodity(ReactiveMongoBulkDelete.FACTORY);
 		registerCommodity(ReactiveMongoBulkInsert.FACTORY);
+		registerCommodity(ReactiveMongoStreamingBulkInsert.FACTORY);
+		registerCommodity(ReactiveMongoBulkWrite.FACTORY);
+		registerCommodity(ReactiveMongoBulkSave.FACTORY);
+		registerCommodity(ReactiveMongoBulkRefresh.FACTORY);
+		registerCommodity(ReactiveMongoMultiGet.FACTORY);
 		registerCommodity(ReactiveMongoBulkUpdate.FACTORY);
 		registerCommodity(ReactiveMongoQuery.FACTORY);
 	}
@@ -165,7 +175,9 @@ public class DefaultReactiveMongoDatastore extends AbstractAsyncMongoDatastore<R
 			// close session
 			tx.getSession().close();
 			LOGGER.debug(() -> "MongoDB transaction [" + tx + "] finalized");
-		}).filter(t -> t.isActive()).flatMap(t -> t.end()).map(v -> Boolean.TRUE);
+		}).filter(t -> t.isActive()).flatMap(t -> t.end()).map(v -> Boolean.TRUE)
+				// invalidate the cached data of the collections written within the transaction
+				.doFinally(type -> onTransactionEnded(tx.getSession()));
 
 	}
 
@@ -96,9 +96,11 @@ public class ReactiveMongoBulkDelete extends AbstractReactiveBulkDelete {
 			// resolve collection name
 			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
 					.getName();
+			// invalidate the cached data before writing
+			context.beforeCollectionWrite(collectionName);
 			// get and configure collection
 			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-				return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+				return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 						configuration);
 			});
 			// done
@@ -123,7 +125,9 @@ public class ReactiveMongoBulkDelete extends AbstractReactiveBulkDelete {
 										// trace
 										context.trace("Deleted documents - filter", context.getFilter()
 												.map(f -> operationContext.toJson(f)).orElse("[NONE]"));
-									}));
+									}))
+					// invalidate the data cached while writing
+					.doFinally(signal -> context.afterCollectionWrite());
 		}).map(r -> OperationResult.builder().type(OperationType.DELETE).affectedCount(r.getDeletedCount()).build());
 	}
 
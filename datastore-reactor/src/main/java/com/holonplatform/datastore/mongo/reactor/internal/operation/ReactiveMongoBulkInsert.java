@@ -15,12 +15,10 @@
  */
 package com.holonplatform.datastore.mongo.reactor.internal.operation;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.bson.Document;
-import org.bson.types.ObjectId;
 
 import com.holonplatform.core.Expression.InvalidExpressionException;
 import com.holonplatform.core.datastore.Datastore.OperationResult;
@@ -39,8 +37,6 @@ import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations
 import com.holonplatform.datastore.mongo.core.internal.support.ResolvedDocument;
 import com.holonplatform.reactor.datastore.internal.operation.AbstractReactiveBulkInsert;
 import com.holonplatform.reactor.datastore.operation.ReactiveBulkInsert;
-import com.mongodb.client.model.Filters;
-import com.mongodb.client.result.UpdateResult;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
@@ -103,9 +99,11 @@ public class ReactiveMongoBulkInsert extends AbstractReactiveBulkInsert {
 			// resolve collection name
 			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
 					.getName();
+			// invalidate the cached data before writing
+			context.beforeCollectionWrite(collectionName);
 			// get and configure collection
 			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-				return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+				return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 						configuration);
 			});
 
@@ -120,6 +118,8 @@ public class ReactiveMongoBulkInsert extends AbstractReactiveBulkInsert {
 			// documents to insert
 			final List<Document> documents = context.getValues().stream().map(v -> v.getDocument())
 					.collect(Collectors.toList());
+			// generate the document ids, if required
+			MongoOperations.assignDocumentIds(context.getContext(), documents);
 			// check client session available
 			return context.getContext().getClientSession()
 					.map(session -> Mono.from(context.getCollection().insertMany(session, documents,
@@ -128,36 +128,12 @@ public class ReactiveMongoBulkInsert extends AbstractReactiveBulkInsert {
 					.orElseGet(() -> Mono
 							.from(context.getCollection().insertMany(documents,
 									MongoOperations.getInsertManyOptions(context.getConfiguration())))
-							.map(result -> context));
-		}).flatMap(context -> {
-
-			// check inserted keys
-			List<ObjectId> insertedIds = MongoOperations.checkInsertedKeys(context.getContext(),
-					context.getConfiguration(), context.getValues());
-
-			// check if the identifier property has to be updated with the document ids values
-			if (!insertedIds.isEmpty()) {
-				final String fieldName = MongoOperations.getPropertyDocumentIdFieldName(context.getContext())
-						.orElse(null);
-				if (fieldName != null) {
-					final List<Mono<UpdateResult>> updates = new ArrayList<>(insertedIds.size());
-					for (ObjectId insertedId : insertedIds) {
-						MongoOperations.getIdUpdateDocument(context.getContext(), insertedId, fieldName)
-								.ifPresent(toUpdate -> {
-									updates.add(Mono.from(context.getCollection().updateOne(Filters.eq(insertedId),
-											toUpdate.getUpdateDocument())).doOnSuccess(s -> {
-												context.trace("Updated identifier property value",
-														toUpdate.getUpdateDocument());
-											}));
-								});
-					}
-					if (!updates.isEmpty()) {
-						return Mono.zip(updates, urs -> context);
-					}
-				}
-			}
-			return Mono.just(context);
+							.map(result -> context))
+					// invalidate the data cached while writing
+					.doFinally(signal -> context.afterCollectionWrite());
 		}).map(context -> {
+			// check inserted keys
+			MongoOperations.checkInsertedKeys(context.getContext(), context.getConfiguration(), context.getValues());
 			// trace
 			context.trace("Inserted documents",
 					context.getValues().stream().map(v -> v.getDocument()).collect(Collectors.toList()));
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.reactor.internal.operation;
+
+import org.bson.Document;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractBulkSaveOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkSaveRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkWriteRequest;
+import com.holonplatform.datastore.mongo.core.operation.BulkSaveConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult;
+import com.holonplatform.datastore.mongo.reactor.operation.ReactiveBulkSave;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mongo {@link ReactiveBulkSave} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class ReactiveMongoBulkSave extends AbstractBulkSaveOperation<ReactiveBulkSave> implements ReactiveBulkSave {
+
+	private static final long serialVersionUID = 2207781163307431052L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, ReactiveBulkSave> FACTORY = new DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, ReactiveBulkSave>() {
+
+		@Override
+		public Class<? extends ReactiveBulkSave> getCommodityType() {
+			return ReactiveBulkSave.class;
+		}
+
+		@Override
+		public ReactiveBulkSave createCommodity(AsyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new ReactiveMongoBulkSave(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public ReactiveMongoBulkSave(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected ReactiveBulkSave getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.reactor.operation.ReactiveBulkSave#execute()
+	 */
+	@Override
+	public Mono<BulkWriteOperationResult> execute() {
+		return Mono.defer(() -> {
+
+			// configuration
+			final BulkSaveConfiguration configuration = getConfiguration();
+			// validate
+			configuration.validate();
+
+			// resolution context
+			final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+			context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+			// partition the values
+			final BulkSaveRequest request = new BulkSaveRequest(operationContext, configuration);
+
+			// resolve collection name
+			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
+					.getName();
+			// invalidate the cached data before writing
+			context.beforeCollectionWrite(collectionName);
+			// get and configure collection
+			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
+				return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
+						configuration);
+			});
+
+			// execute the chunks one at a time
+			return Flux.range(0, request.getChunkCount()).concatMap(index -> Mono.defer(() -> {
+				final BulkWriteRequest chunk = request.getChunk(index);
+				return context.getClientSession()
+						.map(session -> Mono.from(collection.bulkWrite(session, chunk.getModels(), chunk.getOptions())))
+						.orElseGet(() -> Mono.from(collection.bulkWrite(chunk.getModels(), chunk.getOptions())))
+						.map(result -> {
+							// trace
+							context.trace("Bulk save", chunk.trace(context));
+							return chunk.getResult(result);
+						});
+			})).collectList().map(results -> request.getResult(results))
+					// invalidate the data cached while writing
+					.doFinally(signal -> context.afterCollectionWrite(collectionName));
+		});
+	}
+
+}
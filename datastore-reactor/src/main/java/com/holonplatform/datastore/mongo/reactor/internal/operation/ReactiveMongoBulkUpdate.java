@@ -25,6 +25,8 @@ import com.holonplatform.core.datastore.Datastore.OperationType;
 import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
 import com.holonplatform.core.datastore.DatastoreCommodityFactory;
 import com.holonplatform.core.datastore.operation.commons.BulkUpdateOperationConfiguration;
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
 import com.holonplatform.datastore.mongo.core.async.internal.support.AsyncOperationContext;
@@ -36,6 +38,7 @@ import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
 import com.holonplatform.reactor.datastore.internal.operation.AbstractReactiveBulkUpdate;
 import com.holonplatform.reactor.datastore.operation.ReactiveBulkUpdate;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
@@ -97,9 +100,11 @@ public class ReactiveMongoBulkUpdate extends AbstractReactiveBulkUpdate {
 			// resolve collection name
 			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
 					.getName();
+			// invalidate the cached data before writing
+			context.beforeCollectionWrite(collectionName);
 			// get and configure collection
 			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-				return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+				return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 						configuration);
 			});
 
@@ -115,6 +120,31 @@ public class ReactiveMongoBulkUpdate extends AbstractReactiveBulkUpdate {
 			// update expression
 			final Bson update = MongoOperations.getUpdateExpression(context.getContext(),
 					(BulkUpdateOperationConfiguration) context.getConfiguration());
+			// check return document
+			final Optional<ReturnDocumentOption> returnDocument = context.getConfiguration()
+					.getWriteOption(ReturnDocumentOption.class);
+			if (returnDocument.isPresent()) {
+				if (!returnDocument.get().getPropertySet().isPresent()) {
+					throw new DataAccessException(
+							"A property set must be provided to return the updated document with a bulk UPDATE");
+				}
+				final Bson query = context.getFilter().orElseGet(Document::new);
+				final FindOneAndUpdateOptions options = MongoOperations
+						.getFindOneAndUpdateOptions(context.getConfiguration(), returnDocument.get(), false);
+				return context.getContext().getClientSession()
+						.map(session -> Mono
+								.from(context.getCollection().findOneAndUpdate(session, query, update, options)))
+						.orElseGet(() -> Mono.from(context.getCollection().findOneAndUpdate(query, update, options)))
+						.map(Optional::of).defaultIfEmpty(Optional.empty()).map(returned -> {
+							// returned document
+							MongoOperations.processReturnedDocument(context.getContext(), returnDocument.get(), null,
+									returned.orElse(null));
+							return AsyncOperationResultContext.create(context.getContext(), context.getCollection(),
+									context.getConfiguration(), returned.isPresent() ? 1 : 0, OperationType.UPDATE);
+						})
+						// invalidate the data cached while writing
+						.doFinally(signal -> context.afterCollectionWrite());
+			}
 			// check client session available
 			return context.getContext().getClientSession().map(session -> Mono
 					.from(context.getCollection().updateMany(session, context.getFilter().orElse(null), update,
@@ -126,7 +156,9 @@ public class ReactiveMongoBulkUpdate extends AbstractReactiveBulkUpdate {
 									MongoOperations.getUpdateOptions(context.getConfiguration(), false)))
 							.map(result -> AsyncOperationResultContext.create(context.getContext(),
 									context.getCollection(), context.getConfiguration(), result.getModifiedCount(),
-									OperationType.UPDATE)));
+									OperationType.UPDATE)))
+					// invalidate the data cached while writing
+					.doFinally(signal -> context.afterCollectionWrite());
 		}).map(context -> {
 			// result
 			return OperationResult.builder().type(OperationType.UPDATE).affectedCount(context.getAffectedCount())
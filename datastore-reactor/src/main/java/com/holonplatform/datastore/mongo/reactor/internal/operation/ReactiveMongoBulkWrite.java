@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.reactor.internal.operation;
+
+import org.bson.Document;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractBulkWriteOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkWriteRequest;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult;
+import com.holonplatform.datastore.mongo.reactor.operation.ReactiveBulkWrite;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Mongo {@link ReactiveBulkWrite} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class ReactiveMongoBulkWrite extends AbstractBulkWriteOperation<ReactiveBulkWrite>
+		implements ReactiveBulkWrite {
+
+	private static final long serialVersionUID = -1985238803462947117L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, ReactiveBulkWrite> FACTORY = new DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, ReactiveBulkWrite>() {
+
+		@Override
+		public Class<? extends ReactiveBulkWrite> getCommodityType() {
+			return ReactiveBulkWrite.class;
+		}
+
+		@Override
+		public ReactiveBulkWrite createCommodity(AsyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new ReactiveMongoBulkWrite(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public ReactiveMongoBulkWrite(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected ReactiveBulkWrite getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.reactor.operation.ReactiveBulkWrite#execute()
+	 */
+	@Override
+	public Mono<BulkWriteOperationResult> execute() {
+		return Mono.defer(() -> {
+
+			// configuration
+			final BulkWriteConfiguration configuration = getConfiguration();
+			// validate
+			configuration.validate();
+
+			// resolution context
+			final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+			context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+			// encode the write operations
+			final BulkWriteRequest request = new BulkWriteRequest(operationContext, configuration);
+			if (request.getModels().isEmpty()) {
+				return Mono.just(request.getResult(null));
+			}
+
+			// resolve collection name
+			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
+					.getName();
+			// invalidate the cached data before writing
+			context.beforeCollectionWrite(collectionName);
+			// get and configure collection
+			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
+				return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
+						configuration);
+			});
+
+			return context.getClientSession()
+					.map(session -> Mono
+							.from(collection.bulkWrite(session, request.getModels(), request.getOptions())))
+					.orElseGet(() -> Mono.from(collection.bulkWrite(request.getModels(), request.getOptions())))
+					.map(result -> {
+						// trace
+						context.trace("Bulk write", request.trace(context));
+						// operation result
+						return request.getResult(result);
+					})
+					// invalidate the data cached while writing
+					.doFinally(signal -> context.afterCollectionWrite(collectionName));
+		});
+	}
+
+}
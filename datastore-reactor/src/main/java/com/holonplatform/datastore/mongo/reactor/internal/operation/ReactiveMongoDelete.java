@@ -94,9 +94,11 @@ public class ReactiveMongoDelete extends AbstractReactiveDelete {
 			// resolve collection name
 			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
 					.getName();
+			// invalidate the cached data before writing
+			context.beforeCollectionWrite(collectionName);
 			// get and configure collection
 			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-				return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+				return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 						configuration);
 			});
 
@@ -134,7 +136,9 @@ public class ReactiveMongoDelete extends AbstractReactiveDelete {
 									MongoOperations.getDeleteOptions(ctx.getConfiguration())))
 							.map(result -> AsyncPropertyBoxOperationResultContext.create(ctx.getContext(),
 									ctx.getCollection(), ctx.getConfiguration(), result.getDeletedCount(),
-									OperationType.DELETE, ctx.getValue(), null, id)));
+									OperationType.DELETE, ctx.getValue(), null, id)))
+					// invalidate the data cached while writing
+					.doFinally(signal -> ctx.afterCollectionWrite());
 		}).map(ctx -> {
 
 			// trace
@@ -15,33 +15,27 @@
  */
 package com.holonplatform.datastore.mongo.reactor.internal.operation;
 
-import java.util.Optional;
-
 import org.bson.Document;
-import org.bson.types.ObjectId;
 
 import com.holonplatform.core.datastore.Datastore.OperationResult;
 import com.holonplatform.core.datastore.Datastore.OperationType;
 import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
 import com.holonplatform.core.datastore.DatastoreCommodityFactory;
 import com.holonplatform.core.datastore.operation.commons.PropertyBoxOperationConfiguration;
+import com.holonplatform.datastore.mongo.core.DocumentWriteOption;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
 import com.holonplatform.datastore.mongo.core.async.internal.support.AsyncPropertyBoxOperationContext;
 import com.holonplatform.datastore.mongo.core.async.internal.support.AsyncPropertyBoxOperationResultContext;
 import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
-import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
-import com.holonplatform.datastore.mongo.core.internal.support.IdUpdateDocument;
 import com.holonplatform.reactor.datastore.internal.operation.AbstractReactiveInsert;
 import com.holonplatform.reactor.datastore.operation.ReactiveInsert;
-import com.mongodb.client.model.Filters;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.MongoCollection;
-import com.mongodb.reactivestreams.client.MongoDatabase;
 
 import reactor.core.publisher.Mono;
 
@@ -70,9 +64,9 @@ public class ReactiveMongoInsert extends AbstractReactiveInsert {
 		}
 	};
 
-	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+	private final AsyncMongoDatastoreCommodityContext operationContext;
 
-	public ReactiveMongoInsert(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+	public ReactiveMongoInsert(AsyncMongoDatastoreCommodityContext operationContext) {
 		super();
 		this.operationContext = operationContext;
 	}
@@ -97,9 +91,11 @@ public class ReactiveMongoInsert extends AbstractReactiveInsert {
 			// resolve collection name
 			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
 					.getName();
+			// invalidate the cached data before writing
+			context.beforeCollectionWrite(collectionName);
 			// get and configure collection
 			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-				return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+				return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 						configuration);
 			});
 
@@ -107,23 +103,32 @@ public class ReactiveMongoInsert extends AbstractReactiveInsert {
 			final Document document = context
 					.resolveOrFail(PropertyBoxValue.create(configuration.getValue()), DocumentValue.class).getValue();
 
+			// generate the document id, if required
+			MongoOperations.assignDocumentId(context, document);
+
 			// done
 			return AsyncPropertyBoxOperationContext.create(context, collection, configuration, configuration.getValue(),
 					document);
 		}).flatMap(ctx -> {
 			// check client session available
-			return ctx.getContext().getClientSession().map(session -> Mono
-					.from(ctx.getCollection().insertOne(session, ctx.requireDocument(),
-							MongoOperations.getInsertOneOptions(ctx.getConfiguration())))
-					.map(result -> AsyncPropertyBoxOperationResultContext.create(ctx.getContext(), ctx.getCollection(),
-							ctx.getConfiguration(), 1, OperationType.INSERT, ctx.getValue(), ctx.requireDocument())))
-					.orElseGet(() -> Mono
-							.from(ctx.getCollection().insertOne(ctx.requireDocument(),
-									MongoOperations.getInsertOneOptions(ctx.getConfiguration())))
-							.map(result -> AsyncPropertyBoxOperationResultContext.create(ctx.getContext(),
-									ctx.getCollection(), ctx.getConfiguration(), 1, OperationType.INSERT,
-									ctx.getValue(), ctx.requireDocument())));
-		}).flatMap(ctx -> {
+			final Mono<?> insert = ctx.getContext().getClientSession()
+					.<Mono<?>>map(session -> Mono.from(ctx.getCollection().insertOne(session, ctx.requireDocument(),
+							MongoOperations.getInsertOneOptions(ctx.getConfiguration()))))
+					.orElseGet(() -> operationContext.getInsertCoalescer()
+							// coalesce the single insertions outside of a transaction, if enabled: a cancellation is
+							// propagated to the future, so that the document is discarded if not written yet
+							.<Mono<?>>map(coalescer -> Mono.fromFuture(
+									() -> coalescer.insert(ctx.getCollection(), ctx.requireDocument(),
+											ctx.getConfiguration().hasWriteOption(DocumentWriteOption.BYPASS_VALIDATION)),
+									false))
+							.orElseGet(() -> Mono.from(ctx.getCollection().insertOne(ctx.requireDocument(),
+									MongoOperations.getInsertOneOptions(ctx.getConfiguration())))));
+			return insert.then(Mono.fromSupplier(() -> AsyncPropertyBoxOperationResultContext.create(
+					ctx.getContext(), ctx.getCollection(), ctx.getConfiguration(), 1, OperationType.INSERT,
+					ctx.getValue(), ctx.requireDocument())))
+					// invalidate the data cached while writing
+					.doFinally(signal -> ctx.afterCollectionWrite());
+		}).map(ctx -> {
 
 			// trace
 			ctx.trace("Inserted document", ctx.requireDocument());
@@ -133,21 +138,10 @@ public class ReactiveMongoInsert extends AbstractReactiveInsert {
 					.affectedCount(1);
 
 			// check inserted keys
-			Optional<ObjectId> insertedId = MongoOperations.checkInsertedKeys(builder, ctx.getContext(),
-					ctx.getConfiguration(), ctx.requireDocument(), ctx.getValue());
-
-			final OperationResult result = builder.build();
-
-			// check if the identifier property has to be updated with the document id value
-			final IdUpdateDocument toUpdate = (!insertedId.isPresent()) ? null
-					: MongoOperations.getIdUpdateDocument(ctx.getContext(), insertedId.get()).orElse(null);
-			if (insertedId.isPresent() && toUpdate != null) {
-				return Mono
-						.from(ctx.getCollection().updateOne(Filters.eq(insertedId.get()), toUpdate.getUpdateDocument()))
-						.map(x -> result);
-			}
+			MongoOperations.checkInsertedKeys(builder, ctx.getContext(), ctx.getConfiguration(),
+					ctx.requireDocument(), ctx.getValue());
 
-			return Mono.just(result);
+			return builder.build();
 		});
 	}
 
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.reactor.internal.operation;
+
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.document.DocumentSerializer;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractMultiGetOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.MultiGetRequest;
+import com.holonplatform.datastore.mongo.core.operation.MultiGetConfiguration;
+import com.holonplatform.datastore.mongo.reactor.operation.ReactiveMultiGet;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mongo {@link ReactiveMultiGet} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class ReactiveMongoMultiGet extends AbstractMultiGetOperation<ReactiveMultiGet> implements ReactiveMultiGet {
+
+	private static final long serialVersionUID = -1273019586245118326L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, ReactiveMultiGet> FACTORY = new DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, ReactiveMultiGet>() {
+
+		@Override
+		public Class<? extends ReactiveMultiGet> getCommodityType() {
+			return ReactiveMultiGet.class;
+		}
+
+		@Override
+		public ReactiveMultiGet createCommodity(AsyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new ReactiveMongoMultiGet(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public ReactiveMongoMultiGet(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected ReactiveMultiGet getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.reactor.operation.ReactiveMultiGet#execute()
+	 */
+	@Override
+	public Mono<Map<Object, PropertyBox>> execute() {
+		return Mono.defer(() -> {
+
+			// configuration
+			final MultiGetConfiguration configuration = getConfiguration();
+			// validate
+			configuration.validate();
+
+			// resolution context
+			final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+			context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+			// encode the document ids
+			final MultiGetRequest request = new MultiGetRequest(context, configuration);
+			if (request.getChunkCount() == 0) {
+				return Mono.just(request.getResult());
+			}
+
+			// resolve collection name
+			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
+					.getName();
+			// get and configure collection
+			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
+				return AsyncMongoCollectionConfigurator.getReadCollection(database, collectionName, context,
+						configuration.getParameters());
+			});
+
+			// a client session does not support concurrent operations
+			final int concurrency = context.getClientSession().isPresent() ? 1
+					: Math.min(configuration.getMaxConcurrency(), request.getChunkCount());
+
+			// execute the chunks concurrently, collecting the chunk documents in order
+			return Flux.range(0, request.getChunkCount()).flatMapSequential(index -> Flux.defer(() -> {
+				final Bson filter = request.getFilter(index);
+				// trace
+				context.trace("Multi get", () -> DocumentSerializer.getDefault().toJson(filter));
+				// read the chunk documents in a single batch
+				final FindPublisher<Document> fp = context.getClientSession()
+						.map(session -> collection.find(session, filter)).orElseGet(() -> collection.find(filter))
+						.batchSize(request.getChunkSize(index));
+				request.getProjection().ifPresent(p -> fp.projection(p));
+				return Flux.from(fp);
+			}).collectList(), concurrency, 1).doOnNext(request::addDocuments)
+					.then(Mono.fromSupplier(request::getResult));
+		});
+	}
+
+}
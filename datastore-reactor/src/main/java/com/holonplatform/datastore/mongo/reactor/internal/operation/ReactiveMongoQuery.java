@@ -19,13 +19,18 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
 import org.bson.conversions.Bson;
+import org.reactivestreams.Publisher;
 
 import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
 import com.holonplatform.core.datastore.DatastoreCommodityFactory;
 import com.holonplatform.core.internal.query.QueryDefinition;
+import com.holonplatform.core.property.PropertyBox;
 import com.holonplatform.core.query.QueryConfiguration;
 import com.holonplatform.core.query.QueryOperation;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
@@ -37,10 +42,13 @@ import com.holonplatform.datastore.mongo.core.async.internal.support.QueryOperat
 import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
 import com.holonplatform.datastore.mongo.core.document.DocumentConverter;
+import com.holonplatform.datastore.mongo.core.document.PropertyBoxCodec;
 import com.holonplatform.datastore.mongo.core.document.QueryOperationType;
 import com.holonplatform.datastore.mongo.core.expression.BsonQuery;
-import com.holonplatform.datastore.mongo.core.internal.document.DocumentSerializer;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.operation.QueryCountRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.QueryResultCacheRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.QueryResultCacheRequest.ResultsCollector;
 import com.holonplatform.reactor.datastore.internal.operation.ReactiveQueryAdapterQuery;
 import com.holonplatform.reactor.datastore.operation.ReactiveQuery;
 import com.holonplatform.reactor.datastore.operation.ReactiveQueryAdapter;
@@ -53,6 +61,9 @@ import com.mongodb.reactivestreams.client.MongoDatabase;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
 
 /**
  * MongoDB {@link ReactiveQueryAdapter}.
@@ -101,9 +112,8 @@ public class ReactiveMongoQuery implements ReactiveQueryAdapter<QueryConfigurati
 			final BsonQuery query = context.resolveOrFail(queryOperation, BsonQuery.class);
 			// get and configure collection
 			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-				return AsyncMongoCollectionConfigurator.configureRead(
-						database.getCollection(query.getDefinition().getCollectionName()), context,
-						queryOperation.getConfiguration());
+				return AsyncMongoCollectionConfigurator.getReadCollection(database,
+						query.getDefinition().getCollectionName(), context, queryOperation.getConfiguration());
 			});
 			// build context
 			return QueryOperationContext.create(context, collection, query, queryOperation.getProjection().getType());
@@ -126,40 +136,40 @@ public class ReactiveMongoQuery implements ReactiveQueryAdapter<QueryConfigurati
 	}
 
 	/**
-	 * Perform a <em>count</em> operation.
+	 * Perform a <em>count</em> operation, applying the query count strategy.
 	 * @param <R> Query result type
 	 * @param queryContext Operation context
 	 * @return The operation result
 	 */
 	@SuppressWarnings({ "resource", "unchecked" })
 	private static <R> Flux<R> count(QueryOperationContext<R> queryContext) {
-		return Mono.fromSupplier(() -> {
-			// check filter
-			final Bson filter = queryContext.getQuery().getDefinition().getFilter().map(f -> f.getExpression())
-					.orElse(null);
-
-			// trace
-			queryContext.trace("COUNT query", "Filter: \n" + DocumentSerializer.getDefault().toJson(filter));
-
-			return filter;
-		}).flatMap(filter -> {
-			// session
-			final ClientSession cs = queryContext.getResolutionContext().getClientSession().orElse(null);
-			// check filter
-			if (filter != null) {
-				if (cs != null) {
-					return Mono.from(queryContext.getCollection().countDocuments(cs, filter));
-				} else {
-					return Mono.from(queryContext.getCollection().countDocuments(filter));
-				}
-			} else {
-				if (cs != null) {
-					return Mono.from(queryContext.getCollection().countDocuments(cs));
-				} else {
-					return Mono.from(queryContext.getCollection().countDocuments());
-				}
-			}
-		}).map(r -> (R) r).flux();
+		return Mono.fromSupplier(() -> QueryCountRequest.create(queryContext.getResolutionContext(),
+				queryContext.getQuery().getDefinition(), queryContext.getCollection().getCodecRegistry()))
+				.flatMap(request -> {
+					// check cached count
+					final Optional<Long> cached = request.getCachedCount();
+					if (cached.isPresent()) {
+						return Mono.just(cached.get());
+					}
+
+					// trace
+					request.trace();
+
+					// check estimated
+					if (request.isEstimated()) {
+						return Mono.from(queryContext.getCollection().estimatedDocumentCount());
+					}
+
+					// session
+					final ClientSession cs = queryContext.getResolutionContext().getClientSession().orElse(null);
+					if (cs != null) {
+						return Mono.from(queryContext.getCollection().countDocuments(cs, request.getFilter(),
+								request.getCountOptions())).map(count -> request.setCount(count));
+					} else {
+						return Mono.from(queryContext.getCollection().countDocuments(request.getFilter(),
+								request.getCountOptions())).map(count -> request.setCount(count));
+					}
+				}).map(r -> (R) r).flux();
 
 	}
 
@@ -174,9 +184,65 @@ public class ReactiveMongoQuery implements ReactiveQueryAdapter<QueryConfigurati
 		final DocumentConverter<R> documentConverter = MongoOperations.getAndCheckConverter(queryContext.getQuery(),
 				queryContext.getResultType());
 
+		// check PropertyBox codec
+		final Optional<PropertyBoxCodec> codec = MongoOperations.getPropertyBoxCodec(
+				queryContext.getResolutionContext(), queryContext.getQuery(), queryContext.getResultType(),
+				queryContext.getCollection().getCodecRegistry());
+
+		// cached results
+		final Optional<QueryResultCacheRequest<R>> cacheRequest = QueryResultCacheRequest.find(
+				queryContext.getResolutionContext(), queryContext.getQuery(), queryContext.getResultType(),
+				queryContext.getCollection().getCodecRegistry());
+		if (cacheRequest.isPresent()) {
+			return cachedResults(cacheRequest.get(), () -> {
+				final FindPublisher<RawBsonDocument> fi = queryContext.getCollection()
+						.withDocumentClass(RawBsonDocument.class).find();
+
+				// configure
+				Optional<Bson> projection = MongoOperations.configure(queryContext.getQuery(),
+						new AsyncFindOperationConfigurator(fi));
+
+				// trace
+				queryContext.trace("FIND query", () -> MongoOperations.traceQuery(queryContext.getResolutionContext(),
+						queryContext.getQuery(), projection.orElse(null)));
+				return fi;
+			});
+		}
+
+		// parallel decoding
+		final int parallelism = queryContext.getQuery().getDefinition().getDecodingParallelism().orElse(1);
+		if (parallelism > 1) {
+			final Codec<Document> documentCodec = queryContext.getCollection().getCodecRegistry().get(Document.class);
+			final Function<RawBsonDocument, R> decoder = codec.isPresent() ? decoder(codec.get())
+					: document -> documentConverter.convert(queryContext.getResolutionContext(),
+							document.decode(documentCodec));
+
+			// find
+			final MongoCollection<RawBsonDocument> collection = queryContext.getCollection()
+					.withDocumentClass(RawBsonDocument.class);
+			final FindPublisher<RawBsonDocument> fi = queryContext.getResolutionContext().getClientSession()
+					.map(cs -> collection.find(cs)).orElseGet(() -> collection.find());
+
+			// configure
+			Optional<Bson> projection = MongoOperations.configure(queryContext.getQuery(),
+					new AsyncFindOperationConfigurator(fi));
+
+			// trace
+			queryContext.trace("FIND query", () -> MongoOperations.traceQuery(queryContext.getResolutionContext(),
+					queryContext.getQuery(), projection.orElse(null)));
+
+			// decode stage
+			return decodeResults(queryContext, Flux.from(fi), decoder, parallelism);
+		}
+
+		if (codec.isPresent()) {
+			return findPropertyBoxes(queryContext,
+					queryContext.getCollection().withCodecRegistry(codec.get().getCodecRegistry()));
+		}
+
 		// find
 		final FindPublisher<Document> fi = queryContext.getResolutionContext().getClientSession()
-				.map(cs -> queryContext.getCollection().find(cs)).orElse(queryContext.getCollection().find());
+				.map(cs -> queryContext.getCollection().find(cs)).orElseGet(() -> queryContext.getCollection().find());
 
 		// configure
 		Optional<Bson> projection = MongoOperations.configure(queryContext.getQuery(),
@@ -191,6 +257,33 @@ public class ReactiveMongoQuery implements ReactiveQueryAdapter<QueryConfigurati
 				document -> documentConverter.convert(queryContext.getResolutionContext(), document));
 	}
 
+	/**
+	 * Perform a <em>find</em> operation, reading the documents straight into {@link PropertyBox} instances.
+	 * @param <R> Query result type
+	 * @param queryContext Operation context
+	 * @param collection The collection to use, which must provide a {@link PropertyBox} codec
+	 * @return The operation result
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> Flux<R> findPropertyBoxes(QueryOperationContext<R> queryContext,
+			MongoCollection<Document> collection) {
+
+		// find
+		final FindPublisher<PropertyBox> fi = queryContext.getResolutionContext().getClientSession()
+				.map(cs -> collection.find(cs, PropertyBox.class))
+				.orElseGet(() -> collection.find(PropertyBox.class));
+
+		// configure
+		Optional<Bson> projection = MongoOperations.configure(queryContext.getQuery(),
+				new AsyncFindOperationConfigurator(fi));
+
+		// trace
+		queryContext.trace("FIND query", () -> MongoOperations.traceQuery(queryContext.getResolutionContext(),
+				queryContext.getQuery(), projection.orElse(null)));
+
+		return (Flux<R>) Flux.from(fi);
+	}
+
 	/**
 	 * Perform a <em>distinct</em> operation.
 	 * @param <R> Query result type
@@ -215,7 +308,8 @@ public class ReactiveMongoQuery implements ReactiveQueryAdapter<QueryConfigurati
 		@SuppressWarnings("unchecked")
 		final DistinctPublisher<R> fi = queryContext.getResolutionContext().getClientSession().map(
 				cs -> queryContext.getCollection().distinct(cs, fieldName, (Class<R>) queryContext.getResultType()))
-				.orElse(queryContext.getCollection().distinct(fieldName, (Class<R>) queryContext.getResultType()));
+				.orElseGet(
+						() -> queryContext.getCollection().distinct(fieldName, (Class<R>) queryContext.getResultType()));
 
 		// configure
 		MongoOperations.configure(queryContext.getQuery(), new AsyncDistinctOperationConfigurator(fi));
@@ -248,10 +342,44 @@ public class ReactiveMongoQuery implements ReactiveQueryAdapter<QueryConfigurati
 		queryContext.trace("Aggregation pipeline",
 				() -> MongoOperations.traceAggregationPipeline(queryContext.getResolutionContext(), pipeline));
 
+		// cached results
+		final Optional<QueryResultCacheRequest<R>> cacheRequest = QueryResultCacheRequest.aggregate(
+				queryContext.getResolutionContext(), queryContext.getQuery(), pipeline, queryContext.getResultType(),
+				queryContext.getCollection().getCodecRegistry());
+		if (cacheRequest.isPresent()) {
+			return cachedResults(cacheRequest.get(), () -> {
+				final AggregatePublisher<RawBsonDocument> ai = queryContext.getCollection()
+						.withDocumentClass(RawBsonDocument.class).aggregate(pipeline);
+
+				// configure
+				MongoOperations.configure(queryContext.getQuery(), new AsyncAggregateOperationConfigurator(ai));
+				return ai;
+			});
+		}
+
+		// parallel decoding
+		final int parallelism = queryContext.getQuery().getDefinition().getDecodingParallelism().orElse(1);
+		if (parallelism > 1) {
+			final Codec<Document> documentCodec = queryContext.getCollection().getCodecRegistry().get(Document.class);
+
+			// iterable
+			final MongoCollection<RawBsonDocument> collection = queryContext.getCollection()
+					.withDocumentClass(RawBsonDocument.class);
+			final AggregatePublisher<RawBsonDocument> ai = queryContext.getResolutionContext().getClientSession()
+					.map(cs -> collection.aggregate(cs, pipeline)).orElseGet(() -> collection.aggregate(pipeline));
+
+			// configure
+			MongoOperations.configure(queryContext.getQuery(), new AsyncAggregateOperationConfigurator(ai));
+
+			// decode stage
+			return decodeResults(queryContext, Flux.from(ai), document -> documentConverter
+					.convert(queryContext.getResolutionContext(), document.decode(documentCodec)), parallelism);
+		}
+
 		// iterable
 		final AggregatePublisher<Document> ai = queryContext.getResolutionContext().getClientSession()
 				.map(cs -> queryContext.getCollection().aggregate(cs, pipeline))
-				.orElse(queryContext.getCollection().aggregate(pipeline));
+				.orElseGet(() -> queryContext.getCollection().aggregate(pipeline));
 
 		// configure
 		MongoOperations.configure(queryContext.getQuery(), new AsyncAggregateOperationConfigurator(ai));
@@ -278,4 +406,69 @@ public class ReactiveMongoQuery implements ReactiveQueryAdapter<QueryConfigurati
 		});
 	}
 
+	/**
+	 * Get the query results from the query result cache if available, otherwise stream the raw query results using
+	 * given publisher, caching them when the publisher completes unless they exceed the cache entry limit.
+	 * @param <R> Query result type
+	 * @param request The query result cache request
+	 * @param results The supplier of the raw query results publisher
+	 * @return The query results
+	 */
+	private static <R> Flux<R> cachedResults(QueryResultCacheRequest<R> request,
+			Supplier<Publisher<RawBsonDocument>> results) {
+		return request.getResults().map(Flux::fromStream).orElseGet(() -> {
+			final Publisher<RawBsonDocument> publisher = results.get();
+			return Flux.defer(() -> {
+				// collected for each subscription
+				final ResultsCollector collector = request.collector();
+				return Flux.from(publisher).map(collector::add).doOnComplete(collector::complete);
+			}).mapNotNull(request.getDecoder());
+		});
+	}
+
+	/**
+	 * Decode the raw result documents using a parallel, order preserving decode stage, discarding <code>null</code>
+	 * values.
+	 * <p>
+	 * The documents are decoded on a dedicated scheduler, so that the decoding does not run on the driver threads. At
+	 * most <code>parallelism</code> documents are decoded concurrently, and the query batch size, if configured, is
+	 * used to limit the number of documents requested to the driver at once.
+	 * </p>
+	 * @param <R> Result type
+	 * @param queryContext Operation context
+	 * @param results The raw results
+	 * @param decoder The document decoder
+	 * @param parallelism The decoding parallelism
+	 * @return The decoded results
+	 */
+	private static <R> Flux<R> decodeResults(QueryOperationContext<R> queryContext, Flux<RawBsonDocument> results,
+			Function<RawBsonDocument, R> decoder, int parallelism) {
+		final int prefetch = queryContext.getQuery().getDefinition().getBatchSize().filter(b -> b > 0)
+				.orElse(Queues.SMALL_BUFFER_SIZE);
+		return results.limitRate(prefetch).flatMapSequential(
+				document -> Mono.fromCallable(() -> decoder.apply(document)).subscribeOn(DecodingScheduler.INSTANCE),
+				parallelism, prefetch);
+	}
+
+	/**
+	 * Get a raw document decoder which uses given {@link PropertyBoxCodec}.
+	 * @param <R> Result type
+	 * @param codec The codec to use
+	 * @return The decoder
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> Function<RawBsonDocument, R> decoder(PropertyBoxCodec codec) {
+		return document -> (R) document.decode(codec);
+	}
+
+	/**
+	 * Holder of the shared scheduler used to decode the query results, created on first use.
+	 */
+	private static final class DecodingScheduler {
+
+		static final Scheduler INSTANCE = Schedulers.newParallel("mongo-query-decoder",
+				Runtime.getRuntime().availableProcessors(), true);
+
+	}
+
 }
@@ -15,6 +15,8 @@
  */
 package com.holonplatform.datastore.mongo.reactor.internal.operation;
 
+import java.util.Optional;
+
 import org.bson.Document;
 import org.bson.types.ObjectId;
 
@@ -34,6 +36,7 @@ import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
+import com.holonplatform.datastore.mongo.core.internal.operation.EntityCacheRequest;
 import com.holonplatform.reactor.datastore.internal.operation.AbstractReactiveRefresh;
 import com.holonplatform.reactor.datastore.operation.ReactiveRefresh;
 import com.mongodb.client.model.Filters;
@@ -97,7 +100,7 @@ public class ReactiveMongoRefresh extends AbstractReactiveRefresh {
 					.getName();
 			// get and configure collection
 			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-				return AsyncMongoCollectionConfigurator.configureRead(database.getCollection(collectionName), context,
+				return AsyncMongoCollectionConfigurator.getReadCollection(database, collectionName, context,
 						configuration.getParameters());
 			});
 
@@ -119,6 +122,13 @@ public class ReactiveMongoRefresh extends AbstractReactiveRefresh {
 		}).flatMap(ctx -> {
 			final ObjectId id = ctx.getDocumentId().orElseThrow(
 					() -> new DataAccessException("Cannot perform a REFRESH operation: missing document id value"));
+			// check cached entity
+			final Optional<EntityCacheRequest> cacheRequest = EntityCacheRequest.create(ctx.getContext(),
+					ctx.getCollection().getNamespace().getCollectionName());
+			final Optional<PropertyBox> cached = cacheRequest.flatMap(request -> request.get(id, ctx.getValue()));
+			if (cached.isPresent()) {
+				return Mono.just(cached.get());
+			}
 			// check client session available
 			return ctx.getContext().getClientSession().map(session -> Mono
 					.from(ctx.getCollection().find(session, Filters.eq(id)).first())
@@ -127,18 +137,20 @@ public class ReactiveMongoRefresh extends AbstractReactiveRefresh {
 					.orElseGet(() -> Mono.from(ctx.getCollection().find(Filters.eq(id)).first())
 							.map(result -> AsyncPropertyBoxOperationResultContext.create(ctx.getContext(),
 									ctx.getCollection(), ctx.getConfiguration(), 1L, OperationType.UPDATE,
-									ctx.getValue(), result)));
-		}).map(context -> {
-			// check document
-			final Document document = context.getDocument()
-					.orElseThrow(() -> new DataAccessException("No document found using id property ["
-							+ context.getContext().getDocumentIdProperty().orElse(null) + "]"));
-			// trace
-			context.trace("Refreshed document", document);
-
-			// build operation result
-			return context.getContext().resolveOrFail(DocumentValue.create(document), PropertyBoxValue.class)
-					.getValue();
+									ctx.getValue(), result)))
+					.map(context -> {
+						// check document
+						final Document document = context.getDocument()
+								.orElseThrow(() -> new DataAccessException("No document found using id property ["
+										+ context.getContext().getDocumentIdProperty().orElse(null) + "]"));
+						// trace
+						context.trace("Refreshed document", document);
+
+						// build operation result
+						final PropertyBox refreshed = context.getContext()
+								.resolveOrFail(DocumentValue.create(document), PropertyBoxValue.class).getValue();
+						return cacheRequest.map(request -> request.put(id, refreshed)).orElse(refreshed);
+					});
 		});
 	}
 
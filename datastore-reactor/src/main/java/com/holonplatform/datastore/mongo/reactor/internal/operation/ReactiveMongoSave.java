@@ -17,6 +17,7 @@ package com.holonplatform.datastore.mongo.reactor.internal.operation;
 
 import java.util.Optional;
 
+import org.bson.BsonObjectId;
 import org.bson.BsonValue;
 import org.bson.Document;
 import org.bson.types.ObjectId;
@@ -28,6 +29,7 @@ import com.holonplatform.core.datastore.DatastoreCommodityFactory;
 import com.holonplatform.core.datastore.operation.commons.PropertyBoxOperationConfiguration;
 import com.holonplatform.core.internal.Logger;
 import com.holonplatform.core.property.Property;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
 import com.holonplatform.datastore.mongo.core.async.internal.support.AsyncPropertyBoxOperationContext;
@@ -39,9 +41,11 @@ import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
 import com.holonplatform.datastore.mongo.core.internal.logger.MongoDatastoreLogger;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
 import com.holonplatform.reactor.datastore.internal.operation.AbstractReactiveSave;
 import com.holonplatform.reactor.datastore.operation.ReactiveSave;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
@@ -102,9 +106,11 @@ public class ReactiveMongoSave extends AbstractReactiveSave {
 			// resolve collection name
 			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
 					.getName();
+			// invalidate the cached data before writing
+			context.beforeCollectionWrite(collectionName);
 			// get and configure collection
 			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-				return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+				return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 						configuration);
 			});
 
@@ -140,7 +146,9 @@ public class ReactiveMongoSave extends AbstractReactiveSave {
 										MongoOperations.getInsertOneOptions(ctx.getConfiguration())))
 								.map(result -> AsyncPropertyBoxOperationResultContext.create(ctx.getContext(),
 										ctx.getCollection(), ctx.getConfiguration(), 1, OperationType.INSERT,
-										ctx.getValue(), document)));
+										ctx.getValue(), document)))
+						// invalidate the data cached while writing
+						.doFinally(signal -> ctx.afterCollectionWrite());
 			} else {
 				// build context (for update)
 				final MongoDocumentContext<ClientSession> upsertContext = MongoDocumentContext
@@ -150,36 +158,56 @@ public class ReactiveMongoSave extends AbstractReactiveSave {
 				final Document document = upsertContext
 						.resolveOrFail(PropertyBoxValue.create(ctx.getValue()), DocumentValue.class).getValue();
 
+				// check delta update
+				final Document update = MongoOperations.getUpdateDocument(upsertContext, ctx.getConfiguration(),
+						ctx.getValue(), document, true);
+
+				// check return document
+				final Optional<ReturnDocumentOption> returnDocument = ctx.getConfiguration()
+						.getWriteOption(ReturnDocumentOption.class);
+				if (returnDocument.isPresent()) {
+					final FindOneAndUpdateOptions options = MongoOperations
+							.getFindOneAndUpdateOptions(ctx.getConfiguration(), returnDocument.get(), true);
+					return ctx.getContext().getClientSession()
+							.map(session -> Mono.from(
+									ctx.getCollection().findOneAndUpdate(session, Filters.eq(id), update, options)))
+							.orElseGet(() -> Mono
+									.from(ctx.getCollection().findOneAndUpdate(Filters.eq(id), update, options)))
+							.map(Optional::of).defaultIfEmpty(Optional.empty()).map(returned -> {
+								// snapshot
+								PropertyBoxSnapshots.track(ctx.getContext(), ctx.getValue(), document);
+								// returned document
+								MongoOperations.processReturnedDocument(upsertContext, returnDocument.get(),
+										ctx.getValue(), returned.orElse(null));
+								// a missing document before the update means it was inserted
+								return AsyncPropertyBoxOperationResultContext.create(ctx.getContext(),
+										ctx.getCollection(), ctx.getConfiguration(), 1,
+										returned.isPresent() ? OperationType.UPDATE : OperationType.INSERT,
+										ctx.getValue(), update, returned.isPresent() ? null : new BsonObjectId(id));
+							})
+							// invalidate the data cached while writing
+							.doFinally(signal -> ctx.afterCollectionWrite());
+				}
+
 				// upsert
-				return ctx
-						.getContext().getClientSession().map(
-								session -> Mono
-										.from(ctx.getCollection().updateOne(session, Filters.eq(id), document,
-												MongoOperations.getUpdateOptions(ctx.getConfiguration(), true)))
-										.map(result -> {
-											// check insert
-											final BsonValue upsertedId = result.getUpsertedId();
-											final long affected = (upsertedId != null) ? 1
-													: MongoOperations.getAffectedCount(result);
-											return AsyncPropertyBoxOperationResultContext.create(ctx.getContext(),
-													ctx.getCollection(), ctx.getConfiguration(), affected,
-													(upsertedId != null) ? OperationType.INSERT : OperationType.UPDATE,
-													ctx.getValue(), document, upsertedId);
-										}))
-						.orElseGet(
-								() -> Mono
-										.from(ctx.getCollection().updateOne(Filters.eq(id), document,
-												MongoOperations.getUpdateOptions(ctx.getConfiguration(), true)))
-										.map(result -> {
-											// check insert
-											final BsonValue upsertedId = result.getUpsertedId();
-											final long affected = (upsertedId != null) ? 1
-													: MongoOperations.getAffectedCount(result);
-											return AsyncPropertyBoxOperationResultContext.create(ctx.getContext(),
-													ctx.getCollection(), ctx.getConfiguration(), affected,
-													(upsertedId != null) ? OperationType.INSERT : OperationType.UPDATE,
-													ctx.getValue(), document, upsertedId);
-										}));
+				return ctx.getContext().getClientSession()
+						.map(session -> Mono.from(ctx.getCollection().updateOne(session, Filters.eq(id), update,
+								MongoOperations.getUpdateOptions(ctx.getConfiguration(), true))))
+						.orElseGet(() -> Mono.from(ctx.getCollection().updateOne(Filters.eq(id), update,
+								MongoOperations.getUpdateOptions(ctx.getConfiguration(), true))))
+						.map(result -> {
+							// snapshot
+							PropertyBoxSnapshots.track(ctx.getContext(), ctx.getValue(), document);
+							// check insert
+							final BsonValue upsertedId = result.getUpsertedId();
+							final long affected = (upsertedId != null) ? 1 : MongoOperations.getAffectedCount(result);
+							return AsyncPropertyBoxOperationResultContext.create(ctx.getContext(), ctx.getCollection(),
+									ctx.getConfiguration(), affected,
+									(upsertedId != null) ? OperationType.INSERT : OperationType.UPDATE, ctx.getValue(),
+									update, upsertedId);
+						})
+						// invalidate the data cached while writing
+						.doFinally(signal -> ctx.afterCollectionWrite());
 			}
 		}).map(context -> {
 
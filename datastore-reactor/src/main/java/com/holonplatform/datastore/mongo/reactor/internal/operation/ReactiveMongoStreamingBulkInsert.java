@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.reactor.internal.operation;
+
+import org.bson.RawBsonDocument;
+import org.reactivestreams.Publisher;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractStreamingInsertOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertBatch;
+import com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertBatcher;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration;
+import com.holonplatform.datastore.mongo.reactor.operation.ReactiveStreamingBulkInsert;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.reactivestreams.client.ClientSession;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mongo {@link ReactiveStreamingBulkInsert} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class ReactiveMongoStreamingBulkInsert extends AbstractStreamingInsertOperation<ReactiveStreamingBulkInsert>
+		implements ReactiveStreamingBulkInsert {
+
+	private static final long serialVersionUID = 6310285946253390118L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, ReactiveStreamingBulkInsert> FACTORY = new DatastoreCommodityFactory<AsyncMongoDatastoreCommodityContext, ReactiveStreamingBulkInsert>() {
+
+		@Override
+		public Class<? extends ReactiveStreamingBulkInsert> getCommodityType() {
+			return ReactiveStreamingBulkInsert.class;
+		}
+
+		@Override
+		public ReactiveStreamingBulkInsert createCommodity(AsyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new ReactiveMongoStreamingBulkInsert(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public ReactiveMongoStreamingBulkInsert(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected ReactiveStreamingBulkInsert getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * com.holonplatform.datastore.mongo.reactor.operation.ReactiveStreamingBulkInsert#execute(org.reactivestreams.
+	 * Publisher)
+	 */
+	@Override
+	public Mono<OperationResult> execute(Publisher<? extends PropertyBox> values) {
+		ObjectUtils.argumentNotNull(values, "Values to insert must be not null");
+		return Mono.defer(() -> {
+			// configuration
+			final StreamingInsertConfiguration configuration = getConfiguration();
+			// validate
+			configuration.validate();
+
+			// resolution context
+			final MongoDocumentContext<ClientSession> context = MongoDocumentContext.create(operationContext,
+					configuration.getPropertySet().get());
+			context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+			// resolve collection name
+			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
+					.getName();
+			// invalidate the cached data before writing
+			context.beforeCollectionWrite(collectionName);
+			// get and configure collection
+			final MongoCollection<RawBsonDocument> collection = operationContext.withDatabase(database -> {
+				return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
+						configuration);
+			}).withDocumentClass(RawBsonDocument.class);
+
+			// options
+			final InsertManyOptions options = MongoOperations.getInsertManyOptions(configuration);
+
+			// within a transaction, insert one batch at a time
+			final ClientSession session = context.getClientSession().orElse(null);
+			final int maxBatchesInFlight = (session != null) ? 1 : configuration.getMaxBatchesInFlight();
+
+			final StreamingInsertBatcher batcher = new StreamingInsertBatcher(context, configuration);
+
+			return Flux.<PropertyBox>from(values)
+					// encode and group into batches
+					.<StreamingInsertBatch>handle(
+							(value, sink) -> batcher.add(value).ifPresent(batch -> sink.next(batch)))
+					.concatWith(Mono.defer(() -> Mono.justOrEmpty(batcher.flush())))
+					// insert
+					.flatMap(batch -> Mono
+							.from((session != null) ? collection.insertMany(session, batch.getDocuments(), options)
+									: collection.insertMany(batch.getDocuments(), options))
+							.map(result -> batcher.completed(batch)), maxBatchesInFlight)
+					.then(Mono.fromSupplier(() -> batcher.getResult()))
+					// invalidate the data cached while writing
+					.doFinally(signal -> context.afterCollectionWrite(collectionName));
+		});
+	}
+
+}
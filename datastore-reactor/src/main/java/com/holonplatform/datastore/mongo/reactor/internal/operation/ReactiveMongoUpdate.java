@@ -15,6 +15,8 @@
  */
 package com.holonplatform.datastore.mongo.reactor.internal.operation;
 
+import java.util.Optional;
+
 import org.bson.Document;
 import org.bson.types.ObjectId;
 
@@ -25,6 +27,7 @@ import com.holonplatform.core.datastore.DatastoreCommodityFactory;
 import com.holonplatform.core.datastore.operation.commons.PropertyBoxOperationConfiguration;
 import com.holonplatform.core.exceptions.DataAccessException;
 import com.holonplatform.core.property.Property;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
 import com.holonplatform.datastore.mongo.core.async.config.AsyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.core.async.internal.config.AsyncMongoCollectionConfigurator;
 import com.holonplatform.datastore.mongo.core.async.internal.support.AsyncPropertyBoxOperationContext;
@@ -35,9 +38,11 @@ import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
 import com.holonplatform.reactor.datastore.internal.operation.AbstractReactiveUpdate;
 import com.holonplatform.reactor.datastore.operation.ReactiveUpdate;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.reactivestreams.client.ClientSession;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
@@ -96,9 +101,11 @@ public class ReactiveMongoUpdate extends AbstractReactiveUpdate {
 			// resolve collection name
 			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
 					.getName();
+			// invalidate the cached data before writing
+			context.beforeCollectionWrite(collectionName);
 			// get and configure collection
 			final MongoCollection<Document> collection = operationContext.withDatabase(database -> {
-				return AsyncMongoCollectionConfigurator.configureWrite(database.getCollection(collectionName), context,
+				return AsyncMongoCollectionConfigurator.getWriteCollection(database, collectionName, context,
 						configuration);
 			});
 
@@ -125,23 +132,57 @@ public class ReactiveMongoUpdate extends AbstractReactiveUpdate {
 		}).flatMap(ctx -> {
 			final ObjectId id = ctx.getDocumentId().orElseThrow(
 					() -> new DataAccessException("Cannot perform a UPDATE operation: missing document id value"));
+			// check delta update
+			final Document update = MongoOperations.getUpdateDocument(ctx.getContext(), ctx.getConfiguration(),
+					ctx.getValue(), ctx.requireDocument(), false);
+			if (update.isEmpty()) {
+				ctx.trace("Update document skipped: no changes", ctx.requireDocument());
+				return Mono.just(AsyncPropertyBoxOperationResultContext.create(ctx.getContext(), ctx.getCollection(),
+						ctx.getConfiguration(), 0, OperationType.UPDATE, ctx.getValue(), update));
+			}
+			// check return document
+			final Optional<ReturnDocumentOption> returnDocument = ctx.getConfiguration()
+					.getWriteOption(ReturnDocumentOption.class);
+			if (returnDocument.isPresent()) {
+				final FindOneAndUpdateOptions options = MongoOperations
+						.getFindOneAndUpdateOptions(ctx.getConfiguration(), returnDocument.get(), false);
+				return ctx.getContext().getClientSession()
+						.map(session -> Mono
+								.from(ctx.getCollection().findOneAndUpdate(session, Filters.eq(id), update, options)))
+						.orElseGet(() -> Mono.from(ctx.getCollection().findOneAndUpdate(Filters.eq(id), update, options)))
+						.map(Optional::of).defaultIfEmpty(Optional.empty()).map(returned -> {
+							// snapshot
+							PropertyBoxSnapshots.track(ctx.getContext(), ctx.getValue(), ctx.requireDocument());
+							// returned document
+							MongoOperations.processReturnedDocument(ctx.getContext(), returnDocument.get(),
+									ctx.getValue(), returned.orElse(null));
+							return AsyncPropertyBoxOperationResultContext.create(ctx.getContext(), ctx.getCollection(),
+									ctx.getConfiguration(), returned.isPresent() ? 1 : 0, OperationType.UPDATE,
+									ctx.getValue(), update);
+						})
+						// invalidate the data cached while writing
+						.doFinally(signal -> ctx.afterCollectionWrite());
+			}
 			// check client session available
-			return ctx.getContext().getClientSession().map(session -> Mono
-					.from(ctx.getCollection().updateOne(session, Filters.eq(id), ctx.requireDocument(),
-							MongoOperations.getUpdateOptions(ctx.getConfiguration(), false)))
-					.map(result -> AsyncPropertyBoxOperationResultContext.create(ctx.getContext(), ctx.getCollection(),
-							ctx.getConfiguration(), MongoOperations.getAffectedCount(result), OperationType.UPDATE,
-							ctx.getValue(), ctx.requireDocument())))
-					.orElseGet(() -> Mono
-							.from(ctx.getCollection().updateOne(Filters.eq(id), ctx.requireDocument(),
-									MongoOperations.getUpdateOptions(ctx.getConfiguration(), false)))
-							.map(result -> AsyncPropertyBoxOperationResultContext.create(ctx.getContext(),
-									ctx.getCollection(), ctx.getConfiguration(),
-									MongoOperations.getAffectedCount(result), OperationType.UPDATE, ctx.getValue(),
-									ctx.requireDocument())));
+			return ctx.getContext().getClientSession()
+					.map(session -> Mono.from(ctx.getCollection().updateOne(session, Filters.eq(id), update,
+							MongoOperations.getUpdateOptions(ctx.getConfiguration(), false))))
+					.orElseGet(() -> Mono.from(ctx.getCollection().updateOne(Filters.eq(id), update,
+							MongoOperations.getUpdateOptions(ctx.getConfiguration(), false))))
+					.map(result -> {
+						// snapshot
+						PropertyBoxSnapshots.track(ctx.getContext(), ctx.getValue(), ctx.requireDocument());
+						return AsyncPropertyBoxOperationResultContext.create(ctx.getContext(), ctx.getCollection(),
+								ctx.getConfiguration(), MongoOperations.getAffectedCount(result), OperationType.UPDATE,
+								ctx.getValue(), update);
+					})
+					// invalidate the data cached while writing
+					.doFinally(signal -> ctx.afterCollectionWrite());
 		}).map(context -> {
 			// trace
-			context.trace("Updated document", context.requireDocument());
+			if (!context.requireDocument().isEmpty()) {
+				context.trace("Updated document", context.requireDocument());
+			}
 			// operation result
 			return OperationResult.builder().type(OperationType.UPDATE).affectedCount(context.getAffectedCount())
 					.build();
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.reactor.operation;
+
+import java.util.stream.Stream;
+
+import org.reactivestreams.Publisher;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.DatastoreCommodity;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A reactive {@link StreamingInsertOperation} which consumes the values to insert from a {@link Publisher}, a
+ * {@link Stream} or an {@link Iterable}, without requiring them to be fully materialized.
+ * <p>
+ * The values are requested on demand, so that no more than the configured number of batches is inserted
+ * concurrently. The operation is performed when the returned {@link Mono} is subscribed.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface ReactiveStreamingBulkInsert
+		extends StreamingInsertOperation<ReactiveStreamingBulkInsert>, DatastoreCommodity {
+
+	/**
+	 * Insert the values provided by given {@link Publisher}.
+	 * @param values The values to insert (not null)
+	 * @return A {@link Mono} which can be used to handle the aggregated operation result
+	 */
+	Mono<OperationResult> execute(Publisher<? extends PropertyBox> values);
+
+	/**
+	 * Insert the values provided by given {@link Stream}. The stream is closed when the operation terminates.
+	 * @param values The values to insert (not null)
+	 * @return A {@link Mono} which can be used to handle the aggregated operation result
+	 */
+	default Mono<OperationResult> execute(Stream<? extends PropertyBox> values) {
+		return execute(Flux.fromStream(values));
+	}
+
+	/**
+	 * Insert the values provided by given {@link Iterable}.
+	 * @param values The values to insert (not null)
+	 * @return A {@link Mono} which can be used to handle the aggregated operation result
+	 */
+	default Mono<OperationResult> execute(Iterable<? extends PropertyBox> values) {
+		return execute(Flux.fromIterable(values));
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.internal;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.Cleaner.Cleanable;
+
+/**
+ * Provides the shared {@link Cleaner} used to release the cursors of the query results spliterators which become
+ * unreachable before being exhausted or closed.
+ *
+ * @since 6.0.1
+ */
+final class CursorCleaner {
+
+	private CursorCleaner() {
+	}
+
+	/**
+	 * Register given spliterator, running given action when the spliterator becomes unreachable.
+	 * @param spliterator The spliterator to register
+	 * @param action The action which releases the spliterator cursor, which must not refer to the spliterator
+	 * @return The {@link Cleanable}, to be used to release the cursor when the spliterator is closed
+	 */
+	static Cleanable register(Object spliterator, Runnable action) {
+		return Holder.CLEANER.register(spliterator, action);
+	}
+
+	/**
+	 * Holder of the shared cleaner, created on first use.
+	 */
+	private static final class Holder {
+
+		static final Cleaner CLEANER = Cleaner.create(runnable -> {
+			final Thread thread = new Thread(runnable, "mongo-query-cleaner");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+	}
+
+}
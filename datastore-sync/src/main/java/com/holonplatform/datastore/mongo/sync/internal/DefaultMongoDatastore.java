@@ -34,12 +34,18 @@ import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodity
 import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityFactory;
 import com.holonplatform.datastore.mongo.sync.internal.operations.MongoBulkDelete;
 import com.holonplatform.datastore.mongo.sync.internal.operations.MongoBulkInsert;
+import com.holonplatform.datastore.mongo.sync.internal.operations.MongoBulkRefresh;
+import com.holonplatform.datastore.mongo.sync.internal.operations.MongoBulkSave;
 import com.holonplatform.datastore.mongo.sync.internal.operations.MongoBulkUpdate;
+import com.holonplatform.datastore.mongo.sync.internal.operations.MongoBulkWrite;
 import com.holonplatform.datastore.mongo.sync.internal.operations.MongoDelete;
 import com.holonplatform.datastore.mongo.sync.internal.operations.MongoInsert;
+import com.holonplatform.datastore.mongo.sync.internal.operations.MongoMultiGet;
+import com.holonplatform.datastore.mongo.sync.internal.operations.MongoParallelBulkInsert;
 import com.holonplatform.datastore.mongo.sync.internal.operations.MongoQuery;
 import com.holonplatform.datastore.mongo.sync.internal.operations.MongoRefresh;
 import com.holonplatform.datastore.mongo.sync.internal.operations.MongoSave;
+import com.holonplatform.datastore.mongo.sync.internal.operations.MongoStreamingBulkInsert;
 import com.holonplatform.datastore.mongo.sync.internal.operations.MongoUpdate;
 import com.holonplatform.datastore.mongo.sync.tx.SyncMongoTransaction;
 import com.mongodb.client.ClientSession;
@@ -83,6 +89,12 @@ public class DefaultMongoDatastore extends
 		registerCommodity(MongoSave.FACTORY);
 		registerCommodity(MongoDelete.FACTORY);
 		registerCommodity(MongoBulkInsert.FACTORY);
+		registerCommodity(MongoStreamingBulkInsert.FACTORY);
+		registerCommodity(MongoBulkWrite.FACTORY);
+		registerCommodity(MongoBulkSave.FACTORY);
+		registerCommodity(MongoBulkRefresh.FACTORY);
+		registerCommodity(MongoMultiGet.FACTORY);
+		registerCommodity(MongoParallelBulkInsert.FACTORY);
 		registerCommodity(MongoBulkUpdate.FACTORY);
 		registerCommodity(MongoBulkDelete.FACTORY);
 		registerCommodity(MongoQuery.FACTORY);
@@ -105,6 +117,7 @@ public class DefaultMongoDatastore extends
 	 */
 	public void setClient(MongoClient client) {
 		this.client = client;
+		resetConfiguredDatabase();
 	}
 
 	/*
@@ -165,7 +178,7 @@ public class DefaultMongoDatastore extends
 	 */
 	@Override
 	public CodecRegistry getDatabaseCodecRegistry() {
-		return checkClient().getDatabase(checkDatabaseName()).getCodecRegistry();
+		return getConfiguredDatabase().getCodecRegistry();
 	}
 
 	/**
@@ -180,6 +193,18 @@ public class DefaultMongoDatastore extends
 				.orElse(database);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.holonplatform.datastore.mongo.core.internal.datastore.
+	 * AbstractMongoDatastore#configureDatabase()
+	 */
+	@Override
+	protected ConfiguredDatabase<MongoDatabase> configureDatabase() {
+		final MongoDatabase database = checkClient().getDatabase(checkDatabaseName());
+		return new ConfiguredDatabase<>(checkAdditionalCodecs(database), database.getCodecRegistry());
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -192,7 +217,7 @@ public class DefaultMongoDatastore extends
 		ObjectUtils.argumentNotNull(operation, "Operation must be not null");
 
 		// get and configure the database
-		final MongoDatabase database = checkAdditionalCodecs(checkClient().getDatabase(checkDatabaseName()));
+		final MongoDatabase database = getConfiguredDatabase().getDatabase();
 
 		try {
 			return operation.execute(database);
@@ -298,7 +323,6 @@ public class DefaultMongoDatastore extends
 	 * @throws TransactionException Error finalizing transaction
 	 * @return <code>true</code> if the transaction was actually finalized
 	 */
-	@SuppressWarnings("static-method")
 	private boolean endTransaction(SyncMongoTransaction tx) throws TransactionException {
 		ObjectUtils.argumentNotNull(tx, "Transaction must be not null");
 
@@ -317,6 +341,8 @@ public class DefaultMongoDatastore extends
 				tx.end();
 			}
 		} finally {
+			// invalidate the cached data of the collections written within the transaction
+			onTransactionEnded(tx.getSession());
 			// close session
 			try {
 				tx.getSession().close();
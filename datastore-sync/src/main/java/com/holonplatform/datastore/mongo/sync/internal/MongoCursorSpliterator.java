@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.internal;
+
+import java.lang.ref.Cleaner.Cleanable;
+import java.lang.ref.Reference;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoIterable;
+
+/**
+ * A {@link Spliterator} backed by an explicit {@link MongoCursor}.
+ * <p>
+ * The cursor is closed as soon as it is exhausted, when the given results limit is reached, when an exception is
+ * thrown while reading or consuming a result and when the {@link Stream} obtained through {@link #stream(MongoIterable)}
+ * is closed. Since a short-circuiting terminal operation (such as <code>findFirst()</code>) does not notify the stream
+ * source, the cursor of a stream which is neither fully consumed nor closed is closed when the spliterator becomes
+ * unreachable. The stream should anyway be closed (for example using a <em>try-with-resources</em> block) when it is
+ * not fully consumed, in order to release the cursor promptly.
+ * </p>
+ *
+ * @param <T> Element type
+ * 
+ * @since 6.0.1
+ */
+public class MongoCursorSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+	private final CursorState<T> state;
+	private final Cleanable cleanable;
+	private long remaining;
+
+	/**
+	 * Constructor.
+	 * @param cursor The cursor (not null)
+	 * @param limit The maximum number of results to read, <code>0</code> or less for no limit
+	 */
+	public MongoCursorSpliterator(MongoCursor<T> cursor, long limit) {
+		super(Long.MAX_VALUE, Spliterator.ORDERED);
+		this.state = new CursorState<>(cursor);
+		this.remaining = (limit > 0) ? limit : -1L;
+		// the cursor state must not refer to this spliterator
+		this.cleanable = CursorCleaner.register(this, state);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.Spliterator#tryAdvance(java.util.function.Consumer)
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		final MongoCursor<T> cursor = state.cursor;
+		if (cursor == null) {
+			return false;
+		}
+		try {
+			if (!cursor.hasNext()) {
+				close();
+				return false;
+			}
+			final T next = cursor.next();
+			if (remaining > 0 && --remaining == 0) {
+				close();
+			}
+			action.accept(next);
+			return true;
+		} catch (RuntimeException e) {
+			try {
+				close();
+			} catch (RuntimeException ce) {
+				e.addSuppressed(ce);
+			}
+			throw e;
+		} finally {
+			// the cursor must not be closed while in use
+			Reference.reachabilityFence(this);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		cleanable.clean();
+	}
+
+	/**
+	 * Open a cursor on given iterable and get a sequential {@link Stream} of its results, which closes the cursor when
+	 * exhausted or closed.
+	 * @param <T> Element type
+	 * @param iterable The iterable to open (not null)
+	 * @return The results stream
+	 */
+	public static <T> Stream<T> stream(MongoIterable<T> iterable) {
+		return stream(iterable, 0);
+	}
+
+	/**
+	 * Open a cursor on given iterable and get a sequential {@link Stream} of its results, which closes the cursor when
+	 * exhausted, closed or when given limit is reached.
+	 * @param <T> Element type
+	 * @param iterable The iterable to open (not null)
+	 * @param limit The maximum number of results to read, <code>0</code> or less for no limit
+	 * @return The results stream
+	 */
+	public static <T> Stream<T> stream(MongoIterable<T> iterable, long limit) {
+		final MongoCursorSpliterator<T> spliterator = new MongoCursorSpliterator<>(iterable.iterator(), limit);
+		return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+	}
+
+	/**
+	 * The cursor state, which is also the cleaning action of the spliterator.
+	 * @param <T> Element type
+	 */
+	private static final class CursorState<T> implements Runnable {
+
+		volatile MongoCursor<T> cursor;
+
+		CursorState(MongoCursor<T> cursor) {
+			super();
+			this.cursor = cursor;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			final MongoCursor<T> current = cursor;
+			cursor = null;
+			if (current != null) {
+				current.close();
+			}
+		}
+
+	}
+
+}
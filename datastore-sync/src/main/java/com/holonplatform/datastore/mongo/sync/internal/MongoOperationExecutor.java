@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.internal;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provides the shared {@link Executor} used by default by the synchronous Datastore operations which access the
+ * database concurrently, such as the multi-get operation.
+ * <p>
+ * The executor uses a bounded number of daemon threads, which are released when idle, so it does not require to be
+ * shut down. Each operation limits by itself the number of its tasks in progress, according to its configured
+ * concurrency.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public final class MongoOperationExecutor {
+
+	/**
+	 * Maximum number of threads of the shared executor.
+	 */
+	public static final int MAX_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+	private MongoOperationExecutor() {
+	}
+
+	/**
+	 * Get the shared operation executor, created on first use.
+	 * @return The shared executor
+	 */
+	public static Executor getDefault() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * Holder of the shared executor.
+	 */
+	private static final class Holder {
+
+		static final Executor INSTANCE = create();
+
+		private static Executor create() {
+			final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60L, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(), new OperationThreadFactory());
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
+
+	}
+
+	/**
+	 * Factory of the daemon threads of the shared executor.
+	 */
+	private static final class OperationThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadSequence = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			final Thread thread = new Thread(runnable, "mongo-operation-" + threadSequence.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.internal;
+
+import java.lang.ref.Cleaner.Cleanable;
+import java.lang.ref.Reference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.bson.RawBsonDocument;
+
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoIterable;
+
+/**
+ * A {@link Spliterator} which reads the raw documents of a {@link MongoCursor} and decodes them concurrently, while
+ * preserving the cursor order.
+ * <p>
+ * The cursor is read by the consuming thread, which reads ahead the documents already fetched by the cursor, up to the
+ * pipeline window, and submits their decoding to a shared and bounded decoding executor, with at most the given
+ * parallelism decodings in progress at the same time. When all the fetched documents were read and some decodings are
+ * still pending, the next batch fetch is submitted to the decoding executor, so that the server round trip overlaps
+ * the decoding of the previous batch. At most one fetch is in progress at the same time, and no thread is bound to the
+ * spliterator lifetime.
+ * </p>
+ * <p>
+ * The cursor is closed as soon as it is exhausted, when the given results limit is reached, when an error occurs and
+ * when the {@link Stream} obtained through {@link #stream(MongoIterable, Function, int, int, long)} is closed. Since a
+ * short-circuiting terminal operation does not notify the stream source, the cursor of a stream which is neither
+ * fully consumed nor closed is closed when the spliterator becomes unreachable. The stream should anyway be closed
+ * (for example using a <em>try-with-resources</em> block) when it is not fully consumed, in order to release the
+ * cursor promptly.
+ * </p>
+ * <p>
+ * Since the decoding is performed by different threads, this spliterator should not be used with a client session.
+ * </p>
+ *
+ * @param <R> Element type
+ * 
+ * @since 6.0.1
+ */
+public class MongoPipelinedSpliterator<R> extends Spliterators.AbstractSpliterator<R> implements AutoCloseable {
+
+	/**
+	 * Default pipeline window, used when no query batch size is configured.
+	 */
+	public static final int DEFAULT_WINDOW = 256;
+
+	private final Pipeline<R> pipeline;
+	private final Cleanable cleanable;
+
+	/**
+	 * Constructor.
+	 * @param cursor The cursor to read (not null)
+	 * @param decoder The document decoder (not null)
+	 * @param executor The decoding executor (not null)
+	 * @param parallelism The maximum number of decodings in progress
+	 * @param window The maximum number of documents read but not yet consumed
+	 * @param limit The maximum number of results to read, <code>0</code> or less for no limit
+	 */
+	MongoPipelinedSpliterator(MongoCursor<RawBsonDocument> cursor, Function<RawBsonDocument, R> decoder,
+			Executor executor, int parallelism, int window, long limit) {
+		super(Long.MAX_VALUE, Spliterator.ORDERED);
+		this.pipeline = new Pipeline<>(cursor, decoder, executor, parallelism, window, limit);
+		// the pipeline must not refer to this spliterator
+		this.cleanable = CursorCleaner.register(this, pipeline);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.Spliterator#tryAdvance(java.util.function.Consumer)
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super R> action) {
+		final R value;
+		try {
+			final CompletableFuture<R> next = pipeline.next();
+			if (next == null) {
+				close();
+				return false;
+			}
+			value = next.join();
+		} catch (CompletionException e) {
+			close();
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new DataAccessException("Failed to read the query results", e.getCause());
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		} finally {
+			// the pipeline must not be cleaned while in use
+			Reference.reachabilityFence(this);
+		}
+		try {
+			action.accept(value);
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		cleanable.clean();
+	}
+
+	/**
+	 * Open a cursor on given iterable and get a sequential {@link Stream} of its decoded results, using a pipelined
+	 * read with given decoding parallelism. The decoding is performed by a shared executor.
+	 * @param <R> Element type
+	 * @param iterable The iterable to open (not null)
+	 * @param decoder The function to use to decode each raw document (not null)
+	 * @param parallelism The maximum number of documents decoded concurrently
+	 * @param window The maximum number of documents read but not yet consumed
+	 * @param limit The maximum number of results to read, <code>0</code> or less for no limit
+	 * @return The results stream
+	 */
+	public static <R> Stream<R> stream(MongoIterable<RawBsonDocument> iterable, Function<RawBsonDocument, R> decoder,
+			int parallelism, int window, long limit) {
+		final MongoPipelinedSpliterator<R> spliterator = new MongoPipelinedSpliterator<>(iterable.iterator(), decoder,
+				Decoding.EXECUTOR, parallelism, window, limit);
+		return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+	}
+
+	/**
+	 * The pipeline state, which is also the cleaning action of the spliterator.
+	 * @param <R> Element type
+	 */
+	private static final class Pipeline<R> implements Runnable {
+
+		private final Function<RawBsonDocument, R> decoder;
+		private final Executor executor;
+		private final int parallelism;
+		private final int window;
+
+		private final Deque<RawBsonDocument> read = new ArrayDeque<>();
+		private final Deque<CompletableFuture<R>> decoding = new ArrayDeque<>();
+
+		private volatile MongoCursor<RawBsonDocument> cursor;
+		private volatile CompletableFuture<Boolean> fetch;
+		private long remaining;
+
+		Pipeline(MongoCursor<RawBsonDocument> cursor, Function<RawBsonDocument, R> decoder, Executor executor,
+				int parallelism, int window, long limit) {
+			super();
+			this.cursor = cursor;
+			this.decoder = decoder;
+			this.executor = executor;
+			this.parallelism = Math.max(parallelism, 1);
+			this.window = Math.max(window, this.parallelism);
+			this.remaining = (limit > 0) ? limit : -1L;
+		}
+
+		/**
+		 * Get the decoding of the next document, reading ahead the documents already fetched by the cursor.
+		 * @return The next document decoding, <code>null</code> if there are no more documents
+		 */
+		CompletableFuture<R> next() {
+			// wait for the next document only when none is pending
+			if (decoding.isEmpty() && read.isEmpty()) {
+				read(true);
+			}
+			while (read.size() + decoding.size() < window && read(false)) {
+				// read ahead
+			}
+			while (decoding.size() < parallelism && !read.isEmpty()) {
+				final RawBsonDocument document = read.poll();
+				decoding.add(CompletableFuture.supplyAsync(() -> decoder.apply(document), executor));
+			}
+			// before the last pending decoding is consumed
+			fetchAhead();
+			final CompletableFuture<R> next = decoding.poll();
+			if (next != null && !read.isEmpty()) {
+				final RawBsonDocument document = read.poll();
+				decoding.add(CompletableFuture.supplyAsync(() -> decoder.apply(document), executor));
+			}
+			return next;
+		}
+
+		/**
+		 * Read the next cursor document, if available. The cursor is closed when exhausted or when the results limit
+		 * is reached.
+		 * @param wait Whether to wait for the next document to be fetched, if not already available
+		 * @return <code>true</code> if a document was read
+		 */
+		private boolean read(boolean wait) {
+			final MongoCursor<RawBsonDocument> current = cursor;
+			if (current == null) {
+				return false;
+			}
+			final CompletableFuture<Boolean> pending = fetch;
+			if (pending != null) {
+				// the cursor must not be used while fetching
+				if (!wait && !pending.isDone()) {
+					return false;
+				}
+				final boolean fetched = pending.join();
+				fetch = null;
+				if (!fetched) {
+					closeCursor();
+					return false;
+				}
+			} else if (wait ? !current.hasNext() : current.available() == 0) {
+				if (wait) {
+					closeCursor();
+				}
+				return false;
+			}
+			read.add(current.next());
+			if (remaining > 0 && --remaining == 0) {
+				closeCursor();
+			}
+			return true;
+		}
+
+		/**
+		 * Submit the fetch of the next cursor batch to the decoding executor, if all the fetched documents were read,
+		 * some decodings are pending and the pipeline window is not full.
+		 */
+		private void fetchAhead() {
+			final MongoCursor<RawBsonDocument> current = cursor;
+			if (current != null && fetch == null && !decoding.isEmpty() && read.size() + decoding.size() < window
+					&& current.available() == 0) {
+				fetch = CompletableFuture.supplyAsync(current::hasNext, executor);
+			}
+		}
+
+		private void closeCursor() {
+			final MongoCursor<RawBsonDocument> current = cursor;
+			cursor = null;
+			if (current != null) {
+				final CompletableFuture<Boolean> pending = fetch;
+				fetch = null;
+				if (pending != null) {
+					// close when the fetch in progress is completed
+					pending.whenComplete((r, e) -> current.close());
+				} else {
+					current.close();
+				}
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			try {
+				closeCursor();
+			} finally {
+				read.clear();
+				// pending decodings are skipped
+				decoding.forEach(d -> d.cancel(false));
+				decoding.clear();
+			}
+		}
+
+	}
+
+	/**
+	 * Holder of the shared decoding executor, created on first use.
+	 */
+	private static final class Decoding {
+
+		static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+		private static ThreadPoolExecutor createExecutor() {
+			final int threads = Runtime.getRuntime().availableProcessors();
+			final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(), new DecoderThreadFactory("mongo-query-decoder"));
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
+
+	}
+
+	/**
+	 * Factory of daemon threads.
+	 */
+	private static final class DecoderThreadFactory implements ThreadFactory {
+
+		private final String prefix;
+		private final AtomicInteger threadSequence = new AtomicInteger(1);
+
+		DecoderThreadFactory(String name) {
+			super();
+			this.prefix = name + "-";
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			final Thread thread = new Thread(runnable, prefix + threadSequence.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
@@ -17,15 +17,21 @@ package com.holonplatform.datastore.mongo.sync.internal.configurator;
 
 import java.util.Optional;
 
+import org.bson.Document;
+
 import com.holonplatform.core.ParameterSet;
 import com.holonplatform.core.datastore.operation.commons.DatastoreOperationConfiguration;
+import com.holonplatform.datastore.mongo.core.MongoDatabaseHandler;
+import com.holonplatform.datastore.mongo.core.MongoDatabaseOperation;
 import com.holonplatform.datastore.mongo.core.ReadOperationConfiguration;
 import com.holonplatform.datastore.mongo.core.WriteConcernOption;
 import com.holonplatform.datastore.mongo.core.context.MongoContext;
+import com.holonplatform.datastore.mongo.core.internal.datastore.MongoCollectionHandles;
 import com.mongodb.ReadConcern;
 import com.mongodb.ReadPreference;
 import com.mongodb.WriteConcern;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
 
 /**
  * Helper class to configure the Mongo Datastore operations.
@@ -47,16 +53,7 @@ public final class SyncMongoCollectionConfigurator {
 	 */
 	public static <T> MongoCollection<T> configureWrite(MongoCollection<T> collection, MongoContext<?> context,
 			DatastoreOperationConfiguration operation) {
-
-		// check write option
-		Optional<WriteConcern> wc = operation.getWriteOption(WriteConcernOption.class).map(wo -> wo.getWriteConcern());
-		if (!wc.isPresent()) {
-			// use default if available
-			wc = context.getDefaultWriteConcern();
-		}
-
-		return wc.map(wrc -> collection.withWriteConcern(wrc)).orElse(collection);
-
+		return getWriteConcern(context, operation).map(wrc -> collection.withWriteConcern(wrc)).orElse(collection);
 	}
 
 	/**
@@ -70,29 +67,121 @@ public final class SyncMongoCollectionConfigurator {
 	 */
 	public static <T> MongoCollection<T> configureRead(MongoCollection<T> collection, MongoContext<?> context,
 			ParameterSet operationParameters) {
-
 		if (operationParameters == null) {
 			return collection;
 		}
+		return configureRead(collection, getReadConcern(context, operationParameters).orElse(null),
+				getReadPreference(context, operationParameters).orElse(null));
+	}
+
+	/**
+	 * Get the collection to use for a write operation, setting the {@link WriteConcern} if available from write
+	 * options or context.
+	 * <p>
+	 * The configured collection handles are cached, so the same handle is returned for the same database, collection
+	 * name and write concern.
+	 * </p>
+	 * @param database Mongo database
+	 * @param collectionName Collection name
+	 * @param context Mongo context
+	 * @param operation Operation configuration
+	 * @return The configured collection
+	 * @since 6.0.1
+	 */
+	public static MongoCollection<Document> getWriteCollection(MongoDatabase database, String collectionName,
+			MongoContext<?> context, DatastoreOperationConfiguration operation) {
+		final WriteConcern writeConcern = getWriteConcern(context, operation).orElse(null);
+		return MongoCollectionHandles.get(database, collectionName, null, null, writeConcern, () -> {
+			final MongoCollection<Document> collection = database.getCollection(collectionName);
+			return (writeConcern != null) ? collection.withWriteConcern(writeConcern) : collection;
+		});
+	}
+
+	/**
+	 * Execute a write operation on given collection using given database handler, notifying the context through
+	 * {@link MongoContext#beforeCollectionWrite(String)} before the operation is executed and through
+	 * {@link MongoContext#afterCollectionWrite(String)} when the operation is completed, either successfully or not.
+	 * @param <R> Operation result type
+	 * @param handler Database handler
+	 * @param collectionName Collection name
+	 * @param context Mongo context
+	 * @param operation The write operation, which should obtain the collection using
+	 *        {@link #getWriteCollection(MongoDatabase, String, MongoContext, DatastoreOperationConfiguration)}
+	 * @return The operation result
+	 * @since 6.0.1
+	 */
+	public static <R> R executeWrite(MongoDatabaseHandler<MongoDatabase> handler, String collectionName,
+			MongoContext<?> context, MongoDatabaseOperation<MongoDatabase, R> operation) {
+		// invalidate the cached data before writing
+		context.beforeCollectionWrite(collectionName);
+		try {
+			return handler.withDatabase(operation);
+		} finally {
+			// invalidate the data cached while writing
+			context.afterCollectionWrite(collectionName);
+		}
+	}
+
+	/**
+	 * Get the collection to use for a read operation, setting the {@link ReadConcern} and the {@link ReadPreference}
+	 * if available from write options or context.
+	 * <p>
+	 * The configured collection handles are cached, so the same handle is returned for the same database, collection
+	 * name, read concern and read preference.
+	 * </p>
+	 * @param database Mongo database
+	 * @param collectionName Collection name
+	 * @param context Mongo context
+	 * @param operationParameters Operation configuration parameters
+	 * @return The configured collection
+	 * @since 6.0.1
+	 */
+	public static MongoCollection<Document> getReadCollection(MongoDatabase database, String collectionName,
+			MongoContext<?> context, ParameterSet operationParameters) {
+		final ReadConcern readConcern = (operationParameters == null) ? null
+				: getReadConcern(context, operationParameters).orElse(null);
+		final ReadPreference readPreference = (operationParameters == null) ? null
+				: getReadPreference(context, operationParameters).orElse(null);
+		return MongoCollectionHandles.get(database, collectionName, readConcern, readPreference, null,
+				() -> configureRead(database.getCollection(collectionName), readConcern, readPreference));
+	}
+
+	private static <T> MongoCollection<T> configureRead(MongoCollection<T> collection, ReadConcern readConcern,
+			ReadPreference readPreference) {
+		final MongoCollection<T> c = (readConcern != null) ? collection.withReadConcern(readConcern) : collection;
+		return (readPreference != null) ? c.withReadPreference(readPreference) : c;
+	}
+
+	private static Optional<WriteConcern> getWriteConcern(MongoContext<?> context,
+			DatastoreOperationConfiguration operation) {
+		// check write option
+		Optional<WriteConcern> wc = operation.getWriteOption(WriteConcernOption.class).map(wo -> wo.getWriteConcern());
+		if (!wc.isPresent()) {
+			// use default if available
+			wc = context.getDefaultWriteConcern();
+		}
+		return wc;
+	}
 
+	private static Optional<ReadConcern> getReadConcern(MongoContext<?> context, ParameterSet operationParameters) {
 		// check read concern
 		Optional<ReadConcern> rc = operationParameters.getParameter(ReadOperationConfiguration.READ_CONCERN);
 		if (!rc.isPresent()) {
 			// use default if available
 			rc = context.getDefaultReadConcern();
 		}
+		return rc;
+	}
 
-		MongoCollection<T> c = rc.map(rdc -> collection.withReadConcern(rdc)).orElse(collection);
-
+	private static Optional<ReadPreference> getReadPreference(MongoContext<?> context,
+			ParameterSet operationParameters) {
 		// check read preference
 		Optional<ReadPreference> rp = operationParameters.getParameter(ReadOperationConfiguration.READ_PREFERENCE);
 		if (!rp.isPresent()) {
 			// use default if available
 			rp = context.getDefaultReadPreference();
 		}
-
-		return rp.map(rdp -> c.withReadPreference(rdp)).orElse(c);
-
+		return rp;
 	}
 
 }
@@ -94,11 +94,11 @@ public class MongoBulkDelete extends AbstractBulkDelete {
 			Optional<Bson> filter = getConfiguration().getFilter()
 					.map(f -> context.resolveOrFail(f, BsonExpression.class).getValue());
 
-			return operationContext.withDatabase(database -> {
+			return SyncMongoCollectionConfigurator.executeWrite(operationContext, collectionName, context, database -> {
 
 				// get and configure collection
 				final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
-						.configureWrite(database.getCollection(collectionName), context, getConfiguration());
+						.getWriteCollection(database, collectionName, context, getConfiguration());
 
 				// trace
 				operationContext.trace("Delete documents - filter",
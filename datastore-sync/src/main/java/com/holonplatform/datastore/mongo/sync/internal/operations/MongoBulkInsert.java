@@ -19,7 +19,6 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.bson.Document;
-import org.bson.types.ObjectId;
 
 import com.holonplatform.core.Expression.InvalidExpressionException;
 import com.holonplatform.core.datastore.Datastore.OperationResult;
@@ -40,7 +39,6 @@ import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCol
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.InsertManyOptions;
 
 /**
@@ -102,16 +100,19 @@ public class MongoBulkInsert extends AbstractBulkInsert {
 			final String collectionName = context.resolveOrFail(getConfiguration().getTarget(), CollectionName.class)
 					.getName();
 
-			return operationContext.withDatabase(database -> {
+			return SyncMongoCollectionConfigurator.executeWrite(operationContext, collectionName, context, database -> {
 
 				// get and configure collection
 				final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
-						.configureWrite(database.getCollection(collectionName), context, getConfiguration());
+						.getWriteCollection(database, collectionName, context, getConfiguration());
 
 				// insert
 				final List<Document> documents = documentValues.stream().map(v -> v.getDocument())
 						.collect(Collectors.toList());
 
+				// generate the document ids, if required
+				MongoOperations.assignDocumentIds(context, documents);
+
 				// options
 				final InsertManyOptions options = MongoOperations.getInsertManyOptions(getConfiguration());
 
@@ -128,21 +129,7 @@ public class MongoBulkInsert extends AbstractBulkInsert {
 						.affectedCount(documents.size());
 
 				// check inserted keys
-				List<ObjectId> insertedIds = MongoOperations.checkInsertedKeys(context, getConfiguration(),
-						documentValues);
-
-				// check if the identifier property has to be updated with the document ids values
-				if (!insertedIds.isEmpty()) {
-					MongoOperations.getPropertyDocumentIdFieldName(context).ifPresent(fieldName -> {
-						for (ObjectId insertedId : insertedIds) {
-							MongoOperations.getIdUpdateDocument(context, insertedId, fieldName).ifPresent(toUpdate -> {
-								collection.updateOne(Filters.eq(insertedId), toUpdate.getUpdateDocument());
-								// TODO ensure unique index
-								context.trace("Updated identifier property value", toUpdate.getUpdateDocument());
-							});
-						}
-					});
-				}
+				MongoOperations.checkInsertedKeys(context, getConfiguration(), documentValues);
 
 				return builder.build();
 
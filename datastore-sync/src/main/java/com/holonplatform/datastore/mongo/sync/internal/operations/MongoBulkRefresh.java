@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.internal.operations;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.document.DocumentSerializer;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractBulkRefreshOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkRefreshRequest;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshResult;
+import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.sync.operation.BulkRefresh;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Mongo {@link BulkRefresh} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class MongoBulkRefresh extends AbstractBulkRefreshOperation<BulkRefresh> implements BulkRefresh {
+
+	private static final long serialVersionUID = 3164025584398160871L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, BulkRefresh> FACTORY = new DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, BulkRefresh>() {
+
+		@Override
+		public Class<? extends BulkRefresh> getCommodityType() {
+			return BulkRefresh.class;
+		}
+
+		@Override
+		public BulkRefresh createCommodity(SyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new MongoBulkRefresh(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public MongoBulkRefresh(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected BulkRefresh getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.sync.operation.BulkRefresh#execute()
+	 */
+	@Override
+	public BulkRefreshResult execute() {
+
+		// configuration
+		final BulkRefreshConfiguration configuration = getConfiguration();
+		// validate
+		configuration.validate();
+
+		// resolution context
+		final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+		context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+		// encode the document ids
+		final BulkRefreshRequest request = new BulkRefreshRequest(context, configuration);
+		if (request.getChunkCount() == 0) {
+			return request.getResult();
+		}
+
+		// resolve collection
+		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
+				.getName();
+
+		try {
+			return operationContext.withDatabase(database -> {
+
+				// get and configure collection
+				final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
+						.getReadCollection(database, collectionName, context, configuration.getParameters());
+
+				for (int i = 0; i < request.getChunkCount(); i++) {
+					final Bson filter = request.getFilter(i);
+					// trace
+					context.trace("Bulk refresh", () -> DocumentSerializer.getDefault().toJson(filter));
+					// read the chunk documents in a single batch
+					context.getClientSession().map(cs -> collection.find(cs, filter))
+							.orElseGet(() -> collection.find(filter)).batchSize(request.getChunkSize(i))
+							.forEach(request::addDocument);
+				}
+
+				return request.getResult();
+			});
+		} catch (DataAccessException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new DataAccessException("Bulk REFRESH operation failed", e);
+		}
+	}
+
+}
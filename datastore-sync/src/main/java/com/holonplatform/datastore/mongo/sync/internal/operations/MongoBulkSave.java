@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.internal.operations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.Document;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractBulkSaveOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkSaveRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkWriteRequest;
+import com.holonplatform.datastore.mongo.core.operation.BulkSaveConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult;
+import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.sync.operation.BulkSave;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Mongo {@link BulkSave} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class MongoBulkSave extends AbstractBulkSaveOperation<BulkSave> implements BulkSave {
+
+	private static final long serialVersionUID = 8716032359183430621L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, BulkSave> FACTORY = new DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, BulkSave>() {
+
+		@Override
+		public Class<? extends BulkSave> getCommodityType() {
+			return BulkSave.class;
+		}
+
+		@Override
+		public BulkSave createCommodity(SyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new MongoBulkSave(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public MongoBulkSave(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected BulkSave getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.sync.operation.BulkSave#execute()
+	 */
+	@Override
+	public BulkWriteOperationResult execute() {
+
+		// configuration
+		final BulkSaveConfiguration configuration = getConfiguration();
+		// validate
+		configuration.validate();
+
+		// resolution context
+		final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+		context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+		// partition the values
+		final BulkSaveRequest request = new BulkSaveRequest(operationContext, configuration);
+		if (request.getChunkCount() == 0) {
+			return request.getResult(Collections.emptyList());
+		}
+
+		// resolve collection
+		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
+				.getName();
+
+		try {
+			return SyncMongoCollectionConfigurator.executeWrite(operationContext, collectionName, context, database -> {
+
+				// get and configure collection
+				final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
+						.getWriteCollection(database, collectionName, context, configuration);
+
+				final List<BulkWriteOperationResult> results = new ArrayList<>(request.getChunkCount());
+				for (int i = 0; i < request.getChunkCount(); i++) {
+					final BulkWriteRequest chunk = request.getChunk(i);
+					// bulk write
+					final BulkWriteResult result = context.getClientSession()
+							.map(cs -> collection.bulkWrite(cs, chunk.getModels(), chunk.getOptions()))
+							.orElseGet(() -> collection.bulkWrite(chunk.getModels(), chunk.getOptions()));
+					// trace
+					context.trace("Bulk save", chunk.trace(context));
+					results.add(chunk.getResult(result));
+				}
+
+				return request.getResult(results);
+			});
+		} catch (Exception e) {
+			throw new DataAccessException("Bulk SAVE operation failed", e);
+		}
+	}
+
+}
@@ -27,6 +27,7 @@ import com.holonplatform.core.datastore.DatastoreCommodityFactory;
 import com.holonplatform.core.datastore.bulk.BulkUpdate;
 import com.holonplatform.core.exceptions.DataAccessException;
 import com.holonplatform.core.internal.datastore.bulk.AbstractBulkUpdate;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
 import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
 import com.holonplatform.datastore.mongo.core.expression.BsonExpression;
@@ -37,6 +38,7 @@ import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCol
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.result.UpdateResult;
 
@@ -97,23 +99,45 @@ public class MongoBulkUpdate extends AbstractBulkUpdate {
 			// update expression
 			final Bson update = MongoOperations.getUpdateExpression(context, getConfiguration());
 
-			return operationContext.withDatabase(database -> {
+			return SyncMongoCollectionConfigurator.executeWrite(operationContext, collectionName, context, database -> {
 
 				// get and configure collection
 				final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
-						.configureWrite(database.getCollection(collectionName), context, getConfiguration());
+						.getWriteCollection(database, collectionName, context, getConfiguration());
 
 				// trace
 				operationContext.trace("Update documents",
 						MongoOperations.traceUpdate(operationContext, filter, update));
 
+				// check return document
+				final Optional<ReturnDocumentOption> returnDocument = getConfiguration()
+						.getWriteOption(ReturnDocumentOption.class);
+				if (returnDocument.isPresent()) {
+					if (!returnDocument.get().getPropertySet().isPresent()) {
+						throw new DataAccessException(
+								"A property set must be provided to return the updated document with a bulk UPDATE");
+					}
+					final Bson query = filter.orElseGet(Document::new);
+					final FindOneAndUpdateOptions options = MongoOperations
+							.getFindOneAndUpdateOptions(getConfiguration(), returnDocument.get(), false);
+					final Document returned = context.getClientSession()
+							.map(cs -> collection.findOneAndUpdate(cs, query, update, options))
+							.orElseGet(() -> collection.findOneAndUpdate(query, update, options));
+
+					// returned document
+					MongoOperations.processReturnedDocument(context, returnDocument.get(), null, returned);
+
+					return OperationResult.builder().type(OperationType.UPDATE)
+							.affectedCount((returned != null) ? 1 : 0).build();
+				}
+
 				// options
 				final UpdateOptions options = MongoOperations.getUpdateOptions(getConfiguration(), false);
 
 				// update
 				final UpdateResult result = context.getClientSession()
 						.map(cs -> collection.updateMany(cs, filter.orElse(null), update, options))
-						.orElse(collection.updateMany(filter.orElse(null), update, options));
+						.orElseGet(() -> collection.updateMany(filter.orElse(null), update, options));
 
 				return OperationResult.builder().type(OperationType.UPDATE).affectedCount(result.getModifiedCount())
 						.build();
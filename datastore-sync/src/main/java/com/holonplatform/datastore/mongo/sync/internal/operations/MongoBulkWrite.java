@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.internal.operations;
+
+import org.bson.Document;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractBulkWriteOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.BulkWriteRequest;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteConfiguration;
+import com.holonplatform.datastore.mongo.core.operation.BulkWriteOperationResult;
+import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.sync.operation.BulkWrite;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Mongo {@link BulkWrite} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class MongoBulkWrite extends AbstractBulkWriteOperation<BulkWrite> implements BulkWrite {
+
+	private static final long serialVersionUID = -2860133839372413398L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, BulkWrite> FACTORY = new DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, BulkWrite>() {
+
+		@Override
+		public Class<? extends BulkWrite> getCommodityType() {
+			return BulkWrite.class;
+		}
+
+		@Override
+		public BulkWrite createCommodity(SyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new MongoBulkWrite(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public MongoBulkWrite(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected BulkWrite getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.sync.operation.BulkWrite#execute()
+	 */
+	@Override
+	public BulkWriteOperationResult execute() {
+
+		// configuration
+		final BulkWriteConfiguration configuration = getConfiguration();
+		// validate
+		configuration.validate();
+
+		// resolution context
+		final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+		context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+		// encode the write operations
+		final BulkWriteRequest request = new BulkWriteRequest(operationContext, configuration);
+		if (request.getModels().isEmpty()) {
+			return request.getResult(null);
+		}
+
+		// resolve collection
+		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
+				.getName();
+
+		try {
+			return SyncMongoCollectionConfigurator.executeWrite(operationContext, collectionName, context, database -> {
+
+				// get and configure collection
+				final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
+						.getWriteCollection(database, collectionName, context, configuration);
+
+				// bulk write
+				final BulkWriteResult result = context.getClientSession()
+						.map(cs -> collection.bulkWrite(cs, request.getModels(), request.getOptions()))
+						.orElseGet(() -> collection.bulkWrite(request.getModels(), request.getOptions()));
+
+				// trace
+				context.trace("Bulk write", request.trace(context));
+
+				return request.getResult(result);
+			});
+		} catch (Exception e) {
+			throw new DataAccessException("Bulk WRITE operation failed", e);
+		}
+	}
+
+}
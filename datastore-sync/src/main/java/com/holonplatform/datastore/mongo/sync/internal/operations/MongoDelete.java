@@ -103,11 +103,11 @@ public class MongoDelete extends AbstractDelete {
 					"Cannot perform DELETE operation: missing document id value for property [" + idProperty + "]");
 		}
 
-		return operationContext.withDatabase(database -> {
+		return SyncMongoCollectionConfigurator.executeWrite(operationContext, collectionName, context, database -> {
 
 			// get and configure collection
 			final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
-					.configureWrite(database.getCollection(collectionName), context, getConfiguration());
+					.getWriteCollection(database, collectionName, context, getConfiguration());
 
 			// options
 			final DeleteOptions options = MongoOperations.getDeleteOptions(getConfiguration());
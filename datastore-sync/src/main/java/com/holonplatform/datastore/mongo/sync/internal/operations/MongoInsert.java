@@ -15,10 +15,7 @@
  */
 package com.holonplatform.datastore.mongo.sync.internal.operations;
 
-import java.util.Optional;
-
 import org.bson.Document;
-import org.bson.types.ObjectId;
 
 import com.holonplatform.core.datastore.Datastore.OperationResult;
 import com.holonplatform.core.datastore.Datastore.OperationType;
@@ -33,13 +30,11 @@ import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
-import com.holonplatform.datastore.mongo.core.internal.support.IdUpdateDocument;
 import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCollectionConfigurator;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.InsertOneOptions;
 
 /**
@@ -95,15 +90,18 @@ public class MongoInsert extends AbstractInsert {
 		final String collectionName = context.resolveOrFail(getConfiguration().getTarget(), CollectionName.class)
 				.getName();
 
-		return operationContext.withDatabase(database -> {
+		return SyncMongoCollectionConfigurator.executeWrite(operationContext, collectionName, context, database -> {
 
 			// get and configure collection
 			final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
-					.configureWrite(database.getCollection(collectionName), context, getConfiguration());
+					.getWriteCollection(database, collectionName, context, getConfiguration());
 
 			// encode Document
 			Document document = context.resolveOrFail(PropertyBoxValue.create(value), DocumentValue.class).getValue();
 
+			// generate the document id, if required
+			MongoOperations.assignDocumentId(context, document);
+
 			// options
 			final InsertOneOptions options = MongoOperations.getInsertOneOptions(getConfiguration());
 
@@ -121,21 +119,9 @@ public class MongoInsert extends AbstractInsert {
 					.affectedCount(1);
 
 			// check inserted keys
-			Optional<ObjectId> insertedId = MongoOperations.checkInsertedKeys(builder, context, getConfiguration(),
-					document, value);
-
-			final OperationResult result = builder.build();
-
-			// check if the identifier property has to be updated with the document id value
-			final IdUpdateDocument toUpdate = (!insertedId.isPresent()) ? null
-					: MongoOperations.getIdUpdateDocument(context, insertedId.get()).orElse(null);
-			if (insertedId.isPresent() && toUpdate != null) {
-				collection.updateOne(Filters.eq(insertedId.get()), toUpdate.getUpdateDocument());
-				// TODO ensure unique index
-				context.trace("Updated identifier property value", toUpdate.getUpdateDocument());
-			}
+			MongoOperations.checkInsertedKeys(builder, context, getConfiguration(), document, value);
 
-			return result;
+			return builder.build();
 
 		});
 	}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.internal.operations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.document.DocumentSerializer;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractMultiGetOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.MultiGetRequest;
+import com.holonplatform.datastore.mongo.core.operation.MultiGetConfiguration;
+import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.sync.internal.MongoOperationExecutor;
+import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.sync.operation.MultiGet;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Mongo {@link MultiGet} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class MongoMultiGet extends AbstractMultiGetOperation<MultiGet> implements MultiGet {
+
+	private static final long serialVersionUID = -4518727391860427795L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, MultiGet> FACTORY = new DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, MultiGet>() {
+
+		@Override
+		public Class<? extends MultiGet> getCommodityType() {
+			return MultiGet.class;
+		}
+
+		@Override
+		public MultiGet createCommodity(SyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new MongoMultiGet(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	private transient Executor executor;
+
+	public MongoMultiGet(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected MultiGet getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.sync.operation.MultiGet#executor(java.util.concurrent.Executor)
+	 */
+	@Override
+	public MultiGet executor(Executor executor) {
+		ObjectUtils.argumentNotNull(executor, "Executor must be not null");
+		this.executor = executor;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.sync.operation.MultiGet#execute()
+	 */
+	@Override
+	public Map<Object, PropertyBox> execute() {
+
+		// configuration
+		final MultiGetConfiguration configuration = getConfiguration();
+		// validate
+		configuration.validate();
+
+		// resolution context
+		final MongoResolutionContext<ClientSession> context = MongoResolutionContext.create(operationContext);
+		context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+		// encode the document ids
+		final MultiGetRequest request = new MultiGetRequest(context, configuration);
+		if (request.getChunkCount() == 0) {
+			return request.getResult();
+		}
+
+		// resolve collection
+		final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
+				.getName();
+
+		try {
+			return operationContext.withDatabase(database -> {
+
+				// get and configure collection
+				final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
+						.getReadCollection(database, collectionName, context, configuration.getParameters());
+
+				// a client session cannot be shared among threads
+				final int concurrency = context.getClientSession().isPresent() ? 1
+						: Math.min(configuration.getMaxConcurrency(), request.getChunkCount());
+
+				if (concurrency < 2) {
+					for (int i = 0; i < request.getChunkCount(); i++) {
+						request.addDocuments(read(context, collection, request, i));
+					}
+					return request.getResult();
+				}
+
+				return readConcurrently(context, collection, request, concurrency,
+						(executor != null) ? executor : MongoOperationExecutor.getDefault());
+			});
+		} catch (DataAccessException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new DataAccessException("Multi GET operation failed", e);
+		}
+	}
+
+	/**
+	 * Read the documents of all the request chunks using given executor, with at most <code>concurrency</code> chunk
+	 * queries in progress at the same time. The chunk documents are collected in the calling thread.
+	 * @param context Resolution context
+	 * @param collection The collection
+	 * @param request The multi-get request
+	 * @param concurrency The maximum number of chunk queries in progress
+	 * @param executor The executor to use
+	 * @return The operation result
+	 */
+	private static Map<Object, PropertyBox> readConcurrently(MongoResolutionContext<ClientSession> context,
+			MongoCollection<Document> collection, MultiGetRequest request, int concurrency, Executor executor) {
+		final Semaphore permits = new Semaphore(concurrency);
+		final AtomicBoolean failed = new AtomicBoolean(false);
+		final List<CompletableFuture<List<Document>>> chunks = new ArrayList<>(request.getChunkCount());
+		try {
+			for (int i = 0; i < request.getChunkCount() && !failed.get(); i++) {
+				final int index = i;
+				permits.acquire();
+				try {
+					chunks.add(CompletableFuture.supplyAsync(() -> {
+						try {
+							return read(context, collection, request, index);
+						} catch (RuntimeException e) {
+							failed.set(true);
+							throw e;
+						} finally {
+							permits.release();
+						}
+					}, executor));
+				} catch (RuntimeException e) {
+					permits.release();
+					throw e;
+				}
+			}
+			for (CompletableFuture<List<Document>> chunk : chunks) {
+				request.addDocuments(chunk.join());
+			}
+			return request.getResult();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DataAccessException("Multi GET operation interrupted", e);
+		} catch (CompletionException e) {
+			final Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+			if (cause instanceof DataAccessException) {
+				throw (DataAccessException) cause;
+			}
+			throw new DataAccessException("Multi GET operation failed", cause);
+		} finally {
+			// skip the chunk queries not yet started
+			chunks.forEach(chunk -> chunk.cancel(false));
+		}
+	}
+
+	/**
+	 * Read the documents of given chunk.
+	 * @param context Resolution context
+	 * @param collection The collection
+	 * @param request The multi-get request
+	 * @param chunk The chunk index
+	 * @return The chunk documents
+	 */
+	private static List<Document> read(MongoResolutionContext<ClientSession> context,
+			MongoCollection<Document> collection, MultiGetRequest request, int chunk) {
+		final Bson filter = request.getFilter(chunk);
+		// trace
+		context.trace("Multi get", () -> DocumentSerializer.getDefault().toJson(filter));
+		// read the chunk documents in a single batch
+		final FindIterable<Document> fi = context.getClientSession().map(cs -> collection.find(cs, filter))
+				.orElseGet(() -> collection.find(filter)).batchSize(request.getChunkSize(chunk));
+		request.getProjection().ifPresent(p -> fi.projection(p));
+		return fi.into(new ArrayList<>(request.getChunkSize(chunk)));
+	}
+
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.internal.operations;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.bson.RawBsonDocument;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.exceptions.PartialBulkInsertException;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractStreamingInsertOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertBatch;
+import com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertBatcher;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration;
+import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.sync.operation.ParallelBulkInsert;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
+
+/**
+ * Mongo {@link ParallelBulkInsert} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class MongoParallelBulkInsert extends AbstractStreamingInsertOperation<ParallelBulkInsert>
+		implements ParallelBulkInsert {
+
+	private static final long serialVersionUID = -2946712084160553347L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, ParallelBulkInsert> FACTORY = new DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, ParallelBulkInsert>() {
+
+		@Override
+		public Class<? extends ParallelBulkInsert> getCommodityType() {
+			return ParallelBulkInsert.class;
+		}
+
+		@Override
+		public ParallelBulkInsert createCommodity(SyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new MongoParallelBulkInsert(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	private transient Executor executor;
+
+	public MongoParallelBulkInsert(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+		maxBatchesInFlight(Runtime.getRuntime().availableProcessors());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected ParallelBulkInsert getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.sync.operation.ParallelBulkInsert#executor(java.util.concurrent.Executor)
+	 */
+	@Override
+	public ParallelBulkInsert executor(Executor executor) {
+		ObjectUtils.argumentNotNull(executor, "Executor must be not null");
+		this.executor = executor;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.sync.operation.ParallelBulkInsert#execute(java.util.Iterator)
+	 */
+	@Override
+	public OperationResult execute(Iterator<? extends PropertyBox> values) {
+		ObjectUtils.argumentNotNull(values, "Values to insert must be not null");
+		try {
+			// configuration
+			final StreamingInsertConfiguration configuration = getConfiguration();
+			// validate
+			configuration.validate();
+
+			// resolution context
+			final MongoDocumentContext<ClientSession> context = MongoDocumentContext.create(operationContext,
+					configuration.getPropertySet().get());
+			context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+			// resolve collection
+			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
+					.getName();
+
+			return SyncMongoCollectionConfigurator.executeWrite(operationContext, collectionName, context, database -> {
+
+				// get and configure collection
+				final MongoCollection<RawBsonDocument> collection = SyncMongoCollectionConfigurator
+						.getWriteCollection(database, collectionName, context, configuration)
+						.withDocumentClass(RawBsonDocument.class);
+
+				// a client session cannot be shared among threads
+				if (context.getClientSession().isPresent()) {
+					return new ParallelLoad(context, collection, 1).execute(values, Runnable::run);
+				}
+
+				final ParallelLoad load = new ParallelLoad(context, collection, configuration.getMaxBatchesInFlight());
+				if (executor != null) {
+					return load.execute(values, executor);
+				}
+				// the chunks are blocking inserts, each one on its own virtual thread
+				try (ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor()) {
+					return load.execute(values, loaders);
+				}
+			});
+		} catch (PartialBulkInsertException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new DataAccessException("Parallel bulk INSERT operation failed", e);
+		}
+	}
+
+	/**
+	 * The state of a single operation execution.
+	 */
+	private final class ParallelLoad {
+
+		private final MongoDocumentContext<ClientSession> context;
+		private final MongoCollection<RawBsonDocument> collection;
+		private final InsertManyOptions options;
+		private final int parallelism;
+
+		private final StreamingInsertBatcher batcher;
+		private final Semaphore permits;
+
+		private final Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean stopped = new AtomicBoolean(false);
+
+		ParallelLoad(MongoDocumentContext<ClientSession> context, MongoCollection<RawBsonDocument> collection,
+				int parallelism) {
+			super();
+			this.context = context;
+			this.collection = collection;
+			this.options = MongoOperations.getInsertManyOptions(getConfiguration()).ordered(false);
+			this.parallelism = parallelism;
+			this.batcher = new StreamingInsertBatcher(context, getConfiguration());
+			this.permits = new Semaphore(parallelism);
+		}
+
+		/**
+		 * Split the values into chunks and submit them to given executor, waiting for all the chunks to be
+		 * completed.
+		 * @param values The values to insert
+		 * @param executor The executor to use
+		 * @return The operation result
+		 */
+		OperationResult execute(Iterator<? extends PropertyBox> values, Executor executor) {
+			final int chunkSize = getConfiguration().getMaxBatchSize();
+			try {
+				List<PropertyBox> chunk = new ArrayList<>(Math.min(chunkSize, 1024));
+				while (!stopped.get() && values.hasNext()) {
+					chunk.add(values.next());
+					if (chunk.size() >= chunkSize) {
+						submit(chunk, executor);
+						chunk = new ArrayList<>(Math.min(chunkSize, 1024));
+					}
+				}
+				if (!stopped.get() && !chunk.isEmpty()) {
+					submit(chunk, executor);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				fail(e);
+			} catch (RuntimeException e) {
+				fail(e);
+			} finally {
+				// wait for the chunks in flight
+				permits.acquireUninterruptibly(parallelism);
+			}
+			if (!errors.isEmpty()) {
+				throw new PartialBulkInsertException("Parallel bulk INSERT operation failed",
+						batcher.getInsertedCount(), new ArrayList<>(errors));
+			}
+			return batcher.getResult();
+		}
+
+		private void submit(List<PropertyBox> chunk, Executor executor) throws InterruptedException {
+			permits.acquire();
+			try {
+				executor.execute(() -> {
+					try {
+						if (!stopped.get()) {
+							load(chunk);
+						}
+					} catch (Throwable e) {
+						fail(e);
+					} finally {
+						permits.release();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				permits.release();
+				throw e;
+			}
+		}
+
+		private void load(List<PropertyBox> chunk) {
+			// each worker uses its own context to encode the values
+			final MongoDocumentContext<ClientSession> chunkContext = MongoDocumentContext.create(operationContext,
+					getConfiguration().getPropertySet().get());
+			chunkContext.addExpressionResolvers(getConfiguration().getExpressionResolvers());
+			final StreamingInsertBatcher chunkBatcher = batcher.fork(chunkContext);
+			for (PropertyBox value : chunk) {
+				chunkBatcher.add(value).ifPresent(batch -> insert(chunkBatcher, batch));
+			}
+			chunkBatcher.flush().ifPresent(batch -> insert(chunkBatcher, batch));
+		}
+
+		private void insert(StreamingInsertBatcher chunkBatcher, StreamingInsertBatch batch) {
+			try {
+				if (context.getClientSession().isPresent()) {
+					collection.insertMany(context.getClientSession().get(), batch.getDocuments(), options);
+				} else {
+					collection.insertMany(batch.getDocuments(), options);
+				}
+				chunkBatcher.completed(batch);
+			} catch (MongoBulkWriteException e) {
+				// the documents without a write error were inserted
+				final Set<Integer> failed = e.getWriteErrors().stream().map(BulkWriteError::getIndex)
+						.collect(Collectors.toSet());
+				chunkBatcher.completed(batch, failed);
+				errors.add(e);
+			}
+		}
+
+		private void fail(Throwable error) {
+			errors.add(error);
+			stopped.set(true);
+		}
+
+	}
+
+}
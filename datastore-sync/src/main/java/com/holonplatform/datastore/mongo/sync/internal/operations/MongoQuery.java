@@ -18,31 +18,37 @@ package com.holonplatform.datastore.mongo.sync.internal.operations;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
 import org.bson.conversions.Bson;
 
 import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
 import com.holonplatform.core.datastore.DatastoreCommodityFactory;
 import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.core.property.PropertyBox;
 import com.holonplatform.core.internal.query.QueryAdapterQuery;
 import com.holonplatform.core.internal.query.QueryDefinition;
 import com.holonplatform.core.query.Query;
 import com.holonplatform.core.query.QueryAdapter;
 import com.holonplatform.core.query.QueryConfiguration;
 import com.holonplatform.core.query.QueryOperation;
-import com.holonplatform.datastore.mongo.core.context.MongoContext;
 import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.context.MongoResolutionContext;
 import com.holonplatform.datastore.mongo.core.document.DocumentConverter;
+import com.holonplatform.datastore.mongo.core.document.PropertyBoxCodec;
 import com.holonplatform.datastore.mongo.core.document.QueryOperationType;
 import com.holonplatform.datastore.mongo.core.expression.BsonQuery;
 import com.holonplatform.datastore.mongo.core.expression.BsonQueryDefinition;
-import com.holonplatform.datastore.mongo.core.internal.document.DocumentSerializer;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.operation.QueryCountRequest;
+import com.holonplatform.datastore.mongo.core.internal.operation.QueryResultCacheRequest;
 import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.sync.internal.MongoCursorSpliterator;
+import com.holonplatform.datastore.mongo.sync.internal.MongoPipelinedSpliterator;
 import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncAggregateOperationConfigurator;
 import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncDistinctOperationConfigurator;
 import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncFindOperationConfigurator;
@@ -107,32 +113,35 @@ public class MongoQuery implements QueryAdapter<QueryConfiguration> {
 		// collection name
 		final String collectionName = query.getDefinition().getCollectionName();
 
+		// decoding parallelism
+		final int parallelism = query.getDefinition().getDecodingParallelism().orElse(1);
+
 		return operationContext.withDatabase(database -> {
 
 			// get and configure collection
 			final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
-					.configureRead(database.getCollection(collectionName), context, queryOperation.getConfiguration());
+					.getReadCollection(database, collectionName, context, queryOperation.getConfiguration());
 
 			// query operation type
 			final QueryOperationType queryOperationType = context.getQueryOperationType()
 					.orElse(QueryOperationType.FIND);
 			switch (queryOperationType) {
 			case AGGREGATE:
-				return aggregate(context, collection, queryOperation.getProjection().getType(), query);
+				return aggregate(context, collection, queryOperation.getProjection().getType(), query, parallelism);
 			case COUNT:
 				return count(context, collection, query.getDefinition());
 			case DISTINCT:
-				return distinct(context, collection, queryOperation.getProjection().getType(), query);
+				return distinct(context, collection, queryOperation.getProjection().getType(), query, parallelism);
 			case FIND:
 			default:
-				return find(context, collection, queryOperation.getProjection().getType(), query);
+				return find(context, collection, queryOperation.getProjection().getType(), query, parallelism);
 			}
 		});
 	}
 
 	/**
 	 * Perform a <em>count</em> operation on given collection using given
-	 * {@link BsonQueryDefinition}.
+	 * {@link BsonQueryDefinition}, applying the query count strategy.
 	 * @param <R>        Operation result type
 	 * @param context    Operation context
 	 * @param collection The collection to use
@@ -140,12 +149,20 @@ public class MongoQuery implements QueryAdapter<QueryConfiguration> {
 	 * @return The operation result
 	 */
 	@SuppressWarnings({ "unchecked", "resource" })
-	private static <R> Stream<R> count(MongoContext<ClientSession> context, MongoCollection<Document> collection,
-			BsonQueryDefinition definition) {
+	private static <R> Stream<R> count(MongoResolutionContext<ClientSession> context,
+			MongoCollection<Document> collection, BsonQueryDefinition definition) {
+
+		final QueryCountRequest request = QueryCountRequest.create(context, definition,
+				collection.getCodecRegistry());
+
+		// check cached count
+		final Optional<Long> cached = request.getCachedCount();
+		if (cached.isPresent()) {
+			return Stream.of((R) cached.get());
+		}
 
 		// trace
-		context.trace("COUNT query", "Filter: \n" + DocumentSerializer.getDefault()
-				.toJson(definition.getFilter().map(f -> f.getExpression()).orElse(null)));
+		request.trace();
 
 		// session
 		final ClientSession cs = context.getClientSession().orElse(null);
@@ -153,15 +170,15 @@ public class MongoQuery implements QueryAdapter<QueryConfiguration> {
 		// count
 		final Long count;
 
-		if (cs != null) {
-			count = definition.getFilter().map(f -> f.getExpression()).map(e -> collection.countDocuments(cs, e))
-					.orElse(collection.countDocuments(cs));
+		if (request.isEstimated()) {
+			count = collection.estimatedDocumentCount();
+		} else if (cs != null) {
+			count = collection.countDocuments(cs, request.getFilter(), request.getCountOptions());
 		} else {
-			count = definition.getFilter().map(f -> f.getExpression()).map(e -> collection.countDocuments(e))
-					.orElse(collection.countDocuments());
+			count = collection.countDocuments(request.getFilter(), request.getCountOptions());
 		}
 
-		return Stream.of((R) count);
+		return Stream.of((R) request.setCount(count));
 	}
 
 	/**
@@ -172,17 +189,64 @@ public class MongoQuery implements QueryAdapter<QueryConfiguration> {
 	 * @param collection The collection to use
 	 * @param resultType Expected query result type
 	 * @param query      Query definition
+	 * @param parallelism Results decoding parallelism
 	 * @return The operation result
 	 */
 	private static <R> Stream<R> find(MongoResolutionContext<ClientSession> context,
-			MongoCollection<Document> collection, Class<? extends R> resultType, BsonQuery query) {
+			MongoCollection<Document> collection, Class<? extends R> resultType, BsonQuery query, int parallelism) {
 
 		// converter
 		final DocumentConverter<R> documentConverter = MongoOperations.getAndCheckConverter(query, resultType);
 
+		// check PropertyBox codec
+		final Optional<PropertyBoxCodec> codec = MongoOperations.getPropertyBoxCodec(context, query, resultType,
+				collection.getCodecRegistry());
+
+		// cached results
+		final Optional<QueryResultCacheRequest<R>> cacheRequest = QueryResultCacheRequest.find(context, query,
+				resultType, collection.getCodecRegistry());
+		if (cacheRequest.isPresent()) {
+			return cacheRequest.get().getResults().orElseGet(() -> {
+				// iterable
+				final FindIterable<RawBsonDocument> fi = collection.withDocumentClass(RawBsonDocument.class).find();
+
+				// configure
+				Optional<Bson> projection = MongoOperations.configure(query, new SyncFindOperationConfigurator(fi));
+
+				// trace
+				context.trace("FIND query", () -> MongoOperations.traceQuery(context, query, projection.orElse(null)));
+
+				// stream and cache the results
+				return cacheRequest.get().setResults(MongoCursorSpliterator.stream(fi, getLimit(query)));
+			});
+		}
+
+		// pipelined decoding
+		if (isPipelined(context, parallelism)) {
+			final Codec<Document> documentCodec = collection.getCodecRegistry().get(Document.class);
+			final Function<RawBsonDocument, R> decoder = codec.isPresent() ? decoder(codec.get())
+					: document -> documentConverter.convert(context, document.decode(documentCodec));
+
+			// iterable
+			final FindIterable<RawBsonDocument> fi = collection.withDocumentClass(RawBsonDocument.class).find();
+
+			// configure
+			Optional<Bson> projection = MongoOperations.configure(query, new SyncFindOperationConfigurator(fi));
+
+			// trace
+			context.trace("FIND query", () -> MongoOperations.traceQuery(context, query, projection.orElse(null)));
+
+			// pipelined stream
+			return MongoPipelinedSpliterator.stream(fi, decoder, parallelism, getWindow(query), getLimit(query));
+		}
+
+		if (codec.isPresent()) {
+			return findPropertyBoxes(context, collection.withCodecRegistry(codec.get().getCodecRegistry()), query);
+		}
+
 		// iterable
 		final FindIterable<Document> fi = context.getClientSession().map(cs -> collection.find(cs))
-				.orElse(collection.find());
+				.orElseGet(() -> collection.find());
 
 		// configure
 		Optional<Bson> projection = MongoOperations.configure(query, new SyncFindOperationConfigurator(fi));
@@ -191,10 +255,37 @@ public class MongoQuery implements QueryAdapter<QueryConfiguration> {
 		context.trace("FIND query", () -> MongoOperations.traceQuery(context, query, projection.orElse(null)));
 
 		// stream with converter mapper
-		return StreamSupport.stream(fi.spliterator(), false)
+		return MongoCursorSpliterator.stream(fi, getLimit(query))
 				.map(document -> documentConverter.convert(context, document));
 	}
 
+	/**
+	 * Perform a <em>find</em> operation on given collection using given {@link BsonQuery}, reading the documents
+	 * straight into {@link PropertyBox} instances.
+	 * @param <R> Operation result type
+	 * @param context Resolution context
+	 * @param collection The collection to use, which must provide a {@link PropertyBox} codec
+	 * @param query Query definition
+	 * @return The operation result
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> Stream<R> findPropertyBoxes(MongoResolutionContext<ClientSession> context,
+			MongoCollection<Document> collection, BsonQuery query) {
+
+		// iterable
+		final FindIterable<PropertyBox> fi = context.getClientSession()
+				.map(cs -> collection.find(cs, PropertyBox.class)).orElseGet(() -> collection.find(PropertyBox.class));
+
+		// configure
+		Optional<Bson> projection = MongoOperations.configure(query, new SyncFindOperationConfigurator(fi));
+
+		// trace
+		context.trace("FIND query", () -> MongoOperations.traceQuery(context, query, projection.orElse(null)));
+
+		// stream
+		return (Stream<R>) MongoCursorSpliterator.stream(fi, getLimit(query));
+	}
+
 	/**
 	 * Perform a <em>distinct</em> operation on given collection using given
 	 * {@link BsonQuery}.
@@ -203,14 +294,15 @@ public class MongoQuery implements QueryAdapter<QueryConfiguration> {
 	 * @param collection The collection to use
 	 * @param resultType Expected query result type
 	 * @param query      Query definition
+	 * @param parallelism Results decoding parallelism
 	 * @return The operation result
 	 */
 	private static <R> Stream<R> distinct(MongoResolutionContext<ClientSession> context,
-			MongoCollection<Document> collection, Class<? extends R> resultType, BsonQuery query) {
+			MongoCollection<Document> collection, Class<? extends R> resultType, BsonQuery query, int parallelism) {
 
 		// check distinct field name
 		if (!query.getDistinctFieldName().isPresent()) {
-			return find(context, collection, resultType, query);
+			return find(context, collection, resultType, query, parallelism);
 		}
 
 		final String fieldName = query.getDistinctFieldName().get();
@@ -222,7 +314,7 @@ public class MongoQuery implements QueryAdapter<QueryConfiguration> {
 		@SuppressWarnings("unchecked")
 		final DistinctIterable<R> fi = context.getClientSession()
 				.map(cs -> collection.distinct(cs, fieldName, (Class<R>) resultType))
-				.orElse(collection.distinct(fieldName, (Class<R>) resultType));
+				.orElseGet(() -> collection.distinct(fieldName, (Class<R>) resultType));
 
 		// configure
 		MongoOperations.configure(query, new SyncDistinctOperationConfigurator(fi));
@@ -231,7 +323,7 @@ public class MongoQuery implements QueryAdapter<QueryConfiguration> {
 		context.trace("DISTINCT query on [" + fieldName + "]", () -> MongoOperations.traceQuery(context, query, null));
 
 		// stream with converter mapper
-		return StreamSupport.stream(fi.spliterator(), false)
+		return MongoCursorSpliterator.stream(fi)
 				.map(value -> new Document(Collections.singletonMap(fieldName, value)))
 				.map(document -> documentConverter.convert(context, document));
 	}
@@ -245,10 +337,11 @@ public class MongoQuery implements QueryAdapter<QueryConfiguration> {
 	 * @param collection       The collection to use
 	 * @param resultType       Expected query result type
 	 * @param query            Query definition
+	 * @param parallelism      Results decoding parallelism
 	 * @return The operation result
 	 */
 	private static <R> Stream<R> aggregate(MongoResolutionContext<ClientSession> context,
-			MongoCollection<Document> collection, Class<? extends R> resultType, BsonQuery query) {
+			MongoCollection<Document> collection, Class<? extends R> resultType, BsonQuery query, int parallelism) {
 
 		// converter
 		final DocumentConverter<R> documentConverter = MongoOperations.getAndCheckConverter(query, resultType);
@@ -259,16 +352,91 @@ public class MongoQuery implements QueryAdapter<QueryConfiguration> {
 		// trace
 		context.trace("Aggregation pipeline", () -> MongoOperations.traceAggregationPipeline(context, pipeline));
 
+		// cached results
+		final Optional<QueryResultCacheRequest<R>> cacheRequest = QueryResultCacheRequest.aggregate(context, query,
+				pipeline, resultType, collection.getCodecRegistry());
+		if (cacheRequest.isPresent()) {
+			return cacheRequest.get().getResults().orElseGet(() -> {
+				// iterable
+				final AggregateIterable<RawBsonDocument> ai = collection.withDocumentClass(RawBsonDocument.class)
+						.aggregate(pipeline);
+
+				// configure
+				MongoOperations.configure(query, new SyncAggregateOperationConfigurator(ai));
+
+				// stream and cache the results
+				return cacheRequest.get().setResults(MongoCursorSpliterator.stream(ai, getLimit(query)));
+			});
+		}
+
+		// pipelined decoding
+		if (isPipelined(context, parallelism)) {
+			final Codec<Document> documentCodec = collection.getCodecRegistry().get(Document.class);
+
+			// iterable
+			final AggregateIterable<RawBsonDocument> ai = collection.withDocumentClass(RawBsonDocument.class)
+					.aggregate(pipeline);
+
+			// configure
+			MongoOperations.configure(query, new SyncAggregateOperationConfigurator(ai));
+
+			// pipelined stream
+			return MongoPipelinedSpliterator.stream(ai,
+					document -> documentConverter.convert(context, document.decode(documentCodec)), parallelism,
+					getWindow(query), getLimit(query));
+		}
+
 		// iterable
 		final AggregateIterable<Document> ai = context.getClientSession().map(cs -> collection.aggregate(cs, pipeline))
-				.orElse(collection.aggregate(pipeline));
+				.orElseGet(() -> collection.aggregate(pipeline));
 
 		// configure
 		MongoOperations.configure(query, new SyncAggregateOperationConfigurator(ai));
 
 		// stream with converter mapper
-		return StreamSupport.stream(ai.spliterator(), false)
+		return MongoCursorSpliterator.stream(ai, getLimit(query))
 				.map(document -> documentConverter.convert(context, document));
 	}
 
+	/**
+	 * Checks whether the query results have to be read and decoded using a pipeline. A client session cannot be
+	 * used concurrently, so the pipelined read is never used within a session.
+	 * @param context Resolution context
+	 * @param parallelism Results decoding parallelism
+	 * @return <code>true</code> if the pipelined read has to be used
+	 */
+	private static boolean isPipelined(MongoResolutionContext<ClientSession> context, int parallelism) {
+		return parallelism > 1 && !context.getClientSession().isPresent();
+	}
+
+	/**
+	 * Get a raw document decoder which uses given {@link PropertyBoxCodec}.
+	 * @param <R> Operation result type
+	 * @param codec The codec to use
+	 * @return The decoder
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> Function<RawBsonDocument, R> decoder(PropertyBoxCodec codec) {
+		return document -> (R) document.decode(codec);
+	}
+
+	/**
+	 * Get the pipeline window to use for given query, i.e. the query batch size if configured.
+	 * @param query Query definition
+	 * @return The pipeline window
+	 */
+	private static int getWindow(BsonQuery query) {
+		return query.getDefinition().getBatchSize().filter(b -> b > 0)
+				.orElse(MongoPipelinedSpliterator.DEFAULT_WINDOW);
+	}
+
+	/**
+	 * Get the query results limit, if any.
+	 * @param query Query definition
+	 * @return The query results limit, <code>0</code> if none
+	 */
+	private static long getLimit(BsonQuery query) {
+		return query.getDefinition().getLimit().orElse(0);
+	}
+
 }
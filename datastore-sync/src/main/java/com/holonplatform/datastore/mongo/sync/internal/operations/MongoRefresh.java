@@ -15,6 +15,8 @@
  */
 package com.holonplatform.datastore.mongo.sync.internal.operations;
 
+import java.util.Optional;
+
 import org.bson.Document;
 import org.bson.types.ObjectId;
 
@@ -30,6 +32,7 @@ import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
+import com.holonplatform.datastore.mongo.core.internal.operation.EntityCacheRequest;
 import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCollectionConfigurator;
 import com.mongodb.client.ClientSession;
@@ -100,11 +103,18 @@ public class MongoRefresh extends AbstractRefresh {
 		final String collectionName = context.resolveOrFail(getConfiguration().getTarget(), CollectionName.class)
 				.getName();
 
+		// check cached entity
+		final Optional<EntityCacheRequest> cacheRequest = EntityCacheRequest.create(context, collectionName);
+		final Optional<PropertyBox> cached = cacheRequest.flatMap(request -> request.get(id, value));
+		if (cached.isPresent()) {
+			return cached.get();
+		}
+
 		return operationContext.withDatabase(database -> {
 
 			// get and configure collection
 			final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
-					.configureRead(database.getCollection(collectionName), context, getConfiguration().getParameters());
+					.getReadCollection(database, collectionName, context, getConfiguration().getParameters());
 
 			// get document by id
 			final Document document = context.getClientSession().map(cs -> collection.find(cs, Filters.eq(id)))
@@ -118,7 +128,9 @@ public class MongoRefresh extends AbstractRefresh {
 			operationContext.trace("Refreshed document", document);
 
 			// decode the document
-			return context.resolveOrFail(DocumentValue.create(document), PropertyBoxValue.class).getValue();
+			final PropertyBox refreshed = context.resolveOrFail(DocumentValue.create(document), PropertyBoxValue.class)
+					.getValue();
+			return cacheRequest.map(request -> request.put(id, refreshed)).orElse(refreshed);
 
 		});
 	}
@@ -17,6 +17,7 @@ package com.holonplatform.datastore.mongo.sync.internal.operations;
 
 import java.util.Optional;
 
+import org.bson.BsonObjectId;
 import org.bson.BsonValue;
 import org.bson.Document;
 import org.bson.types.ObjectId;
@@ -31,6 +32,7 @@ import com.holonplatform.core.internal.Logger;
 import com.holonplatform.core.internal.datastore.operation.AbstractSave;
 import com.holonplatform.core.property.Property;
 import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
 import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
 import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.expression.CollectionName;
@@ -38,12 +40,14 @@ import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
 import com.holonplatform.datastore.mongo.core.internal.logger.MongoDatastoreLogger;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
 import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCollectionConfigurator;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.result.UpdateResult;
 
@@ -115,22 +119,61 @@ public class MongoSave extends AbstractSave {
 		final String collectionName = context.resolveOrFail(getConfiguration().getTarget(), CollectionName.class)
 				.getName();
 
-		return operationContext.withDatabase(database -> {
+		return SyncMongoCollectionConfigurator.executeWrite(operationContext, collectionName, context, database -> {
 
 			// get and configure collection
 			final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
-					.configureWrite(database.getCollection(collectionName), context, getConfiguration());
+					.getWriteCollection(database, collectionName, context, getConfiguration());
 
 			// encode Document
-			Document document = context.resolveOrFail(PropertyBoxValue.create(value), DocumentValue.class).getValue();
+			final Document document = context.resolveOrFail(PropertyBoxValue.create(value), DocumentValue.class)
+					.getValue();
+
+			// check delta update
+			final Document update = MongoOperations.getUpdateDocument(context, getConfiguration(), value, document,
+					true);
+
+			// check return document
+			final Optional<ReturnDocumentOption> returnDocument = getConfiguration()
+					.getWriteOption(ReturnDocumentOption.class);
+			if (returnDocument.isPresent()) {
+				final FindOneAndUpdateOptions options = MongoOperations.getFindOneAndUpdateOptions(getConfiguration(),
+						returnDocument.get(), true);
+				final Document returned = context.getClientSession()
+						.map(cs -> collection.findOneAndUpdate(cs, Filters.eq(id), update, options))
+						.orElseGet(() -> collection.findOneAndUpdate(Filters.eq(id), update, options));
+
+				// snapshot
+				PropertyBoxSnapshots.track(context, value, document);
+
+				// returned document
+				MongoOperations.processReturnedDocument(context, returnDocument.get(), value, returned);
+
+				// a missing document before the update means it was inserted
+				final OperationType operationType = (returned == null) ? OperationType.INSERT : OperationType.UPDATE;
+
+				// trace
+				operationContext.trace("Saved document [" + operationType.name() + "]", update);
+
+				final OperationResult.Builder builder = OperationResult.builder().type(operationType)
+						.affectedCount(1);
+				if (returned == null) {
+					MongoOperations.checkUpsertedKey(builder, context, getConfiguration(), new BsonObjectId(id),
+							value);
+				}
+				return builder.build();
+			}
 
 			// options
 			final UpdateOptions options = MongoOperations.getUpdateOptions(getConfiguration(), true);
 
 			// update with upsert
 			final UpdateResult result = context.getClientSession()
-					.map(cs -> collection.updateOne(cs, Filters.eq(id), document, options))
-					.orElse(collection.updateOne(Filters.eq(id), document, options));
+					.map(cs -> collection.updateOne(cs, Filters.eq(id), update, options))
+					.orElseGet(() -> collection.updateOne(Filters.eq(id), update, options));
+
+			// snapshot
+			PropertyBoxSnapshots.track(context, value, document);
 
 			// check insert
 			final BsonValue upsertedId = result.getUpsertedId();
@@ -139,7 +182,7 @@ public class MongoSave extends AbstractSave {
 			final long affected = (upsertedId != null) ? 1 : MongoOperations.getAffectedCount(result);
 
 			// trace
-			operationContext.trace("Saved document [" + operationType.name() + "]", document);
+			operationContext.trace("Saved document [" + operationType.name() + "]", update);
 
 			final OperationResult.Builder builder = OperationResult.builder().type(operationType)
 					.affectedCount(affected);
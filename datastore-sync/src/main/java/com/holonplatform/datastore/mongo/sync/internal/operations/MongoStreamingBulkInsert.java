@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.internal.operations;
+
+import java.util.Iterator;
+
+import org.bson.RawBsonDocument;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.DatastoreCommodityContext.CommodityConfigurationException;
+import com.holonplatform.core.datastore.DatastoreCommodityFactory;
+import com.holonplatform.core.exceptions.DataAccessException;
+import com.holonplatform.core.internal.utils.ObjectUtils;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
+import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
+import com.holonplatform.datastore.mongo.core.expression.CollectionName;
+import com.holonplatform.datastore.mongo.core.internal.operation.AbstractStreamingInsertOperation;
+import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertBatch;
+import com.holonplatform.datastore.mongo.core.internal.operation.StreamingInsertBatcher;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertConfiguration;
+import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityContext;
+import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCollectionConfigurator;
+import com.holonplatform.datastore.mongo.sync.operation.StreamingBulkInsert;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
+
+/**
+ * Mongo {@link StreamingBulkInsert} implementation.
+ * 
+ * @since 6.0.1
+ */
+public class MongoStreamingBulkInsert extends AbstractStreamingInsertOperation<StreamingBulkInsert>
+		implements StreamingBulkInsert {
+
+	private static final long serialVersionUID = 4829178402934823513L;
+
+	// Commodity factory
+	@SuppressWarnings("serial")
+	public static final DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, StreamingBulkInsert> FACTORY = new DatastoreCommodityFactory<SyncMongoDatastoreCommodityContext, StreamingBulkInsert>() {
+
+		@Override
+		public Class<? extends StreamingBulkInsert> getCommodityType() {
+			return StreamingBulkInsert.class;
+		}
+
+		@Override
+		public StreamingBulkInsert createCommodity(SyncMongoDatastoreCommodityContext context)
+				throws CommodityConfigurationException {
+			return new MongoStreamingBulkInsert(context);
+		}
+	};
+
+	private final MongoOperationContext<MongoDatabase, ClientSession> operationContext;
+
+	public MongoStreamingBulkInsert(MongoOperationContext<MongoDatabase, ClientSession> operationContext) {
+		super();
+		this.operationContext = operationContext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.core.internal.datastore.operation.common.AbstractDatastoreOperation#getActualOperation()
+	 */
+	@Override
+	protected StreamingBulkInsert getActualOperation() {
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.holonplatform.datastore.mongo.sync.operation.StreamingBulkInsert#execute(java.util.Iterator)
+	 */
+	@Override
+	public OperationResult execute(Iterator<? extends PropertyBox> values) {
+		ObjectUtils.argumentNotNull(values, "Values to insert must be not null");
+		try {
+			// configuration
+			final StreamingInsertConfiguration configuration = getConfiguration();
+			// validate
+			configuration.validate();
+
+			// resolution context
+			final MongoDocumentContext<ClientSession> context = MongoDocumentContext.create(operationContext,
+					configuration.getPropertySet().get());
+			context.addExpressionResolvers(configuration.getExpressionResolvers());
+
+			// resolve collection
+			final String collectionName = context.resolveOrFail(configuration.getTarget(), CollectionName.class)
+					.getName();
+
+			return SyncMongoCollectionConfigurator.executeWrite(operationContext, collectionName, context, database -> {
+
+				// get and configure collection
+				final MongoCollection<RawBsonDocument> collection = SyncMongoCollectionConfigurator
+						.getWriteCollection(database, collectionName, context, configuration)
+						.withDocumentClass(RawBsonDocument.class);
+
+				// options
+				final InsertManyOptions options = MongoOperations.getInsertManyOptions(configuration);
+
+				// encode and insert the values batch by batch
+				final StreamingInsertBatcher batcher = new StreamingInsertBatcher(context, configuration);
+				while (values.hasNext()) {
+					batcher.add(values.next()).ifPresent(batch -> insert(context, collection, options, batcher, batch));
+				}
+				batcher.flush().ifPresent(batch -> insert(context, collection, options, batcher, batch));
+
+				return batcher.getResult();
+			});
+		} catch (Exception e) {
+			throw new DataAccessException("Streaming bulk INSERT operation failed", e);
+		}
+	}
+
+	/**
+	 * Insert given batch.
+	 * @param context Document context
+	 * @param collection Collection
+	 * @param options Insert options
+	 * @param batcher Batcher
+	 * @param batch The batch to insert
+	 */
+	private static void insert(MongoDocumentContext<ClientSession> context,
+			MongoCollection<RawBsonDocument> collection, InsertManyOptions options, StreamingInsertBatcher batcher,
+			StreamingInsertBatch batch) {
+		if (context.getClientSession().isPresent()) {
+			collection.insertMany(context.getClientSession().get(), batch.getDocuments(), options);
+		} else {
+			collection.insertMany(batch.getDocuments(), options);
+		}
+		batcher.completed(batch);
+	}
+
+}
@@ -15,6 +15,8 @@
  */
 package com.holonplatform.datastore.mongo.sync.internal.operations;
 
+import java.util.Optional;
+
 import org.bson.Document;
 import org.bson.types.ObjectId;
 
@@ -27,18 +29,21 @@ import com.holonplatform.core.exceptions.DataAccessException;
 import com.holonplatform.core.internal.datastore.operation.AbstractUpdate;
 import com.holonplatform.core.property.Property;
 import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.ReturnDocumentOption;
 import com.holonplatform.datastore.mongo.core.context.MongoDocumentContext;
 import com.holonplatform.datastore.mongo.core.context.MongoOperationContext;
 import com.holonplatform.datastore.mongo.core.expression.CollectionName;
 import com.holonplatform.datastore.mongo.core.expression.DocumentValue;
 import com.holonplatform.datastore.mongo.core.expression.PropertyBoxValue;
 import com.holonplatform.datastore.mongo.core.internal.operation.MongoOperations;
+import com.holonplatform.datastore.mongo.core.internal.support.PropertyBoxSnapshots;
 import com.holonplatform.datastore.mongo.sync.config.SyncMongoDatastoreCommodityContext;
 import com.holonplatform.datastore.mongo.sync.internal.configurator.SyncMongoCollectionConfigurator;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.result.UpdateResult;
 
@@ -106,25 +111,57 @@ public class MongoUpdate extends AbstractUpdate {
 		final String collectionName = context.resolveOrFail(getConfiguration().getTarget(), CollectionName.class)
 				.getName();
 
-		return operationContext.withDatabase(database -> {
+		return SyncMongoCollectionConfigurator.executeWrite(operationContext, collectionName, context, database -> {
 
 			// get and configure collection
 			final MongoCollection<Document> collection = SyncMongoCollectionConfigurator
-					.configureWrite(database.getCollection(collectionName), context, getConfiguration());
+					.getWriteCollection(database, collectionName, context, getConfiguration());
 
 			// encode Document
-			Document document = context.resolveOrFail(PropertyBoxValue.create(value), DocumentValue.class).getValue();
+			final Document document = context.resolveOrFail(PropertyBoxValue.create(value), DocumentValue.class)
+					.getValue();
+
+			// check delta update
+			final Document update = MongoOperations.getUpdateDocument(context, getConfiguration(), value, document,
+					false);
+			if (update.isEmpty()) {
+				operationContext.trace("Update document skipped: no changes", document);
+				return OperationResult.builder().type(OperationType.UPDATE).affectedCount(0).build();
+			}
 
 			// trace
-			operationContext.trace("Update document", document);
+			operationContext.trace("Update document", update);
+
+			// check return document
+			final Optional<ReturnDocumentOption> returnDocument = getConfiguration()
+					.getWriteOption(ReturnDocumentOption.class);
+			if (returnDocument.isPresent()) {
+				final FindOneAndUpdateOptions options = MongoOperations.getFindOneAndUpdateOptions(getConfiguration(),
+						returnDocument.get(), false);
+				final Document returned = context.getClientSession()
+						.map(cs -> collection.findOneAndUpdate(cs, Filters.eq(id), update, options))
+						.orElseGet(() -> collection.findOneAndUpdate(Filters.eq(id), update, options));
+
+				// snapshot
+				PropertyBoxSnapshots.track(context, value, document);
+
+				// returned document
+				MongoOperations.processReturnedDocument(context, returnDocument.get(), value, returned);
+
+				return OperationResult.builder().type(OperationType.UPDATE).affectedCount((returned != null) ? 1 : 0)
+						.build();
+			}
 
 			// options
 			final UpdateOptions options = MongoOperations.getUpdateOptions(getConfiguration(), false);
 
 			// update
 			final UpdateResult result = context.getClientSession()
-					.map(cs -> collection.updateOne(cs, Filters.eq(id), document, options))
-					.orElse(collection.updateOne(Filters.eq(id), document, options));
+					.map(cs -> collection.updateOne(cs, Filters.eq(id), update, options))
+					.orElseGet(() -> collection.updateOne(Filters.eq(id), update, options));
+
+			// snapshot
+			PropertyBoxSnapshots.track(context, value, document);
 
 			// result
 			return OperationResult.builder().type(OperationType.UPDATE)
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.operation;
+
+import com.holonplatform.core.datastore.DatastoreCommodity;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshOperation;
+import com.holonplatform.datastore.mongo.core.operation.BulkRefreshResult;
+
+/**
+ * A {@link BulkRefreshOperation} which reads the documents using chunked <code>$in</code> queries.
+ *
+ * @since 6.0.1
+ */
+public interface BulkRefresh extends BulkRefreshOperation<BulkRefresh>, DatastoreCommodity {
+
+	/**
+	 * Execute the bulk refresh operation.
+	 * @return The operation result
+	 */
+	BulkRefreshResult execute();
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.operation;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import com.holonplatform.core.datastore.DataTarget;
+import com.holonplatform.core.datastore.DatastoreCommodity;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.core.property.PropertySet;
+import com.holonplatform.datastore.mongo.core.operation.MultiGetOperation;
+
+/**
+ * A {@link MultiGetOperation} which reads the documents using chunked <code>$in</code> queries, executed concurrently.
+ *
+ * @since 6.0.1
+ */
+public interface MultiGet extends MultiGetOperation<MultiGet>, DatastoreCommodity {
+
+	/**
+	 * Set the {@link Executor} to use to execute the chunk queries. By default, a shared executor with a bounded
+	 * number of threads is used. In any case, at most {@link #maxConcurrency(int)} chunk queries are submitted to the
+	 * executor at the same time.
+	 * @param executor The executor to use (not null)
+	 * @return this
+	 */
+	MultiGet executor(Executor executor);
+
+	/**
+	 * Execute the multi-get operation.
+	 * @return The {@link PropertyBox} values keyed by document id, in the same order in which the ids were provided.
+	 *         The ids whose document was not found are not included.
+	 */
+	Map<Object, PropertyBox> execute();
+
+	/**
+	 * Read the documents of given target with given ids.
+	 * @param target The operation target (not null)
+	 * @param propertySet The property set of the values to read (not null)
+	 * @param ids The document ids (not null)
+	 * @return The {@link PropertyBox} values keyed by document id, in the same order in which the ids were provided.
+	 *         The ids whose document was not found are not included.
+	 */
+	default Map<Object, PropertyBox> getByIds(DataTarget<?> target, PropertySet<?> propertySet, Collection<?> ids) {
+		return target(target).propertySet(propertySet).ids(ids).execute();
+	}
+
+}
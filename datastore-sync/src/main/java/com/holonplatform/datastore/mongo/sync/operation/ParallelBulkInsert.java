@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.operation;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.DatastoreCommodity;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation;
+
+/**
+ * A {@link StreamingInsertOperation} which encodes and inserts the values using more threads, to scale the bulk load
+ * throughput with the available cores and connections.
+ * <p>
+ * The values are consumed by the calling thread and grouped into chunks of {@link #maxBatchSize(int)} values. Each
+ * chunk is encoded and inserted by a worker thread, using an unordered <code>insertMany</code> operation. The
+ * {@link #maxBatchesInFlight(int)} value is the operation parallelism, i.e. the maximum number of chunks which are
+ * encoded and inserted concurrently, and it defaults to the number of available processors.
+ * </p>
+ * <p>
+ * A failed document insertion (for example a duplicate key error) does not prevent the other chunks from being
+ * inserted, while any other error stops the operation as soon as the chunks in flight are completed. In both cases a
+ * {@link com.holonplatform.datastore.mongo.core.exceptions.PartialBulkInsertException} is thrown, which provides the
+ * number of documents actually inserted and the errors.
+ * </p>
+ * <p>
+ * When the operation is executed within a transaction, the values are encoded and inserted one chunk at a time in the
+ * calling thread, since a client session cannot be used concurrently.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface ParallelBulkInsert extends StreamingInsertOperation<ParallelBulkInsert>, DatastoreCommodity {
+
+	/**
+	 * Set the {@link Executor} to use to encode and insert the chunks. By default, each chunk is encoded and inserted
+	 * by a new virtual thread. In any case, at most {@link #maxBatchesInFlight(int)} chunks are submitted to the
+	 * executor at the same time.
+	 * @param executor The executor to use (not null)
+	 * @return this
+	 */
+	ParallelBulkInsert executor(Executor executor);
+
+	/**
+	 * Insert the values provided by given {@link Iterator}.
+	 * @param values The values to insert (not null)
+	 * @return The aggregated operation result
+	 */
+	OperationResult execute(Iterator<? extends PropertyBox> values);
+
+	/**
+	 * Insert the values provided by given {@link Stream}. The stream is not closed by the operation.
+	 * @param values The values to insert (not null)
+	 * @return The aggregated operation result
+	 */
+	default OperationResult execute(Stream<? extends PropertyBox> values) {
+		return execute(values.iterator());
+	}
+
+	/**
+	 * Insert the values provided by given {@link Iterable}.
+	 * @param values The values to insert (not null)
+	 * @return The aggregated operation result
+	 */
+	default OperationResult execute(Iterable<? extends PropertyBox> values) {
+		return execute(values.iterator());
+	}
+
+}
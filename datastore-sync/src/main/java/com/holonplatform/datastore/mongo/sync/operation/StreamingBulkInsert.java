@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.operation;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.holonplatform.core.datastore.Datastore.OperationResult;
+import com.holonplatform.core.datastore.DatastoreCommodity;
+import com.holonplatform.core.property.PropertyBox;
+import com.holonplatform.datastore.mongo.core.operation.StreamingInsertOperation;
+
+/**
+ * A {@link StreamingInsertOperation} which consumes the values to insert from a {@link Stream}, an {@link Iterator}
+ * or an {@link Iterable}, without requiring them to be fully materialized.
+ * <p>
+ * The batches are inserted sequentially, in the calling thread: only the values of the current batch are kept in
+ * memory.
+ * </p>
+ *
+ * @since 6.0.1
+ */
+public interface StreamingBulkInsert extends StreamingInsertOperation<StreamingBulkInsert>, DatastoreCommodity {
+
+	/**
+	 * Insert the values provided by given {@link Iterator}.
+	 * @param values The values to insert (not null)
+	 * @return The aggregated operation result
+	 */
+	OperationResult execute(Iterator<? extends PropertyBox> values);
+
+	/**
+	 * Insert the values provided by given {@link Stream}. The stream is not closed by the operation.
+	 * @param values The values to insert (not null)
+	 * @return The aggregated operation result
+	 */
+	default OperationResult execute(Stream<? extends PropertyBox> values) {
+		return execute(values.iterator());
+	}
+
+	/**
+	 * Insert the values provided by given {@link Iterable}.
+	 * @param values The values to insert (not null)
+	 * @return The aggregated operation result
+	 */
+	default OperationResult execute(Iterable<? extends PropertyBox> values) {
+		return execute(values.iterator());
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.datastore.mongo.sync.internal.MongoCursorSpliterator;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoIterable;
+
+public class TestCursorSpliteratorUT {
+
+	@Test
+	public void testExhausted() {
+		final CursorStub cursor = new CursorStub(10);
+		assertEquals(IntStream.range(0, 10).boxed().collect(Collectors.toList()),
+				MongoCursorSpliterator.stream(cursor.iterable()).collect(Collectors.toList()));
+		assertTrue(cursor.closed.get());
+	}
+
+	@Test
+	public void testLimit() {
+		final CursorStub cursor = new CursorStub(10);
+		assertEquals(IntStream.range(0, 3).boxed().collect(Collectors.toList()),
+				MongoCursorSpliterator.stream(cursor.iterable(), 3).collect(Collectors.toList()));
+		assertEquals(3, cursor.read.get());
+		assertTrue(cursor.closed.get());
+	}
+
+	@Test
+	public void testClose() {
+		final CursorStub cursor = new CursorStub(10);
+		try (Stream<Integer> stream = MongoCursorSpliterator.stream(cursor.iterable())) {
+			assertEquals(Optional.of(0), stream.findFirst());
+			assertFalse(cursor.closed.get());
+		}
+		assertTrue(cursor.closed.get());
+	}
+
+	@Test
+	public void testConsumerError() {
+		final CursorStub cursor = new CursorStub(10);
+		final Stream<Integer> stream = MongoCursorSpliterator.stream(cursor.iterable());
+		assertThrows(IllegalStateException.class, () -> stream.forEach(value -> {
+			if (value == 3) {
+				throw new IllegalStateException("test");
+			}
+		}));
+		assertTrue(cursor.closed.get());
+	}
+
+	@Test
+	public void testFindFirst() throws InterruptedException {
+		final List<CursorStub> cursors = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			final CursorStub cursor = new CursorStub(1000);
+			cursors.add(cursor);
+			// stream neither exhausted nor closed
+			assertEquals(Optional.of(0), MongoCursorSpliterator.stream(cursor.iterable()).findFirst());
+			assertEquals(1, cursor.read.get());
+		}
+
+		// cursors released when the streams are unreachable
+		final long timeout = System.currentTimeMillis() + 10000L;
+		while (System.currentTimeMillis() < timeout && !cursors.stream().allMatch(c -> c.closed.get())) {
+			System.gc();
+			Thread.sleep(50L);
+		}
+		assertTrue(cursors.stream().allMatch(c -> c.closed.get()));
+	}
+
+	/**
+	 * A cursor stub on a sequence of integers.
+	 */
+	private static final class CursorStub {
+
+		final int size;
+		final AtomicInteger read = new AtomicInteger();
+		final AtomicBoolean closed = new AtomicBoolean(false);
+
+		CursorStub(int size) {
+			this.size = size;
+		}
+
+		@SuppressWarnings("unchecked")
+		MongoIterable<Integer> iterable() {
+			final MongoCursor<Integer> cursor = (MongoCursor<Integer>) Proxy.newProxyInstance(
+					getClass().getClassLoader(), new Class<?>[] { MongoCursor.class }, (proxy, method, args) -> {
+						switch (method.getName()) {
+						case "hasNext":
+							return !closed.get() && read.get() < size;
+						case "next":
+							if (closed.get()) {
+								throw new IllegalStateException("Cursor closed");
+							}
+							return read.getAndIncrement();
+						case "close":
+							closed.set(true);
+							return null;
+						default:
+							throw new UnsupportedOperationException(method.getName());
+						}
+					});
+			return (MongoIterable<Integer>) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { MongoIterable.class }, (proxy, method, args) -> {
+						if ("iterator".equals(method.getName())) {
+							return cursor;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					});
+		}
+
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2016-2018 Axioma srl.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.holonplatform.datastore.mongo.sync.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+
+import com.holonplatform.datastore.mongo.sync.internal.MongoPipelinedSpliterator;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoIterable;
+
+public class TestPipelinedSpliteratorUT {
+
+	private static final Function<RawBsonDocument, Integer> DECODER = document -> document.getInt32("v").getValue();
+
+	@Test
+	public void testOrder() {
+		final CursorStub cursor = new CursorStub(100);
+		final List<Integer> values = MongoPipelinedSpliterator.stream(cursor.iterable(), document -> {
+			final int value = DECODER.apply(document);
+			if (value % 7 == 0) {
+				sleep(2L);
+			}
+			return value;
+		}, 4, 8, 0).collect(Collectors.toList());
+		assertEquals(IntStream.range(0, 100).boxed().collect(Collectors.toList()), values);
+		assertTrue(cursor.closed.get());
+	}
+
+	@Test
+	public void testLimit() {
+		final CursorStub cursor = new CursorStub(100);
+		final List<Integer> values = MongoPipelinedSpliterator.stream(cursor.iterable(), DECODER, 4, 8, 10)
+				.collect(Collectors.toList());
+		assertEquals(IntStream.range(0, 10).boxed().collect(Collectors.toList()), values);
+		assertEquals(10, cursor.read.get());
+		assertTrue(cursor.closed.get());
+	}
+
+	@Test
+	public void testClose() {
+		final CursorStub cursor = new CursorStub(100);
+		try (Stream<Integer> stream = MongoPipelinedSpliterator.stream(cursor.iterable(), DECODER, 4, 8, 0)) {
+			assertEquals(Optional.of(0), stream.findFirst());
+			assertFalse(cursor.closed.get());
+			assertTrue(cursor.read.get() <= 8);
+		}
+		assertTrue(cursor.closed.get());
+	}
+
+	@Test
+	public void testDecodingError() {
+		final CursorStub cursor = new CursorStub(100);
+		final Stream<Integer> stream = MongoPipelinedSpliterator.stream(cursor.iterable(), document -> {
+			final int value = DECODER.apply(document);
+			if (value == 3) {
+				throw new IllegalStateException("test");
+			}
+			return value;
+		}, 4, 8, 0);
+		assertThrows(IllegalStateException.class, () -> stream.collect(Collectors.toList()));
+		assertTrue(cursor.closed.get());
+	}
+
+	@Test
+	public void testFindFirst() throws InterruptedException {
+		final List<CursorStub> cursors = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			final CursorStub cursor = new CursorStub(1000);
+			cursors.add(cursor);
+			// stream neither exhausted nor closed
+			assertEquals(Optional.of(0),
+					MongoPipelinedSpliterator.stream(cursor.iterable(), DECODER, 4, 8, 0).findFirst());
+			assertTrue(cursor.read.get() <= 8);
+		}
+
+		// no thread is bound to the query
+		final long threads = Thread.getAllStackTraces().keySet().stream()
+				.filter(t -> t.getName().startsWith("mongo-query-decoder-")).count();
+		assertTrue(threads <= Runtime.getRuntime().availableProcessors());
+
+		// cursors released when the streams are unreachable
+		final long timeout = System.currentTimeMillis() + 10000L;
+		while (System.currentTimeMillis() < timeout && !cursors.stream().allMatch(c -> c.closed.get())) {
+			System.gc();
+			Thread.sleep(50L);
+		}
+		assertTrue(cursors.stream().allMatch(c -> c.closed.get()));
+	}
+
+	@Test
+	public void testFetchAhead() {
+		final CursorStub cursor = new CursorStub(30, 10, 20L);
+		final long[] decoded = new long[30];
+		final List<Integer> values = MongoPipelinedSpliterator.stream(cursor.iterable(), document -> {
+			final int value = DECODER.apply(document);
+			sleep(5L);
+			decoded[value] = System.nanoTime();
+			return value;
+		}, 2, 16, 0).collect(Collectors.toList());
+		assertEquals(IntStream.range(0, 30).boxed().collect(Collectors.toList()), values);
+		assertTrue(cursor.closed.get());
+
+		// the next batch fetch starts before the previous batch decoding ends
+		assertEquals(3, cursor.fetches.size());
+		assertTrue(cursor.fetches.get(1) < decoded[9]);
+		assertTrue(cursor.fetches.get(2) < decoded[19]);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * A cursor stub on a sequence of documents, which are fetched in batches of given size, or which are all available
+	 * without waiting.
+	 */
+	private static final class CursorStub {
+
+		final int size;
+		final int batchSize;
+		final long fetchMillis;
+		final AtomicInteger read = new AtomicInteger();
+		final AtomicInteger fetched = new AtomicInteger();
+		final AtomicBoolean closed = new AtomicBoolean(false);
+		final List<Long> fetches = new CopyOnWriteArrayList<>();
+
+		CursorStub(int size) {
+			this(size, size, 0L);
+			fetched.set(size);
+		}
+
+		CursorStub(int size, int batchSize, long fetchMillis) {
+			this.size = size;
+			this.batchSize = batchSize;
+			this.fetchMillis = fetchMillis;
+		}
+
+		private boolean hasNext() {
+			if (closed.get()) {
+				return false;
+			}
+			if (read.get() == fetched.get() && fetched.get() < size) {
+				fetches.add(System.nanoTime());
+				sleep(fetchMillis);
+				fetched.set(Math.min(size, fetched.get() + batchSize));
+			}
+			return read.get() < fetched.get();
+		}
+
+		@SuppressWarnings("unchecked")
+		MongoIterable<RawBsonDocument> iterable() {
+			final MongoCursor<RawBsonDocument> cursor = (MongoCursor<RawBsonDocument>) Proxy.newProxyInstance(
+					getClass().getClassLoader(), new Class<?>[] { MongoCursor.class }, (proxy, method, args) -> {
+						switch (method.getName()) {
+						case "hasNext":
+							return hasNext();
+						case "available":
+							return closed.get() ? 0 : fetched.get() - read.get();
+						case "next":
+							if (closed.get()) {
+								throw new IllegalStateException("Cursor closed");
+							}
+							final int value = read.getAndIncrement();
+							return new RawBsonDocument(new BsonDocument("v", new BsonInt32(value)),
+									new BsonDocumentCodec());
+						case "close":
+							closed.set(true);
+							return null;
+						default:
+							throw new UnsupportedOperationException(method.getName());
+						}
+					});
+			return (MongoIterable<RawBsonDocument>) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { MongoIterable.class }, (proxy, method, args) -> {
+						if ("iterator".equals(method.getName())) {
+							return cursor;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					});
+		}
+
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package com.holonplatform.datastore.mongo.spring;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import com.holonplatform.core.config.ConfigProperty;
@@ -22,6 +23,8 @@ import com.holonplatform.core.config.ConfigPropertySet;
 import com.holonplatform.core.datastore.DataContextBound;
 import com.holonplatform.core.datastore.Datastore;
 import com.holonplatform.core.internal.config.DefaultConfigPropertySet;
+import com.holonplatform.datastore.mongo.core.cache.EntityCache;
+import com.holonplatform.datastore.mongo.core.cache.QueryResultCache;
 import com.holonplatform.datastore.mongo.core.document.EnumCodecStrategy;
 import com.holonplatform.datastore.mongo.core.enumerations.MongoReadConcern;
 import com.holonplatform.datastore.mongo.core.enumerations.MongoReadPreference;
@@ -98,6 +101,121 @@ public interface MongoDatastoreConfigProperties extends ConfigPropertySet, DataC
 	static final ConfigProperty<EnumCodecStrategy> ENUM_CODEC_STRATEGY = ConfigProperty.create("enum-codec-strategy",
 			EnumCodecStrategy.class);
 
+	/**
+	 * A comma separated list of collection names for which the query results caching is enabled.
+	 * <p>
+	 * The query results cache is enabled only when at least one collection name is provided.
+	 * </p>
+	 * @since 6.0.1
+	 */
+	static final ConfigProperty<String> QUERY_CACHE_COLLECTIONS = ConfigProperty.create("query-cache.collections",
+			String.class);
+
+	/**
+	 * The maximum number of cached query results for each collection, when the query results cache is enabled.
+	 * <p>
+	 * Defaults to {@link QueryResultCache#DEFAULT_MAX_SIZE}.
+	 * </p>
+	 * @since 6.0.1
+	 */
+	static final ConfigProperty<Integer> QUERY_CACHE_MAX_SIZE = ConfigProperty.create("query-cache.max-size",
+			Integer.class);
+
+	/**
+	 * The time to live of the cached query results, in milliseconds, when the query results cache is enabled.
+	 * <p>
+	 * Defaults to {@link QueryResultCache#DEFAULT_TTL}.
+	 * </p>
+	 * @since 6.0.1
+	 */
+	static final ConfigProperty<Long> QUERY_CACHE_TTL = ConfigProperty.create("query-cache.ttl", Long.class);
+
+	/**
+	 * The maximum number of result documents of a cached query, when the query results cache is enabled. The results
+	 * of the queries which exceed this limit are not cached.
+	 * <p>
+	 * Defaults to {@link QueryResultCache#DEFAULT_MAX_ENTRY_DOCUMENTS}.
+	 * </p>
+	 * @since 6.0.1
+	 */
+	static final ConfigProperty<Integer> QUERY_CACHE_MAX_ENTRY_DOCUMENTS = ConfigProperty
+			.create("query-cache.max-entry-documents", Integer.class);
+
+	/**
+	 * Build a {@link QueryResultCache} using the <code>query-cache.*</code> configuration properties.
+	 * @return The {@link QueryResultCache}, empty if no query cache collection is configured
+	 * @since 6.0.1
+	 */
+	default Optional<QueryResultCache> getQueryResultCache() {
+		final String collections = getConfigPropertyValue(QUERY_CACHE_COLLECTIONS).orElse(null);
+		if (collections == null || collections.trim().isEmpty()) {
+			return Optional.empty();
+		}
+		final int maxSize = getConfigPropertyValue(QUERY_CACHE_MAX_SIZE).orElse(QueryResultCache.DEFAULT_MAX_SIZE);
+		final Duration ttl = getConfigPropertyValue(QUERY_CACHE_TTL).map(Duration::ofMillis)
+				.orElse(QueryResultCache.DEFAULT_TTL);
+		final int maxEntryDocuments = getConfigPropertyValue(QUERY_CACHE_MAX_ENTRY_DOCUMENTS)
+				.orElse(QueryResultCache.DEFAULT_MAX_ENTRY_DOCUMENTS);
+		final QueryResultCache.Builder builder = QueryResultCache.builder().maxEntryDocuments(maxEntryDocuments);
+		for (String collection : collections.split(",")) {
+			if (!collection.trim().isEmpty()) {
+				builder.collection(collection.trim(), maxSize, ttl);
+			}
+		}
+		return Optional.of(builder.build());
+	}
+
+	/**
+	 * A comma separated list of collection names for which the entity caching is enabled.
+	 * <p>
+	 * The entity cache is enabled only when at least one collection name is provided.
+	 * </p>
+	 * @since 6.0.1
+	 */
+	static final ConfigProperty<String> ENTITY_CACHE_COLLECTIONS = ConfigProperty.create("entity-cache.collections",
+			String.class);
+
+	/**
+	 * The maximum number of cached entities for each collection, when the entity cache is enabled.
+	 * <p>
+	 * Defaults to {@link EntityCache#DEFAULT_MAX_SIZE}.
+	 * </p>
+	 * @since 6.0.1
+	 */
+	static final ConfigProperty<Integer> ENTITY_CACHE_MAX_SIZE = ConfigProperty.create("entity-cache.max-size",
+			Integer.class);
+
+	/**
+	 * The time to live of the cached entities, in milliseconds, when the entity cache is enabled.
+	 * <p>
+	 * Defaults to {@link EntityCache#DEFAULT_TTL}.
+	 * </p>
+	 * @since 6.0.1
+	 */
+	static final ConfigProperty<Long> ENTITY_CACHE_TTL = ConfigProperty.create("entity-cache.ttl", Long.class);
+
+	/**
+	 * Build an {@link EntityCache} using the <code>entity-cache.*</code> configuration properties.
+	 * @return The {@link EntityCache}, empty if no entity cache collection is configured
+	 * @since 6.0.1
+	 */
+	default Optional<EntityCache> getEntityCache() {
+		final String collections = getConfigPropertyValue(ENTITY_CACHE_COLLECTIONS).orElse(null);
+		if (collections == null || collections.trim().isEmpty()) {
+			return Optional.empty();
+		}
+		final int maxSize = getConfigPropertyValue(ENTITY_CACHE_MAX_SIZE).orElse(EntityCache.DEFAULT_MAX_SIZE);
+		final Duration ttl = getConfigPropertyValue(ENTITY_CACHE_TTL).map(Duration::ofMillis)
+				.orElse(EntityCache.DEFAULT_TTL);
+		final EntityCache.Builder builder = EntityCache.builder();
+		for (String collection : collections.split(",")) {
+			if (!collection.trim().isEmpty()) {
+				builder.collection(collection.trim(), maxSize, ttl);
+			}
+		}
+		return Optional.of(builder.build());
+	}
+
 	/**
 	 * Builder to create property set instances bound to a property data source.
 	 * @param dataContextId Optional data context id to which {@link Datastore} is bound
@@ -224,6 +224,9 @@ public class MongoReactiveDatastoreRegistrar extends AbstractConfigPropertyRegis
 			pvs.add("enumCodecStrategy", enumCodecStrategy);
 		}
 
+		mongoDatastoreConfig.getQueryResultCache().ifPresent(cache -> pvs.add("queryResultCache", cache));
+		mongoDatastoreConfig.getEntityCache().ifPresent(cache -> pvs.add("entityCache", cache));
+
 		if (datastoreConfig != null) {
 			if (datastoreConfig.isTrace()) {
 				pvs.add("traceEnabled", Boolean.TRUE);